@@ -0,0 +1,366 @@
+package io.nuvalence.platform.audit.client;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Timestamp;
+import io.nuvalence.platform.audit.client.generated.controllers.AuditEventsApi;
+import io.nuvalence.platform.audit.client.generated.models.ActivityEventData;
+import io.nuvalence.platform.audit.client.generated.models.AuditEvent;
+import io.nuvalence.platform.audit.client.generated.models.AuditEventDataBase;
+import io.nuvalence.platform.audit.client.generated.models.AuditEventId;
+import io.nuvalence.platform.audit.client.generated.models.AuditEventLinks;
+import io.nuvalence.platform.audit.client.generated.models.AuditEventRequest;
+import io.nuvalence.platform.audit.client.generated.models.AuditEventsPage;
+import io.nuvalence.platform.audit.client.generated.models.BusinessObjectMetadata;
+import io.nuvalence.platform.audit.client.generated.models.PagingMetadata;
+import io.nuvalence.platform.audit.client.generated.models.RequestContext;
+import io.nuvalence.platform.audit.client.generated.models.StateChangeEventData;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditQueryProto;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditRestProto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Audit events API client exchanging protobuf bodies ({@code application/x-protobuf}) instead of
+ * JSON for event creation and event pages, which are smaller and cheaper to serialize. Requests
+ * and responses keep the models of the generated client, so that switching is transparent to
+ * callers.
+ */
+public class ProtobufAuditEventsApi extends AuditEventsApi {
+
+    private static final String PROTOBUF = "application/x-protobuf";
+
+    private final HttpClient httpClient;
+    private final String baseUri;
+    private final Consumer<HttpRequest.Builder> requestInterceptor;
+    private final Consumer<HttpResponse<InputStream>> responseInterceptor;
+    private final ApiClient apiClient;
+
+    /**
+     * Creates a client.
+     *
+     * @param apiClient configured api client
+     */
+    public ProtobufAuditEventsApi(ApiClient apiClient) {
+        super(apiClient);
+        this.apiClient = apiClient;
+        this.httpClient = apiClient.getHttpClient();
+        this.baseUri = apiClient.getBaseUri();
+        this.requestInterceptor = apiClient.getRequestInterceptor();
+        this.responseInterceptor = apiClient.getResponseInterceptor();
+    }
+
+    @Override
+    public ApiResponse<AuditEventsPage> getEventsWithHttpInfo(
+            String businessObjectType,
+            UUID id,
+            String sortOrder,
+            String sortBy,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            Integer pageNumber,
+            Integer pageSize,
+            List<String> fields)
+            throws ApiException {
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        addQueryParameter(query, "sortOrder", sortOrder);
+        addQueryParameter(query, "sortBy", sortBy);
+        addQueryParameter(query, "startTime", formatDateTime(startTime));
+        addQueryParameter(query, "endTime", formatDateTime(endTime));
+        addQueryParameter(query, "pageNumber", pageNumber);
+        addQueryParameter(query, "pageSize", pageSize);
+        if (fields != null && !fields.isEmpty()) {
+            addQueryParameter(query, "fields", String.join(",", fields));
+        }
+
+        HttpRequest.Builder request =
+                HttpRequest.newBuilder(eventsUri(businessObjectType, id, query.toString())).GET();
+        HttpResponse<InputStream> response = send("getEvents", request);
+        try (InputStream body = response.body()) {
+            return new ApiResponse<>(
+                    response.statusCode(),
+                    response.headers().map(),
+                    toAuditEventsPage(AuditRestProto.AuditEventsPage.parseFrom(body)));
+        } catch (IOException e) {
+            throw new ApiException(e);
+        }
+    }
+
+    @Override
+    public ApiResponse<AuditEventId> postEventWithHttpInfo(
+            String businessObjectType,
+            UUID id,
+            AuditEventRequest auditEventRequest,
+            String idempotencyKey,
+            String consistency)
+            throws ApiException {
+        if (auditEventRequest == null) {
+            throw new ApiException(
+                    400,
+                    "Missing the required parameter 'auditEventRequest' when calling postEvent");
+        }
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        addQueryParameter(query, "consistency", consistency);
+
+        HttpRequest.Builder request =
+                HttpRequest.newBuilder(eventsUri(businessObjectType, id, query.toString()))
+                        .header("Content-Type", PROTOBUF)
+                        .POST(
+                                HttpRequest.BodyPublishers.ofByteArray(
+                                        toAuditEventRequestMessage(auditEventRequest)
+                                                .toByteArray()));
+        if (idempotencyKey != null) {
+            request.header("Idempotency-Key", idempotencyKey);
+        }
+        HttpResponse<InputStream> response = send("postEvent", request);
+        try (InputStream body = response.body()) {
+            String eventId = AuditRestProto.AuditEventId.parseFrom(body).getEventId();
+            return new ApiResponse<>(
+                    response.statusCode(),
+                    response.headers().map(),
+                    new AuditEventId().eventId(UUID.fromString(eventId)));
+        } catch (IOException e) {
+            throw new ApiException(e);
+        }
+    }
+
+    private URI eventsUri(String businessObjectType, UUID id, String query) throws ApiException {
+        if (businessObjectType == null || id == null) {
+            throw new ApiException(400, "Missing the required business object type or id");
+        }
+        return URI.create(
+                baseUri
+                        + "/audit-events/"
+                        + ApiClient.urlEncode(businessObjectType)
+                        + "/"
+                        + ApiClient.urlEncode(id.toString())
+                        + query);
+    }
+
+    private static String formatDateTime(OffsetDateTime dateTime) {
+        return dateTime == null ? null : DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime);
+    }
+
+    private static void addQueryParameter(StringJoiner query, String name, Object value) {
+        if (value != null) {
+            query.add(name + "=" + ApiClient.urlEncode(value.toString()));
+        }
+    }
+
+    private HttpResponse<InputStream> send(String operationId, HttpRequest.Builder request)
+            throws ApiException {
+        request.header("Accept", PROTOBUF + ", application/json;q=0.5");
+        if (apiClient.getReadTimeout() != null) {
+            request.timeout(apiClient.getReadTimeout());
+        }
+        if (requestInterceptor != null) {
+            requestInterceptor.accept(request);
+        }
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            throw new ApiException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(e);
+        }
+        if (responseInterceptor != null) {
+            responseInterceptor.accept(response);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw toApiException(operationId, response);
+        }
+        return response;
+    }
+
+    private static ApiException toApiException(
+            String operationId, HttpResponse<InputStream> response) throws ApiException {
+        String body;
+        try (InputStream stream = response.body()) {
+            byte[] bytes = stream == null ? new byte[0] : stream.readAllBytes();
+            boolean protobuf =
+                    response.headers()
+                            .firstValue("Content-Type")
+                            .filter(type -> type.startsWith(PROTOBUF))
+                            .isPresent();
+            body =
+                    protobuf
+                            ? String.join(
+                                    "; ",
+                                    AuditRestProto.ErrorResponse.parseFrom(bytes).getMessagesList())
+                            : new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ApiException(e);
+        }
+        return new ApiException(
+                response.statusCode(),
+                operationId + " call failed with: " + response.statusCode() + " - " + body,
+                response.headers(),
+                body);
+    }
+
+    private static AuditIngestProto.AuditEventRequest toAuditEventRequestMessage(
+            AuditEventRequest request) {
+        var message =
+                AuditIngestProto.AuditEventRequest.newBuilder()
+                        .setSummary(nullToEmpty(request.getSummary()));
+        if (request.getTimestamp() != null) {
+            Instant instant = request.getTimestamp().toInstant();
+            message.setTimestamp(
+                    Timestamp.newBuilder()
+                            .setSeconds(instant.getEpochSecond())
+                            .setNanos(instant.getNano()));
+        }
+        AuditEventDataBase eventData = request.getEventData();
+        if (eventData != null) {
+            var eventDataMessage =
+                    AuditIngestProto.AuditEventData.newBuilder()
+                            .setSchema(nullToEmpty(eventData.getSchema()))
+                            .setActivityType(nullToEmpty(eventData.getActivityType()))
+                            .setData(nullToEmpty(eventData.getData()));
+            if (eventData instanceof StateChangeEventData stateChange) {
+                eventDataMessage.setStateChange(
+                        AuditIngestProto.StateChangeEventData.newBuilder()
+                                .setNewState(nullToEmpty(stateChange.getNewState()))
+                                .setOldState(nullToEmpty(stateChange.getOldState())));
+            } else {
+                eventDataMessage.setActivity(
+                        AuditIngestProto.ActivityEventData.getDefaultInstance());
+            }
+            message.setEventData(eventDataMessage);
+        }
+        AuditEventLinks links = request.getLinks();
+        if (links != null) {
+            var linksMessage =
+                    AuditIngestProto.AuditEventLinks.newBuilder()
+                            .setSystemOfRecord(nullToEmpty(links.getSystemOfRecord()));
+            if (links.getRelatedBusinessObjects() != null) {
+                linksMessage.addAllRelatedBusinessObjects(links.getRelatedBusinessObjects());
+            }
+            message.setLinks(linksMessage);
+        }
+        RequestContext requestContext = request.getRequestContext();
+        if (requestContext != null) {
+            message.setRequestContext(
+                    AuditIngestProto.RequestContext.newBuilder()
+                            .setUserId(uuidToString(requestContext.getUserId()))
+                            .setTenantId(uuidToString(requestContext.getTenantId()))
+                            .setOriginatorId(uuidToString(requestContext.getOriginatorId()))
+                            .setRequestId(uuidToString(requestContext.getRequestId()))
+                            .setTraceId(uuidToString(requestContext.getTraceId()))
+                            .setSpanId(uuidToString(requestContext.getSpanId())));
+        }
+        return message.build();
+    }
+
+    private static AuditEventsPage toAuditEventsPage(AuditRestProto.AuditEventsPage message)
+            throws InvalidProtocolBufferException {
+        var events = new ArrayList<AuditEvent>(message.getEventsCount());
+        for (AuditQueryProto.AuditEvent event : message.getEventsList()) {
+            events.add(toAuditEvent(event));
+        }
+        AuditRestProto.PagingMetadata pagingMetadata = message.getPagingMetadata();
+        return new AuditEventsPage()
+                .events(events)
+                .pagingMetadata(
+                        new PagingMetadata()
+                                .totalCount(pagingMetadata.getTotalCount())
+                                .pageSize(pagingMetadata.getPageSize())
+                                .pageNumber(pagingMetadata.getPageNumber())
+                                .nextPage(emptyToNull(pagingMetadata.getNextPage())));
+    }
+
+    private static AuditEvent toAuditEvent(AuditQueryProto.AuditEvent message)
+            throws InvalidProtocolBufferException {
+        AuditEventDataBase eventData;
+        AuditIngestProto.AuditEventData eventDataMessage = message.getEventData();
+        if (eventDataMessage.hasStateChange()) {
+            StateChangeEventData stateChange = new StateChangeEventData();
+            stateChange.setType("StateChangeEventData");
+            stateChange.setNewState(emptyToNull(eventDataMessage.getStateChange().getNewState()));
+            stateChange.setOldState(emptyToNull(eventDataMessage.getStateChange().getOldState()));
+            eventData = stateChange;
+        } else {
+            eventData = new ActivityEventData();
+            eventData.setType("ActivityEventData");
+        }
+        eventData.setSchema(emptyToNull(eventDataMessage.getSchema()));
+        eventData.setActivityType(emptyToNull(eventDataMessage.getActivityType()));
+        eventData.setData(emptyToNull(eventDataMessage.getData()));
+
+        AuditEvent event = new AuditEvent();
+        event.setEventId(toUuid(message.getEventId()));
+        event.setBusinessObject(
+                new BusinessObjectMetadata()
+                        .type(message.getBusinessObjectType())
+                        .id(toUuid(message.getBusinessObjectId())));
+        event.setEventData(eventData);
+        event.setSummary(emptyToNull(message.getSummary()));
+        if (message.hasTimestamp()) {
+            event.setTimestamp(
+                    Instant.ofEpochSecond(
+                                    message.getTimestamp().getSeconds(),
+                                    message.getTimestamp().getNanos())
+                            .atOffset(ZoneOffset.UTC));
+        }
+        if (message.hasLinks()) {
+            event.setLinks(
+                    new AuditEventLinks()
+                            .systemOfRecord(emptyToNull(message.getLinks().getSystemOfRecord()))
+                            .relatedBusinessObjects(
+                                    new ArrayList<>(
+                                            message.getLinks().getRelatedBusinessObjectsList())));
+        }
+        if (message.hasRequestContext()) {
+            AuditIngestProto.RequestContext requestContext = message.getRequestContext();
+            event.setRequestContext(
+                    new RequestContext()
+                            .userId(toUuid(requestContext.getUserId()))
+                            .tenantId(toUuid(requestContext.getTenantId()))
+                            .originatorId(toUuid(requestContext.getOriginatorId()))
+                            .requestId(toUuid(requestContext.getRequestId()))
+                            .traceId(toUuid(requestContext.getTraceId()))
+                            .spanId(toUuid(requestContext.getSpanId())));
+        }
+        return event;
+    }
+
+    private static UUID toUuid(String value) throws InvalidProtocolBufferException {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidProtocolBufferException("Invalid UUID: " + value);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String uuidToString(UUID value) {
+        return value == null ? "" : value.toString();
+    }
+}
@@ -0,0 +1,114 @@
+package io.nuvalence.platform.audit.client;
+
+import io.nuvalence.platform.audit.client.generated.controllers.AuditEventsApi;
+import io.nuvalence.platform.audit.client.generated.models.AuditEventId;
+import io.nuvalence.platform.audit.client.generated.models.AuditEventRequest;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Audit events API client which retries event creation when the service signals that it is
+ * overloaded (429 or 503), waiting at least as long as the Retry-After header asks for and
+ * spreading retries with full jitter exponential backoff.
+ */
+public class RetryingAuditEventsApi extends AuditEventsApi {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+
+    /**
+     * Creates a client with 5 attempts and a backoff between 100ms and 10s.
+     *
+     * @param apiClient configured api client
+     */
+    public RetryingAuditEventsApi(ApiClient apiClient) {
+        this(apiClient, 5, Duration.ofMillis(100), Duration.ofSeconds(10));
+    }
+
+    /**
+     * Creates a client.
+     *
+     * @param apiClient   configured api client
+     * @param maxAttempts maximum number of attempts, including the first one
+     * @param baseDelay   backoff of the first retry
+     * @param maxDelay    maximum backoff between two attempts
+     */
+    public RetryingAuditEventsApi(
+            ApiClient apiClient, int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        super(apiClient);
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * Creates an event, retrying while the service is overloaded. Requests without an
+     * Idempotency-Key are given a random one, so that a retried request which actually reached
+     * the service does not create the event twice.
+     */
+    @Override
+    public ApiResponse<AuditEventId> postEventWithHttpInfo(
+            String businessObjectType,
+            UUID id,
+            AuditEventRequest auditEventRequest,
+            String idempotencyKey,
+            String consistency)
+            throws ApiException {
+        String key = idempotencyKey == null ? UUID.randomUUID().toString() : idempotencyKey;
+        int attempt = 1;
+        while (true) {
+            try {
+                return super.postEventWithHttpInfo(
+                        businessObjectType, id, auditEventRequest, key, consistency);
+            } catch (ApiException e) {
+                if (attempt >= maxAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+                sleep(delayBeforeRetry(e, attempt), e);
+                attempt++;
+            }
+        }
+    }
+
+    private static boolean isRetryable(ApiException e) {
+        return e.getCode() == TOO_MANY_REQUESTS || e.getCode() == SERVICE_UNAVAILABLE;
+    }
+
+    long delayBeforeRetry(ApiException e, int attempt) {
+        long cap = Math.min(maxDelay.toMillis(), baseDelay.toMillis() << Math.min(attempt, 20));
+        long backoff = ThreadLocalRandom.current().nextLong(cap + 1);
+        return Math.max(backoff, retryAfterMillis(e));
+    }
+
+    private static long retryAfterMillis(ApiException e) {
+        if (e.getResponseHeaders() == null) {
+            return 0;
+        }
+        return e.getResponseHeaders()
+                .firstValue("Retry-After")
+                .map(
+                        value -> {
+                            try {
+                                return Duration.ofSeconds(Long.parseLong(value.trim())).toMillis();
+                            } catch (NumberFormatException ignored) {
+                                return 0L;
+                            }
+                        })
+                .orElse(0L);
+    }
+
+    private static void sleep(long millis, ApiException cause) throws ApiException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
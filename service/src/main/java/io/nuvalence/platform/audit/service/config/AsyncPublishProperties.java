@@ -0,0 +1,62 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Asynchronous publication of created events, answering requests before the broker acknowledged
+ * their event.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.async-publish")
+public class AsyncPublishProperties {
+
+    /**
+     * When enabled, created events are handed to background publishers and requests are answered
+     * with a 202 right away.
+     */
+    private boolean enabled;
+
+    /**
+     * Number of publisher threads. Events of a business object always go to the same publisher,
+     * which keeps their publish order.
+     */
+    private int publishers = 4;
+
+    /**
+     * Maximum number of events waiting for each publisher, further requests are rejected with a
+     * 429.
+     */
+    private int queueCapacity = 2500;
+
+    /**
+     * Number of attempts at publishing an event before it is journaled to disk.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Wait before the second attempt, doubled on each further attempt.
+     */
+    private Duration initialBackoff = Duration.ofMillis(100);
+
+    /**
+     * Maximum wait between two attempts.
+     */
+    private Duration maxBackoff = Duration.ofSeconds(5);
+
+    /**
+     * Value of the Retry-After header sent with requests rejected because publishers are full.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Directory events failing to publish are journaled to, to be published again later.
+     */
+    private Path journalDirectory =
+            Path.of(System.getProperty("java.io.tmpdir"), "audit-publish-journal");
+}
@@ -0,0 +1,32 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes option of event creation, answering once the created event is persisted.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.consistency")
+public class ConsistencyProperties {
+
+    /**
+     * When disabled, the consistency requested on event creation is ignored.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum time a request waits for its event to be persisted, before answering that the
+     * event was only accepted.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * Delay before listening again to other replicas after losing the connection.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
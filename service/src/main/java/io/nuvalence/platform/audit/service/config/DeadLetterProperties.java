@@ -0,0 +1,42 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Handling of received audit events which cannot be persisted.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.dead-letter")
+public class DeadLetterProperties {
+
+    /**
+     * When enabled, events failing permanently are parked instead of being redelivered.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of attempts at persisting an event failing transiently before it is nacked, to be
+     * redelivered by the broker.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Wait before the second attempt, doubled on each further attempt.
+     */
+    private Duration initialBackoff = Duration.ofMillis(200);
+
+    /**
+     * Maximum wait between two attempts.
+     */
+    private Duration maxBackoff = Duration.ofSeconds(5);
+
+    /**
+     * Number of parked events replayed per transaction.
+     */
+    private int replayBatchSize = 1000;
+}
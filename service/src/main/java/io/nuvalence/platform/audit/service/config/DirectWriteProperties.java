@@ -0,0 +1,76 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Direct-write mode, persisting created events from an in-process ring buffer instead of going
+ * through the message broker.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.direct-write")
+public class DirectWriteProperties {
+
+    /**
+     * When enabled, created events are persisted by this replica and not published.
+     */
+    private boolean enabled;
+
+    /**
+     * Number of slots of the ring buffer, rounded up to a power of two.
+     */
+    private int ringSize = 8192;
+
+    /**
+     * Number of threads writing events from the ring buffer to the database.
+     */
+    private int writers = 2;
+
+    /**
+     * Maximum number of events inserted by a writer in a single batch.
+     */
+    private int batchSize = 256;
+
+    /**
+     * What happens to an event submitted while the ring buffer is full.
+     */
+    private FullPolicy fullPolicy = FullPolicy.BLOCK;
+
+    /**
+     * Maximum time a request waits for room with the BLOCK policy, before failing with a 503.
+     */
+    private Duration blockTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Value of the Retry-After header sent with requests rejected because the ring is full.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Directory events are spilled to with the SPILL policy.
+     */
+    private Path spillDirectory = Path.of(System.getProperty("java.io.tmpdir"), "audit-spill");
+
+    /**
+     * Policies applied to events submitted while the ring buffer is full.
+     */
+    public enum FullPolicy {
+        /**
+         * Wait for room, up to the block timeout.
+         */
+        BLOCK,
+        /**
+         * Reject the request with a 429.
+         */
+        REJECT,
+        /**
+         * Append the event to a file on disk, to be written once the ring buffer has room.
+         */
+        SPILL
+    }
+}
@@ -0,0 +1,28 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * In-memory cache of the events looked up by id.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.event-cache")
+public class EventCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Number of independently locked shards of the cache, rounded up to a power of two.
+     */
+    private int shards = 16;
+
+    /**
+     * Estimated memory held by the events of all the shards, the least recently used events are
+     * evicted first.
+     */
+    private DataSize maxMemory = DataSize.ofMegabytes(32);
+}
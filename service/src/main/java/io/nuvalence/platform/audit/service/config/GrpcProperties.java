@@ -0,0 +1,76 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * gRPC server exposing the audit event ingestion to internal producers.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.grpc")
+public class GrpcProperties {
+
+    /**
+     * When disabled, no gRPC server is started.
+     */
+    private boolean enabled;
+
+    /**
+     * Port the gRPC server listens on, 0 for a random port.
+     */
+    private int port = 9090;
+
+    /**
+     * Largest message accepted by the server.
+     */
+    private DataSize maxInboundMessageSize = DataSize.ofMegabytes(4);
+
+    /**
+     * Number of events of a client stream read ahead of the one being published.
+     */
+    private int streamPrefetch = 32;
+
+    /**
+     * Maximum number of event ids listed by the summary of a client stream, its first events.
+     */
+    private int streamSummaryEventIds = 1000;
+
+    /**
+     * Time given to running calls to complete on shutdown.
+     */
+    private Duration shutdownGracePeriod = Duration.ofSeconds(10);
+
+    private ListEvents listEvents = new ListEvents();
+
+    /**
+     * Streaming of event histories, each stream holding a database connection while it runs.
+     */
+    @Getter
+    @Setter
+    public static class ListEvents {
+        /**
+         * Maximum number of histories streamed at once, further calls being rejected.
+         */
+        private int concurrency = 2;
+
+        /**
+         * Number of rows fetched from the database at once.
+         */
+        private int fetchSize = 500;
+
+        /**
+         * Time after which a stream whose client stopped reading is aborted.
+         */
+        private Duration stallTimeout = Duration.ofSeconds(60);
+
+        /**
+         * Time after which clients of a rejected call may retry.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,46 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * In-memory cache of the pages of audit events over closed time ranges.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.history-cache")
+public class HistoryCacheProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * How long after its end a time range is considered closed, covering events created with a
+     * past timestamp which are still in flight.
+     */
+    private Duration settleWindow = Duration.ofMinutes(15);
+
+    /**
+     * How long a page is kept, bounding how long events with a past timestamp persisted by another
+     * replica may be missing from it.
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+
+    /**
+     * Number of independently locked shards of the cache, rounded up to a power of two.
+     */
+    private int shards = 16;
+
+    /**
+     * Maximum number of pages held by each shard, the least recently used pages are evicted first.
+     */
+    private int maxPagesPerShard = 256;
+
+    /**
+     * Maximum number of events of the pages held by each shard, the least recently used pages are
+     * evicted first. Pages of more events are not cached.
+     */
+    private int maxEventsPerShard = 8192;
+}
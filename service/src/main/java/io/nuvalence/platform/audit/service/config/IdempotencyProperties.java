@@ -0,0 +1,33 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Deduplication of event creation requests carrying an Idempotency-Key header.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long a key is remembered after the first request using it.
+     */
+    private Duration window = Duration.ofHours(24);
+
+    /**
+     * Number of independently locked shards of the in-memory cache, rounded up to a power of two.
+     */
+    private int shards = 16;
+
+    /**
+     * Maximum number of keys cached in memory by each shard, the oldest keys are evicted first.
+     */
+    private int maxKeysPerShard = 65536;
+}
@@ -0,0 +1,41 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * In-JVM stand-in for the message broker, active with the {@code in-memory-broker} profile.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.in-memory-broker")
+public class InMemoryBrokerProperties {
+
+    /**
+     * Maximum number of events published and not yet acknowledged.
+     */
+    private int capacity = 10000;
+
+    /**
+     * Number of threads consuming events.
+     */
+    private int consumers = 8;
+
+    /**
+     * Time a consumer holds an event after processing it, to simulate the broker acknowledgement.
+     */
+    private Duration ackLatency = Duration.ZERO;
+
+    /**
+     * Maximum time a publication waits for room in a full broker before failing.
+     */
+    private Duration publishTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Number of deliveries of an event failing to process before it is dropped.
+     */
+    private int maxDeliveries = 5;
+}
@@ -0,0 +1,33 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limits applied to the ingestion of audit events.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.ingest")
+public class IngestProperties {
+
+    /**
+     * Maximum number of events being published and waiting for the broker acknowledgement at the
+     * same time. Requests over this budget are rejected with a 429.
+     */
+    private int publishBudget = 200;
+
+    /**
+     * Value of the Retry-After header sent with rejected requests.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Number of recently persisted event ids remembered to drop redelivered events before they
+     * reach the database. Rounded up to a power of two; 0 disables the filter.
+     */
+    private int recentEventIds = 65536;
+}
@@ -0,0 +1,37 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Consumption of audit events in publish order per business object.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.ordered-consumption")
+public class OrderedConsumptionProperties {
+
+    /**
+     * When enabled, published events carry an ordering key and received events are persisted
+     * through the lane of their business object.
+     */
+    private boolean enabled;
+
+    /**
+     * Number of lanes, each persisting the events of its business objects one at a time.
+     */
+    private int lanes = 8;
+
+    /**
+     * Maximum number of events waiting in a lane, further events are redelivered.
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * Maximum time a received event waits for its lane to persist it.
+     */
+    private Duration timeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,55 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Transactional outbox, an alternative to publishing events to the broker within the request.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.outbox")
+public class OutboxProperties {
+
+    /**
+     * When enabled, created events are stored in the outbox table and relayed to the broker in
+     * the background, instead of being published by the request.
+     */
+    private boolean enabled;
+
+    /**
+     * Maximum number of events appended to the outbox by a single insert batch.
+     */
+    private int writeBatchSize = 256;
+
+    /**
+     * Maximum number of events waiting to be appended. Requests over this capacity are rejected
+     * with a 429.
+     */
+    private int queueCapacity = 4096;
+
+    /**
+     * Maximum time a request waits for its event to be appended.
+     */
+    private Duration appendTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of outbox rows claimed and published at once.
+     */
+    private int relayBatchSize = 500;
+
+    /**
+     * Number of threads publishing a claimed batch, the events of a business object being
+     * published by the same thread in order.
+     */
+    private int relayConcurrency = 8;
+
+    /**
+     * Time after which rows claimed by a replica which did not publish them can be claimed
+     * again, to be longer than publishing a batch takes.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(2);
+}
@@ -0,0 +1,65 @@
+package io.nuvalence.platform.audit.service.config;
+
+import io.nuvalence.platform.audit.service.domain.enums.TypeEnum;
+import io.nuvalence.platform.audit.service.events.lanes.PriorityLane;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Classification of audit events into priority lanes.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.lanes")
+public class PriorityLaneProperties {
+
+    /**
+     * When disabled, every event goes through the standard lane.
+     */
+    private boolean enabled;
+
+    /**
+     * Lane of events not matching any rule.
+     */
+    private PriorityLane defaultLane = PriorityLane.STANDARD;
+
+    /**
+     * Rules evaluated in order, the first matching rule decides the lane.
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Number of threads of the executor of each lane, 1 if not set. The threads of all the lanes
+     * must not outnumber the connections of the ingest pool.
+     */
+    private Map<PriorityLane, Integer> concurrency = new EnumMap<>(PriorityLane.class);
+
+    /**
+     * Maximum number of events of each lane waiting for a thread of their lane, 100 if not set;
+     * further events are rejected and redelivered.
+     */
+    private Map<PriorityLane, Integer> queueCapacity = new EnumMap<>(PriorityLane.class);
+
+    /**
+     * Criteria assigning events to a lane; empty criteria match any event.
+     */
+    @Getter
+    @Setter
+    public static class Rule {
+        private PriorityLane lane;
+
+        private Set<TypeEnum> types = new HashSet<>();
+
+        private Set<String> activityTypes = new HashSet<>();
+
+        private Set<String> businessObjectTypes = new HashSet<>();
+    }
+}
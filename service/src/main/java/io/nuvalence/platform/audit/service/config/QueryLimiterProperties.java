@@ -0,0 +1,44 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tuning of the adaptive concurrency limit applied to audit event queries.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.query-limiter")
+public class QueryLimiterProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 200;
+
+    /**
+     * Weight of each new limit estimate, between 0 and 1.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Latency increase over the baseline tolerated before the limit shrinks.
+     */
+    private double tolerance = 1.5;
+
+    /**
+     * Multiplier applied to the limit when a request times out or is rejected downstream.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Value of the Retry-After header sent with shed requests.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,16 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Rendering of the API representation of events once at ingest, stored with each event.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.rendered-events")
+public class RenderedEventProperties {
+
+    private boolean enabled = false;
+}
@@ -0,0 +1,42 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * In-memory cache of the newest events of the business objects whose newest page is read.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.tail-cache")
+public class TailCacheProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Number of newest events kept for each business object, newest pages of at most as many
+     * events are served from the cache.
+     */
+    private int tailSize = 50;
+
+    /**
+     * Number of independently locked shards of the cache, rounded up to a power of two.
+     */
+    private int shards = 64;
+
+    /**
+     * Estimated memory held by the events of all the shards, the least recently read business
+     * objects are evicted first.
+     */
+    private DataSize maxMemory = DataSize.ofMegabytes(64);
+
+    /**
+     * Delay before listening again to other replicas after losing the connection, the cache
+     * being unused meanwhile.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
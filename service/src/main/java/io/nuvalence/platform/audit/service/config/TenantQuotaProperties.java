@@ -0,0 +1,102 @@
+package io.nuvalence.platform.audit.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per tenant ingest rate limits.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.tenant-quotas")
+public class TenantQuotaProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Quota applied to tenants without a specific entry.
+     */
+    private Quota defaults = new Quota();
+
+    /**
+     * Quotas by tenant id or principal name.
+     */
+    private Map<String, Quota> tenants = new HashMap<>();
+
+    /**
+     * Tenant ids each principal may account its events to through the request context, by
+     * principal name. Requests of other principals, or for other tenants, are accounted to their
+     * authenticated principal.
+     */
+    private Map<String, Set<String>> principalTenants = new HashMap<>();
+
+    /**
+     * Maximum number of tenants tracked at once, further tenants share a single quota until the
+     * full buckets of idle tenants are evicted.
+     */
+    private int maxTenants = 10_000;
+
+    /**
+     * Maximum number of tenants with their own metrics besides those listed in tenants, further
+     * tenants are published under the other tenant tag.
+     */
+    private int maxMeteredTenants = 100;
+
+    private Coordination coordination = new Coordination();
+
+    /**
+     * Returns the quota of a tenant.
+     *
+     * @param tenant tenant id
+     * @return quota of the tenant, or the default quota
+     */
+    public Quota forTenant(String tenant) {
+        return tenants.getOrDefault(tenant, defaults);
+    }
+
+    /**
+     * Tells whether a principal may account its events to a tenant.
+     *
+     * @param principal name of the authenticated principal
+     * @param tenant    tenant id
+     * @return true if the tenant is listed for the principal
+     */
+    public boolean isAuthorized(String principal, String tenant) {
+        return principalTenants.getOrDefault(principal, Set.of()).contains(tenant);
+    }
+
+    /**
+     * Rate limit of a single tenant, across all replicas.
+     */
+    @Getter
+    @Setter
+    public static class Quota {
+        private double ratePerSecond = 200;
+
+        private int burst = 400;
+    }
+
+    /**
+     * Sharing of the quotas between replicas through the database.
+     */
+    @Getter
+    @Setter
+    public static class Coordination {
+        /**
+         * When enabled, each replica enforces its share of the quota according to the number of
+         * live replicas registered in the database.
+         */
+        private boolean enabled;
+
+        /**
+         * Time after which a replica that stopped sending heartbeats is no longer counted.
+         */
+        private Duration replicaTimeout = Duration.ofSeconds(30);
+    }
+}
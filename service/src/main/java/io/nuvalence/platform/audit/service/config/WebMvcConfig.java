@@ -0,0 +1,40 @@
+package io.nuvalence.platform.audit.service.config;
+
+import io.nuvalence.platform.audit.service.controllers.ProtobufBodyConverter;
+import io.nuvalence.platform.audit.service.grpc.AuditEventProtoMapper;
+import io.nuvalence.platform.audit.service.throttling.QueryConcurrencyLimitInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers the load shedding interceptors on the audit event API, and the converter of its
+ * protobuf bodies.
+ */
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(QueryLimiterProperties.class)
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private static final String AUDIT_EVENTS_PATH = "/api/v1/audit-events/**";
+
+    private final QueryConcurrencyLimitInterceptor queryConcurrencyLimitInterceptor;
+    private final AuditEventProtoMapper auditEventProtoMapper;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryConcurrencyLimitInterceptor)
+                .addPathPatterns(AUDIT_EVENTS_PATH);
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // last, so that JSON stays the default when clients accept any media type
+        converters.add(new ProtobufBodyConverter(auditEventProtoMapper));
+    }
+}
@@ -7,6 +7,7 @@ import io.nuvalence.auth.token.profiles.rest.RestUserFetchingStrategy;
 import io.nuvalence.auth.util.RsaKeyUtility;
 import io.nuvalence.auth.util.TrailingSlashRedirectingFilter;
 import io.nuvalence.logging.filter.LoggingContextFilter;
+import io.nuvalence.platform.audit.service.grpc.GrpcAuthenticationInterceptor;
 import io.nuvalence.platform.audit.service.utils.JacocoIgnoreInGeneratedReport;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,6 +15,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.CsrfConfigurer;
@@ -110,6 +112,23 @@ public class WebSecurityConfig {
 
     }
 
+    /**
+     * Authenticates gRPC calls with the same tokens as HTTP requests.
+     *
+     * @return interceptor authenticating gRPC calls
+     */
+    @Bean
+    public GrpcAuthenticationInterceptor grpcAuthenticationInterceptor() {
+        return new GrpcAuthenticationInterceptor(
+                new ProviderManager(
+                        new FirebaseAuthenticationProvider(
+                                gcpProjectId, NAMESPACE, restUserFetchingStrategy),
+                        new SelfSignedTokenAuthenticationProvider(
+                                selfSignIssuer,
+                                RsaKeyUtility.getPublicKeyFromString(selfSignPublicKey),
+                                NAMESPACE)));
+    }
+
     /**
      * Provides configurer that sets up CORS.
      *
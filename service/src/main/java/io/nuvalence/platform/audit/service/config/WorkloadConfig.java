@@ -0,0 +1,58 @@
+package io.nuvalence.platform.audit.service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.platform.audit.service.workload.Workload;
+import io.nuvalence.platform.audit.service.workload.WorkloadRoutingDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Gives each workload its own connection pool, so that a backlog drain cannot exhaust the
+ * connections needed by interactive reads and vice versa.
+ */
+@Configuration
+@EnableConfigurationProperties(WorkloadProperties.class)
+public class WorkloadConfig {
+
+    /**
+     * Creates a data source routing to one Hikari pool per workload.
+     *
+     * @param dataSourceProperties standard spring datasource properties shared by all pools
+     * @param workloadProperties   per workload sizing
+     * @param meterRegistry        registry the pool metrics are published to
+     * @return routing data source
+     */
+    @Bean(destroyMethod = "close")
+    @Primary
+    public WorkloadRoutingDataSource dataSource(
+            DataSourceProperties dataSourceProperties,
+            WorkloadProperties workloadProperties,
+            MeterRegistry meterRegistry) {
+        Map<Object, Object> pools = new HashMap<>();
+        for (Workload workload : Workload.values()) {
+            HikariDataSource pool =
+                    dataSourceProperties
+                            .initializeDataSourceBuilder()
+                            .type(HikariDataSource.class)
+                            .build();
+            pool.setPoolName("audit-" + workload.name().toLowerCase(Locale.ROOT));
+            pool.setMaximumPoolSize(workloadProperties.get(workload).getConnections());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.put(workload, pool);
+        }
+
+        WorkloadRoutingDataSource dataSource = new WorkloadRoutingDataSource();
+        dataSource.setTargetDataSources(pools);
+        dataSource.setDefaultTargetDataSource(pools.get(Workload.QUERY));
+        return dataSource;
+    }
+}
@@ -0,0 +1,75 @@
+package io.nuvalence.platform.audit.service.config;
+
+import io.nuvalence.platform.audit.service.workload.Workload;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the connection pool and executor dedicated to each workload.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.workloads")
+public class WorkloadProperties {
+
+    /**
+     * Page size from which a read is treated as a scan instead of an interactive query.
+     */
+    private int scanPageSizeThreshold = 100;
+
+    /**
+     * Page size from which the events of a page are streamed from a database cursor into the
+     * response body instead of being loaded before the body is written.
+     */
+    private int streamPageSizeThreshold = 100;
+
+    private Bulkhead ingest = new Bulkhead();
+
+    private Bulkhead query = new Bulkhead();
+
+    private Bulkhead scan = new Bulkhead();
+
+    /**
+     * Returns the settings for the given workload.
+     *
+     * @param workload workload
+     * @return bulkhead settings
+     */
+    public Bulkhead get(Workload workload) {
+        return switch (workload) {
+            case INGEST -> ingest;
+            case QUERY -> query;
+            case SCAN -> scan;
+        };
+    }
+
+    /**
+     * Limits applied to a single workload.
+     */
+    @Getter
+    @Setter
+    public static class Bulkhead {
+        /**
+         * Maximum number of database connections.
+         */
+        private int connections = 5;
+
+        /**
+         * Maximum number of tasks executing at the same time.
+         */
+        private int concurrency = 5;
+
+        /**
+         * Maximum number of tasks waiting for a worker; further tasks are rejected.
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * Maximum time a caller waits for its task to complete.
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,70 @@
+package io.nuvalence.platform.audit.service.controllers;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.error.ApiException;
+import io.nuvalence.platform.audit.service.generated.controllers.AdminApiDelegate;
+import io.nuvalence.platform.audit.service.generated.models.ParkedEventsReplay;
+import io.nuvalence.platform.audit.service.service.ParkedEventReplays;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.UUID;
+
+/**
+ * Controller layer for the administration of the audit service.
+ */
+@Service
+@RequiredArgsConstructor
+public class AdminApiDelegateImpl implements AdminApiDelegate {
+
+    private final AuthorizationHandler authorizationHandler;
+
+    private final ParkedEventReplays parkedEventReplays;
+
+    @Override
+    public ResponseEntity<ParkedEventsReplay> replayParkedEvents(Integer maxEvents) {
+        checkReplayAllowed();
+
+        var replay = parkedEventReplays.start(maxEvents);
+        return ResponseEntity.accepted()
+                .location(
+                        ServletUriComponentsBuilder.fromCurrentRequestUri()
+                                .path("/{replayId}")
+                                .buildAndExpand(replay.getId())
+                                .toUri())
+                .body(toModel(replay));
+    }
+
+    @Override
+    public ResponseEntity<ParkedEventsReplay> getParkedEventsReplay(UUID replayId) {
+        checkReplayAllowed();
+
+        return parkedEventReplays
+                .get(replayId)
+                .map(replay -> ResponseEntity.ok(toModel(replay)))
+                .orElseThrow(() -> ApiException.Builder.notFound("Replay not found."));
+    }
+
+    private void checkReplayAllowed() {
+        if (!authorizationHandler.isAllowed("replay", AuditEventEntity.class)) {
+            throw new AccessDeniedException("You do not have permission to replay audit events.");
+        }
+    }
+
+    private static ParkedEventsReplay toModel(ParkedEventReplays.Replay replay) {
+        return new ParkedEventsReplay()
+                .id(replay.getId())
+                .status(ParkedEventsReplay.StatusEnum.fromValue(replay.getStatus().name()))
+                .maxEvents(replay.getMaxEvents())
+                .startedAt(replay.getStartedAt())
+                .completedAt(replay.getCompletedAt())
+                .replayed(replay.getReplayed())
+                .failed(replay.getFailed())
+                .remaining(replay.getRemaining())
+                .error(replay.getError());
+    }
+}
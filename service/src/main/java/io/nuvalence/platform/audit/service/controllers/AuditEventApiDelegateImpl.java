@@ -5,25 +5,50 @@ import io.nuvalence.auth.token.profiles.ProfileAccessLevel;
 import io.nuvalence.auth.token.profiles.ProfileLink;
 import io.nuvalence.auth.token.profiles.ProfileType;
 import io.nuvalence.auth.util.SecurityContextUtility;
+import io.nuvalence.platform.audit.service.config.WorkloadProperties;
 import io.nuvalence.platform.audit.service.config.exception.ProvidedDataException;
 import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.domain.BusinessObjectRef;
+import io.nuvalence.platform.audit.service.error.ApiException;
+import io.nuvalence.platform.audit.service.error.PendingWriteException;
 import io.nuvalence.platform.audit.service.generated.controllers.AuditEventsApiDelegate;
+import io.nuvalence.platform.audit.service.generated.models.AuditEvent;
 import io.nuvalence.platform.audit.service.generated.models.AuditEventId;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventList;
 import io.nuvalence.platform.audit.service.generated.models.AuditEventRequest;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventTimeline;
 import io.nuvalence.platform.audit.service.generated.models.AuditEventsPage;
+import io.nuvalence.platform.audit.service.generated.models.RelatedAuditEvents;
+import io.nuvalence.platform.audit.service.generated.models.RelatedBusinessObject;
 import io.nuvalence.platform.audit.service.mapper.AuditEventMapper;
 import io.nuvalence.platform.audit.service.mapper.PagingMetadataMapper;
+import io.nuvalence.platform.audit.service.mapper.RenderedEventMapper;
 import io.nuvalence.platform.audit.service.service.AuditEventService;
+import io.nuvalence.platform.audit.service.service.BusinessObjectGraph;
+import io.nuvalence.platform.audit.service.service.HistoricalPageCache;
+import io.nuvalence.platform.audit.service.service.IdempotencyKeyStore;
+import io.nuvalence.platform.audit.service.service.PersistedEventRegistry;
+import io.nuvalence.platform.audit.service.throttling.IngestBackpressure;
+import io.nuvalence.platform.audit.service.throttling.TenantQuotaLimiter;
+import io.nuvalence.platform.audit.service.workload.Workload;
+import io.nuvalence.platform.audit.service.workload.WorkloadExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Controller layer for audit service.
@@ -32,12 +57,24 @@ import java.util.UUID;
 @Slf4j
 @RequiredArgsConstructor
 public class AuditEventApiDelegateImpl implements AuditEventsApiDelegate {
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String PERSISTED_CONSISTENCY = "persisted";
+
     private final AuditEventService auditEventService;
 
     private final AuthorizationHandler authorizationHandler;
 
     private final PagingMetadataMapper pagingMetadataMapper;
     private final AuditEventMapper auditEventMapper;
+    private final RenderedEventMapper renderedEventMapper;
+
+    private final WorkloadExecutor workloadExecutor;
+    private final WorkloadProperties workloadProperties;
+    private final IngestBackpressure ingestBackpressure;
+    private final TenantQuotaLimiter tenantQuotaLimiter;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final PersistedEventRegistry persistedEventRegistry;
+    private final HistoricalPageCache historicalPageCache;
 
     @Override
     public ResponseEntity<AuditEventsPage> getEvents(
@@ -48,7 +85,8 @@ public class AuditEventApiDelegateImpl implements AuditEventsApiDelegate {
             OffsetDateTime startTime,
             OffsetDateTime endTime,
             Integer pageNumber,
-            Integer pageSize) {
+            Integer pageSize,
+            List<String> fields) {
 
         if (!authorizationHandler.isAllowed("view", AuditEventEntity.class)
                 && !validateProfileAccessRequest(
@@ -57,23 +95,216 @@ public class AuditEventApiDelegateImpl implements AuditEventsApiDelegate {
             throw new AccessDeniedException("Forbidden request.");
         }
 
-        var events =
-                auditEventService.findAuditEvents(
+        var eventFields = EventFields.parse(fields);
+        var workload =
+                pageSize >= workloadProperties.getScanPageSizeThreshold()
+                        ? Workload.SCAN
+                        : Workload.QUERY;
+
+        // pages with selected fields are read from a cursor too, which only reads their columns
+        if (eventFields.isSparse() || pageSize >= workloadProperties.getStreamPageSizeThreshold()) {
+            var totalCount =
+                    workloadExecutor.execute(
+                            workload,
+                            () ->
+                                    auditEventService.countAuditEvents(
+                                            businessObjectType,
+                                            businessObjectId,
+                                            startTime,
+                                            endTime));
+            var page =
+                    new PageImpl<AuditEventEntity>(
+                            List.of(), PageRequest.of(pageNumber, pageSize), totalCount);
+            // events are read and written on the workload executor while the body is written,
+            // holding a slot of the workload until the whole body is written
+            return ResponseEntity.ok(
+                    new StreamedAuditEventsPage(
+                            pagingMetadataMapper.toPagingMetadata(page),
+                            consumer ->
+                                    workloadExecutor.stream(
+                                            workload,
+                                            () ->
+                                                    streamAuditEvents(
+                                                            businessObjectType,
+                                                            businessObjectId,
+                                                            sortOrder,
+                                                            sortBy,
+                                                            startTime,
+                                                            endTime,
+                                                            pageNumber,
+                                                            pageSize,
+                                                            eventFields,
+                                                            consumer))));
+        }
+
+        // pages over closed time ranges can no longer change and are served from memory
+        var query =
+                HistoricalPageCache.PageQuery.of(
                         businessObjectType,
                         businessObjectId,
                         startTime,
                         endTime,
-                        pageNumber,
-                        pageSize,
                         sortOrder,
-                        sortBy);
+                        sortBy,
+                        pageNumber,
+                        pageSize);
+        var cachedPage = historicalPageCache.get(query);
+        if (cachedPage != null) {
+            return ResponseEntity.ok(cachedPage);
+        }
+        long stamp = historicalPageCache.stamp(query);
+
+        var events =
+                workloadExecutor.execute(
+                        workload,
+                        () ->
+                                auditEventService.findAuditEvents(
+                                        businessObjectType,
+                                        businessObjectId,
+                                        startTime,
+                                        endTime,
+                                        pageNumber,
+                                        pageSize,
+                                        sortOrder,
+                                        sortBy));
+
+        var page = this.createAuditEventsPage(events);
+        historicalPageCache.put(query, stamp, page, events.getNumberOfElements());
+        return ResponseEntity.ok(page);
+    }
+
+    @Override
+    public ResponseEntity<AuditEvent> getEvent(UUID eventId) {
+        var entity =
+                workloadExecutor
+                        .execute(
+                                Workload.QUERY,
+                                () -> auditEventService.findAuditEventsById(List.of(eventId)))
+                        .stream()
+                        .findFirst()
+                        .orElseThrow(
+                                () -> ApiException.Builder.notFound("Audit event not found."));
+        if (!canView(entity)) {
+            throw new AccessDeniedException("Forbidden request.");
+        }
+
+        return ResponseEntity.ok(
+                auditEventMapper.toAuditEventModel(auditEventMapper.fromEntity(entity)));
+    }
+
+    @Override
+    public ResponseEntity<AuditEventList> getEventsById(List<UUID> eventIds) {
+        var entities =
+                workloadExecutor.execute(
+                        Workload.QUERY, () -> auditEventService.findAuditEventsById(eventIds));
+
+        // events of business objects the caller may not view are left out, as if missing
+        var events =
+                entities.stream()
+                        .filter(this::canView)
+                        .map(auditEventMapper::fromEntity)
+                        .map(auditEventMapper::toAuditEventModel)
+                        .toList();
+        return ResponseEntity.ok(new AuditEventList().events(events));
+    }
+
+    @Override
+    public ResponseEntity<AuditEventTimeline> getTimeline(
+            List<String> businessObjects,
+            String sortOrder,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            Integer pageSize,
+            String pageToken) {
+        List<BusinessObjectRef> refs;
+        try {
+            refs = businessObjects.stream().map(BusinessObjectRef::parse).distinct().toList();
+        } catch (IllegalArgumentException e) {
+            throw ApiException.Builder.badRequest(e.getMessage());
+        }
+        if (!refs.stream().allMatch(viewableBusinessObjects())) {
+            throw new AccessDeniedException("Forbidden request.");
+        }
+
+        var after = TimelinePageToken.decode(pageToken);
+        var entities =
+                workloadExecutor.execute(
+                        timelineWorkload(pageSize),
+                        () ->
+                                findTimelinePage(
+                                        refs, sortOrder, startTime, endTime, after, pageSize));
+
+        return ResponseEntity.ok(
+                new AuditEventTimeline()
+                        .events(toEventModels(entities, pageSize))
+                        .nextPageToken(nextPageToken(entities, pageSize)));
+    }
+
+    @Override
+    public ResponseEntity<RelatedAuditEvents> getRelatedEvents(
+            String businessObjectType,
+            UUID businessObjectId,
+            Integer depth,
+            Integer maxObjects,
+            String sortOrder,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            Integer pageSize,
+            String pageToken) {
+        var start = new BusinessObjectRef(businessObjectType, businessObjectId);
+        var canView = viewableBusinessObjects();
+        if (!canView.test(start)) {
+            throw new AccessDeniedException("Forbidden request.");
+        }
 
-        return ResponseEntity.ok(this.createAuditEventsPage(events));
+        var after = TimelinePageToken.decode(pageToken);
+        var page =
+                workloadExecutor.execute(
+                        timelineWorkload(pageSize),
+                        () -> {
+                            var graph =
+                                    auditEventService.findRelatedBusinessObjects(
+                                            start,
+                                            depth,
+                                            maxObjects,
+                                            startTime,
+                                            endTime,
+                                            canView);
+                            return new RelatedEventsPage(
+                                    graph,
+                                    findTimelinePage(
+                                            List.copyOf(graph.depths().keySet()),
+                                            sortOrder,
+                                            startTime,
+                                            endTime,
+                                            after,
+                                            pageSize));
+                        });
+
+        var businessObjects =
+                page.graph().depths().entrySet().stream()
+                        .map(
+                                entry ->
+                                        new RelatedBusinessObject()
+                                                .type(entry.getKey().type())
+                                                .id(entry.getKey().id())
+                                                .depth(entry.getValue()))
+                        .toList();
+        return ResponseEntity.ok(
+                new RelatedAuditEvents()
+                        .businessObjects(businessObjects)
+                        .truncated(page.graph().truncated())
+                        .events(toEventModels(page.events(), pageSize))
+                        .nextPageToken(nextPageToken(page.events(), pageSize)));
     }
 
     @Override
     public ResponseEntity<AuditEventId> postEvent(
-            String businessObjectType, UUID businessObjectId, AuditEventRequest body) {
+            String businessObjectType,
+            UUID businessObjectId,
+            AuditEventRequest body,
+            String idempotencyKey,
+            String consistency) {
         if (!authorizationHandler.isAllowed("create", AuditEventEntity.class)) {
             throw new AccessDeniedException("You do not have permission to create this resource.");
         }
@@ -83,14 +314,120 @@ public class AuditEventApiDelegateImpl implements AuditEventsApiDelegate {
                 businessObjectType,
                 businessObjectId);
 
+        var requestTenantId =
+                body.getRequestContext() == null ? null : body.getRequestContext().getTenantId();
+        var tenant = tenantQuotaLimiter.resolveTenant(requestTenantId);
         var auditEvent = auditEventMapper.toAuditEvent(body, businessObjectId, businessObjectType);
-        var eventId = new AuditEventId().eventId(auditEvent.getMetadata().getId());
-        auditEventService.publishAuditEvent(auditEvent);
+        var eventId = auditEvent.getMetadata().getId();
+
+        // keys are scoped to the caller, two callers may pick the same key
+        var scopedKey =
+                idempotencyKey == null || !idempotencyKeyStore.isEnabled()
+                        ? null
+                        : tenant + ":" + idempotencyKey;
+        if (scopedKey != null) {
+            var original = idempotencyKeyStore.putIfAbsent(scopedKey, eventId);
+            if (original.isPresent()) {
+                // until the first request completes its event may still fail and be retried
+                return ResponseEntity.status(original.get().completed() ? 201 : 202)
+                        .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                        .body(new AuditEventId().eventId(original.get().eventId()));
+            }
+        }
+
+        // only requests asking for it wait, registering before publishing to not miss the commit
+        var waitForPersistence =
+                PERSISTED_CONSISTENCY.equals(consistency) && persistedEventRegistry.isEnabled();
+        try (var waiter = waitForPersistence ? persistedEventRegistry.register(eventId) : null) {
+            boolean published;
+            try {
+                tenantQuotaLimiter.acquire(tenant, 1);
+                try (var lease = ingestBackpressure.acquire()) {
+                    published = auditEventService.publishAuditEvent(auditEvent);
+                }
+            } catch (PendingWriteException e) {
+                // the event may still be stored, retries get its id unless it finally fails
+                if (scopedKey != null) {
+                    e.getOutcome()
+                            .whenComplete(
+                                    (committed, error) -> {
+                                        if (error != null) {
+                                            idempotencyKeyStore.remove(scopedKey, eventId);
+                                        } else {
+                                            idempotencyKeyStore.complete(scopedKey, eventId);
+                                        }
+                                    });
+                }
+                throw e;
+            } catch (RuntimeException e) {
+                if (scopedKey != null) {
+                    idempotencyKeyStore.remove(scopedKey, eventId);
+                }
+                throw e;
+            }
+            if (scopedKey != null) {
+                idempotencyKeyStore.complete(scopedKey, eventId);
+            }
 
-        return ResponseEntity.status(201).body(eventId);
+            var created = waiter == null ? published : waiter.await();
+            if (!created) {
+                return ResponseEntity.status(202).body(new AuditEventId().eventId(eventId));
+            }
+        }
+
+        return ResponseEntity.status(201).body(new AuditEventId().eventId(eventId));
+    }
+
+    private void streamAuditEvents(
+            String businessObjectType,
+            UUID businessObjectId,
+            String sortOrder,
+            String sortBy,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            Integer pageNumber,
+            Integer pageSize,
+            EventFields eventFields,
+            Consumer<StreamedAuditEventsPage.Event> consumer) {
+        auditEventService.streamAuditEvents(
+                businessObjectType,
+                businessObjectId,
+                startTime,
+                endTime,
+                pageNumber,
+                pageSize,
+                sortOrder,
+                sortBy,
+                eventFields.toParts(),
+                entity -> consumer.accept(toStreamedEvent(entity, eventFields)));
+    }
+
+    private StreamedAuditEventsPage.Event toStreamedEvent(
+            AuditEventEntity entity, EventFields eventFields) {
+        Supplier<AuditEvent> model =
+                () ->
+                        eventFields.select(
+                                auditEventMapper.toAuditEventModel(
+                                        auditEventMapper.fromEntity(entity)));
+        if (eventFields.isSparse()) {
+            return new StreamedAuditEventsPage.Event(
+                    model, () -> renderedEventMapper.toSparseJson(model.get()));
+        }
+        return new StreamedAuditEventsPage.Event(
+                model, () -> renderedEventMapper.toJson(entity.getRenderedEvent()));
     }
 
     private AuditEventsPage createAuditEventsPage(Page<AuditEventEntity> page) {
+        // events rendered at ingest are written as stored instead of being mapped
+        if (page.stream().anyMatch(entity -> entity.getRenderedEvent() != null)) {
+            return new StreamedAuditEventsPage(
+                    pagingMetadataMapper.toPagingMetadata(page),
+                    consumer ->
+                            page.forEach(
+                                    entity ->
+                                            consumer.accept(
+                                                    toStreamedEvent(entity, EventFields.ALL))));
+        }
         return new AuditEventsPage()
                 .events(
                         auditEventMapper.fromEntities(page.getContent()).stream()
@@ -99,6 +436,73 @@ public class AuditEventApiDelegateImpl implements AuditEventsApiDelegate {
                 .pagingMetadata(pagingMetadataMapper.toPagingMetadata(page));
     }
 
+    private boolean canView(AuditEventEntity entity) {
+        return authorizationHandler.isAllowed("view", AuditEventEntity.class)
+                || validateProfileAccessRequest(
+                        entity.getBusinessObjectId(),
+                        entity.getBusinessObjectType(),
+                        ProfileAccessLevel.ADMIN);
+    }
+
+    /**
+     * Returns the access check of business objects, reading the profile links of the user once
+     * for all the business objects checked.
+     */
+    private Predicate<BusinessObjectRef> viewableBusinessObjects() {
+        if (authorizationHandler.isAllowed("view", AuditEventEntity.class)) {
+            return businessObject -> true;
+        }
+        var profileLinks = SecurityContextUtility.getAuthenticatedUserProfileLinks();
+        return businessObject ->
+                validateProfileAccessRequest(
+                        profileLinks,
+                        businessObject.id(),
+                        businessObject.type(),
+                        ProfileAccessLevel.ADMIN);
+    }
+
+    private Workload timelineWorkload(int pageSize) {
+        return pageSize >= workloadProperties.getScanPageSizeThreshold()
+                ? Workload.SCAN
+                : Workload.QUERY;
+    }
+
+    /**
+     * Reads one event more than the page, which tells whether there is a next page.
+     */
+    private List<AuditEventEntity> findTimelinePage(
+            List<BusinessObjectRef> businessObjects,
+            String sortOrder,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            TimelinePageToken after,
+            int pageSize) {
+        return auditEventService.findTimeline(
+                businessObjects,
+                startTime,
+                endTime,
+                !"DESC".equals(sortOrder),
+                after == null ? null : after.timestamp(),
+                after == null ? null : after.eventId(),
+                pageSize + 1);
+    }
+
+    private List<AuditEvent> toEventModels(List<AuditEventEntity> entities, int pageSize) {
+        return entities.stream()
+                .limit(pageSize)
+                .map(auditEventMapper::fromEntity)
+                .map(auditEventMapper::toAuditEventModel)
+                .toList();
+    }
+
+    private static String nextPageToken(List<AuditEventEntity> entities, int pageSize) {
+        return entities.size() > pageSize
+                ? TimelinePageToken.of(entities.get(pageSize - 1)).encode()
+                : null;
+    }
+
+    private record RelatedEventsPage(BusinessObjectGraph graph, List<AuditEventEntity> events) {}
+
     /**
      * Validates if the request is related to a profile, and if the user has at least the access level wanted.
      * 
@@ -111,6 +515,18 @@ public class AuditEventApiDelegateImpl implements AuditEventsApiDelegate {
      */
     private boolean validateProfileAccessRequest(
             UUID profileId, String profileTypeExpected, ProfileAccessLevel accessLevelWanted) {
+        return validateProfileAccessRequest(
+                SecurityContextUtility.getAuthenticatedUserProfileLinks(),
+                profileId,
+                profileTypeExpected,
+                accessLevelWanted);
+    }
+
+    private boolean validateProfileAccessRequest(
+            Collection<ProfileLink> profileLinks,
+            UUID profileId,
+            String profileTypeExpected,
+            ProfileAccessLevel accessLevelWanted) {
 
         ProfileType profileTypeExpectedEnum = null;
         try {
@@ -121,7 +537,7 @@ public class AuditEventApiDelegateImpl implements AuditEventsApiDelegate {
         }
 
         Optional<ProfileLink> optionalLink =
-                SecurityContextUtility.getAuthenticatedUserProfileLinks().stream()
+                profileLinks.stream()
                         .filter(link -> link.getProfileId().equals(profileId))
                         .findFirst();
 
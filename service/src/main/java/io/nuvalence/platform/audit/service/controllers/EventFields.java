@@ -0,0 +1,154 @@
+package io.nuvalence.platform.audit.service.controllers;
+
+import io.nuvalence.platform.audit.service.error.ApiException;
+import io.nuvalence.platform.audit.service.generated.models.AuditEvent;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventDataBase;
+import io.nuvalence.platform.audit.service.generated.models.StateChangeEventData;
+import io.nuvalence.platform.audit.service.repository.AuditEventCursorReader.Part;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fields of the events returned by getEvents, selected with the {@code fields} query parameter.
+ * Top level properties of events are selected by name, as are the properties of their event data,
+ * whose type is always returned. Fields which are not selected are neither read from the database
+ * nor written to the response.
+ */
+final class EventFields {
+
+    /**
+     * Names of the fields which can be selected.
+     */
+    static final Set<String> NAMES =
+            Set.of(
+                    "eventId",
+                    "businessObject",
+                    "timestamp",
+                    "summary",
+                    "links",
+                    "requestContext",
+                    "type",
+                    "schema",
+                    "activityType",
+                    "data",
+                    "oldState",
+                    "newState");
+
+    /**
+     * Selection of all fields.
+     */
+    static final EventFields ALL = new EventFields(NAMES, false);
+
+    private final Set<String> selected;
+    private final boolean sparse;
+
+    private EventFields(Set<String> selected, boolean sparse) {
+        this.selected = selected;
+        this.sparse = sparse;
+    }
+
+    /**
+     * Parses the value of the fields query parameter.
+     *
+     * @param fields names of the selected fields, null or empty for all fields
+     * @return selected fields
+     * @throws ApiException if a field is unknown
+     */
+    static EventFields parse(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return ALL;
+        }
+        for (String field : fields) {
+            if (!NAMES.contains(field)) {
+                throw ApiException.Builder.badRequest("Unknown event field: " + field);
+            }
+        }
+        return new EventFields(Set.copyOf(fields), true);
+    }
+
+    /**
+     * Tells whether only some fields are selected.
+     *
+     * @return true if only some fields are selected
+     */
+    boolean isSparse() {
+        return sparse;
+    }
+
+    /**
+     * Returns the optional parts of the events to read from the database for these fields.
+     * Renderings stored at ingest hold all fields, so they are only read when all are selected.
+     *
+     * @return parts to read
+     */
+    Set<Part> toParts() {
+        Set<Part> parts = EnumSet.noneOf(Part.class);
+        if (selected.contains("data")) {
+            parts.add(Part.DATA);
+        }
+        if (selected.contains("oldState")) {
+            parts.add(Part.OLD_STATE);
+        }
+        if (selected.contains("newState")) {
+            parts.add(Part.NEW_STATE);
+        }
+        if (selected.contains("links")) {
+            parts.add(Part.RELATED_BUSINESS_OBJECTS);
+        }
+        if (!sparse) {
+            parts.add(Part.RENDERED_EVENT);
+        }
+        return parts;
+    }
+
+    /**
+     * Clears the fields of an event which are not selected.
+     *
+     * @param event event model
+     * @return the same event
+     */
+    AuditEvent select(AuditEvent event) {
+        if (!sparse) {
+            return event;
+        }
+        if (!selected.contains("eventId")) {
+            event.setEventId(null);
+        }
+        if (!selected.contains("businessObject")) {
+            event.setBusinessObject(null);
+        }
+        if (!selected.contains("timestamp")) {
+            event.setTimestamp(null);
+        }
+        if (!selected.contains("summary")) {
+            event.setSummary(null);
+        }
+        if (!selected.contains("links")) {
+            event.setLinks(null);
+        }
+        if (!selected.contains("requestContext")) {
+            event.setRequestContext(null);
+        }
+        AuditEventDataBase eventData = event.getEventData();
+        if (!selected.contains("schema")) {
+            eventData.setSchema(null);
+        }
+        if (!selected.contains("activityType")) {
+            eventData.setActivityType(null);
+        }
+        if (!selected.contains("data")) {
+            eventData.setData(null);
+        }
+        if (eventData instanceof StateChangeEventData stateChange) {
+            if (!selected.contains("oldState")) {
+                stateChange.setOldState(null);
+            }
+            if (!selected.contains("newState")) {
+                stateChange.setNewState(null);
+            }
+        }
+        return event;
+    }
+}
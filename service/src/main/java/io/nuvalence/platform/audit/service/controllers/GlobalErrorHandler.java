@@ -2,10 +2,12 @@ package io.nuvalence.platform.audit.service.controllers;
 
 import io.nuvalence.platform.audit.service.config.exception.ProvidedDataException;
 import io.nuvalence.platform.audit.service.error.ApiException;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
 import jakarta.validation.ConstraintViolationException;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -56,6 +58,18 @@ public class GlobalErrorHandler {
         return ResponseEntity.status(e.getHttpStatus()).body(new ErrorResponse(e.getMessage()));
     }
 
+    /**
+     * Return the throttling status along with a Retry-After header if a request was shed.
+     * @param e exception
+     * @return ResponseEntity with http status defined in the exception
+     */
+    @ExceptionHandler(ThrottledRequestException.class)
+    public ResponseEntity<ErrorResponse> handleException(ThrottledRequestException e) {
+        return ResponseEntity.status(e.getHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(e.getMessage()));
+    }
+
     /**
      * Return a bad request if a ConstraintViolationException is thrown.
      * @param e ConstraintViolationException exception.
@@ -0,0 +1,140 @@
+package io.nuvalence.platform.audit.service.controllers;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditRestProto;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventId;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventRequest;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventsPage;
+import io.nuvalence.platform.audit.service.grpc.AuditEventProtoMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads and writes the bodies of the audit event API as the protobuf messages of
+ * {@code audit_rest.proto}, for clients sending or accepting {@code application/x-protobuf}.
+ * Bodies are mapped from and to the models of the REST API, so that requests go through the
+ * same validation whatever their media type.
+ */
+public class ProtobufBodyConverter extends AbstractHttpMessageConverter<Object> {
+
+    /**
+     * Media type of protobuf bodies.
+     */
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final Set<Class<?>> WRITTEN_TYPES =
+            Set.of(
+                    AuditEventsPage.class,
+                    AuditEventId.class,
+                    GlobalErrorHandler.ErrorResponse.class);
+
+    private final AuditEventProtoMapper auditEventProtoMapper;
+
+    /**
+     * Creates the converter.
+     *
+     * @param auditEventProtoMapper mapper of the protobuf messages
+     */
+    public ProtobufBodyConverter(AuditEventProtoMapper auditEventProtoMapper) {
+        super(PROTOBUF);
+        this.auditEventProtoMapper = auditEventProtoMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == AuditEventRequest.class || isWritten(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == AuditEventRequest.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return isWritten(clazz) && canWrite(mediaType);
+    }
+
+    private static boolean isWritten(Class<?> clazz) {
+        return WRITTEN_TYPES.stream().anyMatch(type -> type.isAssignableFrom(clazz));
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        AuditIngestProto.AuditEventRequest message;
+        try {
+            message = AuditIngestProto.AuditEventRequest.parseFrom(inputMessage.getBody());
+        } catch (InvalidProtocolBufferException e) {
+            throw new HttpMessageNotReadableException(
+                    "Invalid protobuf body: " + e.getMessage(), e, inputMessage);
+        }
+        return auditEventProtoMapper.toAuditEventRequest(message);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        if (body instanceof StreamedAuditEventsPage page) {
+            writeStreamedPage(page, outputMessage.getBody());
+        } else {
+            toMessage(body).writeTo(outputMessage.getBody());
+        }
+    }
+
+    /**
+     * Writes the fields of an AuditEventsPage message one event at a time, the encoding of a
+     * repeated field being the concatenation of its elements.
+     */
+    private void writeStreamedPage(StreamedAuditEventsPage page, OutputStream body)
+            throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(body);
+        try {
+            page.forEachEvent(
+                    event -> {
+                        try {
+                            output.writeMessage(
+                                    AuditRestProto.AuditEventsPage.EVENTS_FIELD_NUMBER,
+                                    auditEventProtoMapper.toAuditEventMessage(
+                                            event.toModel()));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        output.writeMessage(
+                AuditRestProto.AuditEventsPage.PAGING_METADATA_FIELD_NUMBER,
+                auditEventProtoMapper.toPagingMetadataMessage(page.getPagingMetadata()));
+        output.flush();
+    }
+
+    private Message toMessage(Object body) {
+        if (body instanceof AuditEventsPage page) {
+            return auditEventProtoMapper.toAuditEventsPageMessage(page);
+        }
+        if (body instanceof AuditEventId eventId) {
+            return AuditRestProto.AuditEventId.newBuilder()
+                    .setEventId(String.valueOf(eventId.getEventId()))
+                    .build();
+        }
+        var error = AuditRestProto.ErrorResponse.newBuilder();
+        List<String> messages = ((GlobalErrorHandler.ErrorResponse) body).getMessages();
+        if (messages != null) {
+            error.addAllMessages(messages);
+        }
+        return error.build();
+    }
+}
@@ -0,0 +1,225 @@
+package io.nuvalence.platform.audit.service.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.nuvalence.platform.audit.service.generated.models.AuditEvent;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventsPage;
+import io.nuvalence.platform.audit.service.generated.models.PagingMetadata;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Page of audit events whose events are not held in memory but read one at a time while the
+ * response body is written, so that large pages are sent as they are read from the database. The
+ * events list of the model stays empty; message converters write the events of
+ * {@link #forEachEvent(Consumer)} instead. Events rendered at ingest are written to JSON bodies
+ * as stored, without being mapped to their model.
+ */
+@JsonSerialize(using = StreamedAuditEventsPage.Serializer.class)
+public class StreamedAuditEventsPage extends AuditEventsPage {
+
+    private final transient EventSource eventSource;
+
+    /**
+     * Creates the page.
+     *
+     * @param pagingMetadata paging metadata of the page
+     * @param eventSource    source of the events of the page, read once per written body
+     */
+    public StreamedAuditEventsPage(PagingMetadata pagingMetadata, EventSource eventSource) {
+        this.eventSource = eventSource;
+        setPagingMetadata(pagingMetadata);
+    }
+
+    /**
+     * Reads the events of the page, in order.
+     *
+     * @param consumer consumer of the events, which may stop the read by throwing
+     */
+    public void forEachEvent(Consumer<Event> consumer) {
+        eventSource.forEach(consumer);
+    }
+
+    /**
+     * Source of the events of a streamed page.
+     */
+    @FunctionalInterface
+    public interface EventSource {
+        /**
+         * Hands the events of the page over to the consumer.
+         *
+         * @param consumer consumer of the events
+         */
+        void forEach(Consumer<Event> consumer);
+    }
+
+    /**
+     * Event of a streamed page, only mapped to its model when written without its rendered JSON.
+     */
+    public static final class Event {
+        private final Supplier<AuditEvent> model;
+        private final Supplier<byte[]> renderedJson;
+
+        /**
+         * Creates the event.
+         *
+         * @param model        supplier of the model of the event
+         * @param renderedJson supplier of the UTF-8 JSON rendered at ingest, returning null if the
+         *                     event has none
+         */
+        public Event(Supplier<AuditEvent> model, Supplier<byte[]> renderedJson) {
+            this.model = model;
+            this.renderedJson = renderedJson;
+        }
+
+        public AuditEvent toModel() {
+            return model.get();
+        }
+
+        public byte[] toRenderedJson() {
+            return renderedJson.get();
+        }
+    }
+
+    /**
+     * UTF-8 JSON written as is by byte generators, only decoded by character generators.
+     */
+    static final class RawJson implements SerializableString {
+        private final byte[] utf8;
+        private SerializedString decoded;
+
+        RawJson(byte[] utf8) {
+            this.utf8 = utf8;
+        }
+
+        private SerializedString decoded() {
+            if (decoded == null) {
+                decoded = new SerializedString(new String(utf8, StandardCharsets.UTF_8));
+            }
+            return decoded;
+        }
+
+        @Override
+        public String getValue() {
+            return decoded().getValue();
+        }
+
+        @Override
+        public int charLength() {
+            return decoded().charLength();
+        }
+
+        @Override
+        public char[] asQuotedChars() {
+            return decoded().asQuotedChars();
+        }
+
+        @Override
+        public byte[] asUnquotedUTF8() {
+            return utf8;
+        }
+
+        @Override
+        public byte[] asQuotedUTF8() {
+            return decoded().asQuotedUTF8();
+        }
+
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            return decoded().appendQuotedUTF8(buffer, offset);
+        }
+
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            return decoded().appendQuoted(buffer, offset);
+        }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            if (offset + utf8.length > buffer.length) {
+                return -1;
+            }
+            System.arraycopy(utf8, 0, buffer, offset, utf8.length);
+            return utf8.length;
+        }
+
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            return decoded().appendUnquoted(buffer, offset);
+        }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) throws IOException {
+            return decoded().writeQuotedUTF8(out);
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            out.write(utf8);
+            return utf8.length;
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+            return decoded().putQuotedUTF8(buffer);
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) throws IOException {
+            if (utf8.length > buffer.remaining()) {
+                return -1;
+            }
+            buffer.put(utf8);
+            return utf8.length;
+        }
+    }
+
+    /**
+     * Writes the page with the same fields as the model, each event being written to the
+     * generator as soon as it is read.
+     */
+    static class Serializer extends StdSerializer<StreamedAuditEventsPage> {
+
+        Serializer() {
+            super(StreamedAuditEventsPage.class);
+        }
+
+        @Override
+        public void serialize(
+                StreamedAuditEventsPage page, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("events");
+            try {
+                page.forEachEvent(
+                        event -> {
+                            try {
+                                byte[] json = event.toRenderedJson();
+                                if (json == null) {
+                                    provider.defaultSerializeValue(event.toModel(), generator);
+                                } else {
+                                    generator.writeRawValue(new RawJson(json));
+                                }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+            provider.defaultSerializeField("pagingMetadata", page.getPagingMetadata(), generator);
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.nuvalence.platform.audit.service.controllers;
+
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.error.ApiException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a merged timeline, the last event of a page, handed out to clients as an opaque
+ * token to request the next page.
+ *
+ * @param timestamp timestamp of the last event of the page
+ * @param eventId   id of the last event of the page
+ */
+record TimelinePageToken(OffsetDateTime timestamp, UUID eventId) {
+
+    /**
+     * Returns the position of an event.
+     *
+     * @param entity last event of a page
+     * @return position of the event
+     */
+    static TimelinePageToken of(AuditEventEntity entity) {
+        return new TimelinePageToken(entity.getTimestamp(), entity.getEventId());
+    }
+
+    /**
+     * Decodes a token returned with a previous page.
+     *
+     * @param token token, null for the first page
+     * @return position, null for the first page
+     * @throws ApiException if the token is invalid
+     */
+    static TimelinePageToken decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf('/');
+            return new TimelinePageToken(
+                    OffsetDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw ApiException.Builder.badRequest("Invalid pageToken: " + token);
+        }
+    }
+
+    /**
+     * Encodes the position as a token.
+     *
+     * @return token
+     */
+    String encode() {
+        String value = timestamp.withOffsetSameInstant(ZoneOffset.UTC) + "/" + eventId;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,6 @@
 package io.nuvalence.platform.audit.service.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import io.nuvalence.auth.access.AccessResource;
 import io.nuvalence.platform.audit.service.domain.enums.TypeEnum;
@@ -9,15 +10,15 @@ import jakarta.persistence.Convert;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -36,9 +37,11 @@ import java.util.UUID;
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, property = "@class")
 @AccessResource("audit-event")
 public class AuditEventEntity {
+    /**
+     * Assigned from the id of the published event, so that redelivered events map to the same row.
+     */
     @Id
-    @Column(name = "id", length = 36, insertable = false, updatable = false, nullable = false)
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", length = 36, updatable = false, nullable = false)
     @JdbcTypeCode(SqlTypes.VARCHAR)
     private UUID eventId;
 
@@ -67,6 +70,7 @@ public class AuditEventEntity {
             name = "audit_events_related_business_objects",
             joinColumns = @JoinColumn(name = "audit_event_id"))
     @Column(name = "related_business_object", nullable = false)
+    @BatchSize(size = 50)
     private Set<String> relatedBusinessObjects;
 
     @Embedded private RequestContext requestContext;
@@ -74,4 +78,13 @@ public class AuditEventEntity {
     private String activityType;
 
     private String data;
+
+    /**
+     * API representation of the event rendered at ingest, compressed, when rendering is enabled.
+     * Not mapped, so that entity reads do not load it: it is written by the batch writer and read
+     * by the cursor reader, which selects it instead of the parts it holds.
+     */
+    @Transient
+    @JsonIgnore
+    private byte[] renderedEvent;
 }
@@ -0,0 +1,33 @@
+package io.nuvalence.platform.audit.service.domain;
+
+import java.util.UUID;
+
+/**
+ * Reference to a business object, written {@code type:id} in requests.
+ *
+ * @param type type of business object
+ * @param id   identifier of the business object
+ */
+public record BusinessObjectRef(String type, UUID id) {
+
+    /**
+     * Parses a {@code type:id} reference.
+     *
+     * @param value reference
+     * @return parsed reference
+     * @throws IllegalArgumentException if the reference is not made of a type and a UUID
+     */
+    public static BusinessObjectRef parse(String value) {
+        int separator = value.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid business object: " + value);
+        }
+        return new BusinessObjectRef(
+                value.substring(0, separator), UUID.fromString(value.substring(separator + 1)));
+    }
+
+    @Override
+    public String toString() {
+        return type + ":" + id;
+    }
+}
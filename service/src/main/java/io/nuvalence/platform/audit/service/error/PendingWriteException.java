@@ -0,0 +1,34 @@
+package io.nuvalence.platform.audit.service.error;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Signals that a request stopped waiting for a write which was handed over and may still be
+ * committed, so that the request must not be treated as having stored nothing.
+ */
+public class PendingWriteException extends ThrottledRequestException {
+
+    private static final long serialVersionUID = -5207815327216458317L;
+
+    private final transient CompletableFuture<Void> outcome;
+
+    /**
+     * Creates a new exception.
+     *
+     * @param message    error message
+     * @param retryAfter time after which the client may retry
+     * @param outcome    completed once the write is committed, or exceptionally if it failed
+     */
+    public PendingWriteException(
+            String message, Duration retryAfter, CompletableFuture<Void> outcome) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message, retryAfter);
+        this.outcome = outcome;
+    }
+
+    public CompletableFuture<Void> getOutcome() {
+        return outcome;
+    }
+}
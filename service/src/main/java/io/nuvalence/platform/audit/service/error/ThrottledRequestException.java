@@ -0,0 +1,49 @@
+package io.nuvalence.platform.audit.service.error;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Custom runtime exception used for signalling that a request was shed because the service is
+ * overloaded, along with a hint of when the client may retry.
+ */
+public class ThrottledRequestException extends RuntimeException {
+
+    private static final long serialVersionUID = 3418127045128890231L;
+
+    private final HttpStatus httpStatus;
+
+    private final Duration retryAfter;
+
+    /**
+     * Creates a new exception.
+     *
+     * @param httpStatus status returned to the client, either 429 or 503
+     * @param message    error message
+     * @param retryAfter time after which the client may retry
+     */
+    public ThrottledRequestException(HttpStatus httpStatus, String message, Duration retryAfter) {
+        super(message);
+        this.httpStatus = httpStatus;
+        this.retryAfter = retryAfter;
+    }
+
+    public HttpStatus getHttpStatus() {
+        return httpStatus;
+    }
+
+    /**
+     * Time after which the client may retry, rounded up to whole seconds as required by the
+     * Retry-After header.
+     *
+     * @return seconds to wait before retrying, at least 1
+     */
+    public long getRetryAfterSeconds() {
+        long seconds = retryAfter.toSeconds();
+        if (retryAfter.minusSeconds(seconds).isPositive()) {
+            seconds++;
+        }
+        return Math.max(1, seconds);
+    }
+}
@@ -8,5 +8,7 @@ import lombok.Getter;
 @Getter
 public enum PublisherTopic {
     AUDIT_EVENTS_RECORDING,
+    AUDIT_EVENTS_RECORDING_CRITICAL,
+    AUDIT_EVENTS_RECORDING_BULK,
     APPLICATION_ROLE_REPORTING
 }
@@ -0,0 +1,249 @@
+package io.nuvalence.platform.audit.service.events.async;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.events.event.service.EventGateway;
+import io.nuvalence.platform.audit.service.config.AsyncPublishProperties;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import io.nuvalence.platform.audit.service.events.journal.SpillJournal;
+import io.nuvalence.platform.audit.service.events.ordering.OrderedLanes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes created events in the background, so that requests are answered without waiting for
+ * the broker. Each event goes to the publisher thread of its business object, which publishes the
+ * events of an object in the order they were submitted, and is retried with an exponential backoff
+ * while the broker fails. Events still failing are journaled to disk and published again later,
+ * as are events left queued at shutdown; a journaled event is then published after the events of
+ * its object submitted in between, so ordering is not kept across a broker outage.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@EnableConfigurationProperties(AsyncPublishProperties.class)
+public class AsyncEventPublisher implements DisposableBean {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final AsyncPublishProperties properties;
+    private final EventGateway eventGateway;
+    private final SpillJournal<JournaledEvent> journal;
+    private final List<ThreadPoolExecutor> publishers = new ArrayList<>();
+    private final Timer publishTimer;
+    private final Counter retriedCounter;
+    private final Counter journaledCounter;
+    private final Counter rejectedCounter;
+
+    /**
+     * Creates the publishers.
+     *
+     * @param properties    asynchronous publication configuration
+     * @param eventGateway  gateway events are published with
+     * @param objectMapper  mapper serializing journaled events
+     * @param meterRegistry registry the publication metrics are published to
+     */
+    public AsyncEventPublisher(
+            AsyncPublishProperties properties,
+            EventGateway eventGateway,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.eventGateway = eventGateway;
+        this.journal =
+                new SpillJournal<>(
+                        properties.getJournalDirectory(), objectMapper, JournaledEvent.class);
+        if (properties.isEnabled()) {
+            for (int i = 0; i < properties.getPublishers(); i++) {
+                int publisher = i;
+                publishers.add(
+                        new ThreadPoolExecutor(
+                                1,
+                                1,
+                                0,
+                                TimeUnit.MILLISECONDS,
+                                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                                task -> {
+                                    Thread thread =
+                                            new Thread(task, "audit-async-publisher-" + publisher);
+                                    thread.setDaemon(true);
+                                    return thread;
+                                },
+                                new ThreadPoolExecutor.AbortPolicy()));
+            }
+        }
+        Gauge.builder("audit.publish.async.queued", publishers, AsyncEventPublisher::queued)
+                .description("Number of created events waiting to be published")
+                .register(meterRegistry);
+        this.publishTimer =
+                Timer.builder("audit.publish.async.latency")
+                        .description("Time between the acceptance of an event and its publication")
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry);
+        this.retriedCounter = meterRegistry.counter("audit.publish.async.retried");
+        this.journaledCounter = meterRegistry.counter("audit.publish.async.journaled");
+        this.rejectedCounter = meterRegistry.counter("audit.publish.async.rejected");
+    }
+
+    private static double queued(List<ThreadPoolExecutor> publishers) {
+        return publishers.stream().mapToInt(executor -> executor.getQueue().size()).sum();
+    }
+
+    /**
+     * Tells whether created events are published asynchronously.
+     *
+     * @return true if requests do not wait for the broker
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Hands an event over to its publisher.
+     *
+     * @param event event to publish
+     * @param topic fully qualified topic name
+     * @throws ThrottledRequestException if the publisher of the event is full
+     */
+    public void submit(AuditEvent event, String topic) {
+        PublishTask task = new PublishTask(event, topic);
+        try {
+            publisherOf(event).execute(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ThrottledRequestException(
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many audit events waiting to be published, please retry later.",
+                    properties.getRetryAfter());
+        }
+    }
+
+    private ThreadPoolExecutor publisherOf(AuditEvent event) {
+        String key = OrderedLanes.orderingKey(event);
+        if (key == null) {
+            return publishers.get(0);
+        }
+        int hash = key.hashCode();
+        return publishers.get(Math.floorMod(hash ^ (hash >>> 16), publishers.size()));
+    }
+
+    private void journal(PublishTask task, RuntimeException failure) {
+        try {
+            journal.append(new JournaledEvent(task.topic, task.event));
+            journaledCounter.increment();
+            log.error(
+                    "Journaled audit event {} which failed to publish",
+                    task.event.getMetadata().getId(),
+                    failure);
+        } catch (RuntimeException e) {
+            e.addSuppressed(failure);
+            log.error("Lost audit event {}", task.event.getMetadata().getId(), e);
+        }
+    }
+
+    /**
+     * Publishes journaled events again.
+     */
+    @Scheduled(fixedDelayString = "${audit.async-publish.journal-replay-interval-ms:5000}")
+    public void replayJournal() {
+        if (!properties.isEnabled() || !journal.hasSegments()) {
+            return;
+        }
+        try {
+            long replayed =
+                    journal.replay(
+                            journaled -> {
+                                eventGateway.publishEvent(journaled.event(), journaled.topic());
+                            });
+            log.info("Published {} journaled audit events", replayed);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to publish journaled audit events, retrying on next run", e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        publishers.forEach(ThreadPoolExecutor::shutdown);
+        for (ThreadPoolExecutor publisher : publishers) {
+            if (!publisher.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                // events still queued are journaled, to be published after the restart
+                for (Runnable task : publisher.shutdownNow()) {
+                    journal((PublishTask) task, new IllegalStateException("Shutting down"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Event waiting for publication.
+     */
+    private final class PublishTask implements Runnable {
+
+        private final AuditEvent event;
+        private final String topic;
+        private final long acceptedAt = System.nanoTime();
+
+        private PublishTask(AuditEvent event, String topic) {
+            this.event = event;
+            this.topic = topic;
+        }
+
+        @Override
+        public void run() {
+            long backoffMillis = properties.getInitialBackoff().toMillis();
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    eventGateway.publishEvent(event, topic);
+                    publishTimer.record(System.nanoTime() - acceptedAt, TimeUnit.NANOSECONDS);
+                    return;
+                } catch (RuntimeException e) {
+                    if (attempt >= properties.getMaxAttempts()) {
+                        journal(this, e);
+                        return;
+                    }
+                    retriedCounter.increment();
+                    log.warn(
+                            "Attempt {} at publishing audit event {} failed, retrying in {} ms",
+                            attempt,
+                            event.getMetadata().getId(),
+                            backoffMillis,
+                            e);
+                    try {
+                        Thread.sleep(backoffMillis);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        journal(this, e);
+                        return;
+                    }
+                    backoffMillis =
+                            Math.min(backoffMillis * 2, properties.getMaxBackoff().toMillis());
+                }
+            }
+        }
+    }
+
+    /**
+     * Event journaled to disk with its topic.
+     *
+     * @param topic fully qualified topic name
+     * @param event audit event
+     */
+    record JournaledEvent(String topic, AuditEvent event) {}
+}
@@ -0,0 +1,48 @@
+package io.nuvalence.platform.audit.service.events.deadletter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.nuvalence.platform.audit.service.config.exception.ProvidedDataException;
+import io.nuvalence.platform.audit.service.error.ApiException;
+import io.nuvalence.platform.audit.service.error.AuditEventParsingException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+/**
+ * Tells failures an event will keep causing however often it is delivered, such as an invalid
+ * payload or a value the database rejects, from failures which may go away on their own, such as
+ * an unavailable database or a saturated workload.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FailureClassifier {
+
+    private static final List<Class<? extends Throwable>> PERMANENT_FAILURES =
+            List.of(
+                    ApiException.class,
+                    ProvidedDataException.class,
+                    AuditEventParsingException.class,
+                    JsonProcessingException.class,
+                    DataIntegrityViolationException.class,
+                    IllegalArgumentException.class,
+                    NullPointerException.class,
+                    ClassCastException.class);
+
+    /**
+     * Tells whether a failure is permanent, looking through its causes.
+     *
+     * @param failure failure
+     * @return true if retrying the event cannot succeed
+     */
+    public static boolean isPermanent(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            for (Class<? extends Throwable> permanent : PERMANENT_FAILURES) {
+                if (permanent.isInstance(cause)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
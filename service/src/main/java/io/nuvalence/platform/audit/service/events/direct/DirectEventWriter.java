@@ -0,0 +1,283 @@
+package io.nuvalence.platform.audit.service.events.direct;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.platform.audit.service.config.DirectWriteProperties;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import io.nuvalence.platform.audit.service.events.deadletter.FailureClassifier;
+import io.nuvalence.platform.audit.service.events.journal.SpillJournal;
+import io.nuvalence.platform.audit.service.mapper.AuditEventMapper;
+import io.nuvalence.platform.audit.service.service.AuditEventService;
+import io.nuvalence.platform.audit.service.service.ParkedAuditEventService;
+import io.nuvalence.platform.audit.service.workload.Workload;
+import io.nuvalence.platform.audit.service.workload.WorkloadContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Persists created events without a message broker. Requests hand their event to a preallocated
+ * {@link RingBuffer}, drained in batches by dedicated writer threads; the handoff itself neither
+ * locks nor allocates while the writers keep up, idle writers blocking until an event comes. When
+ * the ring is full the configured policy applies: wait for room, reject with a 429, or spill the
+ * event to disk, spilled events being written back once the ring drained. Batches failing
+ * transiently are retried; a batch failing permanently is written again one event at a time, so
+ * that only the events which cannot be stored are parked.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@EnableConfigurationProperties(DirectWriteProperties.class)
+public class DirectEventWriter implements DisposableBean {
+
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final DirectWriteProperties properties;
+    private final AuditEventMapper auditEventMapper;
+    private final ObjectProvider<AuditEventService> auditEventServiceProvider;
+    private final ObjectProvider<ParkedAuditEventService> parkedAuditEventServiceProvider;
+    private final RingBuffer<AuditEventEntity> ring;
+    private final SpillJournal<AuditEventEntity> spillJournal;
+    private final List<Thread> writers = new ArrayList<>();
+    private final Counter rejectedCounter;
+    private final Counter spilledCounter;
+    private final Counter droppedCounter;
+    private volatile boolean running;
+
+    /**
+     * Creates the writer.
+     *
+     * @param properties                      direct-write configuration
+     * @param auditEventMapper                mapper of events to entities
+     * @param auditEventServiceProvider       service persisting events
+     * @param parkedAuditEventServiceProvider service parking events failing permanently
+     * @param objectMapper                    mapper serializing spilled events
+     * @param meterRegistry                   registry the writer metrics are published to
+     */
+    public DirectEventWriter(
+            DirectWriteProperties properties,
+            AuditEventMapper auditEventMapper,
+            ObjectProvider<AuditEventService> auditEventServiceProvider,
+            ObjectProvider<ParkedAuditEventService> parkedAuditEventServiceProvider,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.auditEventMapper = auditEventMapper;
+        this.auditEventServiceProvider = auditEventServiceProvider;
+        this.parkedAuditEventServiceProvider = parkedAuditEventServiceProvider;
+        this.ring =
+                properties.isEnabled()
+                        ? new RingBuffer<>(properties.getRingSize(), properties.getWriters())
+                        : new RingBuffer<>(1, 1);
+        this.spillJournal =
+                new SpillJournal<>(
+                        properties.getSpillDirectory(), objectMapper, AuditEventEntity.class);
+        Gauge.builder("audit.direct-write.ring.occupancy", ring, RingBuffer::getOccupancy)
+                .register(meterRegistry);
+        this.rejectedCounter = meterRegistry.counter("audit.direct-write.rejected");
+        this.spilledCounter = meterRegistry.counter("audit.direct-write.spilled");
+        this.droppedCounter = meterRegistry.counter("audit.direct-write.dropped");
+    }
+
+    /**
+     * Tells whether created events are written directly.
+     *
+     * @return true if events are written directly instead of being published
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Hands an event over to the writer threads.
+     *
+     * @param event event to persist
+     * @throws ThrottledRequestException if the ring is full and the policy is to reject, or to
+     *                                   block and no room was made in time
+     */
+    public void submit(AuditEvent event) {
+        AuditEventEntity entity = auditEventMapper.toEntity(event);
+        long sequence = ring.tryClaim();
+        if (sequence < 0) {
+            switch (properties.getFullPolicy()) {
+                case REJECT -> {
+                    rejectedCounter.increment();
+                    throw new ThrottledRequestException(
+                            HttpStatus.TOO_MANY_REQUESTS,
+                            "Too many audit events waiting to be written, please retry later.",
+                            properties.getRetryAfter());
+                }
+                case SPILL -> {
+                    spillJournal.append(entity);
+                    spilledCounter.increment();
+                    return;
+                }
+                default -> sequence = claimBlocking();
+            }
+        }
+        ring.publish(sequence, entity);
+    }
+
+    private long claimBlocking() {
+        long deadline = System.nanoTime() + properties.getBlockTimeout().toNanos();
+        long sequence;
+        while ((sequence = ring.tryClaim()) < 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                rejectedCounter.increment();
+                throw new ThrottledRequestException(
+                        HttpStatus.SERVICE_UNAVAILABLE,
+                        "Audit events could not be written in time, please retry later.",
+                        properties.getRetryAfter());
+            }
+            try {
+                ring.awaitRoom(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for room in the ring", e);
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * Starts the writer threads.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        AuditEventService auditEventService = auditEventServiceProvider.getObject();
+        for (int i = 0; i < properties.getWriters(); i++) {
+            int writer = i;
+            Thread thread =
+                    new Thread(() -> write(writer, auditEventService), "audit-direct-writer-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            writers.add(thread);
+        }
+    }
+
+    private void write(int writer, AuditEventService auditEventService) {
+        WorkloadContext.set(Workload.INGEST);
+        List<AuditEventEntity> batch = new ArrayList<>(properties.getBatchSize());
+        while (true) {
+            int drained = ring.drain(writer, batch, properties.getBatchSize());
+            if (drained == 0) {
+                if (!running) {
+                    return;
+                }
+                try {
+                    // bounded, so that stopping is noticed
+                    ring.awaitPublished(writer, IDLE_NANOS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                continue;
+            }
+            persist(auditEventService, batch);
+            ring.release(writer, drained);
+            batch.clear();
+        }
+    }
+
+    private void persist(AuditEventService auditEventService, List<AuditEventEntity> batch) {
+        // slots stay reserved until the batch is written, a failing database fills the ring
+        while (true) {
+            try {
+                auditEventService.saveAuditEvents(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (FailureClassifier.isPermanent(e)) {
+                    log.warn(
+                            "An audit event of a batch of {} fails, writing them one at a time",
+                            batch.size(),
+                            e);
+                    batch.forEach(entity -> persistOne(auditEventService, entity));
+                    return;
+                }
+                log.error("Unable to write {} audit events, retrying", batch.size(), e);
+                LockSupport.parkNanos(RETRY_NANOS);
+            }
+        }
+    }
+
+    private void persistOne(AuditEventService auditEventService, AuditEventEntity entity) {
+        while (true) {
+            try {
+                auditEventService.saveAuditEvent(entity);
+                return;
+            } catch (RuntimeException e) {
+                if (FailureClassifier.isPermanent(e)) {
+                    park(entity, e);
+                    return;
+                }
+                log.error("Unable to write audit event {}, retrying", entity.getEventId(), e);
+                LockSupport.parkNanos(RETRY_NANOS);
+            }
+        }
+    }
+
+    private void park(AuditEventEntity entity, RuntimeException error) {
+        try {
+            parkedAuditEventServiceProvider
+                    .getObject()
+                    .park(auditEventMapper.fromEntity(entity), error);
+        } catch (RuntimeException e) {
+            // retrying could not succeed either, the event would hold its writer forever
+            e.addSuppressed(error);
+            droppedCounter.increment();
+            log.error("Dropped audit event {} failing permanently", entity.getEventId(), e);
+        }
+    }
+
+    /**
+     * Writes spilled events back through the ring once it is less than half full.
+     */
+    @Scheduled(fixedDelayString = "${audit.direct-write.spill-replay-interval-ms:1000}")
+    public void replaySpilled() {
+        if (!running
+                || !spillJournal.hasSegments()
+                || ring.getOccupancy() > ring.getCapacity() / 2) {
+            return;
+        }
+        try {
+            long replayed =
+                    spillJournal.replay(entity -> ring.publish(claimBlocking(), entity));
+            log.info("Wrote back {} spilled audit events", replayed);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to write spilled audit events back, retrying on next run", e);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws InterruptedException {
+        // writers drain the ring before stopping
+        running = false;
+        for (Thread writer : writers) {
+            writer.join(properties.getBlockTimeout().toMillis());
+        }
+        writers.clear();
+    }
+}
@@ -0,0 +1,209 @@
+package io.nuvalence.platform.audit.service.events.direct;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Preallocated multi-producer ring buffer, in the manner of the LMAX Disruptor. Producers claim a
+ * sequence with a CAS on the claim cursor, store their entry in the slot of that sequence and
+ * mark the slot as published. Each slot is consumed by a single consumer, sequences being dealt
+ * round-robin between consumers, so that consumers never contend with each other. A slot can be
+ * claimed again once its consumer released it.
+ *
+ * <p>Idle consumers and producers waiting for room block on a condition instead of spinning. The
+ * lock of the conditions is only taken to wait, or by the other side when it sees a waiter, so
+ * that the handoff stays lock-free while both sides keep up.
+ *
+ * @param <T> type of the entries
+ */
+public final class RingBuffer<T> {
+
+    private final Object[] entries;
+    private final AtomicLongArray published;
+    private final AtomicLongArray consumerNext;
+    private final AtomicLong claimCursor = new AtomicLong(-1);
+    private final int mask;
+    private final int consumers;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition publishedCondition = lock.newCondition();
+    private final Condition releasedCondition = lock.newCondition();
+    private final AtomicInteger waitingConsumers = new AtomicInteger();
+    private final AtomicInteger waitingProducers = new AtomicInteger();
+
+    /**
+     * Creates a ring buffer.
+     *
+     * @param size      number of slots, rounded up to a power of two
+     * @param consumers number of consumers
+     */
+    public RingBuffer(int size, int consumers) {
+        int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.entries = new Object[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.consumers = consumers;
+        this.consumerNext = new AtomicLongArray(consumers);
+        for (int i = 0; i < consumers; i++) {
+            consumerNext.set(i, i);
+        }
+        this.mask = capacity - 1;
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    /**
+     * Approximate number of entries claimed and not released yet.
+     *
+     * @return number of used slots
+     */
+    public long getOccupancy() {
+        long oldest = Long.MAX_VALUE;
+        for (int i = 0; i < consumers; i++) {
+            oldest = Math.min(oldest, consumerNext.get(i));
+        }
+        return Math.max(0, Math.min(entries.length, claimCursor.get() + 1 - oldest));
+    }
+
+    /**
+     * Claims the next slot.
+     *
+     * @return sequence of the claimed slot, or -1 if the ring is full
+     */
+    public long tryClaim() {
+        while (true) {
+            long current = claimCursor.get();
+            long next = current + 1;
+            if (!isFree(next)) {
+                return -1;
+            }
+            if (claimCursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private boolean isFree(long sequence) {
+        long previousLap = sequence - entries.length;
+        return previousLap < 0 || consumerNext.get((int) (previousLap % consumers)) > previousLap;
+    }
+
+    /**
+     * Waits until a slot may be claimed, or the timeout elapsed.
+     *
+     * @param timeoutNanos maximum time to wait, in nanoseconds
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitRoom(long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            // registered before checking, so that a release in between signals the condition
+            waitingProducers.incrementAndGet();
+            try {
+                if (!isFree(claimCursor.get() + 1)) {
+                    releasedCondition.awaitNanos(timeoutNanos);
+                }
+            } finally {
+                waitingProducers.decrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores an entry in a claimed slot and makes it visible to its consumer.
+     *
+     * @param sequence claimed sequence
+     * @param entry    entry
+     */
+    public void publish(long sequence, T entry) {
+        int index = (int) (sequence & mask);
+        entries[index] = entry;
+        // volatile write, orders the entry store before the consumer reading the flag
+        published.set(index, sequence);
+        if (waitingConsumers.get() > 0) {
+            signalAll(publishedCondition);
+        }
+    }
+
+    /**
+     * Waits until an entry is published for a consumer, or the timeout elapsed.
+     *
+     * @param consumer     consumer index
+     * @param timeoutNanos maximum time to wait, in nanoseconds
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitPublished(int consumer, long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            // registered before checking, so that a publish in between signals the condition
+            waitingConsumers.incrementAndGet();
+            try {
+                long sequence = consumerNext.get(consumer);
+                if (published.get((int) (sequence & mask)) != sequence) {
+                    publishedCondition.awaitNanos(timeoutNanos);
+                }
+            } finally {
+                waitingConsumers.decrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the published entries of a consumer, in sequence order, to a batch. The slots stay
+     * reserved until {@link #release(int, int)}.
+     *
+     * @param consumer   consumer index
+     * @param batch      batch the entries are added to
+     * @param maxEntries maximum number of entries to drain
+     * @return number of entries drained
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(int consumer, List<T> batch, int maxEntries) {
+        long sequence = consumerNext.get(consumer);
+        int drained = 0;
+        while (drained < maxEntries) {
+            int index = (int) (sequence & mask);
+            if (published.get(index) != sequence) {
+                break;
+            }
+            batch.add((T) entries[index]);
+            entries[index] = null;
+            sequence += consumers;
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Frees the slots of entries drained by a consumer.
+     *
+     * @param consumer consumer index
+     * @param count    number of entries drained and handled
+     */
+    public void release(int consumer, int count) {
+        consumerNext.addAndGet(consumer, (long) count * consumers);
+        if (waitingProducers.get() > 0) {
+            signalAll(releasedCondition);
+        }
+    }
+
+    private void signalAll(Condition condition) {
+        lock.lock();
+        try {
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package io.nuvalence.platform.audit.service.events.inmemory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.platform.audit.service.config.InMemoryBrokerProperties;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import io.nuvalence.platform.audit.service.events.listener.processors.AuditEventProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-JVM stand-in for the message broker and its subscription. Published audit events are
+ * serialized, as they would be on the wire, into a queue, and handed to the
+ * {@link AuditEventProcessor} by a pool of consumer threads blocked on it while idle. Each event
+ * holds a permit of the broker capacity, publishers waiting for one while the broker is full, until
+ * it is acknowledged after the configured ack latency; an event failing to process is delivered
+ * again, up to the configured number of deliveries.
+ */
+@Slf4j
+public class InMemoryBroker implements DisposableBean {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final InMemoryBrokerProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<AuditEventProcessor> processorProvider;
+    private final BlockingQueue<Delivery> queue = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+    private final List<Thread> consumers = new ArrayList<>();
+    private final Timer deliveryTimer;
+    private final Counter droppedCounter;
+    private volatile boolean running;
+
+    /**
+     * Creates the broker.
+     *
+     * @param properties        broker configuration
+     * @param objectMapper      mapper serializing events
+     * @param processorProvider processor consuming events, resolved once the application started
+     * @param meterRegistry     registry the broker metrics are published to
+     */
+    public InMemoryBroker(
+            InMemoryBrokerProperties properties,
+            ObjectMapper objectMapper,
+            ObjectProvider<AuditEventProcessor> processorProvider,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.processorProvider = processorProvider;
+        this.permits = new Semaphore(properties.getCapacity());
+        Gauge.builder(
+                        "audit.broker.in-memory.pending",
+                        permits,
+                        available -> properties.getCapacity() - available.availablePermits())
+                .register(meterRegistry);
+        this.deliveryTimer =
+                Timer.builder("audit.broker.in-memory.delivery")
+                        .description("Time from the publication of an event to its acknowledgement")
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry);
+        this.droppedCounter = meterRegistry.counter("audit.broker.in-memory.dropped");
+    }
+
+    /**
+     * Publishes an event, waiting for room if the broker is full.
+     *
+     * @param event event to publish
+     * @throws ThrottledRequestException if the broker stayed full for the publish timeout
+     */
+    public void publish(AuditEvent event) {
+        try {
+            if (!permits.tryAcquire(
+                    properties.getPublishTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new ThrottledRequestException(
+                        HttpStatus.SERVICE_UNAVAILABLE,
+                        "The in-memory broker is full, please retry later.",
+                        properties.getPublishTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for room in the broker", e);
+        }
+
+        try {
+            queue.add(new Delivery(objectMapper.writeValueAsBytes(event), System.nanoTime(), 1));
+        } catch (IOException e) {
+            permits.release();
+            throw new IllegalArgumentException("Audit event cannot be serialized", e);
+        }
+    }
+
+    /**
+     * Starts the consumer threads.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        AuditEventProcessor processor = processorProvider.getObject();
+        for (int i = 0; i < properties.getConsumers(); i++) {
+            Thread consumer = new Thread(() -> consume(processor), "in-memory-broker-" + i);
+            consumer.setDaemon(true);
+            consumer.start();
+            consumers.add(consumer);
+        }
+        log.info("In-memory broker started with {} consumers", consumers.size());
+    }
+
+    private void consume(AuditEventProcessor processor) {
+        while (running) {
+            Delivery delivery;
+            try {
+                delivery = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (delivery != null) {
+                deliver(processor, delivery);
+            }
+        }
+    }
+
+    private void deliver(AuditEventProcessor processor, Delivery delivery) {
+        try {
+            processor.execute(objectMapper.readValue(delivery.payload(), AuditEvent.class));
+        } catch (Exception e) {
+            if (delivery.attempt() < properties.getMaxDeliveries()) {
+                log.warn("Audit event delivery {} failed, redelivering", delivery.attempt(), e);
+                queue.add(delivery.redeliver());
+            } else {
+                log.error("Audit event dropped after {} deliveries", delivery.attempt(), e);
+                droppedCounter.increment();
+                permits.release();
+            }
+            return;
+        }
+
+        if (!properties.getAckLatency().isZero()) {
+            LockSupport.parkNanos(properties.getAckLatency().toNanos());
+        }
+        permits.release();
+        deliveryTimer.record(System.nanoTime() - delivery.publishedAt(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        running = false;
+        consumers.forEach(Thread::interrupt);
+        consumers.clear();
+    }
+
+    private record Delivery(byte[] payload, long publishedAt, int attempt) {
+        Delivery redeliver() {
+            return new Delivery(payload, publishedAt, attempt + 1);
+        }
+    }
+}
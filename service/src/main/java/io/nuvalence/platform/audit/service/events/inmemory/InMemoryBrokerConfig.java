@@ -0,0 +1,79 @@
+package io.nuvalence.platform.audit.service.events.inmemory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.events.event.service.EventGateway;
+import io.nuvalence.platform.audit.service.config.InMemoryBrokerProperties;
+import io.nuvalence.platform.audit.service.events.listener.processors.AuditEventProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Replaces the Pub/Sub backed event gateway with the {@link InMemoryBroker}, so that the ingest
+ * path can be run end to end, and load tested, with only a database. Run with
+ * {@code ENABLE_PUB_SUB=false} so that the library does not connect to Pub/Sub either.
+ */
+@Slf4j
+@Configuration
+@Profile("in-memory-broker")
+@EnableConfigurationProperties(InMemoryBrokerProperties.class)
+public class InMemoryBrokerConfig {
+
+    /**
+     * In-JVM broker.
+     *
+     * @param properties        broker configuration
+     * @param objectMapper      mapper serializing events
+     * @param processorProvider processor consuming events
+     * @param meterRegistry     registry the broker metrics are published to
+     * @return broker
+     */
+    @Bean
+    public InMemoryBroker inMemoryBroker(
+            InMemoryBrokerProperties properties,
+            ObjectMapper objectMapper,
+            ObjectProvider<AuditEventProcessor> processorProvider,
+            MeterRegistry meterRegistry) {
+        return new InMemoryBroker(properties, objectMapper, processorProvider, meterRegistry);
+    }
+
+    /**
+     * Event gateway publishing audit events to the in-JVM broker. The library gateway is a
+     * messaging gateway interface, which is implemented with a proxy the same way; events other
+     * than audit events, such as role reporting, have no consumer here and are discarded.
+     *
+     * @param inMemoryBroker broker
+     * @return event gateway
+     */
+    @Bean
+    @Primary
+    public EventGateway inMemoryEventGateway(InMemoryBroker inMemoryBroker) {
+        return (EventGateway)
+                Proxy.newProxyInstance(
+                        EventGateway.class.getClassLoader(),
+                        new Class<?>[] {EventGateway.class},
+                        (proxy, method, args) -> {
+                            if (method.getDeclaringClass() == Object.class) {
+                                return switch (method.getName()) {
+                                    case "equals" -> proxy == args[0];
+                                    case "hashCode" -> System.identityHashCode(proxy);
+                                    default -> "InMemoryEventGateway";
+                                };
+                            }
+                            if (args != null && args.length > 0 && args[0] instanceof AuditEvent) {
+                                inMemoryBroker.publish((AuditEvent) args[0]);
+                            } else {
+                                log.debug("Discarding {} call of the in-memory gateway", method);
+                            }
+                            return null;
+                        });
+    }
+}
@@ -0,0 +1,145 @@
+package io.nuvalence.platform.audit.service.events.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only files of events which could not be handled right away, one JSON document per line.
+ * Events are appended to the current segment; replaying closes it and hands the events of every
+ * closed segment back, oldest segment first, deleting each segment once fully replayed. A segment
+ * interrupted mid-replay is replayed again from its start, so events must be handled
+ * idempotently.
+ *
+ * @param <T> type of the events
+ */
+@Slf4j
+public class SpillJournal<T> {
+
+    private static final String SEGMENT_PREFIX = "spill-";
+    private static final String SEGMENT_SUFFIX = ".jsonl";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private BufferedWriter segment;
+    private long segmentCounter;
+
+    /**
+     * Creates a journal.
+     *
+     * @param directory    directory of the segment files
+     * @param objectMapper mapper serializing events
+     * @param type         type of the events
+     */
+    public SpillJournal(Path directory, ObjectMapper objectMapper, Class<T> type) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.type = type;
+    }
+
+    /**
+     * Appends an event to the current segment.
+     *
+     * @param event event
+     */
+    public synchronized void append(T event) {
+        try {
+            if (segment == null) {
+                Files.createDirectories(directory);
+                String name =
+                        String.format(
+                                "%s%013d-%06d%s",
+                                SEGMENT_PREFIX,
+                                System.currentTimeMillis(),
+                                segmentCounter++,
+                                SEGMENT_SUFFIX);
+                segment = Files.newBufferedWriter(directory.resolve(name), StandardCharsets.UTF_8);
+            }
+            segment.write(objectMapper.writeValueAsString(event));
+            segment.newLine();
+            segment.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to spill event to disk", e);
+        }
+    }
+
+    /**
+     * Closes the current segment and lists the closed segments, oldest first. Segments opened
+     * afterwards are left for the next replay.
+     *
+     * @return closed segments
+     * @throws IOException if the segments cannot be listed
+     */
+    private synchronized List<Path> closeSegments() throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+        }
+        try (Stream<Path> files = listSegments()) {
+            return files.sorted().toList();
+        }
+    }
+
+    /**
+     * Tells whether events wait on disk.
+     *
+     * @return true if spilled events are waiting to be replayed
+     */
+    public boolean hasSegments() {
+        try (Stream<Path> files = listSegments()) {
+            return files.findAny().isPresent();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Stream<Path> listSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Stream.empty();
+        }
+        return Files.list(directory)
+                .filter(
+                        path -> {
+                            String name = path.getFileName().toString();
+                            return name.startsWith(SEGMENT_PREFIX)
+                                    && name.endsWith(SEGMENT_SUFFIX);
+                        });
+    }
+
+    /**
+     * Hands the spilled events back, and deletes them once handed.
+     *
+     * @param consumer receiver of the events; an exception stops the replay, the segment being
+     *                 replayed is kept
+     * @return number of events replayed
+     * @throws IOException if a segment cannot be read
+     */
+    public long replay(Consumer<T> consumer) throws IOException {
+        long replayed = 0;
+        for (Path path : closeSegments()) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        consumer.accept(objectMapper.readValue(line, type));
+                        replayed++;
+                    }
+                }
+            }
+            Files.delete(path);
+            log.info("Replayed spilled events of {}", path);
+        }
+        return replayed;
+    }
+}
@@ -0,0 +1,31 @@
+package io.nuvalence.platform.audit.service.events.lanes;
+
+import io.nuvalence.platform.audit.service.events.PublisherTopic;
+
+/**
+ * Priority classes of audit events, each one published to its own topic so that a backlog in one
+ * lane does not delay the others.
+ */
+public enum PriorityLane {
+    /**
+     * Security relevant events which must be persisted within seconds.
+     */
+    CRITICAL(PublisherTopic.AUDIT_EVENTS_RECORDING_CRITICAL),
+
+    STANDARD(PublisherTopic.AUDIT_EVENTS_RECORDING),
+
+    /**
+     * High volume, low value events which may lag.
+     */
+    BULK(PublisherTopic.AUDIT_EVENTS_RECORDING_BULK);
+
+    private final PublisherTopic topic;
+
+    PriorityLane(PublisherTopic topic) {
+        this.topic = topic;
+    }
+
+    public PublisherTopic getTopic() {
+        return topic;
+    }
+}
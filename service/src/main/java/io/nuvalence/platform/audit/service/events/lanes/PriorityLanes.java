@@ -0,0 +1,219 @@
+package io.nuvalence.platform.audit.service.events.lanes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.platform.audit.service.config.PriorityLaneProperties;
+import io.nuvalence.platform.audit.service.config.WorkloadProperties;
+import io.nuvalence.platform.audit.service.domain.enums.TypeEnum;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import io.nuvalence.platform.audit.service.workload.Workload;
+import io.nuvalence.platform.audit.service.workload.WorkloadExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Assigns audit events to priority lanes and persists the events of each lane on its own bounded
+ * executor, so that a flood of low priority events only fills its own lane and cannot delay or
+ * reject the events of the others. The threads of all the lanes share the ingest connection pool,
+ * which must hold a connection for each of them. Without lanes, events are persisted on the ingest
+ * executor.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(PriorityLaneProperties.class)
+public class PriorityLanes implements DisposableBean {
+
+    private final PriorityLaneProperties properties;
+    private final WorkloadExecutor workloadExecutor;
+    private final Duration timeout;
+    private final Map<PriorityLane, ThreadPoolTaskExecutor> executors =
+            new EnumMap<>(PriorityLane.class);
+    private final Map<PriorityLane, Timer> lagTimers = new EnumMap<>(PriorityLane.class);
+
+    /**
+     * Creates the lanes, their executors if enabled, and their metrics.
+     *
+     * @param properties         lane configuration
+     * @param workloadExecutor   executor persisting events without lanes
+     * @param workloadProperties workload sizing, the lanes taking the ingest connections
+     * @param meterRegistry      registry the lane metrics are published to
+     * @throws IllegalStateException if the lanes have more threads than ingest connections
+     */
+    public PriorityLanes(
+            PriorityLaneProperties properties,
+            WorkloadExecutor workloadExecutor,
+            WorkloadProperties workloadProperties,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.workloadExecutor = workloadExecutor;
+        WorkloadProperties.Bulkhead ingest = workloadProperties.get(Workload.INGEST);
+        this.timeout = ingest.getTimeout();
+        if (properties.isEnabled()) {
+            int threads = 0;
+            for (PriorityLane lane : PriorityLane.values()) {
+                threads += properties.getConcurrency().getOrDefault(lane, 1);
+            }
+            if (threads > ingest.getConnections()) {
+                throw new IllegalStateException(
+                        "The priority lanes run "
+                                + threads
+                                + " threads, more than the "
+                                + ingest.getConnections()
+                                + " connections of the ingest pool");
+            }
+        }
+        for (PriorityLane lane : PriorityLane.values()) {
+            String name = lane.name().toLowerCase(Locale.ROOT);
+            if (properties.isEnabled()) {
+                ThreadPoolTaskExecutor executor = createExecutor(lane, name);
+                ExecutorServiceMetrics.monitor(
+                        meterRegistry,
+                        executor.getThreadPoolExecutor(),
+                        "audit.ingest.lane",
+                        Tags.of("lane", name));
+                executors.put(lane, executor);
+            }
+            lagTimers.put(
+                    lane,
+                    Timer.builder("audit.ingest.lane.lag")
+                            .description("Time between an audit event and its persistence")
+                            .tag("lane", name)
+                            .publishPercentiles(0.5, 0.99)
+                            .register(meterRegistry));
+        }
+    }
+
+    private ThreadPoolTaskExecutor createExecutor(PriorityLane lane, String name) {
+        int concurrency = properties.getConcurrency().getOrDefault(lane, 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(properties.getQueueCapacity().getOrDefault(lane, 100));
+        executor.setThreadNamePrefix(name + "-lane-");
+        executor.setTaskDecorator(task -> WorkloadExecutor.bindContext(Workload.INGEST, task));
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Determines the lane of an audit event.
+     *
+     * @param event audit event
+     * @return lane of the first matching rule, or the default lane
+     */
+    public PriorityLane classify(AuditEvent event) {
+        if (!properties.isEnabled()) {
+            return PriorityLane.STANDARD;
+        }
+
+        for (PriorityLaneProperties.Rule rule : properties.getRules()) {
+            if (matches(rule, event)) {
+                return rule.getLane();
+            }
+        }
+        return properties.getDefaultLane();
+    }
+
+    private static boolean matches(PriorityLaneProperties.Rule rule, AuditEvent event) {
+        TypeEnum type = null;
+        String activityType = null;
+        if (event.getEventData() != null) {
+            activityType = event.getEventData().getActivityType();
+            if (event.getEventData().getType() != null) {
+                type = TypeEnum.fromValue(event.getEventData().getType());
+            }
+        }
+        String businessObjectType =
+                event.getBusinessObject() == null ? null : event.getBusinessObject().getType();
+
+        return matches(rule.getTypes(), type)
+                && matches(rule.getActivityTypes(), activityType)
+                && matches(rule.getBusinessObjectTypes(), businessObjectType);
+    }
+
+    private static <T> boolean matches(Set<T> criteria, T value) {
+        return criteria.isEmpty() || criteria.contains(value);
+    }
+
+    /**
+     * Persists an event on the executor of its lane, or on the ingest executor without lanes, and
+     * records its lag.
+     *
+     * @param lane  lane of the event
+     * @param event audit event
+     * @param task  persistence task
+     * @throws ThrottledRequestException if the lane is saturated or the task times out
+     */
+    public void run(PriorityLane lane, AuditEvent event, Runnable task) {
+        ThreadPoolTaskExecutor executor = properties.isEnabled() ? executors.get(lane) : null;
+        if (executor == null) {
+            workloadExecutor.run(Workload.INGEST, task);
+        } else {
+            runOnLane(lane, executor, task);
+        }
+
+        if (event.getMetadata() != null && event.getMetadata().getTimestamp() != null) {
+            Duration lag =
+                    Duration.between(event.getMetadata().getTimestamp(), OffsetDateTime.now());
+            if (!lag.isNegative()) {
+                lagTimers.get(lane).record(lag);
+            }
+        }
+    }
+
+    private void runOnLane(PriorityLane lane, ThreadPoolTaskExecutor executor, Runnable task) {
+        Future<?> future;
+        try {
+            future = executor.submit(task);
+        } catch (TaskRejectedException e) {
+            log.warn("Rejected audit event, the {} lane is saturated", lane);
+            throw new ThrottledRequestException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "The " + lane + " lane is overloaded, please retry later.",
+                    timeout);
+        }
+
+        try {
+            future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ThrottledRequestException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "The audit event timed out in the " + lane + " lane, please retry later.",
+                    timeout);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted waiting for the " + lane + " lane", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executors.values().forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+}
@@ -3,14 +3,25 @@ package io.nuvalence.platform.audit.service.events.listener.processors;
 import io.nuvalence.events.event.AuditEvent;
 import io.nuvalence.events.exception.EventProcessingException;
 import io.nuvalence.events.subscriber.EventProcessor;
+import io.nuvalence.platform.audit.service.config.DeadLetterProperties;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.events.deadletter.FailureClassifier;
+import io.nuvalence.platform.audit.service.events.lanes.PriorityLanes;
+import io.nuvalence.platform.audit.service.events.ordering.OrderedLanes;
 import io.nuvalence.platform.audit.service.mapper.AuditEventMapper;
 import io.nuvalence.platform.audit.service.service.AuditEventService;
+import io.nuvalence.platform.audit.service.service.ParkedAuditEventService;
+import io.nuvalence.platform.audit.service.service.RecentEventIdFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeoutException;
+
 /**
- * This class is responsible for processing audit events.
+ * This class is responsible for processing audit events. Transient failures are retried with an
+ * exponential backoff before the event is nacked, while events failing permanently are parked
+ * instead of being redelivered forever.
  */
 @Slf4j
 @Component
@@ -19,6 +30,11 @@ public class AuditEventProcessor implements EventProcessor<AuditEvent> {
 
     private final AuditEventMapper auditEventMapper;
     private final AuditEventService auditEventService;
+    private final PriorityLanes priorityLanes;
+    private final RecentEventIdFilter recentEventIdFilter;
+    private final OrderedLanes orderedLanes;
+    private final DeadLetterProperties deadLetterProperties;
+    private final ParkedAuditEventService parkedAuditEventService;
 
     @Override
     public Class<AuditEvent> getEventClass() {
@@ -35,9 +51,55 @@ public class AuditEventProcessor implements EventProcessor<AuditEvent> {
                     event.getBusinessObject().getId());
 
             var eventEntity = auditEventMapper.toEntity(event);
-            auditEventService.saveAuditEvent(eventEntity);
+            if (recentEventIdFilter.contains(eventEntity.getEventId())) {
+                log.debug("Dropping redelivered audit event {}", eventEntity.getEventId());
+                return;
+            }
+            persistWithRetry(event, eventEntity);
         } catch (Exception e) {
-            throw new EventProcessingException(e);
+            if (!deadLetterProperties.isEnabled() || !FailureClassifier.isPermanent(e)) {
+                throw new EventProcessingException(e);
+            }
+            try {
+                parkedAuditEventService.park(event, e);
+            } catch (RuntimeException parkingFailure) {
+                parkingFailure.addSuppressed(e);
+                throw new EventProcessingException(parkingFailure);
+            }
+        }
+    }
+
+    private void persistWithRetry(AuditEvent event, AuditEventEntity eventEntity)
+            throws TimeoutException, InterruptedException {
+        long backoffMillis = deadLetterProperties.getInitialBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                orderedLanes.run(event, () -> persist(event, eventEntity));
+                return;
+            } catch (RuntimeException | TimeoutException e) {
+                if (attempt >= deadLetterProperties.getMaxAttempts()
+                        || FailureClassifier.isPermanent(e)) {
+                    throw e;
+                }
+                log.warn(
+                        "Attempt {} at persisting audit event {} failed, retrying in {} ms",
+                        attempt,
+                        eventEntity.getEventId(),
+                        backoffMillis,
+                        e);
+                Thread.sleep(backoffMillis);
+                backoffMillis =
+                        Math.min(
+                                backoffMillis * 2,
+                                deadLetterProperties.getMaxBackoff().toMillis());
+            }
         }
     }
+
+    private void persist(AuditEvent event, AuditEventEntity eventEntity) {
+        priorityLanes.run(
+                priorityLanes.classify(event),
+                event,
+                () -> auditEventService.saveAuditEvent(eventEntity));
+    }
 }
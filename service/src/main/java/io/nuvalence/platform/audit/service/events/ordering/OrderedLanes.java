@@ -0,0 +1,156 @@
+package io.nuvalence.platform.audit.service.events.ordering;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.platform.audit.service.config.OrderedConsumptionProperties;
+import io.nuvalence.platform.audit.service.config.PriorityLaneProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Persists received audit events on single threaded lanes picked by hashing their business
+ * object, so that the events of an object are persisted one at a time, in the order they were
+ * received, while events of different objects are persisted in parallel. Together with the
+ * ordering key set on published events, which makes the broker deliver the events of an object in
+ * publish order, the audit trail of an object is persisted in publish order. The broker only
+ * orders the events of a topic, so priority lanes, which publish the events of an object to
+ * different topics, cannot be enabled together with ordered consumption.
+ */
+@Component
+@EnableConfigurationProperties({OrderedConsumptionProperties.class, PriorityLaneProperties.class})
+public class OrderedLanes implements DisposableBean {
+
+    private final OrderedConsumptionProperties properties;
+    private final List<ThreadPoolExecutor> lanes = new ArrayList<>();
+
+    /**
+     * Creates the lanes and their metrics.
+     *
+     * @param properties         ordered consumption configuration
+     * @param priorityProperties priority lane configuration
+     * @param meterRegistry      registry the lane metrics are published to
+     * @throws IllegalStateException if priority lanes are enabled with ordered consumption
+     */
+    public OrderedLanes(
+            OrderedConsumptionProperties properties,
+            PriorityLaneProperties priorityProperties,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        if (properties.isEnabled() && priorityProperties.isEnabled()) {
+            throw new IllegalStateException(
+                    "Ordered consumption cannot be enabled with priority lanes, which publish the"
+                            + " events of a business object to different topics");
+        }
+        if (properties.isEnabled()) {
+            for (int i = 0; i < properties.getLanes(); i++) {
+                int lane = i;
+                // rejecting instead of running on the caller, which would overtake queued events
+                ThreadPoolExecutor executor =
+                        new ThreadPoolExecutor(
+                                1,
+                                1,
+                                0,
+                                TimeUnit.MILLISECONDS,
+                                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                                task -> {
+                                    Thread thread = new Thread(task, "audit-ordered-lane-" + lane);
+                                    thread.setDaemon(true);
+                                    return thread;
+                                },
+                                new ThreadPoolExecutor.AbortPolicy());
+                lanes.add(executor);
+            }
+        }
+        Gauge.builder("audit.ingest.ordered.queued", lanes, OrderedLanes::queued)
+                .description("Number of received events waiting for their ordered lane")
+                .register(meterRegistry);
+    }
+
+    private static double queued(List<ThreadPoolExecutor> lanes) {
+        return lanes.stream().mapToInt(executor -> executor.getQueue().size()).sum();
+    }
+
+    /**
+     * Tells whether events are persisted through ordered lanes.
+     *
+     * @return true if ordered consumption is enabled
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Builds the key ordering the events of a business object.
+     *
+     * @param event audit event
+     * @return ordering key, or null if the event has no business object
+     */
+    public static String orderingKey(AuditEvent event) {
+        if (event.getBusinessObject() == null) {
+            return null;
+        }
+        return event.getBusinessObject().getType() + ":" + event.getBusinessObject().getId();
+    }
+
+    /**
+     * Runs a task on the lane of an event and waits for it to complete. When disabled, the task
+     * runs on the calling thread.
+     *
+     * @param event audit event
+     * @param task  persistence task
+     * @throws RejectedExecutionException if the lane is full
+     * @throws TimeoutException           if the lane did not complete the task in time
+     * @throws InterruptedException       if interrupted while waiting
+     */
+    public void run(AuditEvent event, Runnable task)
+            throws TimeoutException, InterruptedException {
+        if (!properties.isEnabled()) {
+            task.run();
+            return;
+        }
+
+        Future<?> future = lanes.get(laneOf(orderingKey(event))).submit(task);
+        try {
+            // a timed out task still runs in its turn, its redelivery being a duplicate
+            future.get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Picks the lane of an ordering key.
+     *
+     * @param key ordering key, possibly null
+     * @return lane index
+     */
+    int laneOf(String key) {
+        if (key == null) {
+            return 0;
+        }
+        int hash = key.hashCode();
+        // spreads the high bits, type prefixes make the low bits of similar keys alike
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, lanes.size());
+    }
+
+    @Override
+    public void destroy() {
+        lanes.forEach(ThreadPoolExecutor::shutdown);
+    }
+}
@@ -0,0 +1,44 @@
+package io.nuvalence.platform.audit.service.events.ordering;
+
+import io.nuvalence.events.event.AuditEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.integration.config.GlobalChannelInterceptor;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sets the Pub/Sub ordering key of published audit events to their business object, so that the
+ * events of an object are delivered in publish order. Publishing with an ordering key requires
+ * {@code spring.cloud.gcp.pubsub.publisher.enable-message-ordering}, and ordered delivery a
+ * subscription created with message ordering enabled.
+ */
+@Component
+@RequiredArgsConstructor
+@GlobalChannelInterceptor
+public class OrderingKeyInterceptor implements ChannelInterceptor {
+
+    /**
+     * Header read by the Pub/Sub outbound adapter, see {@code GcpPubSubHeaders.ORDERING_KEY}.
+     */
+    static final String ORDERING_KEY_HEADER = "gcp_pubsub_ordering_key";
+
+    private final OrderedLanes orderedLanes;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!orderedLanes.isEnabled()
+                || !(message.getPayload() instanceof AuditEvent event)
+                || message.getHeaders().containsKey(ORDERING_KEY_HEADER)) {
+            return message;
+        }
+
+        String key = OrderedLanes.orderingKey(event);
+        if (key == null) {
+            return message;
+        }
+        return MessageBuilder.fromMessage(message).setHeader(ORDERING_KEY_HEADER, key).build();
+    }
+}
@@ -0,0 +1,171 @@
+package io.nuvalence.platform.audit.service.events.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.platform.audit.service.config.OutboxProperties;
+import io.nuvalence.platform.audit.service.error.PendingWriteException;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import io.nuvalence.platform.audit.service.workload.Workload;
+import io.nuvalence.platform.audit.service.workload.WorkloadContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Appends events to the outbox table. Requests hand their event to a single writer thread, which
+ * inserts all events waiting at that time in one batch and transaction, so that the cost of a
+ * commit is shared by concurrent requests. A request returns once its event is committed.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(OutboxProperties.class)
+public class AuditEventOutbox implements InitializingBean, DisposableBean {
+
+    private static final String INSERT_ROW =
+            "INSERT INTO audit_event_outbox (topic, payload, created_at) VALUES (?, ?, ?)";
+
+    private final OutboxProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<PendingRow> queue;
+    private Thread writer;
+
+    /**
+     * Creates the outbox.
+     *
+     * @param properties         outbox configuration
+     * @param jdbcTemplate       jdbc template
+     * @param transactionManager transaction manager
+     * @param objectMapper       mapper serializing events
+     */
+    public AuditEventOutbox(
+            OutboxProperties properties,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    /**
+     * Tells whether events are published through the outbox.
+     *
+     * @return true if events are published through the outbox
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Stores an event to be relayed to a topic, and waits until it is committed.
+     *
+     * @param event event to publish
+     * @param topic fully qualified name of the topic
+     * @throws ThrottledRequestException if too many events are waiting to be appended
+     * @throws PendingWriteException     if the event could not be appended in time, while it may
+     *                                   still be
+     */
+    public void append(AuditEvent event, String topic) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Audit event cannot be serialized", e);
+        }
+
+        PendingRow row = new PendingRow(topic, payload, new CompletableFuture<>());
+        if (!queue.offer(row)) {
+            throw new ThrottledRequestException(
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many audit events waiting to be stored, please retry later.",
+                    properties.getAppendTimeout());
+        }
+        try {
+            row.committed().get(properties.getAppendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // the event is still queued, and may be committed after all
+            throw new PendingWriteException(
+                    "Audit event could not be stored in time, please retry later.",
+                    properties.getAppendTimeout(),
+                    row.committed());
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Audit event could not be stored", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while storing the audit event", e);
+        }
+    }
+
+    private void writeLoop() {
+        WorkloadContext.set(Workload.INGEST);
+        List<PendingRow> batch = new ArrayList<>(properties.getWriteBatchSize());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, properties.getWriteBatchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingRow> batch) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = batch.stream().map(row -> row.toParameters(now)).toList();
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> jdbcTemplate.batchUpdate(INSERT_ROW, rows));
+            batch.forEach(row -> row.committed().complete(null));
+        } catch (RuntimeException e) {
+            log.error("Unable to append {} audit events to the outbox", batch.size(), e);
+            batch.forEach(row -> row.committed().completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (properties.isEnabled()) {
+            writer = new Thread(this::writeLoop, "audit-outbox-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    private record PendingRow(String topic, String payload, CompletableFuture<Void> committed) {
+        Object[] toParameters(Timestamp createdAt) {
+            return new Object[] {topic, payload, createdAt};
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package io.nuvalence.platform.audit.service.events.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.events.event.service.EventGateway;
+import io.nuvalence.platform.audit.service.config.OutboxProperties;
+import io.nuvalence.platform.audit.service.events.ordering.OrderedLanes;
+import io.nuvalence.platform.audit.service.repository.ParkedAuditEventRepository;
+import io.nuvalence.platform.audit.service.workload.Workload;
+import io.nuvalence.platform.audit.service.workload.WorkloadContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Publishes the events stored in the outbox to their topic, oldest first, and deletes them once
+ * published. Rows are claimed with {@code FOR UPDATE SKIP LOCKED} in a short transaction which
+ * only leases them for the claim timeout, so that every replica relays a different batch in
+ * parallel without holding row locks while publishing. The events of a batch are published
+ * concurrently by publisher threads, each one publishing the events of its business objects in
+ * order, and the batch completes once all of them were acknowledged, so that publishing a batch
+ * takes about as long as its slowest events rather than the sum of all of them. Rows left by a
+ * failed publication are released, and those of a replica which stopped relaying, or published
+ * for longer than the lease, are claimed again once their lease expired; events already published
+ * are then delivered twice and dropped by the persistence, which is idempotent on event ids. Rows
+ * which are not audit events are parked one at a time, so that they do not hold back the rows
+ * after them.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "audit.outbox.enabled", havingValue = "true")
+public class OutboxRelay implements DisposableBean {
+
+    private static final String CLAIM_ROWS =
+            "SELECT id, topic, payload FROM audit_event_outbox"
+                    + " WHERE claimed_until IS NULL OR claimed_until < ?"
+                    + " ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String LEASE_ROW =
+            "UPDATE audit_event_outbox SET claimed_until = ? WHERE id = ?";
+    private static final String RELEASE_ROW =
+            "UPDATE audit_event_outbox SET claimed_until = NULL WHERE id = ?";
+    private static final String DELETE_ROW = "DELETE FROM audit_event_outbox WHERE id = ?";
+
+    private final OutboxProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final EventGateway eventGateway;
+    private final ParkedAuditEventRepository parkedAuditEventRepository;
+    private final Counter relayedCounter;
+    private final Counter parkedCounter;
+    private final ExecutorService publishers;
+
+    /**
+     * Creates the relay.
+     *
+     * @param properties                 outbox configuration
+     * @param jdbcTemplate               jdbc template
+     * @param transactionManager         transaction manager
+     * @param objectMapper               mapper deserializing events
+     * @param eventGateway               gateway events are published with
+     * @param parkedAuditEventRepository repository rows which are not audit events are parked in
+     * @param meterRegistry              registry the number of relayed events is published to
+     */
+    public OutboxRelay(
+            OutboxProperties properties,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            EventGateway eventGateway,
+            ParkedAuditEventRepository parkedAuditEventRepository,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.eventGateway = eventGateway;
+        this.parkedAuditEventRepository = parkedAuditEventRepository;
+        this.relayedCounter = meterRegistry.counter("audit.outbox.relayed");
+        this.parkedCounter = meterRegistry.counter("audit.outbox.parked");
+        this.publishers =
+                Executors.newFixedThreadPool(
+                        properties.getRelayConcurrency(),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "outbox-relay-publisher");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+
+    /**
+     * Relays batches of outbox rows until the outbox is drained.
+     */
+    @Scheduled(fixedDelayString = "${audit.outbox.relay-interval-ms:200}")
+    public void relay() {
+        WorkloadContext.set(Workload.INGEST);
+        try {
+            List<OutboxRow> rows;
+            do {
+                rows = transactionTemplate.execute(status -> claimBatch());
+                relayBatch(rows);
+            } while (rows.size() == properties.getRelayBatchSize());
+        } catch (RuntimeException e) {
+            log.warn("Unable to relay the audit event outbox, retrying on next run", e);
+        } finally {
+            WorkloadContext.clear();
+        }
+    }
+
+    private List<OutboxRow> claimBatch() {
+        Instant now = Instant.now();
+        List<OutboxRow> rows =
+                jdbcTemplate.query(
+                        CLAIM_ROWS,
+                        (rs, rowNum) ->
+                                new OutboxRow(
+                                        rs.getLong("id"),
+                                        rs.getString("topic"),
+                                        rs.getString("payload")),
+                        Timestamp.from(now),
+                        properties.getRelayBatchSize());
+        if (!rows.isEmpty()) {
+            Timestamp claimedUntil = Timestamp.from(now.plus(properties.getClaimTimeout()));
+            jdbcTemplate.batchUpdate(
+                    LEASE_ROW,
+                    rows.stream().map(row -> new Object[] {claimedUntil, row.id()}).toList());
+        }
+        return rows;
+    }
+
+    private void relayBatch(List<OutboxRow> rows) {
+        List<List<PendingEvent>> partitions = new ArrayList<>();
+        for (int i = 0; i < properties.getRelayConcurrency(); i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (OutboxRow row : rows) {
+            AuditEvent event;
+            try {
+                event = objectMapper.readValue(row.payload(), AuditEvent.class);
+            } catch (JsonProcessingException e) {
+                park(row, e);
+                continue;
+            }
+            partitions
+                    .get(partitionOf(row, event))
+                    .add(new PendingEvent(row.id(), row.topic(), event));
+        }
+
+        List<List<PendingEvent>> submitted = new ArrayList<>();
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (List<PendingEvent> partition : partitions) {
+            if (!partition.isEmpty()) {
+                submitted.add(partition);
+                futures.add(publishers.submit(() -> publish(partition)));
+            }
+        }
+
+        List<Object[]> published = new ArrayList<>(rows.size());
+        List<Object[]> unpublished = new ArrayList<>();
+        RuntimeException failure = null;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                List<PendingEvent> partition = submitted.get(i);
+                int count;
+                try {
+                    count = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    RuntimeException cause;
+                    if (e.getCause() instanceof PublishException publishException) {
+                        count = publishException.published;
+                        cause = (RuntimeException) publishException.getCause();
+                    } else {
+                        count = 0;
+                        cause = new IllegalStateException(e.getCause());
+                    }
+                    if (failure == null) {
+                        failure = cause;
+                    }
+                }
+                partition
+                        .subList(0, count)
+                        .forEach(pending -> published.add(new Object[] {pending.id()}));
+                // events after a failed publication are relayed again without waiting for their
+                // lease, and in order since the events of their business object after them are too
+                partition
+                        .subList(count, partition.size())
+                        .forEach(pending -> unpublished.add(new Object[] {pending.id()}));
+            }
+        } catch (InterruptedException e) {
+            // rows of unfinished publications are claimed again once their lease expired
+            Thread.currentThread().interrupt();
+            failure = new IllegalStateException("Interrupted relaying the audit event outbox", e);
+        } finally {
+            if (!published.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_ROW, published);
+                relayedCounter.increment(published.size());
+            }
+            if (!unpublished.isEmpty()) {
+                jdbcTemplate.batchUpdate(RELEASE_ROW, unpublished);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private int partitionOf(OutboxRow row, AuditEvent event) {
+        String key = OrderedLanes.orderingKey(event);
+        int hash = key == null ? Long.hashCode(row.id()) : key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), properties.getRelayConcurrency());
+    }
+
+    private int publish(List<PendingEvent> partition) {
+        int published = 0;
+        try {
+            for (PendingEvent pending : partition) {
+                eventGateway.publishEvent(pending.event(), pending.topic());
+                published++;
+            }
+        } catch (RuntimeException e) {
+            throw new PublishException(published, e);
+        }
+        return published;
+    }
+
+    private void park(OutboxRow row, JsonProcessingException error) {
+        log.error("Parking outbox row {}, which is not an audit event", row.id(), error);
+        transactionTemplate.executeWithoutResult(
+                status -> {
+                    parkedAuditEventRepository.park(null, null, null, row.payload(), error);
+                    jdbcTemplate.update(DELETE_ROW, row.id());
+                });
+        parkedCounter.increment();
+    }
+
+    @Override
+    public void destroy() {
+        publishers.shutdownNow();
+    }
+
+    private record OutboxRow(long id, String topic, String payload) {}
+
+    private record PendingEvent(long id, String topic, AuditEvent event) {}
+
+    /**
+     * Failure of a publisher thread, with the number of events it published before failing.
+     */
+    private static final class PublishException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int published;
+
+        private PublishException(int published, RuntimeException cause) {
+            super(cause);
+            this.published = published;
+        }
+    }
+}
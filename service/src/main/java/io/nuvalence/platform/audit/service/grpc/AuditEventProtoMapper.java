@@ -0,0 +1,303 @@
+package io.nuvalence.platform.audit.service.grpc;
+
+import com.google.protobuf.Timestamp;
+import io.nuvalence.platform.audit.service.config.exception.ProvidedDataException;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.domain.StateChangeEventEntity;
+import io.nuvalence.platform.audit.service.domain.enums.TypeEnum;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditQueryProto;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditRestProto;
+import io.nuvalence.platform.audit.service.generated.models.ActivityEventData;
+import io.nuvalence.platform.audit.service.generated.models.AuditEvent;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventDataBase;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventLinks;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventRequest;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventsPage;
+import io.nuvalence.platform.audit.service.generated.models.PagingMetadata;
+import io.nuvalence.platform.audit.service.generated.models.RequestContext;
+import io.nuvalence.platform.audit.service.generated.models.StateChangeEventData;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * Maps the messages of the gRPC APIs and the protobuf bodies of the REST API. Created events are
+ * mapped to the models of the REST API, so that events created through either API are validated
+ * and mapped the same way. Empty strings, the protobuf default, stand for absent values.
+ */
+@Component
+public class AuditEventProtoMapper {
+
+    /**
+     * Maps an event creation message.
+     *
+     * @param message event creation message
+     * @return request model
+     * @throws ProvidedDataException if the event data type is not set or an identifier is not a
+     *                               UUID
+     */
+    public AuditEventRequest toAuditEventRequest(AuditIngestProto.AuditEventRequest message) {
+        AuditEventRequest request = new AuditEventRequest();
+        if (message.hasEventData()) {
+            request.setEventData(toEventData(message.getEventData()));
+        }
+        if (message.hasTimestamp()) {
+            request.setTimestamp(toOffsetDateTime(message.getTimestamp()));
+        }
+        request.setSummary(emptyToNull(message.getSummary()));
+        if (message.hasLinks()) {
+            AuditEventLinks links = new AuditEventLinks();
+            links.setSystemOfRecord(emptyToNull(message.getLinks().getSystemOfRecord()));
+            links.setRelatedBusinessObjects(
+                    new ArrayList<>(message.getLinks().getRelatedBusinessObjectsList()));
+            request.setLinks(links);
+        }
+        if (message.hasRequestContext()) {
+            request.setRequestContext(toRequestContext(message.getRequestContext()));
+        }
+        return request;
+    }
+
+    /**
+     * Maps a stored event to its message.
+     *
+     * @param entity stored event
+     * @return event message
+     */
+    public AuditQueryProto.AuditEvent toAuditEventMessage(AuditEventEntity entity) {
+        var eventData =
+                AuditIngestProto.AuditEventData.newBuilder()
+                        .setSchema(nullToEmpty(entity.getSchema()))
+                        .setActivityType(nullToEmpty(entity.getActivityType()))
+                        .setData(nullToEmpty(entity.getData()));
+        if (entity instanceof StateChangeEventEntity stateChange) {
+            eventData.setStateChange(
+                    AuditIngestProto.StateChangeEventData.newBuilder()
+                            .setNewState(nullToEmpty(stateChange.getNewState()))
+                            .setOldState(nullToEmpty(stateChange.getOldState())));
+        } else {
+            eventData.setActivity(AuditIngestProto.ActivityEventData.getDefaultInstance());
+        }
+
+        var links =
+                AuditIngestProto.AuditEventLinks.newBuilder()
+                        .setSystemOfRecord(nullToEmpty(entity.getSystemOfRecord()));
+        if (entity.getRelatedBusinessObjects() != null) {
+            links.addAllRelatedBusinessObjects(entity.getRelatedBusinessObjects());
+        }
+
+        var message =
+                AuditQueryProto.AuditEvent.newBuilder()
+                        .setEventId(entity.getEventId().toString())
+                        .setBusinessObjectType(nullToEmpty(entity.getBusinessObjectType()))
+                        .setBusinessObjectId(uuidToString(entity.getBusinessObjectId()))
+                        .setEventData(eventData)
+                        .setSummary(nullToEmpty(entity.getSummary()))
+                        .setLinks(links);
+        if (entity.getTimestamp() != null) {
+            message.setTimestamp(toTimestamp(entity.getTimestamp()));
+        }
+        var requestContext = entity.getRequestContext();
+        if (requestContext != null) {
+            message.setRequestContext(
+                    AuditIngestProto.RequestContext.newBuilder()
+                            .setUserId(uuidToString(requestContext.getUserId()))
+                            .setTenantId(uuidToString(requestContext.getTenantId()))
+                            .setOriginatorId(uuidToString(requestContext.getOriginatorId()))
+                            .setRequestId(uuidToString(requestContext.getRequestId()))
+                            .setTraceId(uuidToString(requestContext.getTraceId()))
+                            .setSpanId(uuidToString(requestContext.getSpanId())));
+        }
+        return message.build();
+    }
+
+    /**
+     * Maps a page of events of the REST API.
+     *
+     * @param page page model
+     * @return page message
+     */
+    public AuditRestProto.AuditEventsPage toAuditEventsPageMessage(AuditEventsPage page) {
+        var message = AuditRestProto.AuditEventsPage.newBuilder();
+        if (page.getEvents() != null) {
+            page.getEvents().forEach(event -> message.addEvents(toAuditEventMessage(event)));
+        }
+        if (page.getPagingMetadata() != null) {
+            message.setPagingMetadata(toPagingMetadataMessage(page.getPagingMetadata()));
+        }
+        return message.build();
+    }
+
+    /**
+     * Maps the paging metadata of a page of events of the REST API.
+     *
+     * @param pagingMetadata paging metadata model
+     * @return paging metadata message
+     */
+    public AuditRestProto.PagingMetadata toPagingMetadataMessage(PagingMetadata pagingMetadata) {
+        var message =
+                AuditRestProto.PagingMetadata.newBuilder()
+                        .setNextPage(nullToEmpty(pagingMetadata.getNextPage()));
+        if (pagingMetadata.getTotalCount() != null) {
+            message.setTotalCount(pagingMetadata.getTotalCount());
+        }
+        if (pagingMetadata.getPageSize() != null) {
+            message.setPageSize(pagingMetadata.getPageSize());
+        }
+        if (pagingMetadata.getPageNumber() != null) {
+            message.setPageNumber(pagingMetadata.getPageNumber());
+        }
+        return message.build();
+    }
+
+    /**
+     * Maps an event model of the REST API to its message.
+     *
+     * @param event event model
+     * @return event message
+     */
+    public AuditQueryProto.AuditEvent toAuditEventMessage(AuditEvent event) {
+        var message =
+                AuditQueryProto.AuditEvent.newBuilder()
+                        .setEventId(uuidToString(event.getEventId()))
+                        .setSummary(nullToEmpty(event.getSummary()));
+        if (event.getBusinessObject() != null) {
+            message.setBusinessObjectType(nullToEmpty(event.getBusinessObject().getType()))
+                    .setBusinessObjectId(uuidToString(event.getBusinessObject().getId()));
+        }
+        if (event.getEventData() != null) {
+            message.setEventData(toEventDataMessage(event.getEventData()));
+        }
+        if (event.getTimestamp() != null) {
+            message.setTimestamp(toTimestamp(event.getTimestamp()));
+        }
+        if (event.getLinks() != null) {
+            var links =
+                    AuditIngestProto.AuditEventLinks.newBuilder()
+                            .setSystemOfRecord(nullToEmpty(event.getLinks().getSystemOfRecord()));
+            if (event.getLinks().getRelatedBusinessObjects() != null) {
+                links.addAllRelatedBusinessObjects(event.getLinks().getRelatedBusinessObjects());
+            }
+            message.setLinks(links);
+        }
+        RequestContext requestContext = event.getRequestContext();
+        if (requestContext != null) {
+            message.setRequestContext(
+                    AuditIngestProto.RequestContext.newBuilder()
+                            .setUserId(uuidToString(requestContext.getUserId()))
+                            .setTenantId(uuidToString(requestContext.getTenantId()))
+                            .setOriginatorId(uuidToString(requestContext.getOriginatorId()))
+                            .setRequestId(uuidToString(requestContext.getRequestId()))
+                            .setTraceId(uuidToString(requestContext.getTraceId()))
+                            .setSpanId(uuidToString(requestContext.getSpanId())));
+        }
+        return message.build();
+    }
+
+    /**
+     * Converts a timestamp message.
+     *
+     * @param timestamp timestamp message
+     * @return date time in UTC
+     */
+    public OffsetDateTime toOffsetDateTime(Timestamp timestamp) {
+        return Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos())
+                .atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * Parses a UUID sent as a string.
+     *
+     * @param field name of the field, for the error message
+     * @param value string value
+     * @return UUID, or null for an empty string
+     * @throws ProvidedDataException if the value is not a UUID
+     */
+    public UUID toUuid(String field, String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new ProvidedDataException(field + " is not a valid UUID: " + value);
+        }
+    }
+
+    private AuditEventDataBase toEventData(AuditIngestProto.AuditEventData message) {
+        AuditEventDataBase eventData;
+        switch (message.getTypeCase()) {
+            case ACTIVITY -> {
+                eventData = new ActivityEventData();
+                eventData.setType(TypeEnum.ACTIVITY_EVENT_DATA.getValue());
+            }
+            case STATE_CHANGE -> {
+                StateChangeEventData stateChange = new StateChangeEventData();
+                stateChange.setType(TypeEnum.STATE_CHANGE_EVENT_DATA.getValue());
+                stateChange.setNewState(emptyToNull(message.getStateChange().getNewState()));
+                stateChange.setOldState(emptyToNull(message.getStateChange().getOldState()));
+                eventData = stateChange;
+            }
+            default -> throw new ProvidedDataException(
+                    "eventData type must be either activity or state_change");
+        }
+        eventData.setSchema(emptyToNull(message.getSchema()));
+        eventData.setActivityType(emptyToNull(message.getActivityType()));
+        eventData.setData(emptyToNull(message.getData()));
+        return eventData;
+    }
+
+    private AuditIngestProto.AuditEventData toEventDataMessage(AuditEventDataBase eventData) {
+        var message =
+                AuditIngestProto.AuditEventData.newBuilder()
+                        .setSchema(nullToEmpty(eventData.getSchema()))
+                        .setActivityType(nullToEmpty(eventData.getActivityType()))
+                        .setData(nullToEmpty(eventData.getData()));
+        if (eventData instanceof StateChangeEventData stateChange) {
+            message.setStateChange(
+                    AuditIngestProto.StateChangeEventData.newBuilder()
+                            .setNewState(nullToEmpty(stateChange.getNewState()))
+                            .setOldState(nullToEmpty(stateChange.getOldState())));
+        } else {
+            message.setActivity(AuditIngestProto.ActivityEventData.getDefaultInstance());
+        }
+        return message.build();
+    }
+
+    private RequestContext toRequestContext(AuditIngestProto.RequestContext message) {
+        RequestContext requestContext = new RequestContext();
+        requestContext.setUserId(toUuid("requestContext.userId", message.getUserId()));
+        requestContext.setTenantId(toUuid("requestContext.tenantId", message.getTenantId()));
+        requestContext.setOriginatorId(
+                toUuid("requestContext.originatorId", message.getOriginatorId()));
+        requestContext.setRequestId(toUuid("requestContext.requestId", message.getRequestId()));
+        requestContext.setTraceId(toUuid("requestContext.traceId", message.getTraceId()));
+        requestContext.setSpanId(toUuid("requestContext.spanId", message.getSpanId()));
+        return requestContext;
+    }
+
+    private static Timestamp toTimestamp(OffsetDateTime dateTime) {
+        Instant instant = dateTime.toInstant();
+        return Timestamp.newBuilder()
+                .setSeconds(instant.getEpochSecond())
+                .setNanos(instant.getNano())
+                .build();
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String uuidToString(UUID value) {
+        return value == null ? "" : value.toString();
+    }
+}
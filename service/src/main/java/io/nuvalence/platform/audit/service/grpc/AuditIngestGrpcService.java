@@ -0,0 +1,189 @@
+package io.nuvalence.platform.audit.service.grpc;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.platform.audit.service.config.GrpcProperties;
+import io.nuvalence.platform.audit.service.config.exception.ProvidedDataException;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestGrpc;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto.CreateEventRequest;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto.CreateEventResponse;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto.StreamEventsSummary;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventRequest;
+import io.nuvalence.platform.audit.service.mapper.AuditEventMapper;
+import io.nuvalence.platform.audit.service.service.AuditEventService;
+import io.nuvalence.platform.audit.service.throttling.IngestBackpressure;
+import io.nuvalence.platform.audit.service.throttling.TenantQuotaLimiter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * gRPC counterpart of the audit event creation of the REST API. Events go through the same
+ * authorization, validation, mapping, quotas and publication as events posted as JSON.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditIngestGrpcService extends AuditIngestGrpc.AuditIngestImplBase {
+
+    private static final Pattern BUSINESS_OBJECT_TYPE_PATTERN =
+            Pattern.compile("^[a-z][a-z-]{2,}$");
+
+    private final AuthorizationHandler authorizationHandler;
+    private final AuditEventProtoMapper auditEventProtoMapper;
+    private final AuditEventMapper auditEventMapper;
+    private final Validator validator;
+    private final AuditEventService auditEventService;
+    private final IngestBackpressure ingestBackpressure;
+    private final TenantQuotaLimiter tenantQuotaLimiter;
+    private final GrpcProperties grpcProperties;
+
+    @Override
+    public void createEvent(
+            CreateEventRequest request, StreamObserver<CreateEventResponse> responseObserver) {
+        CreateEventResponse response;
+        try {
+            authorize();
+            response = ingest(request);
+        } catch (RuntimeException e) {
+            responseObserver.onError(GrpcStatuses.toStatusException(e));
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<CreateEventRequest> streamEvents(
+            StreamObserver<StreamEventsSummary> responseObserver) {
+        var call = (ServerCallStreamObserver<StreamEventsSummary>) responseObserver;
+        // events are only read once the previous ones are published, holding back the client
+        call.disableAutoRequest();
+        var stream = new EventStream(call);
+        try {
+            authorize();
+        } catch (RuntimeException e) {
+            stream.fail(e);
+            return stream;
+        }
+        call.request(grpcProperties.getStreamPrefetch());
+        return stream;
+    }
+
+    private void authorize() {
+        if (!authorizationHandler.isAllowed("create", AuditEventEntity.class)) {
+            throw new AccessDeniedException("You do not have permission to create this resource.");
+        }
+    }
+
+    private CreateEventResponse ingest(CreateEventRequest request) {
+        var businessObjectType = request.getBusinessObjectType();
+        if (!BUSINESS_OBJECT_TYPE_PATTERN.matcher(businessObjectType).matches()) {
+            throw new ProvidedDataException(
+                    "businessObjectType must match " + BUSINESS_OBJECT_TYPE_PATTERN.pattern());
+        }
+        var businessObjectId =
+                auditEventProtoMapper.toUuid("businessObjectId", request.getBusinessObjectId());
+        if (businessObjectId == null) {
+            throw new ProvidedDataException("businessObjectId is required");
+        }
+        var body = auditEventProtoMapper.toAuditEventRequest(request.getEvent());
+        Set<ConstraintViolation<AuditEventRequest>> violations = validator.validate(body);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        var requestTenantId =
+                body.getRequestContext() == null ? null : body.getRequestContext().getTenantId();
+        var tenant = tenantQuotaLimiter.resolveTenant(requestTenantId);
+        var auditEvent = auditEventMapper.toAuditEvent(body, businessObjectId, businessObjectType);
+
+        tenantQuotaLimiter.acquire(tenant, 1);
+        boolean published;
+        try (var lease = ingestBackpressure.acquire()) {
+            published = auditEventService.publishAuditEvent(auditEvent);
+        }
+        return CreateEventResponse.newBuilder()
+                .setEventId(auditEvent.getMetadata().getId().toString())
+                .setAccepted(!published)
+                .build();
+    }
+
+    /**
+     * Events of a client stream, published one at a time in stream order.
+     */
+    private final class EventStream implements StreamObserver<CreateEventRequest> {
+
+        private final ServerCallStreamObserver<StreamEventsSummary> call;
+        private final StreamEventsSummary.Builder summary = StreamEventsSummary.newBuilder();
+        private int received;
+        private boolean failed;
+
+        private EventStream(ServerCallStreamObserver<StreamEventsSummary> call) {
+            this.call = call;
+        }
+
+        @Override
+        public void onNext(CreateEventRequest request) {
+            if (failed) {
+                return;
+            }
+            received++;
+            CreateEventResponse response;
+            try {
+                response = ingest(request);
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+            if (summary.getEventIdsCount() < grpcProperties.getStreamSummaryEventIds()) {
+                summary.addEventIds(response.getEventId());
+            }
+            summary.setLastEventId(response.getEventId());
+            if (response.getAccepted()) {
+                summary.setAccepted(summary.getAccepted() + 1);
+            } else {
+                summary.setCreated(summary.getCreated() + 1);
+            }
+            call.request(1);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("Audit event stream cancelled after {} events", received, t);
+        }
+
+        @Override
+        public void onCompleted() {
+            if (failed) {
+                return;
+            }
+            call.onNext(summary.build());
+            call.onCompleted();
+        }
+
+        private void fail(RuntimeException e) {
+            failed = true;
+            StatusRuntimeException statusException = GrpcStatuses.toStatusException(e);
+            Status status = statusException.getStatus();
+            if (received > 0) {
+                status =
+                        status.withDescription(
+                                "event " + received + ": " + status.getDescription());
+            }
+            call.onError(status.asRuntimeException(statusException.getTrailers()));
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package io.nuvalence.platform.audit.service.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.platform.audit.service.config.GrpcProperties;
+import io.nuvalence.platform.audit.service.config.exception.ProvidedDataException;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.error.ApiException;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditQueryGrpc;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditQueryProto.AuditEvent;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditQueryProto.ListEventsRequest;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditQueryProto.SortOrder;
+import io.nuvalence.platform.audit.service.repository.AuditEventCursorReader;
+import io.nuvalence.platform.audit.service.workload.Workload;
+import io.nuvalence.platform.audit.service.workload.WorkloadContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Streams the history of a business object from a database cursor. The caller is authorized once
+ * for the whole stream, and events are only read from the cursor as fast as the client consumes
+ * them, so that memory use stays flat whatever the history length. Each stream runs on its own
+ * thread with a connection of the scan pool, the number of concurrent streams being bounded.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(GrpcProperties.class)
+public class AuditQueryGrpcService extends AuditQueryGrpc.AuditQueryImplBase
+        implements DisposableBean {
+
+    private static final Pattern BUSINESS_OBJECT_TYPE_PATTERN =
+            Pattern.compile("^[a-z][a-z-]{2,}$");
+
+    private final AuthorizationHandler authorizationHandler;
+    private final AuditEventProtoMapper auditEventProtoMapper;
+    private final AuditEventCursorReader auditEventCursorReader;
+    private final GrpcProperties.ListEvents properties;
+    private final ThreadPoolExecutor executor;
+    private final Counter streamedCounter;
+
+    /**
+     * Creates the service.
+     *
+     * @param authorizationHandler   authorization of the callers
+     * @param auditEventProtoMapper  mapper of events to messages
+     * @param auditEventCursorReader reader of event histories
+     * @param grpcProperties         gRPC configuration
+     * @param meterRegistry          registry the streaming metrics are published to
+     */
+    public AuditQueryGrpcService(
+            AuthorizationHandler authorizationHandler,
+            AuditEventProtoMapper auditEventProtoMapper,
+            AuditEventCursorReader auditEventCursorReader,
+            GrpcProperties grpcProperties,
+            MeterRegistry meterRegistry) {
+        this.authorizationHandler = authorizationHandler;
+        this.auditEventProtoMapper = auditEventProtoMapper;
+        this.auditEventCursorReader = auditEventCursorReader;
+        this.properties = grpcProperties.getListEvents();
+        this.executor =
+                new ThreadPoolExecutor(
+                        properties.getConcurrency(),
+                        properties.getConcurrency(),
+                        0,
+                        TimeUnit.MILLISECONDS,
+                        new SynchronousQueue<>(),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "audit-list-events");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        Gauge.builder("audit.grpc.list-events.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Number of event histories being streamed")
+                .register(meterRegistry);
+        this.streamedCounter = meterRegistry.counter("audit.grpc.list-events.streamed");
+    }
+
+    @Override
+    public void listEvents(ListEventsRequest request, StreamObserver<AuditEvent> responseObserver) {
+        var call = (ServerCallStreamObserver<AuditEvent>) responseObserver;
+        try {
+            if (!authorizationHandler.isAllowed("view", AuditEventEntity.class)) {
+                throw new AccessDeniedException("Forbidden request.");
+            }
+            EventStream stream = new EventStream(call, request);
+            call.setOnReadyHandler(stream::signal);
+            call.setOnCancelHandler(stream::cancel);
+            try {
+                executor.execute(stream);
+            } catch (RejectedExecutionException e) {
+                throw new ThrottledRequestException(
+                        HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many event histories being streamed, please retry later.",
+                        properties.getRetryAfter());
+            }
+        } catch (RuntimeException e) {
+            call.onError(GrpcStatuses.toStatusException(e));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Events of a single call, sent from the cursor whenever the transport is ready for more.
+     */
+    private final class EventStream implements Runnable {
+
+        private final ServerCallStreamObserver<AuditEvent> call;
+        private final String businessObjectType;
+        private final UUID businessObjectId;
+        private final OffsetDateTime startTime;
+        private final OffsetDateTime endTime;
+        private final boolean ascending;
+        private final Object readiness = new Object();
+        private volatile boolean cancelled;
+
+        private EventStream(ServerCallStreamObserver<AuditEvent> call, ListEventsRequest request) {
+            this.call = call;
+            this.businessObjectType = request.getBusinessObjectType();
+            if (!BUSINESS_OBJECT_TYPE_PATTERN.matcher(businessObjectType).matches()) {
+                throw new ProvidedDataException(
+                        "businessObjectType must match " + BUSINESS_OBJECT_TYPE_PATTERN.pattern());
+            }
+            this.businessObjectId =
+                    auditEventProtoMapper.toUuid("businessObjectId", request.getBusinessObjectId());
+            if (businessObjectId == null) {
+                throw new ProvidedDataException("businessObjectId is required");
+            }
+            this.startTime =
+                    request.hasStartTime()
+                            ? auditEventProtoMapper.toOffsetDateTime(request.getStartTime())
+                            : null;
+            this.endTime =
+                    request.hasEndTime()
+                            ? auditEventProtoMapper.toOffsetDateTime(request.getEndTime())
+                            : null;
+            if (startTime != null && endTime != null && startTime.isAfter(endTime)) {
+                throw ApiException.Builder.badRequest(
+                        "The startTime cannot be greater than the endTime.");
+            }
+            this.ascending = request.getSortOrder() != SortOrder.DESC;
+        }
+
+        @Override
+        public void run() {
+            WorkloadContext.set(Workload.SCAN);
+            try {
+                auditEventCursorReader.read(
+                        businessObjectType,
+                        businessObjectId,
+                        startTime,
+                        endTime,
+                        ascending,
+                        properties.getFetchSize(),
+                        this::send);
+                call.onCompleted();
+            } catch (CancellationException e) {
+                log.debug(
+                        "Event history stream of {} {} cancelled",
+                        businessObjectType,
+                        businessObjectId);
+            } catch (RuntimeException e) {
+                if (!cancelled) {
+                    call.onError(GrpcStatuses.toStatusException(e));
+                }
+            } finally {
+                WorkloadContext.clear();
+            }
+        }
+
+        private void send(AuditEventEntity entity) {
+            awaitReady();
+            call.onNext(auditEventProtoMapper.toAuditEventMessage(entity));
+            streamedCounter.increment();
+        }
+
+        private void awaitReady() {
+            long deadline = System.nanoTime() + properties.getStallTimeout().toNanos();
+            synchronized (readiness) {
+                while (!call.isReady()) {
+                    if (cancelled) {
+                        throw new CancellationException();
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw Status.DEADLINE_EXCEEDED
+                                .withDescription("The client stopped reading the event stream.")
+                                .asRuntimeException();
+                    }
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(readiness, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CancellationException();
+                    }
+                }
+            }
+            if (cancelled) {
+                throw new CancellationException();
+            }
+        }
+
+        private void signal() {
+            synchronized (readiness) {
+                readiness.notifyAll();
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            signal();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.nuvalence.platform.audit.service.grpc;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.nuvalence.auth.token.UnauthenticatedTokenAuthentication;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.function.Supplier;
+
+/**
+ * Authenticates gRPC calls with the bearer token of their "authorization" metadata, verified by
+ * the same providers as the tokens of HTTP requests. The authentication is set in the security
+ * context of every callback of the call, callbacks of a call possibly running on different
+ * threads.
+ */
+@RequiredArgsConstructor
+public class GrpcAuthenticationInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> AUTHORIZATION =
+            Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AuthenticationManager authenticationManager;
+
+    @Override
+    public <R, S> ServerCall.Listener<R> interceptCall(
+            ServerCall<R, S> call, Metadata headers, ServerCallHandler<R, S> next) {
+        String header = headers.get(AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return reject(call, "Missing bearer token.");
+        }
+
+        Authentication authentication;
+        try {
+            authentication =
+                    authenticationManager.authenticate(
+                            new UnauthenticatedTokenAuthentication(
+                                    header.substring(BEARER_PREFIX.length())));
+        } catch (AuthenticationException e) {
+            return reject(call, "Invalid bearer token.");
+        }
+
+        ServerCall.Listener<R> delegate =
+                callAs(authentication, () -> next.startCall(call, headers));
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(delegate) {
+            @Override
+            public void onMessage(R message) {
+                runAs(authentication, () -> super.onMessage(message));
+            }
+
+            @Override
+            public void onHalfClose() {
+                runAs(authentication, super::onHalfClose);
+            }
+
+            @Override
+            public void onCancel() {
+                runAs(authentication, super::onCancel);
+            }
+
+            @Override
+            public void onComplete() {
+                runAs(authentication, super::onComplete);
+            }
+
+            @Override
+            public void onReady() {
+                runAs(authentication, super::onReady);
+            }
+        };
+    }
+
+    private static <R, S> ServerCall.Listener<R> reject(ServerCall<R, S> call, String message) {
+        call.close(Status.UNAUTHENTICATED.withDescription(message), new Metadata());
+        return new ServerCall.Listener<>() {};
+    }
+
+    private static void runAs(Authentication authentication, Runnable callback) {
+        callAs(
+                authentication,
+                () -> {
+                    callback.run();
+                    return null;
+                });
+    }
+
+    private static <T> T callAs(Authentication authentication, Supplier<T> callback) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+        try {
+            return callback.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
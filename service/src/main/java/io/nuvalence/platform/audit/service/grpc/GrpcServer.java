@@ -0,0 +1,103 @@
+package io.nuvalence.platform.audit.service.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.nuvalence.platform.audit.service.config.GrpcProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the gRPC services of the application on their own port, along the HTTP server. Calls
+ * go through the registered interceptors, authenticating them.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(GrpcProperties.class)
+public class GrpcServer implements SmartLifecycle {
+
+    private final GrpcProperties properties;
+    private final List<BindableService> services;
+    private final List<ServerInterceptor> interceptors;
+    private Server server;
+
+    /**
+     * Creates the server.
+     *
+     * @param properties   gRPC configuration
+     * @param services     services to serve
+     * @param interceptors interceptors of every call
+     */
+    public GrpcServer(
+            GrpcProperties properties,
+            List<BindableService> services,
+            ObjectProvider<ServerInterceptor> interceptors) {
+        this.properties = properties;
+        this.services = services;
+        this.interceptors = interceptors.orderedStream().toList();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!properties.isEnabled() || server != null) {
+            return;
+        }
+        ServerBuilder<?> builder =
+                Grpc.newServerBuilderForPort(
+                                properties.getPort(), InsecureServerCredentials.create())
+                        .maxInboundMessageSize(
+                                (int) properties.getMaxInboundMessageSize().toBytes());
+        services.forEach(
+                service -> builder.addService(ServerInterceptors.intercept(service, interceptors)));
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start the gRPC server", e);
+        }
+        log.info("gRPC server listening on port {}", server.getPort());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(
+                    properties.getShutdownGracePeriod().toMillis(), TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Port the server listens on.
+     *
+     * @return port, or -1 if the server is not running
+     */
+    public synchronized int getPort() {
+        return server == null ? -1 : server.getPort();
+    }
+}
@@ -0,0 +1,59 @@
+package io.nuvalence.platform.audit.service.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.nuvalence.platform.audit.service.config.exception.ProvidedDataException;
+import io.nuvalence.platform.audit.service.error.ApiException;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+
+/**
+ * Translates the exceptions of the ingestion to gRPC statuses, as the global error handler does
+ * to HTTP statuses.
+ */
+@Slf4j
+final class GrpcStatuses {
+
+    static final Metadata.Key<String> RETRY_AFTER =
+            Metadata.Key.of("retry-after", Metadata.ASCII_STRING_MARSHALLER);
+
+    private GrpcStatuses() {}
+
+    /**
+     * Translates an exception.
+     *
+     * @param e exception thrown while handling a call
+     * @return exception carrying the matching status
+     */
+    static StatusRuntimeException toStatusException(RuntimeException e) {
+        if (e instanceof StatusRuntimeException statusException) {
+            return statusException;
+        }
+        if (e instanceof AccessDeniedException) {
+            return Status.PERMISSION_DENIED.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof ThrottledRequestException throttled) {
+            Status status =
+                    throttled.getHttpStatus() == HttpStatus.TOO_MANY_REQUESTS
+                            ? Status.RESOURCE_EXHAUSTED
+                            : Status.UNAVAILABLE;
+            Metadata trailers = new Metadata();
+            trailers.put(RETRY_AFTER, String.valueOf(throttled.getRetryAfterSeconds()));
+            return status.withDescription(e.getMessage()).asRuntimeException(trailers);
+        }
+        if (e instanceof ProvidedDataException
+                || e instanceof ConstraintViolationException
+                || (e instanceof ApiException apiException
+                        && apiException.getHttpStatus().is4xxClientError())) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        log.error("An unexpected error occurred: ", e);
+        return Status.INTERNAL
+                .withDescription("Internal server error. Please contact the system administrator.")
+                .asRuntimeException();
+    }
+}
@@ -0,0 +1,135 @@
+package io.nuvalence.platform.audit.service.mapper;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.nuvalence.platform.audit.service.config.RenderedEventProperties;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Renders the JSON representation of events in the API once, at ingest, so that reads can write
+ * the stored JSON as is instead of mapping and serializing each event again. Events being
+ * immutable, a rendering stays valid as long as the API representation does not change: it is
+ * stored gzip compressed behind a format version, and events rendered with another version are
+ * mapped again when read. Events restricted to a selection of their fields are rendered on read.
+ */
+@Component
+@EnableConfigurationProperties(RenderedEventProperties.class)
+public class RenderedEventMapper {
+
+    /**
+     * Version of the API representation, to be incremented whenever the AuditEvent schema changes.
+     */
+    private static final byte FORMAT_VERSION = 1;
+
+    private final RenderedEventProperties properties;
+    private final AuditEventMapper auditEventMapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter sparseWriter;
+
+    /**
+     * Creates the mapper.
+     *
+     * @param properties       rendering configuration
+     * @param auditEventMapper mapper of events to their model
+     * @param objectMapper     mapper writing the JSON of the API
+     */
+    public RenderedEventMapper(
+            RenderedEventProperties properties,
+            AuditEventMapper auditEventMapper,
+            ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.auditEventMapper = auditEventMapper;
+        this.objectMapper = objectMapper;
+        this.sparseWriter =
+                objectMapper
+                        .copy()
+                        .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                        .writer();
+    }
+
+    /**
+     * Tells whether events are rendered at ingest.
+     *
+     * @return true if events are rendered at ingest
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Renders the API representation of an event, to be stored with it.
+     *
+     * @param entity event, with its id assigned
+     * @return rendered event
+     */
+    public byte[] render(AuditEventEntity entity) {
+        ByteArrayOutputStream rendered = new ByteArrayOutputStream();
+        rendered.write(FORMAT_VERSION);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(rendered)) {
+            gzip.write(
+                    objectMapper.writeValueAsBytes(
+                            auditEventMapper.toAuditEventModel(
+                                    auditEventMapper.fromEntity(entity))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rendered.toByteArray();
+    }
+
+    /**
+     * Tells whether an event was rendered with the current version of the API representation.
+     *
+     * @param renderedEvent rendered event, may be null
+     * @return true if the rendering can be written as is
+     */
+    public boolean isCurrent(byte[] renderedEvent) {
+        return renderedEvent != null
+                && renderedEvent.length > 0
+                && renderedEvent[0] == FORMAT_VERSION;
+    }
+
+    /**
+     * Returns the JSON representation of a rendered event.
+     *
+     * @param renderedEvent rendered event, may be null
+     * @return UTF-8 encoded JSON, or null if the event was not rendered with the current version
+     */
+    public byte[] toJson(byte[] renderedEvent) {
+        if (!isCurrent(renderedEvent)) {
+            return null;
+        }
+        try (GZIPInputStream gzip =
+                new GZIPInputStream(
+                        new ByteArrayInputStream(renderedEvent, 1, renderedEvent.length - 1))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Renders the JSON of an event whose unselected fields were cleared, leaving them out.
+     *
+     * @param event event model
+     * @return UTF-8 encoded JSON
+     */
+    public byte[] toSparseJson(
+            io.nuvalence.platform.audit.service.generated.models.AuditEvent event) {
+        try {
+            return sparseWriter.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
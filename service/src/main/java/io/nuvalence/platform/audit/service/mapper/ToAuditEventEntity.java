@@ -9,6 +9,7 @@ import java.lang.annotation.RetentionPolicy;
  * Mappings that can be reused for all <code>AuditEventEntity</code> subclasses.
  */
 @Retention(RetentionPolicy.CLASS)
+@Mapping(target = "eventId", source = "event.metadata.id")
 @Mapping(target = "businessObjectId", source = "event.businessObject.id")
 @Mapping(target = "businessObjectType", source = "event.businessObject.type")
 @Mapping(target = "schema", source = "event.eventData.schema")
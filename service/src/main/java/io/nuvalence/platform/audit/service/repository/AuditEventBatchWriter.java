@@ -0,0 +1,188 @@
+package io.nuvalence.platform.audit.service.repository;
+
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.domain.RequestContext;
+import io.nuvalence.platform.audit.service.domain.StateChangeEventEntity;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Inserts audit events with plain batched JDBC statements. Events whose id is already stored are
+ * skipped by the database ({@code ON CONFLICT DO NOTHING}) instead of failing the batch, which
+ * makes persisting a redelivered event a no-op without a prior lookup. On PostgreSQL, whose driver
+ * may rewrite batches and then not report which rows were inserted, events are inserted with
+ * multi-row statements returning the ids actually inserted.
+ */
+@Repository
+public class AuditEventBatchWriter {
+
+    private static final int COLUMN_COUNT = 20;
+
+    // keeps the bound parameters of a statement well below the protocol limit of 65535
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final String INSERT_EVENT_INTO =
+            "INSERT INTO audit_events (id, dtype, schema, type, business_object_id,"
+                    + " business_object_type, timestamp, summary, system_of_record, new_state,"
+                    + " old_state, activity_type, data, user_id, tenant_id, originator_id,"
+                    + " request_id, trace_id, span_id, rendered_event)";
+
+    private static final String EVENT_VALUES =
+            "(" + String.join(", ", Collections.nCopies(COLUMN_COUNT, "?")) + ")";
+
+    private static final String INSERT_EVENT =
+            INSERT_EVENT_INTO + " VALUES " + EVENT_VALUES + " ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_RELATED_BUSINESS_OBJECT =
+            "INSERT INTO audit_events_related_business_objects"
+                    + " (audit_event_id, related_business_object) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean returningInsertedIds;
+
+    /**
+     * Creates the writer.
+     *
+     * @param jdbcTemplate         JDBC template
+     * @param dataSourceProperties data source configuration, telling whether it is PostgreSQL
+     */
+    public AuditEventBatchWriter(
+            JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        String url = dataSourceProperties.determineUrl();
+        this.returningInsertedIds = url != null && url.startsWith("jdbc:postgresql:");
+    }
+
+    private static String asString(UUID value) {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Inserts the given events, skipping those already stored. Events must have their id assigned.
+     *
+     * @param entities events to insert
+     * @return events actually inserted by this call
+     */
+    public List<AuditEventEntity> insertAll(List<AuditEventEntity> entities) {
+        if (entities.isEmpty()) {
+            return List.of();
+        }
+
+        List<AuditEventEntity> inserted =
+                returningInsertedIds ? insertReturning(entities) : insertBatched(entities);
+
+        // the collection table has no key, so only rows of newly inserted events are written
+        List<Object[]> related = new ArrayList<>();
+        for (AuditEventEntity entity : inserted) {
+            if (entity.getRelatedBusinessObjects() != null) {
+                String eventId = entity.getEventId().toString();
+                entity.getRelatedBusinessObjects()
+                        .forEach(object -> related.add(new Object[] {eventId, object}));
+            }
+        }
+        if (!related.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_RELATED_BUSINESS_OBJECT, related);
+        }
+
+        return inserted;
+    }
+
+    private List<AuditEventEntity> insertReturning(List<AuditEventEntity> entities) {
+        List<AuditEventEntity> inserted = new ArrayList<>(entities.size());
+        for (int from = 0; from < entities.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<AuditEventEntity> chunk =
+                    entities.subList(
+                            from, Math.min(entities.size(), from + MAX_ROWS_PER_STATEMENT));
+            String sql =
+                    INSERT_EVENT_INTO
+                            + " VALUES "
+                            + String.join(", ", Collections.nCopies(chunk.size(), EVENT_VALUES))
+                            + " ON CONFLICT DO NOTHING RETURNING id";
+            Set<String> insertedIds = new HashSet<>();
+            jdbcTemplate.query(
+                    connection -> {
+                        PreparedStatement ps = connection.prepareStatement(sql);
+                        for (int i = 0; i < chunk.size(); i++) {
+                            bindEvent(ps, i * COLUMN_COUNT, chunk.get(i));
+                        }
+                        return ps;
+                    },
+                    rs -> {
+                        insertedIds.add(rs.getString(1));
+                    });
+            for (AuditEventEntity entity : chunk) {
+                // removed once matched, a duplicate within the chunk was not inserted
+                if (insertedIds.remove(entity.getEventId().toString())) {
+                    inserted.add(entity);
+                }
+            }
+        }
+        return inserted;
+    }
+
+    private List<AuditEventEntity> insertBatched(List<AuditEventEntity> entities) {
+        int[] counts =
+                jdbcTemplate.execute(
+                        INSERT_EVENT,
+                        (PreparedStatement ps) -> {
+                            for (AuditEventEntity entity : entities) {
+                                bindEvent(ps, 0, entity);
+                                ps.addBatch();
+                            }
+                            return ps.executeBatch();
+                        });
+
+        List<AuditEventEntity> inserted = new ArrayList<>(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            // only PostgreSQL rewrites batches among the supported databases, but a driver
+            // reporting SUCCESS_NO_INFO leaves no way of telling, rows are then assumed new
+            if (counts == null || counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                inserted.add(entities.get(i));
+            }
+        }
+        return inserted;
+    }
+
+    private void bindEvent(PreparedStatement ps, int offset, AuditEventEntity entity)
+            throws SQLException {
+        RequestContext context =
+                entity.getRequestContext() == null
+                        ? new RequestContext()
+                        : entity.getRequestContext();
+        StateChangeEventEntity stateChange =
+                entity instanceof StateChangeEventEntity ? (StateChangeEventEntity) entity : null;
+
+        ps.setString(offset + 1, entity.getEventId().toString());
+        ps.setString(offset + 2, entity.getClass().getSimpleName());
+        ps.setString(offset + 3, entity.getSchema());
+        ps.setString(offset + 4, entity.getType() == null ? null : entity.getType().getValue());
+        ps.setString(offset + 5, asString(entity.getBusinessObjectId()));
+        ps.setString(offset + 6, entity.getBusinessObjectType());
+        ps.setObject(offset + 7, entity.getTimestamp());
+        ps.setString(offset + 8, entity.getSummary());
+        ps.setString(offset + 9, entity.getSystemOfRecord());
+        ps.setString(offset + 10, stateChange == null ? null : stateChange.getNewState());
+        ps.setString(offset + 11, stateChange == null ? null : stateChange.getOldState());
+        ps.setString(offset + 12, entity.getActivityType());
+        ps.setString(offset + 13, entity.getData());
+        ps.setString(offset + 14, asString(context.getUserId()));
+        ps.setString(offset + 15, asString(context.getTenantId()));
+        ps.setString(offset + 16, asString(context.getOriginatorId()));
+        ps.setString(offset + 17, asString(context.getRequestId()));
+        ps.setString(offset + 18, asString(context.getTraceId()));
+        ps.setString(offset + 19, asString(context.getSpanId()));
+        ps.setBytes(offset + 20, entity.getRenderedEvent());
+    }
+}
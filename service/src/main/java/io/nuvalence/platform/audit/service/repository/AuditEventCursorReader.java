@@ -0,0 +1,399 @@
+package io.nuvalence.platform.audit.service.repository;
+
+import io.nuvalence.platform.audit.service.domain.ActivityEventEntity;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.domain.RequestContext;
+import io.nuvalence.platform.audit.service.domain.StateChangeEventEntity;
+import io.nuvalence.platform.audit.service.domain.enums.TypeEnum;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads the history of a business object through a database cursor, handing events over one at
+ * a time as rows are fetched, so that memory use does not depend on the number or size of the
+ * events read. Related business objects are joined in the same query, the rows of an event being
+ * adjacent.
+ */
+@Repository
+public class AuditEventCursorReader {
+
+    private static final String COLUMNS =
+            "e.id, e.dtype, e.schema, e.type, e.business_object_id, e.business_object_type,"
+                    + " e.timestamp, e.summary, e.system_of_record, e.activity_type, e.user_id,"
+                    + " e.tenant_id, e.originator_id, e.request_id, e.trace_id, e.span_id";
+
+    private static final String FILTER =
+            " WHERE e.business_object_type = ? AND e.business_object_id = ?"
+                    + " AND e.timestamp >= ? AND e.timestamp < ?";
+
+    private static final String JOIN_RELATED =
+            " LEFT JOIN audit_events_related_business_objects r ON r.audit_event_id = e.id";
+
+    private static final String NOT_RENDERED = "e.rendered_event IS NULL";
+
+    private static final Map<String, String> SORT_COLUMNS =
+            Map.of(
+                    "timestamp", "timestamp",
+                    "businessObjectType", "business_object_type",
+                    "systemOfRecord", "system_of_record",
+                    "businessObjectId", "business_object_id",
+                    "type", "type",
+                    "schema", "schema",
+                    "eventId", "id");
+
+    private static final Set<Part> HISTORY_PARTS =
+            Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(Part.RENDERED_EVENT)));
+
+    private static final OffsetDateTime MIN_TIME = OffsetDateTime.parse("0001-01-01T00:00:00Z");
+    private static final OffsetDateTime MAX_TIME = OffsetDateTime.parse("9999-12-31T00:00:00Z");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Creates the reader.
+     *
+     * @param jdbcTemplate       jdbc template
+     * @param transactionManager transaction manager
+     */
+    public AuditEventCursorReader(
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // PostgreSQL only fetches a result set incrementally within a transaction
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Reads the events of a business object in chronological order, with all their parts except
+     * their rendering.
+     *
+     * @param businessObjectType type of business object
+     * @param businessObjectId   identifier of the business object
+     * @param startTime          inclusive start of the time range, null for no lower bound
+     * @param endTime            exclusive end of the time range, null for no upper bound
+     * @param ascending          true for oldest events first, false for newest first
+     * @param fetchSize          number of rows fetched from the database at once
+     * @param consumer           consumer of the events, which may stop the read by throwing
+     * @return number of events read
+     */
+    public long read(
+            String businessObjectType,
+            UUID businessObjectId,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            boolean ascending,
+            int fetchSize,
+            Consumer<AuditEventEntity> consumer) {
+        String order = orderBy("timestamp", ascending);
+        return query(
+                "SELECT "
+                        + columns(HISTORY_PARTS)
+                        + relatedColumn(HISTORY_PARTS)
+                        + " FROM audit_events e"
+                        + JOIN_RELATED
+                        + FILTER
+                        + order,
+                fetchSize,
+                consumer,
+                businessObjectType,
+                businessObjectId,
+                startTime,
+                endTime);
+    }
+
+    /**
+     * Reads a page of the events of a business object, as the audit event repository would.
+     *
+     * @param businessObjectType type of business object
+     * @param businessObjectId   identifier of the business object
+     * @param startTime          inclusive start of the time range, null for no lower bound
+     * @param endTime            exclusive end of the time range, null for no upper bound
+     * @param sortBy             property of the events to sort by, events with equal values
+     *                           being sorted by id
+     * @param ascending          true for ascending order, false for descending order
+     * @param offset             number of events skipped
+     * @param limit              maximum number of events read
+     * @param parts              optional parts of the events to read, the others being null
+     * @param fetchSize          number of rows fetched from the database at once
+     * @param consumer           consumer of the events, which may stop the read by throwing
+     * @return number of events read
+     * @throws IllegalArgumentException if events cannot be sorted by the given property
+     */
+    public long readPage(
+            String businessObjectType,
+            UUID businessObjectId,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            String sortBy,
+            boolean ascending,
+            long offset,
+            int limit,
+            Set<Part> parts,
+            int fetchSize,
+            Consumer<AuditEventEntity> consumer) {
+        String order = orderBy(sortBy, ascending);
+        return query(
+                selectPage(
+                        "SELECT "
+                                + columns(parts)
+                                + " FROM audit_events e"
+                                + FILTER
+                                + order
+                                + " LIMIT ? OFFSET ?",
+                        order,
+                        parts),
+                fetchSize,
+                consumer,
+                businessObjectType,
+                businessObjectId,
+                startTime,
+                endTime,
+                limit,
+                offset);
+    }
+
+    /**
+     * Reads the events of a business object following a position in its timeline, ordered by
+     * timestamp and id. The position is found by a range scan of the business object timestamp
+     * index, so that reading deep into a history costs no more than reading its first events.
+     *
+     * @param businessObjectType type of business object
+     * @param businessObjectId   identifier of the business object
+     * @param startTime          inclusive start of the time range, null for no lower bound
+     * @param endTime            exclusive end of the time range, null for no upper bound
+     * @param ascending          true for oldest events first, false for newest first
+     * @param afterTimestamp     timestamp of the event the read starts after, null to start from
+     *                           the first event
+     * @param afterEventId       id of the event the read starts after, null to start from the
+     *                           first event
+     * @param limit              maximum number of events read
+     * @param consumer           consumer of the events, which may stop the read by throwing
+     * @return number of events read
+     */
+    public long readAfter(
+            String businessObjectType,
+            UUID businessObjectId,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            boolean ascending,
+            OffsetDateTime afterTimestamp,
+            UUID afterEventId,
+            int limit,
+            Consumer<AuditEventEntity> consumer) {
+        String order = orderBy("timestamp", ascending);
+        String keyset = "";
+        if (afterTimestamp != null && afterEventId != null) {
+            keyset = " AND (e.timestamp, e.id) " + (ascending ? ">" : "<") + " (?, ?)";
+        }
+        String page =
+                "SELECT "
+                        + columns(HISTORY_PARTS)
+                        + " FROM audit_events e"
+                        + FILTER
+                        + keyset
+                        + order
+                        + " LIMIT ?";
+        Object[] pageParameters =
+                keyset.isEmpty()
+                        ? new Object[] {limit}
+                        : new Object[] {afterTimestamp, afterEventId.toString(), limit};
+        return query(
+                selectPage(page, order, HISTORY_PARTS),
+                limit,
+                consumer,
+                businessObjectType,
+                businessObjectId,
+                startTime,
+                endTime,
+                pageParameters);
+    }
+
+    private static String selectPage(String page, String order, Set<Part> parts) {
+        // the page is selected before joining related business objects, which multiply rows
+        boolean related = parts.contains(Part.RELATED_BUSINESS_OBJECTS);
+        String join = "";
+        if (related) {
+            join = parts.contains(Part.RENDERED_EVENT)
+                    ? JOIN_RELATED + " AND " + NOT_RENDERED
+                    : JOIN_RELATED;
+        }
+        return "SELECT e.*" + relatedColumn(parts) + " FROM (" + page + ") e" + join + order;
+    }
+
+    private static String columns(Set<Part> parts) {
+        // renderings hold all the parts, which are then only read for events without one
+        boolean rendered = parts.contains(Part.RENDERED_EVENT);
+        StringBuilder columns = new StringBuilder(COLUMNS);
+        for (Part part : Part.values()) {
+            if (part.column == null) {
+                continue;
+            }
+            columns.append(", ");
+            if (!parts.contains(part)) {
+                columns.append("NULL AS ").append(part.column);
+            } else if (rendered && part != Part.RENDERED_EVENT) {
+                columns.append("CASE WHEN ")
+                        .append(NOT_RENDERED)
+                        .append(" THEN e.")
+                        .append(part.column)
+                        .append(" END AS ")
+                        .append(part.column);
+            } else {
+                columns.append("e.").append(part.column);
+            }
+        }
+        return columns.toString();
+    }
+
+    private static String relatedColumn(Set<Part> parts) {
+        return parts.contains(Part.RELATED_BUSINESS_OBJECTS)
+                ? ", r.related_business_object"
+                : ", NULL AS related_business_object";
+    }
+
+    private static String orderBy(String sortBy, boolean ascending) {
+        String column = SORT_COLUMNS.get(sortBy);
+        if (column == null) {
+            throw new IllegalArgumentException("Events cannot be sorted by " + sortBy);
+        }
+        String direction = ascending ? "ASC" : "DESC";
+        return " ORDER BY e." + column + " " + direction + ", e.id " + direction;
+    }
+
+    private long query(
+            String sql,
+            int fetchSize,
+            Consumer<AuditEventEntity> consumer,
+            String businessObjectType,
+            UUID businessObjectId,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            Object... pageParameters) {
+        EventAssembler assembler = new EventAssembler(consumer);
+        transactionTemplate.executeWithoutResult(
+                status ->
+                        jdbcTemplate.query(
+                                connection -> {
+                                    PreparedStatement ps = connection.prepareStatement(sql);
+                                    ps.setFetchSize(fetchSize);
+                                    ps.setString(1, businessObjectType);
+                                    ps.setString(2, businessObjectId.toString());
+                                    ps.setObject(3, startTime == null ? MIN_TIME : startTime);
+                                    ps.setObject(4, endTime == null ? MAX_TIME : endTime);
+                                    for (int i = 0; i < pageParameters.length; i++) {
+                                        ps.setObject(5 + i, pageParameters[i]);
+                                    }
+                                    return ps;
+                                },
+                                assembler::processRow));
+        assembler.flush();
+        return assembler.count;
+    }
+
+    /**
+     * Parts of events which are only read when needed, being large or requiring a join. With the
+     * rendering, the other parts are only read for the events which have none.
+     */
+    public enum Part {
+        DATA("data"),
+        OLD_STATE("old_state"),
+        NEW_STATE("new_state"),
+        RENDERED_EVENT("rendered_event"),
+        RELATED_BUSINESS_OBJECTS(null);
+
+        private final String column;
+
+        Part(String column) {
+            this.column = column;
+        }
+    }
+
+    /**
+     * Groups the rows of each event and hands the event over once its last row was read.
+     */
+    private static final class EventAssembler {
+
+        private final Consumer<AuditEventEntity> consumer;
+        private AuditEventEntity current;
+        private long count;
+
+        private EventAssembler(Consumer<AuditEventEntity> consumer) {
+            this.consumer = consumer;
+        }
+
+        private void processRow(ResultSet rs) throws SQLException {
+            String eventId = rs.getString("id");
+            if (current == null || !current.getEventId().toString().equals(eventId)) {
+                flush();
+                current = toEntity(rs);
+            }
+            String relatedBusinessObject = rs.getString("related_business_object");
+            if (relatedBusinessObject != null) {
+                current.getRelatedBusinessObjects().add(relatedBusinessObject);
+            }
+        }
+
+        private void flush() {
+            if (current != null) {
+                AuditEventEntity event = current;
+                current = null;
+                count++;
+                consumer.accept(event);
+            }
+        }
+
+        private static AuditEventEntity toEntity(ResultSet rs) throws SQLException {
+            AuditEventEntity entity;
+            if (StateChangeEventEntity.class.getSimpleName().equals(rs.getString("dtype"))) {
+                StateChangeEventEntity stateChange = new StateChangeEventEntity();
+                stateChange.setNewState(rs.getString("new_state"));
+                stateChange.setOldState(rs.getString("old_state"));
+                entity = stateChange;
+            } else {
+                entity = new ActivityEventEntity();
+            }
+            entity.setEventId(UUID.fromString(rs.getString("id")));
+            entity.setSchema(rs.getString("schema"));
+            String type = rs.getString("type");
+            entity.setType(type == null ? null : TypeEnum.fromValue(type));
+            entity.setBusinessObjectId(toUuid(rs.getString("business_object_id")));
+            entity.setBusinessObjectType(rs.getString("business_object_type"));
+            entity.setTimestamp(rs.getObject("timestamp", OffsetDateTime.class));
+            entity.setSummary(rs.getString("summary"));
+            entity.setSystemOfRecord(rs.getString("system_of_record"));
+            entity.setActivityType(rs.getString("activity_type"));
+            entity.setData(rs.getString("data"));
+            entity.setRenderedEvent(rs.getBytes("rendered_event"));
+            entity.setRelatedBusinessObjects(new LinkedHashSet<>());
+
+            RequestContext requestContext = new RequestContext();
+            requestContext.setUserId(toUuid(rs.getString("user_id")));
+            requestContext.setTenantId(toUuid(rs.getString("tenant_id")));
+            requestContext.setOriginatorId(toUuid(rs.getString("originator_id")));
+            requestContext.setRequestId(toUuid(rs.getString("request_id")));
+            requestContext.setTraceId(toUuid(rs.getString("trace_id")));
+            requestContext.setSpanId(toUuid(rs.getString("span_id")));
+            entity.setRequestContext(requestContext);
+            return entity;
+        }
+
+        private static UUID toUuid(String value) {
+            return value == null ? null : UUID.fromString(value);
+        }
+    }
+}
@@ -5,11 +5,16 @@ import io.nuvalence.platform.audit.service.domain.AuditEventEntity_;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -65,4 +70,49 @@ public interface AuditEventRepository
     }
 
     Page<AuditEventEntity> findAll(Specification<AuditEventEntity> spec, Pageable pageable);
+
+    /**
+     * Finds events by id, with their related business objects fetched by the same query.
+     *
+     * @param eventIds ids of the events
+     * @return events found, in no particular order
+     */
+    @EntityGraph(attributePaths = "relatedBusinessObjects")
+    List<AuditEventEntity> findByEventIdIn(Collection<UUID> eventIds);
+
+    /**
+     * Finds the business objects related to events of the given business objects, all of them
+     * with a single query served by the business object timestamp index. Types and ids are
+     * matched separately, the caller drops the pairs it did not ask for.
+     *
+     * @param businessObjectTypes types of the business objects whose events are read
+     * @param businessObjectIds   identifiers of the business objects whose events are read
+     * @param startTime           start time (inclusive) of the events read
+     * @param endTime             end time (exclusive) of the events read
+     * @return distinct business objects related to each business object, written type:id
+     */
+    @Query(
+            "SELECT DISTINCT e.businessObjectType AS businessObjectType,"
+                    + " e.businessObjectId AS businessObjectId,"
+                    + " r AS relatedBusinessObject"
+                    + " FROM AuditEventEntity e JOIN e.relatedBusinessObjects r"
+                    + " WHERE e.businessObjectType IN :businessObjectTypes"
+                    + " AND e.businessObjectId IN :businessObjectIds"
+                    + " AND e.timestamp >= :startTime AND e.timestamp < :endTime")
+    List<RelatedBusinessObject> findRelatedBusinessObjects(
+            @Param("businessObjectTypes") Collection<String> businessObjectTypes,
+            @Param("businessObjectIds") Collection<UUID> businessObjectIds,
+            @Param("startTime") OffsetDateTime startTime,
+            @Param("endTime") OffsetDateTime endTime);
+
+    /**
+     * Business object related to the events of another.
+     */
+    interface RelatedBusinessObject {
+        String getBusinessObjectType();
+
+        UUID getBusinessObjectId();
+
+        String getRelatedBusinessObject();
+    }
 }
@@ -0,0 +1,126 @@
+package io.nuvalence.platform.audit.service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stores received audit events which failed permanently, with the error they failed with, until
+ * they are replayed.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ParkedAuditEventRepository {
+
+    private static final int MAX_ERROR_LENGTH = 4000;
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO parked_audit_events (event_id, business_object_type,"
+                    + " business_object_id, payload, error_class, error_message, parked_at)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private static String asString(UUID value) {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Parks an event.
+     *
+     * @param eventId            event id, if known
+     * @param businessObjectType business object type, if known
+     * @param businessObjectId   business object id, if known
+     * @param payload            event as received
+     * @param error              permanent failure of the event
+     */
+    public void park(
+            UUID eventId,
+            String businessObjectType,
+            UUID businessObjectId,
+            String payload,
+            Throwable error) {
+        jdbcTemplate.update(
+                INSERT_EVENT,
+                asString(eventId),
+                businessObjectType,
+                asString(businessObjectId),
+                payload,
+                error.getClass().getName(),
+                truncate(error.getMessage()),
+                Timestamp.from(Instant.now()));
+    }
+
+    /**
+     * Reads parked events, oldest first.
+     *
+     * @param afterId id after which to read, for keyset pagination
+     * @param limit   maximum number of events to read
+     * @return parked events
+     */
+    public List<ParkedAuditEvent> findAfter(long afterId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, payload FROM parked_audit_events WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new ParkedAuditEvent(rs.getLong("id"), rs.getString("payload")),
+                afterId,
+                limit);
+    }
+
+    /**
+     * Records a new failure of a parked event.
+     *
+     * @param id    parked event id
+     * @param error failure of the replay
+     */
+    public void updateError(long id, Throwable error) {
+        jdbcTemplate.update(
+                "UPDATE parked_audit_events SET error_class = ?, error_message = ? WHERE id = ?",
+                error.getClass().getName(),
+                truncate(error.getMessage()),
+                id);
+    }
+
+    /**
+     * Deletes parked events.
+     *
+     * @param ids parked event ids
+     */
+    public void deleteAll(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "DELETE FROM parked_audit_events WHERE id = ?",
+                    ids.stream().map(id -> new Object[] {id}).toList());
+        }
+    }
+
+    /**
+     * Counts parked events.
+     *
+     * @return number of parked events
+     */
+    public long count() {
+        Long count =
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM parked_audit_events", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Parked event.
+     *
+     * @param id      parked event id
+     * @param payload event as received
+     */
+    public record ParkedAuditEvent(long id, String payload) {}
+}
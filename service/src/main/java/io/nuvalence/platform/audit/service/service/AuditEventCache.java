@@ -0,0 +1,118 @@
+package io.nuvalence.platform.audit.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.platform.audit.service.config.EventCacheProperties;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+
+/**
+ * Events looked up by id, read through by {@link AuditEventService#findAuditEventsById}. Events
+ * are never updated once persisted, so cached events stay valid until evicted: each shard, with its
+ * own lock, evicts its least recently used events once the estimated memory of its events is
+ * exceeded. Cached entities are detached, with
+ * their related business objects loaded, and must not be modified.
+ */
+@Component
+@EnableConfigurationProperties(EventCacheProperties.class)
+public class AuditEventCache {
+
+    private final boolean enabled;
+    private final Shard[] shards;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    /**
+     * Creates the cache.
+     *
+     * @param properties    cache configuration
+     * @param meterRegistry registry the number of hits and misses is published to
+     */
+    public AuditEventCache(EventCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        int shardCount = Integer.highestOneBit(Math.max(1, properties.getShards() - 1)) << 1;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(properties.getMaxMemory().toBytes() / shardCount);
+        }
+        this.hitCounter = meterRegistry.counter("audit.events.cache.hits");
+        this.missCounter = meterRegistry.counter("audit.events.cache.misses");
+    }
+
+    private Shard shard(UUID eventId) {
+        long hash = eventId.getMostSignificantBits() ^ eventId.getLeastSignificantBits();
+        int bits = (int) (hash ^ (hash >>> 32));
+        return shards[(bits ^ (bits >>> 16)) & (shards.length - 1)];
+    }
+
+    /**
+     * Returns a cached event.
+     *
+     * @param eventId event id
+     * @return the event, or null if it is not cached
+     */
+    public AuditEventEntity get(UUID eventId) {
+        if (!enabled) {
+            return null;
+        }
+        AuditEventEntity entity;
+        Shard shard = shard(eventId);
+        synchronized (shard) {
+            entity = shard.get(eventId);
+        }
+        if (entity == null) {
+            missCounter.increment();
+        } else {
+            hitCounter.increment();
+        }
+        return entity;
+    }
+
+    /**
+     * Caches an event read from the database.
+     *
+     * @param entity event, detached with its related business objects loaded
+     */
+    public void put(AuditEventEntity entity) {
+        if (!enabled) {
+            return;
+        }
+        Shard shard = shard(entity.getEventId());
+        synchronized (shard) {
+            shard.add(entity);
+        }
+    }
+
+    /**
+     * Events in access order, evicting the least recently used events once full.
+     */
+    private static final class Shard extends LinkedHashMap<UUID, AuditEventEntity> {
+        private static final long serialVersionUID = 1L;
+
+        private final long maxBytes;
+        private long bytes;
+
+        Shard(long maxBytes) {
+            super(16, 0.75f, true);
+            this.maxBytes = maxBytes;
+        }
+
+        void add(AuditEventEntity entity) {
+            AuditEventEntity previous = put(entity.getEventId(), entity);
+            bytes += BusinessObjectTailCache.estimateSize(entity);
+            if (previous != null) {
+                bytes -= BusinessObjectTailCache.estimateSize(previous);
+            }
+            Iterator<AuditEventEntity> leastRecentlyUsed = values().iterator();
+            while (bytes > maxBytes && leastRecentlyUsed.hasNext()) {
+                bytes -= BusinessObjectTailCache.estimateSize(leastRecentlyUsed.next());
+                leastRecentlyUsed.remove();
+            }
+        }
+    }
+}
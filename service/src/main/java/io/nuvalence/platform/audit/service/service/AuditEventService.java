@@ -4,22 +4,51 @@ import io.nuvalence.events.brokerclient.config.PublisherProperties;
 import io.nuvalence.events.event.AuditEvent;
 import io.nuvalence.events.event.service.EventGateway;
 import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.domain.BusinessObjectRef;
 import io.nuvalence.platform.audit.service.error.ApiException;
 import io.nuvalence.platform.audit.service.events.PublisherTopic;
+import io.nuvalence.platform.audit.service.events.async.AsyncEventPublisher;
+import io.nuvalence.platform.audit.service.events.direct.DirectEventWriter;
+import io.nuvalence.platform.audit.service.events.lanes.PriorityLanes;
+import io.nuvalence.platform.audit.service.events.outbox.AuditEventOutbox;
+import io.nuvalence.platform.audit.service.mapper.RenderedEventMapper;
+import io.nuvalence.platform.audit.service.repository.AuditEventBatchWriter;
+import io.nuvalence.platform.audit.service.repository.AuditEventCursorReader;
 import io.nuvalence.platform.audit.service.repository.AuditEventRepository;
+import io.nuvalence.platform.audit.service.repository.AuditEventRepository.RelatedBusinessObject;
 import jakarta.ws.rs.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.DuplicateKeyException;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Service layer to manage audit events.
@@ -29,9 +58,25 @@ import java.util.UUID;
 @Transactional
 @RequiredArgsConstructor
 public class AuditEventService {
+    private static final int STREAM_FETCH_SIZE = 20;
+    private static final OffsetDateTime MIN_TIME = OffsetDateTime.parse("0001-01-01T00:00:00Z");
+    private static final OffsetDateTime MAX_TIME = OffsetDateTime.parse("9999-12-31T00:00:00Z");
+
     private final AuditEventRepository auditEventRepository;
     private final PublisherProperties publisherProperties;
     private final EventGateway eventGateway;
+    private final PriorityLanes priorityLanes;
+    private final AuditEventBatchWriter auditEventBatchWriter;
+    private final RecentEventIdFilter recentEventIdFilter;
+    private final AuditEventOutbox auditEventOutbox;
+    private final DirectEventWriter directEventWriter;
+    private final PersistedEventRegistry persistedEventRegistry;
+    private final AsyncEventPublisher asyncEventPublisher;
+    private final AuditEventCursorReader auditEventCursorReader;
+    private final RenderedEventMapper renderedEventMapper;
+    private final AuditEventCache auditEventCache;
+    private final BusinessObjectTailCache businessObjectTailCache;
+    private final HistoricalPageCache historicalPageCache;
 
     private static void checkTimeRange(OffsetDateTime startTime, OffsetDateTime endTime) {
         if (startTime != null && endTime != null && startTime.isAfter(endTime)) {
@@ -76,26 +121,414 @@ public class AuditEventService {
             String sortOrder,
             String sortBy) {
         checkTimeRange(startTime, endTime);
+        if (isTailQuery(startTime, endTime, pageNumber, pageSize, sortOrder, sortBy)) {
+            return findTail(businessObjectType, businessObjectId, pageSize);
+        }
+        if (renderedEventMapper.isEnabled()) {
+            return findRenderedPage(
+                    businessObjectType,
+                    businessObjectId,
+                    startTime,
+                    endTime,
+                    pageNumber,
+                    pageSize,
+                    sortOrder,
+                    sortBy);
+        }
+
+        Page<AuditEventEntity> page =
+                auditEventRepository.findAll(
+                        businessObjectType,
+                        businessObjectId,
+                        startTime,
+                        endTime,
+                        createPageable(pageNumber, pageSize, sortOrder, sortBy));
+        // results may be mapped outside of this session, on the caller's thread
+        page.forEach(entity -> Hibernate.initialize(entity.getRelatedBusinessObjects()));
+        return page;
+    }
 
-        return auditEventRepository.findAll(
+    /**
+     * Reads a page of events from a cursor selecting their renderings, the entities not mapping
+     * them, and the large columns of the events without one only.
+     */
+    private Page<AuditEventEntity> findRenderedPage(
+            String businessObjectType,
+            UUID businessObjectId,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            Integer pageNumber,
+            Integer pageSize,
+            String sortOrder,
+            String sortBy) {
+        List<AuditEventEntity> events = new ArrayList<>(pageSize);
+        streamAuditEvents(
                 businessObjectType,
                 businessObjectId,
                 startTime,
                 endTime,
-                createPageable(pageNumber, pageSize, sortOrder, sortBy));
+                pageNumber,
+                pageSize,
+                sortOrder,
+                sortBy,
+                EnumSet.allOf(AuditEventCursorReader.Part.class),
+                events::add);
+        return PageableExecutionUtils.getPage(
+                events,
+                createPageable(pageNumber, pageSize, sortOrder, sortBy),
+                () ->
+                        countAuditEvents(
+                                businessObjectType, businessObjectId, startTime, endTime));
+    }
+
+    private boolean isTailQuery(
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            Integer pageNumber,
+            Integer pageSize,
+            String sortOrder,
+            String sortBy) {
+        return businessObjectTailCache.isActive()
+                && startTime == null
+                && endTime == null
+                && pageNumber == 0
+                && pageSize <= businessObjectTailCache.getTailSize()
+                && Sort.Direction.DESC.name().equalsIgnoreCase(sortOrder)
+                && "timestamp".equals(sortBy);
+    }
+
+    /**
+     * Reads the newest page of events of a business object from the tail cache. On a miss, the
+     * whole tail is read so that the next newest pages of the business object are served from
+     * the cache.
+     */
+    private Page<AuditEventEntity> findTail(
+            String businessObjectType, UUID businessObjectId, int pageSize) {
+        BusinessObjectRef businessObject =
+                new BusinessObjectRef(businessObjectType, businessObjectId);
+        PageRequest pageable = PageRequest.of(0, pageSize, Sort.Direction.DESC, "timestamp");
+        BusinessObjectTailCache.Tail tail = businessObjectTailCache.get(businessObject, pageSize);
+        if (tail == null) {
+            long stamp = businessObjectTailCache.stamp(businessObject);
+            Page<AuditEventEntity> newest =
+                    auditEventRepository.findAll(
+                            businessObjectType,
+                            businessObjectId,
+                            null,
+                            null,
+                            PageRequest.of(
+                                    0,
+                                    businessObjectTailCache.getTailSize(),
+                                    Sort.Direction.DESC,
+                                    "timestamp"));
+            newest.forEach(entity -> Hibernate.initialize(entity.getRelatedBusinessObjects()));
+            businessObjectTailCache.fill(
+                    businessObject, stamp, newest.getContent(), newest.getTotalElements());
+            List<AuditEventEntity> events = newest.getContent();
+            tail =
+                    new BusinessObjectTailCache.Tail(
+                            events.subList(0, Math.min(pageSize, events.size())),
+                            newest.getTotalElements());
+        }
+        return new PageImpl<>(tail.events(), pageable, tail.totalCount());
+    }
+
+    /**
+     * Counts the audit events of a business object within a time range.
+     *
+     * @param businessObjectType Type of business object.
+     * @param businessObjectId   Unique identifier for a business object of the specified type.
+     * @param startTime          Start time (inclusive) of the events counted, null for no lower bound.
+     * @param endTime            End time (exclusive) of the events counted, null for no upper bound.
+     * @return number of events
+     */
+    @Transactional(readOnly = true)
+    public long countAuditEvents(
+            String businessObjectType,
+            UUID businessObjectId,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime) {
+        checkTimeRange(startTime, endTime);
+        return auditEventRepository.count(
+                auditEventRepository.findAllSpec(
+                        businessObjectId, businessObjectType, startTime, endTime));
     }
 
     /**
-     * Publish an Audit event to it's topic to be processed asynchronously.
+     * Reads the same page of audit events as {@link #findAuditEvents}, from a database cursor
+     * handing each event over as soon as its rows are fetched instead of loading the page first.
+     *
+     * @param businessObjectType Type of business object.
+     * @param businessObjectId   Unique identifier for a business object of the specified type.
+     * @param startTime          Start time (inclusive) of the events read, null for no lower bound.
+     * @param endTime            End time (exclusive) of the events read, null for no upper bound.
+     * @param pageNumber         Results page number.
+     * @param pageSize           Results page size.
+     * @param sortOrder          Controls whether results are returned in ascending or descending order.
+     * @param sortBy             Specifies the field to sort results by.
+     * @param parts              Optional parts of the events to read, the others being null.
+     * @param consumer           consumer of the events, which may stop the read by throwing
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamAuditEvents(
+            String businessObjectType,
+            UUID businessObjectId,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            Integer pageNumber,
+            Integer pageSize,
+            String sortOrder,
+            String sortBy,
+            Set<AuditEventCursorReader.Part> parts,
+            Consumer<AuditEventEntity> consumer) {
+        checkTimeRange(startTime, endTime);
+        PageRequest pageable = createPageable(pageNumber, pageSize, sortOrder, sortBy);
+        Sort.Order order = pageable.getSort().iterator().next();
+        Consumer<AuditEventEntity> reader =
+                parts.contains(AuditEventCursorReader.Part.RENDERED_EVENT)
+                        ? entity -> consumer.accept(withReadableParts(entity))
+                        : consumer;
+        auditEventCursorReader.readPage(
+                businessObjectType,
+                businessObjectId,
+                startTime,
+                endTime,
+                order.getProperty(),
+                order.isAscending(),
+                pageable.getOffset(),
+                pageable.getPageSize(),
+                parts,
+                STREAM_FETCH_SIZE,
+                reader);
+    }
+
+    /**
+     * The parts of rendered events are not read, events rendered with an older version of the
+     * API representation are then read again with all their parts.
+     */
+    private AuditEventEntity withReadableParts(AuditEventEntity entity) {
+        if (entity.getRenderedEvent() == null
+                || renderedEventMapper.isCurrent(entity.getRenderedEvent())) {
+            return entity;
+        }
+        return findAuditEventsById(List.of(entity.getEventId())).stream()
+                .findFirst()
+                .orElse(entity);
+    }
+
+    /**
+     * Reads one page of the merged timeline of several business objects, ordered by timestamp
+     * and id. Each business object is read by its own index range scan, starting after the given
+     * position and bounded by the page size, and the scans are merged in memory. This keeps the
+     * cost of a page proportional to the number of objects times the page size, where a single
+     * query over all of them would have to sort every matching event.
+     *
+     * @param businessObjects business objects whose events are merged
+     * @param startTime       Start time (inclusive) of the events read, null for no lower bound.
+     * @param endTime         End time (exclusive) of the events read, null for no upper bound.
+     * @param ascending       true for oldest events first, false for newest first
+     * @param afterTimestamp  timestamp of the last event of the previous page, null for the
+     *                        first page
+     * @param afterEventId    id of the last event of the previous page, null for the first page
+     * @param limit           maximum number of events read
+     * @return events of the page, in timeline order
+     */
+    @Transactional(readOnly = true)
+    public List<AuditEventEntity> findTimeline(
+            Collection<BusinessObjectRef> businessObjects,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            boolean ascending,
+            OffsetDateTime afterTimestamp,
+            UUID afterEventId,
+            int limit) {
+        checkTimeRange(startTime, endTime);
+        List<List<AuditEventEntity>> timelines = new ArrayList<>();
+        for (BusinessObjectRef businessObject : new LinkedHashSet<>(businessObjects)) {
+            List<AuditEventEntity> timeline = new ArrayList<>();
+            auditEventCursorReader.readAfter(
+                    businessObject.type(),
+                    businessObject.id(),
+                    startTime,
+                    endTime,
+                    ascending,
+                    afterTimestamp,
+                    afterEventId,
+                    limit,
+                    timeline::add);
+            if (!timeline.isEmpty()) {
+                timelines.add(timeline);
+            }
+        }
+        return mergeTimelines(timelines, ascending, limit);
+    }
+
+    /**
+     * Walks the related business objects of the events of a business object breadth-first. Each
+     * level is read by a single query over all the business objects reached by the previous one,
+     * and business objects already reached are not read again.
+     *
+     * @param start      business object the traversal starts from
+     * @param maxDepth   maximum number of relations followed
+     * @param maxObjects maximum number of business objects reached, including the first one
+     * @param startTime  Start time (inclusive) of the events read, null for no lower bound.
+     * @param endTime    End time (exclusive) of the events read, null for no upper bound.
+     * @param canView    tells whether a business object may be reached, the others being neither
+     *                   returned nor traversed
+     * @return business objects reached
+     */
+    @Transactional(readOnly = true)
+    public BusinessObjectGraph findRelatedBusinessObjects(
+            BusinessObjectRef start,
+            int maxDepth,
+            int maxObjects,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            Predicate<BusinessObjectRef> canView) {
+        checkTimeRange(startTime, endTime);
+        Map<BusinessObjectRef, Integer> depths = new LinkedHashMap<>();
+        depths.put(start, 0);
+        Set<BusinessObjectRef> rejected = new HashSet<>();
+        Set<BusinessObjectRef> frontier = Set.of(start);
+        for (int depth = 1; depth <= maxDepth && !frontier.isEmpty(); depth++) {
+            Set<BusinessObjectRef> level = frontier;
+            // the query matches types and ids separately, pairs which were not reached are dropped
+            List<String> related =
+                    auditEventRepository
+                            .findRelatedBusinessObjects(
+                                    level.stream().map(BusinessObjectRef::type).distinct().toList(),
+                                    level.stream().map(BusinessObjectRef::id).toList(),
+                                    startTime == null ? MIN_TIME : startTime,
+                                    endTime == null ? MAX_TIME : endTime)
+                            .stream()
+                            .filter(
+                                    row ->
+                                            level.contains(
+                                                    new BusinessObjectRef(
+                                                            row.getBusinessObjectType(),
+                                                            row.getBusinessObjectId())))
+                            .map(RelatedBusinessObject::getRelatedBusinessObject)
+                            .distinct()
+                            // sorted, so that the objects kept when capped do not depend on plans
+                            .sorted()
+                            .toList();
+            Set<BusinessObjectRef> next = new LinkedHashSet<>();
+            for (String value : related) {
+                BusinessObjectRef businessObject = toBusinessObjectRef(value);
+                if (businessObject == null
+                        || depths.containsKey(businessObject)
+                        || rejected.contains(businessObject)) {
+                    continue;
+                }
+                if (!canView.test(businessObject)) {
+                    rejected.add(businessObject);
+                    continue;
+                }
+                if (depths.size() >= maxObjects) {
+                    return new BusinessObjectGraph(depths, true);
+                }
+                depths.put(businessObject, depth);
+                next.add(businessObject);
+            }
+            frontier = next;
+        }
+        return new BusinessObjectGraph(depths, false);
+    }
+
+    private static BusinessObjectRef toBusinessObjectRef(String value) {
+        try {
+            return BusinessObjectRef.parse(value);
+        } catch (IllegalArgumentException e) {
+            // related objects are free form, those not identified by a UUID have no events
+            return null;
+        }
+    }
+
+    /**
+     * Merges timelines which are each ordered by timestamp and id, the order of the cursor reader.
+     * Ids are compared as strings, as the database compares its id column.
+     */
+    static List<AuditEventEntity> mergeTimelines(
+            List<List<AuditEventEntity>> timelines, boolean ascending, int limit) {
+        Comparator<AuditEventEntity> order =
+                Comparator.comparing(AuditEventEntity::getTimestamp, OffsetDateTime.timeLineOrder())
+                        .thenComparing(entity -> entity.getEventId().toString());
+        Comparator<TimelineHead> headOrder =
+                Comparator.comparing(TimelineHead::current, ascending ? order : order.reversed());
+        PriorityQueue<TimelineHead> heads =
+                new PriorityQueue<>(Math.max(1, timelines.size()), headOrder);
+        for (List<AuditEventEntity> timeline : timelines) {
+            heads.add(new TimelineHead(timeline.iterator()));
+        }
+        List<AuditEventEntity> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            TimelineHead head = heads.poll();
+            merged.add(head.current());
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Finds audit events by id, reading through the event cache: only the events which are not
+     * cached are read from the database, all of them by a single query.
+     *
+     * @param eventIds ids of the events
+     * @return events found, in the order of their ids, events which do not exist being left out
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<AuditEventEntity> findAuditEventsById(Collection<UUID> eventIds) {
+        Map<UUID, AuditEventEntity> events = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID eventId : eventIds) {
+            if (!events.containsKey(eventId)) {
+                AuditEventEntity cached = auditEventCache.get(eventId);
+                events.put(eventId, cached);
+                if (cached == null) {
+                    missing.add(eventId);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            // events which do not exist are not cached, they may be persisted later
+            for (AuditEventEntity entity : auditEventRepository.findByEventIdIn(missing)) {
+                auditEventCache.put(entity);
+                events.put(entity.getEventId(), entity);
+            }
+        }
+        return events.values().stream().filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Publish an Audit event to the topic of its priority lane to be processed asynchronously.
+     * Events of a lane whose topic is not configured are published to the standard topic. In
+     * outbox mode the event is only stored, to be relayed to the topic in the background, in
+     * direct-write mode it is persisted by this replica without being published, and in
+     * asynchronous mode it is handed to a background publisher.
      *
      * @param auditEvent audit event data
+     * @return true if the event was published or durably stored, false if it was only accepted
+     *         to be published or persisted asynchronously
      * @throws NotFoundException if the topic is not found
      */
-    public void publishAuditEvent(AuditEvent auditEvent) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean publishAuditEvent(AuditEvent auditEvent) {
+        if (directEventWriter.isEnabled()) {
+            // held in memory, or spilled to disk, until a writer thread stores it
+            directEventWriter.submit(auditEvent);
+            return false;
+        }
 
+        PublisherTopic laneTopic = priorityLanes.classify(auditEvent).getTopic();
         Optional<String> fullyQualifiedTopicNameOptional =
-                publisherProperties.getFullyQualifiedTopicName(
-                        PublisherTopic.AUDIT_EVENTS_RECORDING.name());
+                publisherProperties
+                        .getFullyQualifiedTopicName(laneTopic.name())
+                        .or(
+                                () ->
+                                        publisherProperties.getFullyQualifiedTopicName(
+                                                PublisherTopic.AUDIT_EVENTS_RECORDING.name()));
 
         if (fullyQualifiedTopicNameOptional.isEmpty()) {
             throw new NotFoundException(
@@ -103,20 +536,119 @@ public class AuditEventService {
                             + PublisherTopic.AUDIT_EVENTS_RECORDING.name());
         }
 
-        eventGateway.publishEvent(auditEvent, fullyQualifiedTopicNameOptional.get());
+        if (auditEventOutbox.isEnabled()) {
+            auditEventOutbox.append(auditEvent, fullyQualifiedTopicNameOptional.get());
+        } else if (asyncEventPublisher.isEnabled()) {
+            asyncEventPublisher.submit(auditEvent, fullyQualifiedTopicNameOptional.get());
+            return false;
+        } else {
+            eventGateway.publishEvent(auditEvent, fullyQualifiedTopicNameOptional.get());
+        }
+        return true;
     }
 
     /**
-     * Persists an audit event to the database.
+     * Persists an audit event to the database. Persisting an event already stored is a no-op.
      *
      * @param entity audit event data
      */
     public void saveAuditEvent(AuditEventEntity entity) {
+        saveAuditEvents(List.of(entity));
+    }
+
+    /**
+     * Persists audit events to the database in a single batch, skipping events already stored.
+     * Events without an id, which were not published by this service, are given a random one.
+     * When enabled, the API representation of the events is rendered and stored with them.
+     *
+     * @param entities audit events data
+     * @return number of events actually inserted
+     */
+    public int saveAuditEvents(List<AuditEventEntity> entities) {
+        entities.stream()
+                .filter(entity -> entity.getEventId() == null)
+                .forEach(entity -> entity.setEventId(UUID.randomUUID()));
+        if (renderedEventMapper.isEnabled()) {
+            entities.stream()
+                    .filter(entity -> entity.getRenderedEvent() == null)
+                    .forEach(this::render);
+        }
+
+        List<AuditEventEntity> inserted = auditEventBatchWriter.insertAll(entities);
+        if (inserted.size() < entities.size()) {
+            log.info(
+                    "Skipped {} audit events already persisted",
+                    entities.size() - inserted.size());
+        }
+        inserted.forEach(entity -> log.info("Audit event persisted - {}", entity.getEventId()));
+
+        // only remember ids once the rows are visible, a rollback must let redeliveries through
+        List<UUID> persistedIds = entities.stream().map(AuditEventEntity::getEventId).toList();
+        businessObjectTailCache.written(inserted);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void beforeCommit(boolean readOnly) {
+                            persistedEventRegistry.beforeCommit(persistedIds);
+                            businessObjectTailCache.beforeCommit(inserted);
+                        }
+
+                        @Override
+                        public void afterCommit() {
+                            persistedIds.forEach(recentEventIdFilter::add);
+                            persistedEventRegistry.afterCommit(persistedIds);
+                            historicalPageCache.invalidate(inserted);
+                        }
+
+                        @Override
+                        public void afterCompletion(int status) {
+                            businessObjectTailCache.afterCompletion(
+                                    inserted, status == STATUS_COMMITTED);
+                        }
+                    });
+        } else {
+            persistedIds.forEach(recentEventIdFilter::add);
+            persistedEventRegistry.beforeCommit(persistedIds);
+            persistedEventRegistry.afterCommit(persistedIds);
+            historicalPageCache.invalidate(inserted);
+            businessObjectTailCache.beforeCommit(inserted);
+            businessObjectTailCache.afterCompletion(inserted, true);
+        }
+        return inserted.size();
+    }
+
+    private void render(AuditEventEntity entity) {
         try {
-            auditEventRepository.save(entity);
-            log.info(String.format("Audit event persisted - %s", entity.getEventId()));
-        } catch (DuplicateKeyException ex) {
-            log.info("Error persisting Audit event: ", ex);
+            entity.setRenderedEvent(renderedEventMapper.render(entity));
+        } catch (RuntimeException e) {
+            // the event is still persisted, and mapped when read
+            log.warn("Could not render audit event {}", entity.getEventId(), e);
+        }
+    }
+
+    /**
+     * Next event of a timeline being merged.
+     */
+    private static final class TimelineHead {
+        private final Iterator<AuditEventEntity> events;
+        private AuditEventEntity current;
+
+        private TimelineHead(Iterator<AuditEventEntity> events) {
+            this.events = events;
+            this.current = events.next();
+        }
+
+        private AuditEventEntity current() {
+            return current;
+        }
+
+        private boolean advance() {
+            if (!events.hasNext()) {
+                return false;
+            }
+            current = events.next();
+            return true;
         }
     }
 }
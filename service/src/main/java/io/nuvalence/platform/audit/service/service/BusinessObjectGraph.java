@@ -0,0 +1,16 @@
+package io.nuvalence.platform.audit.service.service;
+
+import io.nuvalence.platform.audit.service.domain.BusinessObjectRef;
+
+import java.util.Map;
+
+/**
+ * Business objects reached from a business object through the related business objects of their
+ * events.
+ *
+ * @param depths    business objects reached, in the order they were reached, with the number of
+ *                  relations followed to reach them, the starting business object being at depth 0
+ * @param truncated true if more business objects were related than the traversal was allowed to
+ *                  reach
+ */
+public record BusinessObjectGraph(Map<BusinessObjectRef, Integer> depths, boolean truncated) {}
@@ -0,0 +1,494 @@
+package io.nuvalence.platform.audit.service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.platform.audit.service.config.TailCacheProperties;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.domain.BusinessObjectRef;
+import io.nuvalence.platform.audit.service.domain.StateChangeEventEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Newest events of the business objects whose newest page is read, most of the reads of the
+ * newest events going to a few busy business objects. Tails are filled when read and the events
+ * persisted by this replica are appended to them once committed. The other replicas are told on
+ * PostgreSQL with {@code NOTIFY}, in the persisting transaction, which business objects got new
+ * events, and drop their tails. A replica not listening to these notifications could miss events
+ * persisted elsewhere, so the cache is only used while listening, and emptied whenever the
+ * listener connects or disconnects.
+ *
+ * <p>Each shard, with its own lock, evicts its least recently used tails once the estimated
+ * memory of their events is exceeded. Tails read from the database are only cached if no event of
+ * their shard was written meanwhile, as they may predate it. Cached entities are detached, with
+ * their related business objects loaded, and must not be modified.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(TailCacheProperties.class)
+public class BusinessObjectTailCache implements DisposableBean {
+
+    static final String WRITTEN_CHANNEL = "audit_business_object_written";
+
+    // notification payloads are limited to 8000 bytes, business objects take up to 102
+    private static final int OBJECTS_PER_NOTIFICATION = 75;
+    private static final int POLL_MILLIS = 1000;
+
+    private final TailCacheProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final MeterRegistry meterRegistry;
+    private final String origin = UUID.randomUUID().toString();
+    private final Shard[] shards;
+    private volatile boolean listening;
+    private volatile boolean running;
+    private Thread listener;
+
+    /**
+     * Creates the cache.
+     *
+     * @param properties           cache configuration
+     * @param jdbcTemplate         jdbc template notifications are sent with
+     * @param dataSourceProperties database the notifications are listened to on
+     * @param meterRegistry        registry the hits and misses of each business object type are
+     *                             published to
+     */
+    public BusinessObjectTailCache(
+            TailCacheProperties properties,
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.meterRegistry = meterRegistry;
+        int shardCount = Integer.highestOneBit(Math.max(1, properties.getShards() - 1)) << 1;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(properties.getMaxMemory().toBytes() / shardCount);
+        }
+    }
+
+    private Shard shard(BusinessObjectRef businessObject) {
+        int hash = businessObject.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (shards.length - 1)];
+    }
+
+    /**
+     * Tells whether newest pages may be read from the cache.
+     *
+     * @return true if the cache is enabled and other replicas are listened to
+     */
+    public boolean isActive() {
+        return properties.isEnabled() && listening;
+    }
+
+    /**
+     * Returns the number of newest events kept for each business object.
+     *
+     * @return tail size
+     */
+    public int getTailSize() {
+        return properties.getTailSize();
+    }
+
+    /**
+     * Returns the newest events of a business object.
+     *
+     * @param businessObject business object
+     * @param limit          maximum number of events returned
+     * @return newest events, or null if they are not cached
+     */
+    public Tail get(BusinessObjectRef businessObject, int limit) {
+        if (!isActive()) {
+            return null;
+        }
+        Tail tail = null;
+        Shard shard = shard(businessObject);
+        synchronized (shard) {
+            CachedTail cached = shard.get(businessObject);
+            if (cached != null) {
+                tail =
+                        new Tail(
+                                List.copyOf(
+                                        cached.events.subList(
+                                                0, Math.min(limit, cached.events.size()))),
+                                cached.totalCount);
+            }
+        }
+        meterRegistry
+                .counter(
+                        tail == null
+                                ? "audit.events.tail-cache.misses"
+                                : "audit.events.tail-cache.hits",
+                        "businessObjectType",
+                        businessObject.type())
+                .increment();
+        return tail;
+    }
+
+    /**
+     * Returns the write stamp of a business object, to be taken before reading its newest events
+     * from the database and handed to {@link #fill}.
+     *
+     * @param businessObject business object
+     * @return write stamp
+     */
+    public long stamp(BusinessObjectRef businessObject) {
+        Shard shard = shard(businessObject);
+        synchronized (shard) {
+            return shard.version;
+        }
+    }
+
+    /**
+     * Caches the newest events of a business object read from the database, unless events of
+     * its shard were written since they were read.
+     *
+     * @param businessObject business object
+     * @param stamp          write stamp taken before reading the events
+     * @param events         newest events, newest first, as many as the tail size unless the
+     *                       business object has fewer events
+     * @param totalCount     number of events of the business object
+     */
+    public void fill(
+            BusinessObjectRef businessObject,
+            long stamp,
+            List<AuditEventEntity> events,
+            long totalCount) {
+        if (!isActive()) {
+            return;
+        }
+        Shard shard = shard(businessObject);
+        synchronized (shard) {
+            if (shard.version != stamp || shard.pendingWrites.containsKey(businessObject)) {
+                return;
+            }
+            CachedTail tail = new CachedTail(new ArrayList<>(events), totalCount);
+            events.forEach(event -> tail.size += estimateSize(event));
+            shard.add(businessObject, tail);
+        }
+    }
+
+    /**
+     * Registers events inserted by a transaction which is not committed yet. Their business
+     * objects are not filled until the transaction completes.
+     *
+     * @param events inserted events
+     */
+    public void written(List<AuditEventEntity> events) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (BusinessObjectRef businessObject : businessObjects(events)) {
+            Shard shard = shard(businessObject);
+            synchronized (shard) {
+                shard.version++;
+                shard.pendingWrites.merge(businessObject, 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Notifies the other replicas of the business objects with new events, within the
+     * persisting transaction.
+     *
+     * @param events inserted events
+     */
+    public void beforeCommit(List<AuditEventEntity> events) {
+        if (!properties.isEnabled() || !running) {
+            return;
+        }
+        List<String> written = businessObjects(events).stream().map(Object::toString).toList();
+        for (int i = 0; i < written.size(); i += OBJECTS_PER_NOTIFICATION) {
+            int end = Math.min(written.size(), i + OBJECTS_PER_NOTIFICATION);
+            jdbcTemplate.query(
+                    "SELECT pg_notify(?, ?)",
+                    rs -> null,
+                    WRITTEN_CHANNEL,
+                    origin + "|" + String.join(",", written.subList(i, end)));
+        }
+    }
+
+    /**
+     * Appends the events of a completed transaction to the tails of their business objects, if
+     * the transaction committed.
+     *
+     * @param events    events registered by {@link #written}
+     * @param committed true if the transaction committed
+     */
+    public void afterCompletion(List<AuditEventEntity> events, boolean committed) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (BusinessObjectRef businessObject : businessObjects(events)) {
+            Shard shard = shard(businessObject);
+            synchronized (shard) {
+                shard.version++;
+                shard.pendingWrites.computeIfPresent(
+                        businessObject, (key, count) -> count > 1 ? count - 1 : null);
+                CachedTail tail = shard.get(businessObject);
+                if (committed && tail != null) {
+                    long size = tail.size;
+                    events.stream()
+                            .filter(event -> businessObject.equals(businessObject(event)))
+                            .forEach(event -> tail.append(event, properties.getTailSize()));
+                    shard.resized(tail.size - size);
+                }
+            }
+        }
+    }
+
+    private static Set<BusinessObjectRef> businessObjects(List<AuditEventEntity> events) {
+        Set<BusinessObjectRef> businessObjects = new LinkedHashSet<>();
+        events.forEach(event -> businessObjects.add(businessObject(event)));
+        return businessObjects;
+    }
+
+    private static BusinessObjectRef businessObject(AuditEventEntity event) {
+        return new BusinessObjectRef(event.getBusinessObjectType(), event.getBusinessObjectId());
+    }
+
+    /**
+     * Estimates the memory held by a cached event.
+     *
+     * @param event event
+     * @return estimated size in bytes
+     */
+    static long estimateSize(AuditEventEntity event) {
+        // entity, request context and fixed size fields, then strings as UTF-16
+        long size = 512;
+        size +=
+                2L
+                        * (length(event.getSchema())
+                                + length(event.getSummary())
+                                + length(event.getSystemOfRecord())
+                                + length(event.getActivityType())
+                                + length(event.getData())
+                                + length(event.getBusinessObjectType()));
+        if (event.getRelatedBusinessObjects() != null) {
+            for (String related : event.getRelatedBusinessObjects()) {
+                size += 48 + 2L * related.length();
+            }
+        }
+        if (event instanceof StateChangeEventEntity stateChange) {
+            size += 2L * (length(stateChange.getOldState()) + length(stateChange.getNewState()));
+        }
+        if (event.getRenderedEvent() != null) {
+            size += event.getRenderedEvent().length;
+        }
+        return size;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * Starts listening to the other replicas, on PostgreSQL only.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        String url = dataSourceProperties.determineUrl();
+        if (!properties.isEnabled()
+                || running
+                || url == null
+                || !url.startsWith("jdbc:postgresql:")) {
+            return;
+        }
+        running = true;
+        listener = new Thread(() -> listen(url), "audit-tail-cache-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    private void listen(String url) {
+        while (running) {
+            // a dedicated connection, a pooled one would be held forever
+            try (Connection connection =
+                    DriverManager.getConnection(
+                            url,
+                            dataSourceProperties.determineUsername(),
+                            dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + WRITTEN_CHANNEL);
+                }
+                setListening(true);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                setListening(false);
+                if (running) {
+                    log.warn("Lost notifications of written business objects, reconnecting", e);
+                    sleep(properties.getReconnectDelay().toMillis());
+                }
+            }
+        }
+        setListening(false);
+    }
+
+    /**
+     * Empties the cache, which holds tails only while notified of the events written by the
+     * other replicas.
+     *
+     * @param listening true once listening, false once the notifications may be missed
+     */
+    void setListening(boolean listening) {
+        this.listening = false;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                shard.version++;
+                shard.clear();
+                shard.bytes = 0;
+            }
+        }
+        this.listening = listening;
+    }
+
+    void handle(String payload) {
+        int separator = payload.indexOf('|');
+        // this replica is notified of its own writes too, which it appended already
+        if (separator < 0 || origin.equals(payload.substring(0, separator))) {
+            return;
+        }
+        for (String value : payload.substring(separator + 1).split(",")) {
+            BusinessObjectRef businessObject;
+            try {
+                businessObject = BusinessObjectRef.parse(value);
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring malformed business object on {}: {}", WRITTEN_CHANNEL, value);
+                continue;
+            }
+            Shard shard = shard(businessObject);
+            synchronized (shard) {
+                shard.version++;
+                CachedTail tail = shard.remove(businessObject);
+                if (tail != null) {
+                    shard.bytes -= tail.size;
+                }
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.join(POLL_MILLIS * 2L);
+            listener = null;
+        }
+    }
+
+    /**
+     * Newest events of a business object.
+     *
+     * @param events     newest events, newest first
+     * @param totalCount number of events of the business object
+     */
+    public record Tail(List<AuditEventEntity> events, long totalCount) {}
+
+    /**
+     * Newest events of a business object, as many as the tail size unless the business object
+     * has fewer events.
+     */
+    private static final class CachedTail {
+        private final List<AuditEventEntity> events;
+        private long totalCount;
+        private long size;
+
+        CachedTail(List<AuditEventEntity> events, long totalCount) {
+            this.events = events;
+            this.totalCount = totalCount;
+        }
+
+        void append(AuditEventEntity event, int tailSize) {
+            // already read from the database if committed before the tail was filled
+            UUID eventId = event.getEventId();
+            if (events.stream().anyMatch(cached -> cached.getEventId().equals(eventId))) {
+                return;
+            }
+            totalCount++;
+            // events may be created with a past timestamp
+            int position = 0;
+            while (position < events.size()
+                    && !events.get(position).getTimestamp().isBefore(event.getTimestamp())) {
+                position++;
+            }
+            if (position >= tailSize) {
+                return;
+            }
+            events.add(position, event);
+            size += estimateSize(event);
+            if (events.size() > tailSize) {
+                size -= estimateSize(events.remove(events.size() - 1));
+            }
+        }
+    }
+
+    /**
+     * Tails in access order, evicting the least recently used tails once full.
+     */
+    private static final class Shard extends LinkedHashMap<BusinessObjectRef, CachedTail> {
+        private static final long serialVersionUID = 1L;
+
+        private final long maxBytes;
+        private final transient Map<BusinessObjectRef, Integer> pendingWrites = new HashMap<>();
+        private long bytes;
+        private long version;
+
+        Shard(long maxBytes) {
+            super(16, 0.75f, true);
+            this.maxBytes = maxBytes;
+        }
+
+        void add(BusinessObjectRef businessObject, CachedTail tail) {
+            CachedTail previous = put(businessObject, tail);
+            resized(tail.size - (previous == null ? 0 : previous.size));
+        }
+
+        void resized(long delta) {
+            bytes += delta;
+            Iterator<CachedTail> leastRecentlyUsed = values().iterator();
+            while (bytes > maxBytes && leastRecentlyUsed.hasNext()) {
+                bytes -= leastRecentlyUsed.next().size;
+                leastRecentlyUsed.remove();
+            }
+        }
+    }
+}
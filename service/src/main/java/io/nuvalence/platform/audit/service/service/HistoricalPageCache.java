@@ -0,0 +1,297 @@
+package io.nuvalence.platform.audit.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.platform.audit.service.config.HistoryCacheProperties;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventsPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Mapped pages of audit events whose time range ended before the settle window. Events are never
+ * updated or deleted, so once no more events can be created within its range a page only changes
+ * when an event with a past timestamp is persisted late, as when replaying parked events. Such
+ * events drop the pages of their business object over their timestamp once committed on this
+ * replica, while pages expire after their time to live to bound how long events persisted by other
+ * replicas may be missing. All the pages of a business object are held by the same shard, which
+ * with its own lock evicts its least recently used pages once it holds too many pages or too many
+ * events. Cached pages are shared by the requests hitting them and must not be modified.
+ */
+@Component
+@EnableConfigurationProperties(HistoryCacheProperties.class)
+public class HistoricalPageCache {
+
+    private final boolean enabled;
+    private final Duration settleWindow;
+    private final Duration timeToLive;
+    private final int maxEventsPerShard;
+    private final Clock clock;
+    private final Shard[] shards;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    /**
+     * Creates the cache.
+     *
+     * @param properties    cache configuration
+     * @param meterRegistry registry the number of hits and misses is published to
+     */
+    @Autowired
+    public HistoricalPageCache(HistoryCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemUTC());
+    }
+
+    HistoricalPageCache(
+            HistoryCacheProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.enabled = properties.isEnabled();
+        this.settleWindow = properties.getSettleWindow();
+        this.timeToLive = properties.getTimeToLive();
+        this.maxEventsPerShard = properties.getMaxEventsPerShard();
+        this.clock = clock;
+        int shardCount = Integer.highestOneBit(Math.max(1, properties.getShards() - 1)) << 1;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(properties.getMaxPagesPerShard(), maxEventsPerShard);
+        }
+        this.hitCounter = meterRegistry.counter("audit.events.history-cache.hits");
+        this.missCounter = meterRegistry.counter("audit.events.history-cache.misses");
+    }
+
+    private Shard shard(String businessObjectType, UUID businessObjectId) {
+        int hash = Objects.hash(businessObjectType, businessObjectId);
+        return shards[(hash ^ (hash >>> 16)) & (shards.length - 1)];
+    }
+
+    private Shard shard(PageQuery query) {
+        return shard(query.businessObjectType(), query.businessObjectId());
+    }
+
+    private boolean isClosed(PageQuery query) {
+        return enabled
+                && query.endTime() != null
+                && query.endTime().toInstant().plus(settleWindow).isBefore(clock.instant());
+    }
+
+    /**
+     * Returns the cached page of a query over a closed time range.
+     *
+     * @param query query of the page
+     * @return the page, or null if it is not cached or its time range is not closed
+     */
+    public AuditEventsPage get(PageQuery query) {
+        if (!isClosed(query)) {
+            return null;
+        }
+        CachedPage cached;
+        Shard shard = shard(query);
+        synchronized (shard) {
+            cached = shard.get(query);
+            if (cached != null && !cached.expiresAt().isAfter(clock.instant())) {
+                shard.remove(query);
+                cached = null;
+            }
+        }
+        if (cached == null) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return cached.page();
+    }
+
+    /**
+     * Returns the stamp to cache the page of a query with, to be taken before reading the page.
+     *
+     * @param query query of the page
+     * @return the stamp, negative if the time range of the query is not closed
+     */
+    public long stamp(PageQuery query) {
+        if (!isClosed(query)) {
+            return -1;
+        }
+        Shard shard = shard(query);
+        synchronized (shard) {
+            return shard.version;
+        }
+    }
+
+    /**
+     * Caches the page read for a query, unless its time range was not closed or events with a past
+     * timestamp were persisted in the same shard since the stamp was taken.
+     *
+     * @param query      query of the page
+     * @param stamp      stamp taken before reading the page
+     * @param page       mapped page
+     * @param eventCount number of events of the page
+     */
+    public void put(PageQuery query, long stamp, AuditEventsPage page, int eventCount) {
+        if (stamp < 0 || eventCount > maxEventsPerShard) {
+            return;
+        }
+        Shard shard = shard(query);
+        synchronized (shard) {
+            if (shard.version == stamp) {
+                Instant expiresAt = clock.instant().plus(timeToLive);
+                shard.add(query, new CachedPage(page, eventCount, expiresAt));
+            }
+        }
+    }
+
+    /**
+     * Drops the pages whose time range contains committed events. Only events older than the settle
+     * window can fall within a closed time range.
+     *
+     * @param events committed events
+     */
+    public void invalidate(Collection<AuditEventEntity> events) {
+        if (!enabled) {
+            return;
+        }
+        Instant closedBefore = clock.instant().minus(settleWindow);
+        for (AuditEventEntity event : events) {
+            OffsetDateTime timestamp = event.getTimestamp();
+            if (timestamp == null || !timestamp.toInstant().isBefore(closedBefore)) {
+                continue;
+            }
+            Shard shard = shard(event.getBusinessObjectType(), event.getBusinessObjectId());
+            synchronized (shard) {
+                shard.version++;
+                shard.removeIf(query -> query.contains(event));
+            }
+        }
+    }
+
+    /**
+     * Normalized query of a page of the audit events of a business object.
+     *
+     * @param businessObjectType type of business object
+     * @param businessObjectId   identifier of the business object
+     * @param startTime          start time (inclusive) in UTC, null for no lower bound
+     * @param endTime            end time (exclusive) in UTC, null for no upper bound
+     * @param sortOrder          upper case sort order
+     * @param sortBy             field the events are sorted by
+     * @param pageNumber         page number
+     * @param pageSize           page size
+     */
+    public record PageQuery(
+            String businessObjectType,
+            UUID businessObjectId,
+            OffsetDateTime startTime,
+            OffsetDateTime endTime,
+            String sortOrder,
+            String sortBy,
+            int pageNumber,
+            int pageSize) {
+
+        /**
+         * Normalizes a query, so that queries reading the same page are equal.
+         *
+         * @param businessObjectType type of business object
+         * @param businessObjectId   identifier of the business object
+         * @param startTime          start time (inclusive), null for no lower bound
+         * @param endTime            end time (exclusive), null for no upper bound
+         * @param sortOrder          sort order, in any case
+         * @param sortBy             field the events are sorted by
+         * @param pageNumber         page number
+         * @param pageSize           page size
+         * @return normalized query
+         */
+        public static PageQuery of(
+                String businessObjectType,
+                UUID businessObjectId,
+                OffsetDateTime startTime,
+                OffsetDateTime endTime,
+                String sortOrder,
+                String sortBy,
+                int pageNumber,
+                int pageSize) {
+            return new PageQuery(
+                    businessObjectType,
+                    businessObjectId,
+                    toUtc(startTime),
+                    toUtc(endTime),
+                    sortOrder.toUpperCase(Locale.ROOT),
+                    sortBy,
+                    pageNumber,
+                    pageSize);
+        }
+
+        private static OffsetDateTime toUtc(OffsetDateTime time) {
+            return time == null ? null : time.withOffsetSameInstant(ZoneOffset.UTC);
+        }
+
+        private boolean contains(AuditEventEntity event) {
+            OffsetDateTime timestamp = event.getTimestamp();
+            return businessObjectType.equals(event.getBusinessObjectType())
+                    && businessObjectId.equals(event.getBusinessObjectId())
+                    && (startTime == null || !timestamp.isBefore(startTime))
+                    && (endTime == null || !timestamp.isAfter(endTime));
+        }
+    }
+
+    private record CachedPage(AuditEventsPage page, int eventCount, Instant expiresAt) {}
+
+    /**
+     * Pages in access order, evicting the least recently used pages once full.
+     */
+    private static final class Shard extends LinkedHashMap<PageQuery, CachedPage> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxPages;
+        private final int maxEvents;
+        private int eventCount;
+        private long version;
+
+        Shard(int maxPages, int maxEvents) {
+            super(16, 0.75f, true);
+            this.maxPages = maxPages;
+            this.maxEvents = maxEvents;
+        }
+
+        void add(PageQuery query, CachedPage page) {
+            CachedPage previous = put(query, page);
+            eventCount += page.eventCount() - (previous == null ? 0 : previous.eventCount());
+            Iterator<CachedPage> leastRecentlyUsed = values().iterator();
+            while (size() > maxPages || eventCount > maxEvents) {
+                eventCount -= leastRecentlyUsed.next().eventCount();
+                leastRecentlyUsed.remove();
+            }
+        }
+
+        @Override
+        public CachedPage remove(Object query) {
+            CachedPage removed = super.remove(query);
+            if (removed != null) {
+                eventCount -= removed.eventCount();
+            }
+            return removed;
+        }
+
+        void removeIf(Predicate<PageQuery> predicate) {
+            Iterator<Map.Entry<PageQuery, CachedPage>> entries = entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<PageQuery, CachedPage> entry = entries.next();
+                if (predicate.test(entry.getKey())) {
+                    eventCount -= entry.getValue().eventCount();
+                    entries.remove();
+                }
+            }
+        }
+    }
+}
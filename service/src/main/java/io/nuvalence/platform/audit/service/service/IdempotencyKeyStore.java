@@ -0,0 +1,309 @@
+package io.nuvalence.platform.audit.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.platform.audit.service.config.IdempotencyProperties;
+import io.nuvalence.platform.audit.service.workload.Workload;
+import io.nuvalence.platform.audit.service.workload.WorkloadContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which event was created for each Idempotency-Key within the configured window. The
+ * database decides which request claims a key, so that retries reaching another replica are
+ * deduplicated too: a key is inserted with {@code ON CONFLICT DO NOTHING}, and a conflicting
+ * request reads the event of the request which claimed it, and whether that request completed.
+ * Claims run on the ingest connection pool. Keys claimed by this replica, and completed keys of
+ * other replicas, are cached in memory, in shards with their own lock so that concurrent requests
+ * rarely contend, which answers retries reaching the same replica without the database; pending
+ * keys of other replicas are not, as their claimer releases them when their event fails. While the
+ * database is unavailable keys are only deduplicated in memory, by the replica receiving them.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyKeyStore {
+
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    private static final String INSERT_KEY =
+            "INSERT INTO idempotency_keys (idempotency_key, event_id, created_at, completed)"
+                    + " VALUES (?, ?, ?, FALSE) ON CONFLICT DO NOTHING";
+
+    private static final String SELECT_KEY =
+            "SELECT event_id, created_at, completed FROM idempotency_keys"
+                    + " WHERE idempotency_key = ?";
+
+    private static final String REPLACE_EXPIRED_KEY =
+            "UPDATE idempotency_keys SET event_id = ?, created_at = ?, completed = FALSE"
+                    + " WHERE idempotency_key = ? AND created_at <= ?";
+
+    private static final String COMPLETE_KEY =
+            "UPDATE idempotency_keys SET completed = TRUE"
+                    + " WHERE idempotency_key = ? AND event_id = ?";
+
+    private static final String DELETE_KEY =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND event_id = ?";
+
+    private final IdempotencyProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final Shard[] shards;
+    private final Counter replayedCounter;
+
+    /**
+     * Creates the store.
+     *
+     * @param properties    idempotency configuration
+     * @param jdbcTemplate  jdbc template used to claim keys
+     * @param meterRegistry registry the number of replayed requests is published to
+     */
+    @Autowired
+    public IdempotencyKeyStore(
+            IdempotencyProperties properties,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry) {
+        this(properties, jdbcTemplate, meterRegistry, Clock.systemUTC());
+    }
+
+    IdempotencyKeyStore(
+            IdempotencyProperties properties,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            Clock clock) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        int shardCount = Integer.highestOneBit(Math.max(1, properties.getShards() - 1)) << 1;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(properties.getMaxKeysPerShard());
+        }
+        this.replayedCounter = meterRegistry.counter("audit.ingest.idempotent.replayed");
+    }
+
+    private Shard shard(String key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (shards.length - 1)];
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.createdAt() >= properties.getWindow().toMillis();
+    }
+
+    /**
+     * Tells whether Idempotency-Key headers are honored.
+     *
+     * @return true if requests are deduplicated by key
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Associates an event with a key, unless the key was already used within the window.
+     *
+     * @param key     idempotency key, scoped to its caller
+     * @param eventId id of the event to be created for this key
+     * @return the request which used this key before, empty if the key is new
+     */
+    public Optional<Original> putIfAbsent(String key, UUID eventId) {
+        long now = clock.millis();
+        Shard shard = shard(key);
+        synchronized (shard) {
+            Entry cached = shard.get(key);
+            if (cached != null && !isExpired(cached, now)) {
+                replayedCounter.increment();
+                return Optional.of(cached.toOriginal());
+            }
+        }
+
+        Entry claimed;
+        try {
+            claimed = onIngest(() -> claim(key, new Entry(eventId, now, false), now));
+        } catch (DataAccessException e) {
+            log.warn("Unable to claim idempotency key in the database, deduplicating locally", e);
+            synchronized (shard) {
+                Entry cached = shard.get(key);
+                if (cached != null && !isExpired(cached, now)) {
+                    replayedCounter.increment();
+                    return Optional.of(cached.toOriginal());
+                }
+                shard.put(key, new Entry(eventId, now, false));
+            }
+            return Optional.empty();
+        }
+
+        boolean own = claimed.eventId().equals(eventId);
+        if (own || claimed.completed()) {
+            synchronized (shard) {
+                shard.put(key, claimed);
+            }
+        }
+        if (own) {
+            return Optional.empty();
+        }
+        replayedCounter.increment();
+        return Optional.of(claimed.toOriginal());
+    }
+
+    private Entry claim(String key, Entry entry, long now) {
+        Timestamp createdAt = Timestamp.from(Instant.ofEpochMilli(entry.createdAt()));
+        Timestamp expiry = Timestamp.from(Instant.ofEpochMilli(now).minus(properties.getWindow()));
+        for (int attempt = 1; ; attempt++) {
+            if (jdbcTemplate.update(INSERT_KEY, key, entry.eventId().toString(), createdAt) > 0) {
+                return entry;
+            }
+            List<Entry> rows =
+                    jdbcTemplate.query(
+                            SELECT_KEY,
+                            (rs, rowNum) ->
+                                    new Entry(
+                                            UUID.fromString(rs.getString("event_id")),
+                                            rs.getTimestamp("created_at").getTime(),
+                                            rs.getBoolean("completed")),
+                            key);
+            if (!rows.isEmpty() && !isExpired(rows.get(0), now)) {
+                return rows.get(0);
+            }
+            // an expired key not purged yet is taken over, a vanished key is inserted again
+            if (!rows.isEmpty()
+                    && jdbcTemplate.update(
+                                    REPLACE_EXPIRED_KEY,
+                                    entry.eventId().toString(),
+                                    createdAt,
+                                    key,
+                                    expiry)
+                            > 0) {
+                return entry;
+            }
+            if (attempt >= MAX_CLAIM_ATTEMPTS) {
+                throw new ConcurrencyFailureException(
+                        "Idempotency key " + key + " kept changing while being claimed");
+            }
+        }
+    }
+
+    /**
+     * Records that the event of a key was accepted, so that further requests with the key are
+     * answered as replays instead of as in flight.
+     *
+     * @param key     idempotency key, scoped to its caller
+     * @param eventId id of the event accepted for this key
+     */
+    public void complete(String key, UUID eventId) {
+        Shard shard = shard(key);
+        synchronized (shard) {
+            Entry existing = shard.get(key);
+            if (existing != null && existing.eventId().equals(eventId)) {
+                shard.put(key, new Entry(eventId, existing.createdAt(), true));
+            }
+        }
+        try {
+            onIngest(() -> jdbcTemplate.update(COMPLETE_KEY, key, eventId.toString()));
+        } catch (DataAccessException e) {
+            // retries on other replicas are answered as in flight until the key expires
+            log.warn("Unable to complete idempotency key in the database", e);
+        }
+    }
+
+    /**
+     * Forgets a key whose event could not be created, so that the request can be retried.
+     *
+     * @param key     idempotency key, scoped to its caller
+     * @param eventId id of the event that was not created
+     */
+    public void remove(String key, UUID eventId) {
+        Shard shard = shard(key);
+        synchronized (shard) {
+            Entry existing = shard.get(key);
+            if (existing != null && existing.eventId().equals(eventId)) {
+                shard.remove(key);
+            }
+        }
+        try {
+            onIngest(() -> jdbcTemplate.update(DELETE_KEY, key, eventId.toString()));
+        } catch (DataAccessException e) {
+            // retries on other replicas are answered with the id until the key expires
+            log.warn("Unable to release idempotency key in the database", e);
+        }
+    }
+
+    private static <T> T onIngest(Supplier<T> task) {
+        Optional<Workload> previous = WorkloadContext.current();
+        WorkloadContext.set(Workload.INGEST);
+        try {
+            return task.get();
+        } finally {
+            previous.ifPresentOrElse(WorkloadContext::set, WorkloadContext::clear);
+        }
+    }
+
+    /**
+     * Purges the keys of the database which expired.
+     */
+    @Scheduled(fixedDelayString = "${audit.idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        WorkloadContext.set(Workload.INGEST);
+        try {
+            Instant expiry = clock.instant().minus(properties.getWindow());
+            jdbcTemplate.update(
+                    "DELETE FROM idempotency_keys WHERE created_at <= ?", Timestamp.from(expiry));
+        } catch (DataAccessException e) {
+            log.warn("Unable to purge expired idempotency keys", e);
+        } finally {
+            WorkloadContext.clear();
+        }
+    }
+
+    /**
+     * Request which used a key first.
+     *
+     * @param eventId   id of the event created for the key
+     * @param completed whether the event was accepted, false while the request is in flight
+     */
+    public record Original(UUID eventId, boolean completed) {}
+
+    private record Entry(UUID eventId, long createdAt, boolean completed) {
+        Original toOriginal() {
+            return new Original(eventId, completed);
+        }
+    }
+
+    /**
+     * Keys in insertion order, evicting the oldest key once full.
+     */
+    private static final class Shard extends LinkedHashMap<String, Entry> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxKeys;
+
+        Shard(int maxKeys) {
+            super(16, 0.75f, false);
+            this.maxKeys = maxKeys;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxKeys;
+        }
+    }
+}
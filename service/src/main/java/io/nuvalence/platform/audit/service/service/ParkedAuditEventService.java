@@ -0,0 +1,186 @@
+package io.nuvalence.platform.audit.service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.platform.audit.service.config.DeadLetterProperties;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.events.deadletter.FailureClassifier;
+import io.nuvalence.platform.audit.service.mapper.AuditEventMapper;
+import io.nuvalence.platform.audit.service.repository.ParkedAuditEventRepository;
+import io.nuvalence.platform.audit.service.repository.ParkedAuditEventRepository.ParkedAuditEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Parks received audit events which failed permanently, so that they stop being redelivered, and
+ * replays them once the cause of the failure is fixed. Replays go through the batched write path,
+ * persisting events already stored being a no-op.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(DeadLetterProperties.class)
+public class ParkedAuditEventService {
+
+    private final ParkedAuditEventRepository parkedAuditEventRepository;
+    private final AuditEventService auditEventService;
+    private final AuditEventMapper auditEventMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter parkedCounter;
+    private final Counter replayedCounter;
+
+    /**
+     * Creates the service.
+     *
+     * @param parkedAuditEventRepository repository of parked events
+     * @param auditEventService          service persisting replayed events
+     * @param auditEventMapper           mapper of events to entities
+     * @param objectMapper               mapper serializing parked events
+     * @param transactionManager         transaction manager
+     * @param meterRegistry              registry the parking metrics are published to
+     */
+    public ParkedAuditEventService(
+            ParkedAuditEventRepository parkedAuditEventRepository,
+            AuditEventService auditEventService,
+            AuditEventMapper auditEventMapper,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.parkedAuditEventRepository = parkedAuditEventRepository;
+        this.auditEventService = auditEventService;
+        this.auditEventMapper = auditEventMapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parkedCounter = meterRegistry.counter("audit.ingest.parked");
+        this.replayedCounter = meterRegistry.counter("audit.ingest.parked.replayed");
+    }
+
+    /**
+     * Parks an event with the failure it caused.
+     *
+     * @param event audit event
+     * @param error permanent failure of the event
+     */
+    public void park(AuditEvent event, Throwable error) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize audit event to park it", e);
+        }
+
+        UUID eventId = event.getMetadata() == null ? null : event.getMetadata().getId();
+        var businessObject = event.getBusinessObject();
+        parkedAuditEventRepository.park(
+                eventId,
+                businessObject == null ? null : businessObject.getType(),
+                businessObject == null ? null : businessObject.getId(),
+                payload,
+                error);
+        parkedCounter.increment();
+        log.warn("Parked audit event {} failing permanently", eventId, error);
+    }
+
+    /**
+     * Replays a batch of the parked events following an id, oldest first.
+     *
+     * @param afterId id of the last parked event of the previous batch, 0 to start
+     * @param limit   maximum number of parked events to replay
+     * @return outcome of the batch, which read no events once none are left
+     */
+    public ReplayBatch replayAfter(long afterId, int limit) {
+        List<ParkedAuditEvent> rows = parkedAuditEventRepository.findAfter(afterId, limit);
+        if (rows.isEmpty()) {
+            return new ReplayBatch(afterId, 0, 0);
+        }
+        int replayed = replayBatch(rows);
+        replayedCounter.increment(replayed);
+        return new ReplayBatch(rows.get(rows.size() - 1).id(), rows.size(), replayed);
+    }
+
+    /**
+     * Number of parked events.
+     *
+     * @return number of parked events
+     */
+    public long countParked() {
+        return parkedAuditEventRepository.count();
+    }
+
+    private int replayBatch(List<ParkedAuditEvent> rows) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        List<AuditEventEntity> entities = new ArrayList<>(rows.size());
+        for (ParkedAuditEvent row : rows) {
+            try {
+                entities.add(
+                        auditEventMapper.toEntity(
+                                objectMapper.readValue(row.payload(), AuditEvent.class)));
+                ids.add(row.id());
+            } catch (JsonProcessingException | RuntimeException e) {
+                parkedAuditEventRepository.updateError(row.id(), e);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> {
+                        auditEventService.saveAuditEvents(entities);
+                        parkedAuditEventRepository.deleteAll(ids);
+                    });
+            return ids.size();
+        } catch (RuntimeException e) {
+            if (!FailureClassifier.isPermanent(e)) {
+                throw e;
+            }
+        }
+
+        // an event of the batch still fails, the others are replayed one at a time around it
+        int replayed = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            long id = ids.get(i);
+            AuditEventEntity entity = entities.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(
+                        status -> {
+                            auditEventService.saveAuditEvent(entity);
+                            parkedAuditEventRepository.deleteAll(List.of(id));
+                        });
+                replayed++;
+            } catch (RuntimeException e) {
+                if (!FailureClassifier.isPermanent(e)) {
+                    throw e;
+                }
+                parkedAuditEventRepository.updateError(id, e);
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Outcome of a batch of a replay.
+     *
+     * @param lastId   id of the last parked event read
+     * @param read     number of parked events read
+     * @param replayed number of events persisted and unparked
+     */
+    public record ReplayBatch(long lastId, int read, int replayed) {
+        /**
+         * Number of events which failed again and stay parked.
+         *
+         * @return number of events which failed again
+         */
+        public int failed() {
+            return read - replayed;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package io.nuvalence.platform.audit.service.service;
+
+import io.nuvalence.platform.audit.service.config.DeadLetterProperties;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import io.nuvalence.platform.audit.service.workload.Workload;
+import io.nuvalence.platform.audit.service.workload.WorkloadExecutor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays parked events in the background, one replay at a time, so that requests starting a
+ * replay return at once. Each batch of a replay runs on the ingest executor, sharing its capacity
+ * with received events; a saturated executor delays the replay instead of failing it. The status
+ * of the latest replays is kept in memory by the replica running them.
+ */
+@Slf4j
+@Component
+public class ParkedEventReplays implements DisposableBean {
+
+    private static final int MAX_KEPT_REPLAYS = 16;
+    private static final int MAX_CONSECUTIVE_THROTTLES = 10;
+
+    private final ParkedAuditEventService parkedAuditEventService;
+    private final WorkloadExecutor workloadExecutor;
+    private final DeadLetterProperties properties;
+    private final ExecutorService executor;
+    private final Map<UUID, Replay> replays =
+            new LinkedHashMap<>() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, Replay> eldest) {
+                    return size() > MAX_KEPT_REPLAYS;
+                }
+            };
+    private Replay running;
+
+    /**
+     * Creates the replays.
+     *
+     * @param parkedAuditEventService service replaying batches of parked events
+     * @param workloadExecutor        executor the batches run on
+     * @param properties              dead-letter configuration
+     */
+    public ParkedEventReplays(
+            ParkedAuditEventService parkedAuditEventService,
+            WorkloadExecutor workloadExecutor,
+            DeadLetterProperties properties) {
+        this.parkedAuditEventService = parkedAuditEventService;
+        this.workloadExecutor = workloadExecutor;
+        this.properties = properties;
+        this.executor =
+                Executors.newSingleThreadExecutor(
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "parked-event-replay");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+
+    /**
+     * Starts replaying parked events, unless a replay is already running.
+     *
+     * @param maxEvents maximum number of parked events to replay
+     * @return the started replay, or the one already running
+     */
+    public synchronized Replay start(int maxEvents) {
+        if (running != null && running.getStatus() == Status.RUNNING) {
+            return running;
+        }
+        Replay replay = new Replay(UUID.randomUUID(), maxEvents, now());
+        replays.put(replay.getId(), replay);
+        running = replay;
+        executor.execute(() -> run(replay));
+        return replay;
+    }
+
+    /**
+     * Returns a replay started by this replica.
+     *
+     * @param id identifier of the replay
+     * @return the replay, empty if unknown or no longer kept
+     */
+    public synchronized Optional<Replay> get(UUID id) {
+        return Optional.ofNullable(replays.get(id));
+    }
+
+    private void run(Replay replay) {
+        long afterId = 0;
+        int throttles = 0;
+        try {
+            while (replay.getReplayed() + replay.getFailed() < replay.getMaxEvents()) {
+                long pending = replay.getMaxEvents() - replay.getReplayed() - replay.getFailed();
+                int limit = (int) Math.min(properties.getReplayBatchSize(), pending);
+                long after = afterId;
+                ParkedAuditEventService.ReplayBatch batch;
+                try {
+                    batch =
+                            workloadExecutor.execute(
+                                    Workload.INGEST,
+                                    () -> parkedAuditEventService.replayAfter(after, limit));
+                    throttles = 0;
+                } catch (ThrottledRequestException e) {
+                    if (++throttles > MAX_CONSECUTIVE_THROTTLES) {
+                        throw e;
+                    }
+                    TimeUnit.SECONDS.sleep(e.getRetryAfterSeconds());
+                    continue;
+                }
+                if (batch.read() == 0) {
+                    break;
+                }
+                afterId = batch.lastId();
+                replay.progress(batch.replayed(), batch.failed());
+            }
+            replay.complete(parkedAuditEventService.countParked(), now());
+            log.info(
+                    "Replayed {} parked audit events, {} failed again",
+                    replay.getReplayed(),
+                    replay.getFailed());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            replay.fail("Interrupted", now());
+        } catch (RuntimeException e) {
+            log.error("Failed to replay parked audit events", e);
+            replay.fail(e.getMessage(), now());
+        }
+    }
+
+    private static OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Status of a replay.
+     */
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * Progress of a replay, updated by the thread running it.
+     */
+    @Getter
+    public static final class Replay {
+        private final UUID id;
+        private final int maxEvents;
+        private final OffsetDateTime startedAt;
+        private volatile Status status = Status.RUNNING;
+        private volatile long replayed;
+        private volatile long failed;
+        private volatile Long remaining;
+        private volatile OffsetDateTime completedAt;
+        private volatile String error;
+
+        Replay(UUID id, int maxEvents, OffsetDateTime startedAt) {
+            this.id = id;
+            this.maxEvents = maxEvents;
+            this.startedAt = startedAt;
+        }
+
+        private void progress(int replayedEvents, int failedEvents) {
+            replayed += replayedEvents;
+            failed += failedEvents;
+        }
+
+        private void complete(long remainingEvents, OffsetDateTime at) {
+            remaining = remainingEvents;
+            completedAt = at;
+            status = Status.COMPLETED;
+        }
+
+        private void fail(String message, OffsetDateTime at) {
+            error = message;
+            completedAt = at;
+            status = Status.FAILED;
+        }
+    }
+}
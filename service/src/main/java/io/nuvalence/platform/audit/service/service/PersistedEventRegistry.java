@@ -0,0 +1,288 @@
+package io.nuvalence.platform.audit.service.service;
+
+import io.nuvalence.platform.audit.service.config.ConsistencyProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lets requests wait until the event they created is persisted. Waiters are registered in
+ * memory and completed once the transaction persisting their event commits. Events are often
+ * persisted by another replica than the one the request waits on, so on PostgreSQL replicas
+ * announce the events they wait for with {@code NOTIFY}; the replica persisting such an event
+ * notifies its id in the persisting transaction, the notification being delivered on commit.
+ * Events nobody waits for cost a lookup in an empty map.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@EnableConfigurationProperties(ConsistencyProperties.class)
+public class PersistedEventRegistry implements DisposableBean {
+
+    static final String AWAITED_CHANNEL = "audit_event_awaited";
+    static final String PERSISTED_CHANNEL = "audit_event_persisted";
+
+    // notification payloads are limited to 8000 bytes
+    private static final int IDS_PER_NOTIFICATION = 200;
+    private static final int POLL_MILLIS = 1000;
+
+    private final ConsistencyProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final Map<UUID, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> remoteWaiters = new ConcurrentHashMap<>();
+    private volatile boolean listening;
+    private volatile boolean running;
+    private Thread listener;
+
+    /**
+     * Creates the registry.
+     *
+     * @param properties           consistency configuration
+     * @param jdbcTemplate         jdbc template notifications are sent with
+     * @param dataSourceProperties database the notifications are listened to on
+     */
+    public PersistedEventRegistry(
+            ConsistencyProperties properties,
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    /**
+     * Tells whether requests may wait for their event to be persisted.
+     *
+     * @return true if the persisted consistency is enabled
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Registers a waiter for an event, to be registered before the event is published.
+     *
+     * @param eventId event id
+     * @return waiter, to be closed once done waiting
+     */
+    public Waiter register(UUID eventId) {
+        CompletableFuture<Void> persisted = new CompletableFuture<>();
+        waiters.put(eventId, persisted);
+        if (listening) {
+            try {
+                notify(AWAITED_CHANNEL, eventId.toString());
+            } catch (RuntimeException e) {
+                log.warn("Unable to announce awaited audit event {}", eventId, e);
+            }
+        }
+        return new Waiter(eventId, persisted);
+    }
+
+    /**
+     * Notifies the replicas waiting for persisted events, within the persisting transaction.
+     *
+     * @param eventIds ids of the persisted events
+     */
+    public void beforeCommit(List<UUID> eventIds) {
+        if (remoteWaiters.isEmpty()) {
+            return;
+        }
+        List<String> awaited = new ArrayList<>();
+        for (UUID eventId : eventIds) {
+            if (remoteWaiters.remove(eventId) != null) {
+                awaited.add(eventId.toString());
+            }
+        }
+        for (int i = 0; i < awaited.size(); i += IDS_PER_NOTIFICATION) {
+            int end = Math.min(awaited.size(), i + IDS_PER_NOTIFICATION);
+            notify(PERSISTED_CHANNEL, String.join(",", awaited.subList(i, end)));
+        }
+    }
+
+    /**
+     * Completes the waiters of this replica once their events are committed.
+     *
+     * @param eventIds ids of the persisted events
+     */
+    public void afterCommit(List<UUID> eventIds) {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        eventIds.forEach(this::complete);
+    }
+
+    private void complete(UUID eventId) {
+        CompletableFuture<Void> persisted = waiters.remove(eventId);
+        if (persisted != null) {
+            persisted.complete(null);
+        }
+    }
+
+    private void notify(String channel, String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+    }
+
+    /**
+     * Forgets the events other replicas stopped waiting for.
+     */
+    @Scheduled(fixedDelayString = "${audit.consistency.purge-interval-ms:10000}")
+    public void purgeRemoteWaiters() {
+        long now = System.nanoTime();
+        remoteWaiters.values().removeIf(expiry -> now - expiry >= 0);
+    }
+
+    /**
+     * Starts listening to the other replicas, on PostgreSQL only.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        String url = dataSourceProperties.determineUrl();
+        if (!properties.isEnabled()
+                || running
+                || url == null
+                || !url.startsWith("jdbc:postgresql:")) {
+            return;
+        }
+        running = true;
+        listener = new Thread(() -> listen(url), "audit-persisted-event-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    private void listen(String url) {
+        while (running) {
+            // a dedicated connection, a pooled one would be held forever
+            try (Connection connection =
+                    DriverManager.getConnection(
+                            url,
+                            dataSourceProperties.determineUsername(),
+                            dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + AWAITED_CHANNEL);
+                    statement.execute("LISTEN " + PERSISTED_CHANNEL);
+                }
+                listening = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getName(), notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                listening = false;
+                if (running) {
+                    log.warn("Lost notifications of persisted audit events, reconnecting", e);
+                    sleep(properties.getReconnectDelay().toMillis());
+                }
+            }
+        }
+        listening = false;
+    }
+
+    void handle(String channel, String payload) {
+        try {
+            if (AWAITED_CHANNEL.equals(channel)) {
+                UUID eventId = UUID.fromString(payload);
+                // this replica is notified of its own waiters too
+                if (!waiters.containsKey(eventId)) {
+                    remoteWaiters.put(
+                            eventId, System.nanoTime() + properties.getTimeout().toNanos());
+                }
+            } else if (PERSISTED_CHANNEL.equals(channel)) {
+                for (String eventId : payload.split(",")) {
+                    complete(UUID.fromString(eventId));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed notification on {}: {}", channel, payload);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.join(POLL_MILLIS * 2L);
+            listener = null;
+        }
+    }
+
+    /**
+     * Registration of a request waiting for its event to be persisted.
+     */
+    public final class Waiter implements AutoCloseable {
+
+        private final UUID eventId;
+        private final CompletableFuture<Void> persisted;
+
+        private Waiter(UUID eventId, CompletableFuture<Void> persisted) {
+            this.eventId = eventId;
+            this.persisted = persisted;
+        }
+
+        /**
+         * Waits for the event to be persisted, up to the configured timeout. Once timed out, the
+         * database is checked, in case the notification was missed.
+         *
+         * @return true if the event is persisted
+         */
+        public boolean await() {
+            try {
+                persisted.get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                return true;
+            } catch (TimeoutException e) {
+                Integer count =
+                        jdbcTemplate.queryForObject(
+                                "SELECT COUNT(*) FROM audit_events WHERE id = ?",
+                                Integer.class,
+                                eventId.toString());
+                return count != null && count > 0;
+            } catch (ExecutionException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public void close() {
+            waiters.remove(eventId, persisted);
+        }
+    }
+}
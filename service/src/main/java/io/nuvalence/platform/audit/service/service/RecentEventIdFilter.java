@@ -0,0 +1,72 @@
+package io.nuvalence.platform.audit.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.platform.audit.service.config.IngestProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Remembers the ids of recently persisted audit events, so that redelivered events can be dropped
+ * without a database round trip. Ids are kept in a fixed size direct-mapped table: an id evicts
+ * whichever id occupied its slot, hence the filter may forget an id (the insert then skips the
+ * duplicate), but never reports an id it has not seen.
+ */
+@Component
+@EnableConfigurationProperties(IngestProperties.class)
+public class RecentEventIdFilter {
+
+    private final AtomicReferenceArray<UUID> slots;
+    private final int mask;
+    private final Counter hitCounter;
+
+    /**
+     * Creates the filter.
+     *
+     * @param properties    ingest configuration, giving the filter size
+     * @param meterRegistry registry the number of dropped events is published to
+     */
+    public RecentEventIdFilter(IngestProperties properties, MeterRegistry meterRegistry) {
+        int size = properties.getRecentEventIds();
+        int capacity = size <= 0 ? 0 : Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.hitCounter = meterRegistry.counter("audit.ingest.duplicates.filtered");
+    }
+
+    private int slot(UUID eventId) {
+        long hash = eventId.getMostSignificantBits() ^ eventId.getLeastSignificantBits();
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Tells whether the event was recently persisted.
+     *
+     * @param eventId event id, may be null
+     * @return true if the event is known to be persisted already
+     */
+    public boolean contains(UUID eventId) {
+        if (eventId == null || slots.length() == 0) {
+            return false;
+        }
+        boolean hit = eventId.equals(slots.get(slot(eventId)));
+        if (hit) {
+            hitCounter.increment();
+        }
+        return hit;
+    }
+
+    /**
+     * Records a persisted event.
+     *
+     * @param eventId event id
+     */
+    public void add(UUID eventId) {
+        if (eventId != null && slots.length() > 0) {
+            slots.set(slot(eventId), eventId);
+        }
+    }
+}
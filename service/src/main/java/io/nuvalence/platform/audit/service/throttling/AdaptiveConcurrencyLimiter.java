@@ -0,0 +1,167 @@
+package io.nuvalence.platform.audit.service.throttling;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limiter whose limit follows observed latency, using the gradient algorithm: the
+ * limit grows while short term latency stays close to the long term baseline and shrinks as soon
+ * as requests start queueing somewhere downstream (typically for database connections).
+ *
+ * <p>Admission is lock free; only the limit recalculation on completion is synchronized.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    /**
+     * Creates a limiter.
+     *
+     * @param initialLimit initial concurrency limit
+     * @param minLimit     lower bound of the limit
+     * @param maxLimit     upper bound of the limit
+     * @param smoothing    weight of a new limit estimate, between 0 and 1
+     * @param tolerance    latency increase over the baseline tolerated before shrinking the limit
+     * @param backoffRatio multiplier applied to the limit when a request is dropped
+     * @param nanoClock    monotonic clock in nanoseconds
+     */
+    public AdaptiveConcurrencyLimiter(
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            double smoothing,
+            double tolerance,
+            double backoffRatio,
+            LongSupplier nanoClock) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Tries to admit a request.
+     *
+     * @return a permit to be completed once the request finishes, or empty if the request must be
+     *     shed
+     */
+    public Optional<Permit> tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return Optional.of(new Permit(nanoClock.getAsLong(), current + 1));
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        double rtt = Math.max(rttNanos, 1);
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+        } else {
+            shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+            longRtt += (rtt - longRtt) / LONG_WINDOW;
+        }
+
+        // the baseline recovers quickly after a latency spike is over
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // don't grow the limit if it isn't being used
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        setLimit(limit * (1 - smoothing) + estimate * smoothing);
+    }
+
+    private synchronized void onDrop() {
+        setLimit(limit * backoffRatio);
+    }
+
+    private void setLimit(double newLimit) {
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    /**
+     * Admission granted to a single request.
+     */
+    public final class Permit {
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Releases the permit and feeds the request latency into the limit.
+         */
+        public void onSuccess() {
+            if (release()) {
+                onSample(nanoClock.getAsLong() - startNanos, inFlightAtStart);
+            }
+        }
+
+        /**
+         * Releases the permit after the request timed out or was rejected downstream, which
+         * shrinks the limit.
+         */
+        public void onDropped() {
+            if (release()) {
+                onDrop();
+            }
+        }
+
+        /**
+         * Releases the permit without affecting the limit, e.g. for client errors.
+         */
+        public void onIgnore() {
+            release();
+        }
+
+        private boolean release() {
+            if (released) {
+                return false;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.nuvalence.platform.audit.service.throttling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.platform.audit.service.config.IngestProperties;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks audit events whose publication has not been acknowledged yet, and rejects new events
+ * once the configured budget is used up, so that a saturated broker translates into a 429 for
+ * callers instead of an ever growing number of blocked request threads.
+ */
+@Component
+@EnableConfigurationProperties(IngestProperties.class)
+public class IngestBackpressure {
+
+    private final IngestProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejectedCounter;
+
+    /**
+     * Creates the tracker and publishes its state as metrics.
+     *
+     * @param properties    ingest limits
+     * @param meterRegistry registry the metrics are published to
+     */
+    public IngestBackpressure(IngestProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("audit.ingest.publish.inflight", inFlight, AtomicInteger::get)
+                .register(meterRegistry);
+        this.rejectedCounter = meterRegistry.counter("audit.ingest.publish.rejected");
+    }
+
+    /**
+     * Reserves a slot for one publication.
+     *
+     * @return lease to be closed once the broker acknowledged the publication
+     * @throws ThrottledRequestException if the publish budget is exhausted
+     */
+    public Lease acquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= properties.getPublishBudget()) {
+                rejectedCounter.increment();
+                throw new ThrottledRequestException(
+                        HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many audit events pending publication, please retry later.",
+                        properties.getRetryAfter());
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Lease();
+            }
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Slot held by a single publication.
+     */
+    public final class Lease implements AutoCloseable {
+        private boolean released;
+
+        private Lease() {}
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.nuvalence.platform.audit.service.throttling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.platform.audit.service.config.QueryLimiterProperties;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Sheds audit event queries with a 503 as soon as the number of queries in flight reaches the
+ * adaptive limit, instead of letting them queue behind slow database calls.
+ */
+@Component
+public class QueryConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE =
+            QueryConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final QueryLimiterProperties properties;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Counter shedCounter;
+
+    /**
+     * Creates the interceptor and publishes the limiter state as metrics.
+     *
+     * @param properties    limiter tuning
+     * @param meterRegistry registry the limiter metrics are published to
+     */
+    public QueryConcurrencyLimitInterceptor(
+            QueryLimiterProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limiter =
+                new AdaptiveConcurrencyLimiter(
+                        properties.getInitialLimit(),
+                        properties.getMinLimit(),
+                        properties.getMaxLimit(),
+                        properties.getSmoothing(),
+                        properties.getTolerance(),
+                        properties.getBackoffRatio(),
+                        System::nanoTime);
+        Gauge.builder(
+                        "audit.query.concurrency.limit",
+                        limiter,
+                        AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder(
+                        "audit.query.concurrency.inflight",
+                        limiter,
+                        AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        this.shedCounter = meterRegistry.counter("audit.query.shed");
+    }
+
+    @Override
+    public boolean preHandle(
+            HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!properties.isEnabled() || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+
+        var permit = limiter.tryAcquire();
+        if (permit.isEmpty()) {
+            shedCounter.increment();
+            throw new ThrottledRequestException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many concurrent queries, please retry later.",
+                    properties.getRetryAfter());
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, permit.get());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            Exception ex) {
+        if (!(request.getAttribute(PERMIT_ATTRIBUTE)
+                instanceof AdaptiveConcurrencyLimiter.Permit permit)) {
+            return;
+        }
+
+        int status = response.getStatus();
+        if (status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || status == HttpStatus.GATEWAY_TIMEOUT.value()) {
+            permit.onDropped();
+        } else if (ex != null || status >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            permit.onIgnore();
+        } else {
+            permit.onSuccess();
+        }
+    }
+
+    AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+}
@@ -0,0 +1,85 @@
+package io.nuvalence.platform.audit.service.throttling;
+
+import io.nuvalence.platform.audit.service.config.TenantQuotaProperties;
+import io.nuvalence.platform.audit.service.workload.Workload;
+import io.nuvalence.platform.audit.service.workload.WorkloadContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Coordinates tenant quotas between replicas through the database: every replica heartbeats into
+ * a shared table, and enforces the quotas divided by the number of live replicas. Quota checks
+ * stay local, only the heartbeat costs a database round trip.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "audit.tenant-quotas.coordination.enabled", havingValue = "true")
+public class TenantQuotaCoordinator {
+
+    private final String replicaId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantQuotaLimiter tenantQuotaLimiter;
+    private final TenantQuotaProperties properties;
+
+    /**
+     * Creates the coordinator.
+     *
+     * @param jdbcTemplate       jdbc template
+     * @param tenantQuotaLimiter limiter whose quotas are shared between replicas
+     * @param properties         quota configuration
+     */
+    public TenantQuotaCoordinator(
+            JdbcTemplate jdbcTemplate,
+            TenantQuotaLimiter tenantQuotaLimiter,
+            TenantQuotaProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tenantQuotaLimiter = tenantQuotaLimiter;
+        this.properties = properties;
+    }
+
+    /**
+     * Records this replica's heartbeat and refreshes the number of live replicas.
+     */
+    @Scheduled(fixedDelayString = "${audit.tenant-quotas.coordination.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        Instant now = Instant.now();
+        Instant expiry = now.minus(properties.getCoordination().getReplicaTimeout());
+        WorkloadContext.set(Workload.INGEST);
+        try {
+            int updated =
+                    jdbcTemplate.update(
+                            "UPDATE ingest_quota_replicas SET last_seen = ? WHERE replica_id = ?",
+                            Timestamp.from(now),
+                            replicaId);
+            if (updated == 0) {
+                jdbcTemplate.update(
+                        "INSERT INTO ingest_quota_replicas (replica_id, last_seen) VALUES (?, ?)",
+                        replicaId,
+                        Timestamp.from(now));
+            }
+            jdbcTemplate.update(
+                    "DELETE FROM ingest_quota_replicas WHERE last_seen < ?",
+                    Timestamp.from(expiry));
+
+            Integer replicas =
+                    jdbcTemplate.queryForObject(
+                            "SELECT COUNT(*) FROM ingest_quota_replicas", Integer.class);
+            tenantQuotaLimiter.setReplicaCount(replicas == null ? 1 : replicas);
+        } catch (DataAccessException e) {
+            // keep the last known share rather than failing ingestion
+            log.warn("Unable to coordinate tenant quotas with other replicas", e);
+        } finally {
+            WorkloadContext.clear();
+        }
+    }
+}
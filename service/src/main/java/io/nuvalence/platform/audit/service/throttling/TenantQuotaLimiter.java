@@ -0,0 +1,176 @@
+package io.nuvalence.platform.audit.service.throttling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.platform.audit.service.config.TenantQuotaProperties;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enforces per tenant ingest quotas, so that a single tenant's bulk job cannot saturate the audit
+ * pipeline for everyone else. The buckets of tenants are dropped once full again, as a full bucket
+ * is what a new tenant gets, and past the maximum number of tenants further tenants share a
+ * single bucket.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@EnableConfigurationProperties(TenantQuotaProperties.class)
+public class TenantQuotaLimiter {
+
+    static final String UNKNOWN_TENANT = "unknown";
+    static final String OTHER_TENANTS = "other";
+
+    private final TenantQuotaProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TenantState> tenants = new ConcurrentHashMap<>();
+    private final Set<String> meteredTenants = ConcurrentHashMap.newKeySet();
+
+    private volatile int replicaCount = 1;
+    private volatile TenantState otherTenants;
+
+    /**
+     * Creates the limiter.
+     *
+     * @param properties    quota configuration
+     * @param meterRegistry registry the admitted and rejected events are published to
+     */
+    public TenantQuotaLimiter(TenantQuotaProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.otherTenants = createState(OTHER_TENANTS, properties.getDefaults(), OTHER_TENANTS);
+    }
+
+    /**
+     * Identifies the tenant an ingest request is accounted to: the authenticated principal, or the
+     * tenant of the request context if the principal is authorized to act for it. Other tenant ids
+     * of the request context are not trusted, so that callers can neither dodge their quota nor
+     * spend the quota and idempotency keys of another tenant.
+     *
+     * @param requestTenantId tenant id provided in the request context, may be null
+     * @return tenant key
+     */
+    public String resolveTenant(UUID requestTenantId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getName() == null) {
+            return UNKNOWN_TENANT;
+        }
+        String principal = authentication.getName();
+        if (requestTenantId != null
+                && properties.isAuthorized(principal, requestTenantId.toString())) {
+            return requestTenantId.toString();
+        }
+        return principal;
+    }
+
+    /**
+     * Takes quota for a number of events.
+     *
+     * @param tenant tenant key
+     * @param events number of events being ingested
+     * @throws ThrottledRequestException if the tenant exceeded its quota
+     */
+    public void acquire(String tenant, int events) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        TenantState state = tenants.get(tenant);
+        if (state == null) {
+            state =
+                    tenants.size() < properties.getMaxTenants()
+                            ? tenants.computeIfAbsent(tenant, this::createState)
+                            : otherTenants;
+        }
+        long waitNanos = state.bucket().tryConsume(events);
+        if (waitNanos > 0) {
+            state.rejected().increment(events);
+            log.debug("Rejected {} event(s) of tenant {} over its quota", events, tenant);
+            throw new ThrottledRequestException(
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    "Ingest quota exceeded for tenant " + tenant + ", please retry later.",
+                    Duration.ofNanos(waitNanos));
+        }
+        state.admitted().increment(events);
+    }
+
+    /**
+     * Drops the buckets of the tenants which did not ingest for long enough to refill them.
+     */
+    @Scheduled(fixedDelayString = "${audit.tenant-quotas.eviction-interval-ms:60000}")
+    public void evictIdleTenants() {
+        tenants.values().removeIf(state -> state.bucket().isFull());
+    }
+
+    /**
+     * Sets the number of replicas sharing the quotas; each replica enforces its share. The
+     * buckets are rescaled to the new share, keeping the tokens they hold in proportion.
+     *
+     * @param replicaCount number of live replicas
+     */
+    public void setReplicaCount(int replicaCount) {
+        int count = Math.max(1, replicaCount);
+        if (count != this.replicaCount) {
+            log.info("Sharing tenant quotas between {} replicas", count);
+            this.replicaCount = count;
+            tenants.replaceAll(
+                    (tenant, state) -> state.rescale(properties.forTenant(tenant), count));
+            otherTenants = otherTenants.rescale(properties.getDefaults(), count);
+        }
+    }
+
+    public int getReplicaCount() {
+        return replicaCount;
+    }
+
+    private TenantState createState(String tenant) {
+        return createState(tenant, properties.forTenant(tenant), meterTag(tenant));
+    }
+
+    private TenantState createState(
+            String tenant, TenantQuotaProperties.Quota quota, String meterTag) {
+        int replicas = replicaCount;
+        return new TenantState(
+                new TokenBucket(
+                        quota.getRatePerSecond() / replicas,
+                        Math.max(1, quota.getBurst() / replicas),
+                        System::nanoTime),
+                meterRegistry.counter("audit.ingest.tenant.admitted", "tenant", meterTag),
+                meterRegistry.counter("audit.ingest.tenant.rejected", "tenant", meterTag));
+    }
+
+    private String meterTag(String tenant) {
+        if (properties.getTenants().containsKey(tenant) || meteredTenants.contains(tenant)) {
+            return tenant;
+        }
+        if (meteredTenants.size() < properties.getMaxMeteredTenants()
+                && meteredTenants.add(tenant)) {
+            return tenant;
+        }
+        return OTHER_TENANTS;
+    }
+
+    private record TenantState(TokenBucket bucket, Counter admitted, Counter rejected) {
+        TenantState rescale(TenantQuotaProperties.Quota quota, int replicas) {
+            return new TenantState(
+                    bucket.rescale(
+                            quota.getRatePerSecond() / replicas,
+                            Math.max(1, quota.getBurst() / replicas)),
+                    admitted,
+                    rejected);
+        }
+    }
+}
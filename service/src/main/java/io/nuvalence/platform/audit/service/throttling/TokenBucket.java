@@ -0,0 +1,80 @@
+package io.nuvalence.platform.audit.service.throttling;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock free token bucket, implemented as a generic cell rate algorithm: instead of a token count
+ * refilled over time, the bucket only tracks the theoretical arrival time of the next request,
+ * which lets a single compare-and-set both refill and consume.
+ */
+public final class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param ratePerSecond tokens added per second
+     * @param burst         maximum number of tokens the bucket holds
+     * @param nanoClock     monotonic clock in nanoseconds
+     */
+    public TokenBucket(double ratePerSecond, int burst, LongSupplier nanoClock) {
+        this.intervalNanos = Math.max(1, (long) (NANOS_PER_SECOND / ratePerSecond));
+        this.capacityNanos = intervalNanos * Math.max(1, burst);
+        this.nanoClock = nanoClock;
+        this.theoreticalArrival = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Creates a bucket with another rate and burst, holding the same share of its capacity as this
+     * bucket, so that rescaling neither grants nor takes away a burst.
+     *
+     * @param ratePerSecond tokens added per second
+     * @param burst         maximum number of tokens the bucket holds
+     * @return rescaled bucket
+     */
+    public TokenBucket rescale(double ratePerSecond, int burst) {
+        TokenBucket rescaled = new TokenBucket(ratePerSecond, burst, nanoClock);
+        long now = nanoClock.getAsLong();
+        double debt = Math.max(0, theoreticalArrival.get() - now) / (double) capacityNanos;
+        rescaled.theoreticalArrival.set(now + (long) (debt * rescaled.capacityNanos));
+        return rescaled;
+    }
+
+    /**
+     * Tells whether the bucket holds as many tokens as it can.
+     *
+     * @return true if the bucket is full
+     */
+    public boolean isFull() {
+        return theoreticalArrival.get() <= nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes tokens if enough are available.
+     *
+     * @param tokens number of tokens to take
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until enough tokens are
+     *     available
+     */
+    public long tryConsume(int tokens) {
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos * tokens;
+            long wait = next - now - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
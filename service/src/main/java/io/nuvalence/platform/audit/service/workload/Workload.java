@@ -0,0 +1,22 @@
+package io.nuvalence.platform.audit.service.workload;
+
+/**
+ * Classes of work that are isolated from each other, each one with its own connection pool and
+ * executor.
+ */
+public enum Workload {
+    /**
+     * Persistence of audit events received from the broker.
+     */
+    INGEST,
+
+    /**
+     * Interactive, small page reads.
+     */
+    QUERY,
+
+    /**
+     * Large page reads, reports and exports.
+     */
+    SCAN
+}
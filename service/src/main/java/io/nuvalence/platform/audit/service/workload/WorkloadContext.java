@@ -0,0 +1,27 @@
+package io.nuvalence.platform.audit.service.workload;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.Optional;
+
+/**
+ * Holds the workload the current thread is executing on behalf of.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    public static Optional<Workload> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public static void set(Workload workload) {
+        CURRENT.set(workload);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,192 @@
+package io.nuvalence.platform.audit.service.workload;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.nuvalence.platform.audit.service.config.WorkloadProperties;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs work on the executor dedicated to its workload, so that a saturated workload sheds its own
+ * requests instead of starving the others.
+ */
+@Slf4j
+@Component
+public class WorkloadExecutor implements DisposableBean {
+
+    private final WorkloadProperties properties;
+
+    private final Map<Workload, ThreadPoolTaskExecutor> executors = new EnumMap<>(Workload.class);
+
+    /**
+     * Creates one bounded executor per workload and registers its queue metrics.
+     *
+     * @param properties    workload sizing
+     * @param meterRegistry registry the executor metrics are published to
+     */
+    public WorkloadExecutor(WorkloadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (Workload workload : Workload.values()) {
+            ThreadPoolTaskExecutor executor = createExecutor(workload);
+            ExecutorServiceMetrics.monitor(
+                    meterRegistry,
+                    executor.getThreadPoolExecutor(),
+                    "audit.workload",
+                    Tags.of("workload", workload.name().toLowerCase(Locale.ROOT)));
+            executors.put(workload, executor);
+        }
+    }
+
+    private ThreadPoolTaskExecutor createExecutor(Workload workload) {
+        WorkloadProperties.Bulkhead bulkhead = properties.get(workload);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(bulkhead.getConcurrency());
+        executor.setMaxPoolSize(bulkhead.getConcurrency());
+        executor.setQueueCapacity(bulkhead.getQueueCapacity());
+        executor.setThreadNamePrefix(workload.name().toLowerCase(Locale.ROOT) + "-");
+        executor.setTaskDecorator(task -> bindContext(workload, task));
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Decorates a task so that it runs with the given workload and the MDC of the submitting
+     * thread, for executors running work of a workload on their own threads.
+     *
+     * @param workload workload the task belongs to
+     * @param task     task to decorate
+     * @return decorated task
+     */
+    public static Runnable bindContext(Workload workload, Runnable task) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return () -> {
+            WorkloadContext.set(workload);
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                task.run();
+            } finally {
+                WorkloadContext.clear();
+                MDC.clear();
+            }
+        };
+    }
+
+    /**
+     * Executes a task on the executor of the given workload and waits for its result.
+     *
+     * @param workload workload the task belongs to
+     * @param task     task to execute
+     * @param <T>      result type
+     * @return task result
+     * @throws ThrottledRequestException if the workload is saturated or the task times out
+     */
+    public <T> T execute(Workload workload, Supplier<T> task) {
+        long timeoutMillis = properties.get(workload).getTimeout().toMillis();
+        Future<T> future = submit(workload, task::get);
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ThrottledRequestException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "The request timed out, please retry later.",
+                    properties.get(workload).getTimeout());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted waiting for " + workload + " task", e);
+        }
+    }
+
+    /**
+     * Executes a task without result on the executor of the given workload and waits for it to
+     * complete.
+     *
+     * @param workload workload the task belongs to
+     * @param task     task to execute
+     * @throws ThrottledRequestException if the workload is saturated or the task times out
+     */
+    public void run(Workload workload, Runnable task) {
+        execute(
+                workload,
+                () -> {
+                    task.run();
+                    return null;
+                });
+    }
+
+    /**
+     * Executes a task writing a response body on the executor of the given workload, so that it
+     * holds a slot of the workload for as long as the body is written, and waits for it to
+     * complete. The workload timeout does not apply, as the duration of the task depends on the
+     * client reading the body, whose stalls are bounded by the write timeout of the connection.
+     *
+     * @param workload workload the task belongs to
+     * @param task     task writing the body
+     * @throws ThrottledRequestException if the workload is saturated
+     */
+    public void stream(Workload workload, Runnable task) {
+        Future<Void> future =
+                submit(
+                        workload,
+                        () -> {
+                            task.run();
+                            return null;
+                        });
+
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted waiting for " + workload + " task", e);
+        }
+    }
+
+    private <T> Future<T> submit(Workload workload, Callable<T> task) {
+        try {
+            return executors.get(workload).submit(task);
+        } catch (TaskRejectedException e) {
+            log.warn("Rejected {} task, the workload is saturated", workload);
+            throw new ThrottledRequestException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "The service is overloaded, please retry later.",
+                    properties.get(workload).getTimeout());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executors.values().forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+}
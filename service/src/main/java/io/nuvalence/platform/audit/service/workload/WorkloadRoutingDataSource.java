@@ -0,0 +1,34 @@
+package io.nuvalence.platform.audit.service.workload;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes connection requests to the pool dedicated to the workload of the calling thread, falling
+ * back to the default pool when no workload is set (e.g. migrations).
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current().orElse(null);
+    }
+
+    @Override
+    public void close() {
+        getResolvedDataSources().values().forEach(WorkloadRoutingDataSource::closePool);
+        DataSource defaultDataSource = getResolvedDefaultDataSource();
+        if (defaultDataSource != null) {
+            closePool(defaultDataSource);
+        }
+    }
+
+    private static void closePool(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikariDataSource
+                && !hikariDataSource.isClosed()) {
+            hikariDataSource.close();
+        }
+    }
+}
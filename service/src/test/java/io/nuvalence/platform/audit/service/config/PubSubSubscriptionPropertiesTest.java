@@ -0,0 +1,102 @@
+package io.nuvalence.platform.audit.service.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.util.Map;
+
+class PubSubSubscriptionPropertiesTest {
+
+    @Test
+    void subscription_GivenDefaults_ShouldBindEachLaneSubscriptionByName() throws IOException {
+        MutablePropertySources sources = new MutablePropertySources();
+        sources.addFirst(
+                new YamlPropertySourceLoader()
+                        .load("application", new ClassPathResource("application.yml"))
+                        .get(0));
+        Binder binder =
+                new Binder(
+                        ConfigurationPropertySources.from(sources),
+                        new PropertySourcesPlaceholdersResolver(sources));
+
+        Map<String, Subscriber> subscriptions =
+                binder.bind(
+                                "spring.cloud.gcp.pubsub.subscription",
+                                Bindable.mapOf(String.class, Subscriber.class))
+                        .get();
+
+        Assertions.assertAll(
+                () ->
+                        Assertions.assertEquals(
+                                8,
+                                subscriptions
+                                        .get("AUDIT_EVENTS_RECORDING_CRITICAL_SUBSCRIPTION")
+                                        .getExecutorThreads()),
+                () ->
+                        Assertions.assertEquals(
+                                4,
+                                subscriptions
+                                        .get("AUDIT_EVENTS_RECORDING_SUBSCRIPTION")
+                                        .getExecutorThreads()),
+                () ->
+                        Assertions.assertEquals(
+                                2,
+                                subscriptions
+                                        .get("AUDIT_EVENTS_RECORDING_BULK_SUBSCRIPTION")
+                                        .getExecutorThreads()),
+                () ->
+                        Assertions.assertEquals(
+                                500L,
+                                subscriptions
+                                        .get("AUDIT_EVENTS_RECORDING_BULK_SUBSCRIPTION")
+                                        .getFlowControl()
+                                        .getMaxOutstandingElementCount()));
+    }
+
+    /**
+     * Subset of the subscriber properties of the Pub/Sub starter.
+     */
+    public static class Subscriber {
+        private Integer executorThreads;
+        private FlowControl flowControl = new FlowControl();
+
+        public Integer getExecutorThreads() {
+            return executorThreads;
+        }
+
+        public void setExecutorThreads(Integer executorThreads) {
+            this.executorThreads = executorThreads;
+        }
+
+        public FlowControl getFlowControl() {
+            return flowControl;
+        }
+
+        public void setFlowControl(FlowControl flowControl) {
+            this.flowControl = flowControl;
+        }
+    }
+
+    /**
+     * Subset of the flow control properties of the Pub/Sub starter.
+     */
+    public static class FlowControl {
+        private Long maxOutstandingElementCount;
+
+        public Long getMaxOutstandingElementCount() {
+            return maxOutstandingElementCount;
+        }
+
+        public void setMaxOutstandingElementCount(Long maxOutstandingElementCount) {
+            this.maxOutstandingElementCount = maxOutstandingElementCount;
+        }
+    }
+}
@@ -3,15 +3,23 @@ package io.nuvalence.platform.audit.service.controllers;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.google.protobuf.Timestamp;
+import com.jayway.jsonpath.JsonPath;
 import io.nuvalence.auth.access.AuthorizationHandler;
 import io.nuvalence.auth.token.profiles.ProfileAccessLevel;
 import io.nuvalence.auth.token.profiles.ProfileLink;
@@ -21,16 +29,29 @@ import io.nuvalence.events.brokerclient.config.PublisherProperties;
 import io.nuvalence.events.event.AuditEvent;
 import io.nuvalence.events.event.service.EventGateway;
 import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.domain.BusinessObjectRef;
 import io.nuvalence.platform.audit.service.error.ApiException;
+import io.nuvalence.platform.audit.service.error.PendingWriteException;
 import io.nuvalence.platform.audit.service.events.PublisherTopic;
+import io.nuvalence.platform.audit.service.events.async.AsyncEventPublisher;
+import io.nuvalence.platform.audit.service.events.direct.DirectEventWriter;
+import io.nuvalence.platform.audit.service.events.lanes.PriorityLanes;
+import io.nuvalence.platform.audit.service.events.outbox.AuditEventOutbox;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditRestProto;
 import io.nuvalence.platform.audit.service.generated.models.AuditEventRequest;
 import io.nuvalence.platform.audit.service.mapper.AuditEventMapper;
+import io.nuvalence.platform.audit.service.mapper.RenderedEventMapper;
 import io.nuvalence.platform.audit.service.repository.AuditEventRepository;
 import io.nuvalence.platform.audit.service.service.AuditEventService;
+import io.nuvalence.platform.audit.service.service.BusinessObjectGraph;
+import io.nuvalence.platform.audit.service.service.PersistedEventRegistry;
 import io.nuvalence.platform.audit.service.utils.TestUtil;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -49,11 +70,19 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.ResultMatcher;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @ExtendWith(SpringExtension.class)
 // @WebMvcTest doesn't set up controller method level validations:
@@ -81,12 +110,23 @@ class AuditEventApiDelegateImplTest {
     @MockBean private PublisherProperties publisherProperties;
     @MockBean private EventGateway eventGateway;
 
+    @Autowired private PriorityLanes priorityLanes;
+    @Autowired private AuditEventOutbox auditEventOutbox;
+    @Autowired private DirectEventWriter directEventWriter;
+    @Autowired private AsyncEventPublisher asyncEventPublisher;
+    @Autowired private PersistedEventRegistry persistedEventRegistry;
+    @Autowired private RenderedEventMapper renderedEventMapper;
+
     @Mock private AuditEventMapper eventMapper;
 
     @BeforeEach
     void mockAuthorization() {
         ReflectionTestUtils.setField(auditEventService, "publisherProperties", publisherProperties);
         ReflectionTestUtils.setField(auditEventService, "eventGateway", eventGateway);
+        ReflectionTestUtils.setField(auditEventService, "priorityLanes", priorityLanes);
+        ReflectionTestUtils.setField(auditEventService, "auditEventOutbox", auditEventOutbox);
+        ReflectionTestUtils.setField(auditEventService, "directEventWriter", directEventWriter);
+        ReflectionTestUtils.setField(auditEventService, "asyncEventPublisher", asyncEventPublisher);
 
         when(authorizationHandler.isAllowed(any(), (Class<?>) any())).thenReturn(true);
         when(authorizationHandler.isAllowed(any(), (String) any())).thenReturn(true);
@@ -374,6 +414,99 @@ class AuditEventApiDelegateImplTest {
                         any(AuditEvent.class), eq(PublisherTopic.AUDIT_EVENTS_RECORDING.name()));
     }
 
+    @Test
+    void postEvent_GivenRepeatedIdempotencyKey_ShouldReturnOriginalEventId() throws Exception {
+        doCallRealMethod().when(auditEventService).publishAuditEvent(any());
+        when(publisherProperties.getFullyQualifiedTopicName(
+                        PublisherTopic.AUDIT_EVENTS_RECORDING.name()))
+                .thenReturn(Optional.of(PublisherTopic.AUDIT_EVENTS_RECORDING.name()));
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        String firstResponse =
+                mockMvc.perform(
+                                post(LIST_EVENTS_PATH)
+                                        .header("Idempotency-Key", idempotencyKey)
+                                        .content(TestUtil.Data.STATE_CHANGE_REQUEST.readJsonString())
+                                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isCreated())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        String eventId = JsonPath.read(firstResponse, "$.eventId");
+
+        mockMvc.perform(
+                        post(LIST_EVENTS_PATH)
+                                .header("Idempotency-Key", idempotencyKey)
+                                .content(TestUtil.Data.STATE_CHANGE_REQUEST.readJsonString())
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.eventId").value(eventId));
+
+        verify(eventGateway, times(1))
+                .publishEvent(
+                        any(AuditEvent.class), eq(PublisherTopic.AUDIT_EVENTS_RECORDING.name()));
+    }
+
+    @Test
+    void postEvent_GivenPendingWriteTimingOut_ShouldKeepIdempotencyKeyUntilWriteFails()
+            throws Exception {
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        when(auditEventService.publishAuditEvent(any()))
+                .thenThrow(
+                        new PendingWriteException(
+                                "Audit event could not be stored in time",
+                                Duration.ofSeconds(1),
+                                outcome))
+                .thenReturn(true);
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        mockMvc.perform(
+                        post(LIST_EVENTS_PATH)
+                                .header("Idempotency-Key", idempotencyKey)
+                                .content(TestUtil.Data.STATE_CHANGE_REQUEST.readJsonString())
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable());
+        mockMvc.perform(
+                        post(LIST_EVENTS_PATH)
+                                .header("Idempotency-Key", idempotencyKey)
+                                .content(TestUtil.Data.STATE_CHANGE_REQUEST.readJsonString())
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+
+        outcome.completeExceptionally(new IllegalStateException("commit failed"));
+        mockMvc.perform(
+                        post(LIST_EVENTS_PATH)
+                                .header("Idempotency-Key", idempotencyKey)
+                                .content(TestUtil.Data.STATE_CHANGE_REQUEST.readJsonString())
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        verify(auditEventService, times(2)).publishAuditEvent(any());
+    }
+
+    @Test
+    void postEvent_GivenPersistedConsistency_ShouldAnswerOnceEventIsPersisted() throws Exception {
+        doAnswer(
+                        invocation -> {
+                            AuditEvent published = invocation.getArgument(0);
+                            persistedEventRegistry.afterCommit(
+                                    List.of(published.getMetadata().getId()));
+                            return true;
+                        })
+                .when(auditEventService)
+                .publishAuditEvent(any());
+
+        mockMvc.perform(
+                        post(LIST_EVENTS_PATH)
+                                .param("consistency", "persisted")
+                                .content(TestUtil.Data.STATE_CHANGE_REQUEST.readJsonString())
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.eventId").exists());
+    }
+
     @Test
     void postEvent_GivenInvalidRequestBody_ShouldReturnHttp400() throws Exception {
         mockMvc.perform(
@@ -387,4 +520,448 @@ class AuditEventApiDelegateImplTest {
                                 "'timestamp': must not be null",
                                 "'summary': must not be null"));
     }
+
+    @Test
+    void getEvents_GivenProtobufAccepted_ShouldReturnProtobufPage() throws Exception {
+        AuditEventEntity auditEvent = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        Page<AuditEventEntity> page =
+                new PageImpl<>(List.of(auditEvent), Pageable.ofSize(10).withPage(0), 20);
+        when(auditEventService.findAuditEvents(
+                        eq(BUSINESS_OBJECT_TYPE),
+                        eq(BUSINESS_OBJECT_ID),
+                        any(),
+                        any(),
+                        eq(0),
+                        eq(10),
+                        eq(ASC),
+                        any()))
+                .thenReturn(page);
+
+        byte[] content =
+                mockMvc.perform(
+                                get(LIST_EVENTS_PATH + "?pageSize=10")
+                                        .accept(ProtobufBodyConverter.PROTOBUF))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType(ProtobufBodyConverter.PROTOBUF))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+
+        AuditRestProto.AuditEventsPage message = AuditRestProto.AuditEventsPage.parseFrom(content);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, message.getEventsCount()),
+                () -> Assertions.assertEquals("sed ipsum in ex", message.getEvents(0).getSummary()),
+                () ->
+                        Assertions.assertEquals(
+                                BUSINESS_OBJECT_ID.toString(),
+                                message.getEvents(0).getBusinessObjectId()),
+                () ->
+                        Assertions.assertTrue(
+                                message.getEvents(0).getEventData().hasStateChange()),
+                () -> Assertions.assertEquals(20, message.getPagingMetadata().getTotalCount()),
+                () -> Assertions.assertEquals(10, message.getPagingMetadata().getPageSize()));
+    }
+
+    @Test
+    void getEvent_GivenEventId_ShouldReturnEvent() throws Exception {
+        AuditEventEntity auditEvent = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        UUID eventId = UUID.randomUUID();
+        auditEvent.setEventId(eventId);
+        when(auditEventService.findAuditEventsById(List.of(eventId)))
+                .thenReturn(List.of(auditEvent));
+
+        mockMvc.perform(get("/api/v1/audit-events/" + eventId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventId").value(eventId.toString()))
+                .andExpect(jsonPath("$.summary").value("sed ipsum in ex"));
+    }
+
+    @Test
+    void getEvent_GivenUnknownEventId_ShouldReturnHttp404() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        when(auditEventService.findAuditEventsById(List.of(eventId))).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/v1/audit-events/" + eventId))
+                .andExpect(status().isNotFound())
+                .andExpect(correctErrorMessages("Audit event not found."));
+    }
+
+    @Test
+    void getEvent_ForbiddenAndNotProfileRequest() throws Exception {
+        AuditEventEntity auditEvent = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        UUID eventId = UUID.randomUUID();
+        auditEvent.setEventId(eventId);
+        when(auditEventService.findAuditEventsById(List.of(eventId)))
+                .thenReturn(List.of(auditEvent));
+        when(authorizationHandler.isAllowed("view", AuditEventEntity.class)).thenReturn(false);
+
+        mockMvc.perform(get("/api/v1/audit-events/" + eventId))
+                .andExpect(status().isForbidden())
+                .andExpect(correctErrorMessages("Forbidden request."));
+    }
+
+    @Test
+    void getEventsById_ShouldReturnEventsFound() throws Exception {
+        AuditEventEntity first = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        first.setEventId(UUID.randomUUID());
+        AuditEventEntity second = TestUtil.Data.ACTIVITY_ENTITY.readJson();
+        second.setEventId(UUID.randomUUID());
+        UUID unknownId = UUID.randomUUID();
+        when(auditEventService.findAuditEventsById(
+                        List.of(first.getEventId(), unknownId, second.getEventId())))
+                .thenReturn(List.of(first, second));
+
+        mockMvc.perform(
+                        get(
+                                "/api/v1/audit-events?eventIds={first},{unknown},{second}",
+                                first.getEventId(),
+                                unknownId,
+                                second.getEventId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(2)))
+                .andExpect(jsonPath("$.events[0].eventId").value(first.getEventId().toString()))
+                .andExpect(jsonPath("$.events[1].eventId").value(second.getEventId().toString()));
+    }
+
+    @Test
+    void getEventsById_GivenTooManyEventIds_ShouldReturnHttp400() throws Exception {
+        String eventIds =
+                Stream.generate(UUID::randomUUID)
+                        .limit(101)
+                        .map(UUID::toString)
+                        .collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/api/v1/audit-events?eventIds=" + eventIds))
+                .andExpect(status().isBadRequest());
+        verify(auditEventService, times(0)).findAuditEventsById(any());
+    }
+
+    @Test
+    void getTimeline_ShouldReturnMergedPageWithNextPageToken() throws Exception {
+        AuditEventEntity first = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        first.setEventId(UUID.randomUUID());
+        AuditEventEntity second = TestUtil.Data.ACTIVITY_ENTITY.readJson();
+        second.setEventId(UUID.randomUUID());
+        // page tokens hold timestamps in UTC
+        second.setTimestamp(OffsetDateTime.parse("2023-01-01T10:15:30.123Z"));
+        AuditEventEntity third = TestUtil.Data.ACTIVITY_ENTITY.readJson();
+        third.setEventId(UUID.randomUUID());
+        UUID customerId = UUID.randomUUID();
+        List<BusinessObjectRef> businessObjects =
+                List.of(
+                        new BusinessObjectRef(BUSINESS_OBJECT_TYPE, BUSINESS_OBJECT_ID),
+                        new BusinessObjectRef("customers", customerId));
+        when(auditEventService.findTimeline(businessObjects, null, null, true, null, null, 3))
+                .thenReturn(List.of(first, second, third));
+        when(auditEventService.findTimeline(
+                        businessObjects,
+                        null,
+                        null,
+                        true,
+                        second.getTimestamp(),
+                        second.getEventId(),
+                        3))
+                .thenReturn(List.of(third));
+
+        String path =
+                "/api/v1/audit-events/timeline?pageSize=2&businessObjects=orders:"
+                        + BUSINESS_OBJECT_ID
+                        + ",customers:"
+                        + customerId;
+        String body =
+                mockMvc.perform(get(path))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.events", hasSize(2)))
+                        .andExpect(
+                                jsonPath("$.events[0].eventId")
+                                        .value(first.getEventId().toString()))
+                        .andExpect(
+                                jsonPath("$.events[1].eventId")
+                                        .value(second.getEventId().toString()))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        String nextPageToken = JsonPath.read(body, "$.nextPageToken");
+
+        mockMvc.perform(get(path + "&pageToken=" + nextPageToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(1)))
+                .andExpect(jsonPath("$.events[0].eventId").value(third.getEventId().toString()))
+                .andExpect(jsonPath("$.nextPageToken").doesNotExist());
+    }
+
+    @Test
+    void getTimeline_GivenInvalidPageToken_ShouldReturnHttp400() throws Exception {
+        mockMvc.perform(
+                        get(
+                                "/api/v1/audit-events/timeline?businessObjects=orders:"
+                                        + BUSINESS_OBJECT_ID
+                                        + "&pageToken=foo"))
+                .andExpect(status().isBadRequest());
+        verify(auditEventService, times(0))
+                .findTimeline(any(), any(), any(), anyBoolean(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getTimeline_GivenObjectNotLinkedToProfile_ShouldReturnHttp403() throws Exception {
+        when(authorizationHandler.isAllowed("view", AuditEventEntity.class)).thenReturn(false);
+
+        mockMvc.perform(
+                        get(
+                                "/api/v1/audit-events/timeline?businessObjects=orders:"
+                                        + BUSINESS_OBJECT_ID))
+                .andExpect(status().isForbidden())
+                .andExpect(correctErrorMessages("Forbidden request."));
+        verify(auditEventService, times(0))
+                .findTimeline(any(), any(), any(), anyBoolean(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getRelatedEvents_ShouldReturnObjectsReachedAndTheirTimeline() throws Exception {
+        AuditEventEntity auditEvent = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        auditEvent.setEventId(UUID.randomUUID());
+        BusinessObjectRef start = new BusinessObjectRef(BUSINESS_OBJECT_TYPE, BUSINESS_OBJECT_ID);
+        BusinessObjectRef related = new BusinessObjectRef("customers", UUID.randomUUID());
+        Map<BusinessObjectRef, Integer> depths = new LinkedHashMap<>();
+        depths.put(start, 0);
+        depths.put(related, 1);
+        when(auditEventService.findRelatedBusinessObjects(
+                        eq(start), eq(3), eq(50), eq(null), eq(null), any()))
+                .thenReturn(new BusinessObjectGraph(depths, true));
+        when(auditEventService.findTimeline(
+                        List.of(start, related), null, null, false, null, null, 51))
+                .thenReturn(List.of(auditEvent));
+
+        mockMvc.perform(get(LIST_EVENTS_PATH + "/related?depth=3&sortOrder=DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.businessObjects", hasSize(2)))
+                .andExpect(jsonPath("$.businessObjects[1].type").value("customers"))
+                .andExpect(jsonPath("$.businessObjects[1].id").value(related.id().toString()))
+                .andExpect(jsonPath("$.businessObjects[1].depth").value(1))
+                .andExpect(jsonPath("$.truncated").value(true))
+                .andExpect(jsonPath("$.events", hasSize(1)))
+                .andExpect(
+                        jsonPath("$.events[0].eventId").value(auditEvent.getEventId().toString()))
+                .andExpect(jsonPath("$.nextPageToken").doesNotExist());
+    }
+
+    @Test
+    void getRelatedEvents_GivenObjectNotLinkedToProfile_ShouldReturnHttp403() throws Exception {
+        when(authorizationHandler.isAllowed("view", AuditEventEntity.class)).thenReturn(false);
+
+        mockMvc.perform(get(LIST_EVENTS_PATH + "/related"))
+                .andExpect(status().isForbidden())
+                .andExpect(correctErrorMessages("Forbidden request."));
+        verify(auditEventService, times(0))
+                .findRelatedBusinessObjects(any(), anyInt(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void getEvents_GivenFields_ShouldOnlyReadAndWriteSelectedFields() throws Exception {
+        AuditEventEntity auditEvent = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        streamEvents(10, 1, List.of(auditEvent));
+
+        mockMvc.perform(
+                        get(
+                                LIST_EVENTS_PATH
+                                        + "?sortBy=type&pageNumber=1&pageSize=10"
+                                        + "&fields=timestamp,summary,activityType"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(1)))
+                .andExpect(jsonPath("$.events[0].summary").value("sed ipsum in ex"))
+                .andExpect(jsonPath("$.events[0].timestamp").exists())
+                .andExpect(jsonPath("$.events[0].eventData.type").value("StateChangeEventData"))
+                .andExpect(jsonPath("$.events[0].eventData.activityType").exists())
+                .andExpect(jsonPath("$.events[0].eventData.oldState").doesNotExist())
+                .andExpect(jsonPath("$.events[0].eventData.newState").doesNotExist())
+                .andExpect(jsonPath("$.events[0].businessObject").doesNotExist())
+                .andExpect(jsonPath("$.events[0].links").doesNotExist())
+                .andExpect(jsonPath("$.pagingMetadata.totalCount").value(1));
+        verify(auditEventService)
+                .streamAuditEvents(
+                        eq(BUSINESS_OBJECT_TYPE),
+                        eq(BUSINESS_OBJECT_ID),
+                        any(),
+                        any(),
+                        eq(1),
+                        eq(10),
+                        eq(ASC),
+                        eq(SORT_BY),
+                        eq(Set.of()),
+                        any());
+    }
+
+    @Test
+    void getEvents_GivenUnknownField_ShouldReturnHttp400() throws Exception {
+        mockMvc.perform(get(LIST_EVENTS_PATH + "?fields=summary,password"))
+                .andExpect(status().isBadRequest());
+        verify(auditEventService, times(0)).countAuditEvents(any(), any(), any(), any());
+    }
+
+    @Test
+    void getEvents_GivenRenderedEvents_ShouldWriteRenderedJson() throws Exception {
+        AuditEventEntity rendered = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        rendered.setEventId(UUID.randomUUID());
+        rendered.setSummary("summary when rendered");
+        AuditEventEntity auditEvent = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        auditEvent.setEventId(rendered.getEventId());
+        auditEvent.setRenderedEvent(renderedEventMapper.render(rendered));
+        AuditEventEntity notRendered = TestUtil.Data.ACTIVITY_ENTITY.readJson();
+        when(auditEventService.findAuditEvents(
+                        any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(
+                        new PageImpl<>(
+                                List.of(auditEvent, notRendered),
+                                Pageable.ofSize(10).withPage(0),
+                                2));
+
+        mockMvc.perform(get(LIST_EVENTS_PATH + "?pageSize=10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(2)))
+                .andExpect(jsonPath("$.events[0].summary").value("summary when rendered"))
+                .andExpect(jsonPath("$.events[1].summary").value("sed ipsum in ex"))
+                .andExpect(jsonPath("$.pagingMetadata.totalCount").value(2));
+    }
+
+    @Test
+    void getEvents_GivenAnyMediaTypeAccepted_ShouldReturnJson() throws Exception {
+        when(auditEventService.findAuditEvents(
+                        any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(new PageImpl<>(List.of(), Pageable.ofSize(10).withPage(0), 0));
+
+        mockMvc.perform(get(LIST_EVENTS_PATH).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamEvents(int pageSize, long totalCount, List<AuditEventEntity> events) {
+        when(auditEventService.countAuditEvents(
+                        eq(BUSINESS_OBJECT_TYPE), eq(BUSINESS_OBJECT_ID), any(), any()))
+                .thenReturn(totalCount);
+        doAnswer(
+                        invocation -> {
+                            Consumer<AuditEventEntity> consumer =
+                                    invocation.getArgument(9);
+                            events.forEach(consumer);
+                            return null;
+                        })
+                .when(auditEventService)
+                .streamAuditEvents(
+                        eq(BUSINESS_OBJECT_TYPE),
+                        eq(BUSINESS_OBJECT_ID),
+                        any(),
+                        any(),
+                        eq(1),
+                        eq(pageSize),
+                        eq(ASC),
+                        eq(SORT_BY),
+                        any(),
+                        any());
+    }
+
+    @Test
+    void getEvents_GivenLargePage_ShouldStreamEventsFromCursor() throws Exception {
+        AuditEventEntity auditEvent = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        streamEvents(150, 400, List.of(auditEvent, auditEvent));
+
+        mockMvc.perform(get(LIST_EVENTS_PATH + "?sortBy=type&pageNumber=1&pageSize=150"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(2)))
+                .andExpect(jsonPath("$.events[1].summary").value("sed ipsum in ex"))
+                .andExpect(jsonPath("$.pagingMetadata.pageNumber").value(1))
+                .andExpect(jsonPath("$.pagingMetadata.pageSize").value(150))
+                .andExpect(jsonPath("$.pagingMetadata.totalCount").value(400))
+                .andExpect(
+                        jsonPath("$.pagingMetadata.nextPage")
+                                .value(
+                                        "http://localhost"
+                                                + LIST_EVENTS_PATH
+                                                + "?sortBy=type&pageSize=150&pageNumber=2"));
+        verify(auditEventService, times(0))
+                .findAuditEvents(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getEvents_GivenLargePageAndProtobufAccepted_ShouldStreamProtobufPage() throws Exception {
+        AuditEventEntity auditEvent = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        streamEvents(150, 151, List.of(auditEvent));
+
+        byte[] content =
+                mockMvc.perform(
+                                get(LIST_EVENTS_PATH + "?sortBy=type&pageNumber=1&pageSize=150")
+                                        .accept(ProtobufBodyConverter.PROTOBUF))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType(ProtobufBodyConverter.PROTOBUF))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+
+        AuditRestProto.AuditEventsPage message = AuditRestProto.AuditEventsPage.parseFrom(content);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, message.getEventsCount()),
+                () -> Assertions.assertEquals("sed ipsum in ex", message.getEvents(0).getSummary()),
+                () -> Assertions.assertEquals(151, message.getPagingMetadata().getTotalCount()),
+                () -> Assertions.assertEquals("", message.getPagingMetadata().getNextPage()));
+    }
+
+    @Test
+    void postEvent_GivenProtobufBody_ShouldCreateEventAndReturnProtobufId() throws Exception {
+        when(auditEventService.publishAuditEvent(any())).thenReturn(true);
+        AuditIngestProto.AuditEventRequest request =
+                AuditIngestProto.AuditEventRequest.newBuilder()
+                        .setSummary("Order submitted")
+                        .setTimestamp(Timestamp.newBuilder().setSeconds(1_639_080_028L))
+                        .setEventData(
+                                AuditIngestProto.AuditEventData.newBuilder()
+                                        .setActivityType("updated")
+                                        .setStateChange(
+                                                AuditIngestProto.StateChangeEventData.newBuilder()
+                                                        .setOldState("draft")
+                                                        .setNewState("submitted")))
+                        .setRequestContext(
+                                AuditIngestProto.RequestContext.newBuilder()
+                                        .setOriginatorId(UUID.randomUUID().toString()))
+                        .build();
+
+        byte[] content =
+                mockMvc.perform(
+                                post(LIST_EVENTS_PATH)
+                                        .content(request.toByteArray())
+                                        .contentType(ProtobufBodyConverter.PROTOBUF)
+                                        .accept(ProtobufBodyConverter.PROTOBUF))
+                        .andExpect(status().isCreated())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+
+        ArgumentCaptor<AuditEvent> published = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditEventService).publishAuditEvent(published.capture());
+        Assertions.assertEquals("Order submitted", published.getValue().getSummary());
+        Assertions.assertEquals(
+                published.getValue().getMetadata().getId().toString(),
+                AuditRestProto.AuditEventId.parseFrom(content).getEventId());
+    }
+
+    @Test
+    void postEvent_GivenInvalidProtobufBody_ShouldReturnProtobufErrors() throws Exception {
+        byte[] content =
+                mockMvc.perform(
+                                post(LIST_EVENTS_PATH)
+                                        .content(
+                                                AuditIngestProto.AuditEventRequest
+                                                        .getDefaultInstance()
+                                                        .toByteArray())
+                                        .contentType(ProtobufBodyConverter.PROTOBUF)
+                                        .accept(ProtobufBodyConverter.PROTOBUF))
+                        .andExpect(status().isBadRequest())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+
+        Assertions.assertTrue(
+                AuditRestProto.ErrorResponse.parseFrom(content)
+                        .getMessagesList()
+                        .contains("'eventData': must not be null"));
+    }
 }
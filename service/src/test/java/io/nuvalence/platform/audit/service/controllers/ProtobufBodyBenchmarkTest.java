@@ -0,0 +1,186 @@
+package io.nuvalence.platform.audit.service.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.Timestamp;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto;
+import io.nuvalence.platform.audit.service.generated.models.AuditEvent;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventLinks;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventRequest;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventsPage;
+import io.nuvalence.platform.audit.service.generated.models.BusinessObjectMetadata;
+import io.nuvalence.platform.audit.service.generated.models.PagingMetadata;
+import io.nuvalence.platform.audit.service.generated.models.RequestContext;
+import io.nuvalence.platform.audit.service.generated.models.StateChangeEventData;
+import io.nuvalence.platform.audit.service.grpc.AuditEventProtoMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compares the size and serialization cost of the JSON and protobuf bodies of the audit event API:
+ * writing a full page of events and reading an event creation request. Run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class ProtobufBodyBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 20_000;
+    private static final int PAGE_SIZE = 200;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ProtobufBodyConverter converter =
+            new ProtobufBodyConverter(new AuditEventProtoMapper());
+
+    @Test
+    void compareBodyFormats() throws Exception {
+        AuditEventsPage page = page();
+        byte[] jsonPage = objectMapper.writeValueAsBytes(page);
+        byte[] protobufPage = writeProtobuf(page);
+        AuditEventRequest request = request();
+        byte[] jsonRequest = objectMapper.writeValueAsBytes(request);
+        byte[] protobufRequest = writeProtobufRequest(request);
+        Assertions.assertEquals(request.getSummary(), readProtobuf(protobufRequest).getSummary());
+
+        System.out.printf(
+                "page of %d events: JSON %d bytes, protobuf %d bytes%n",
+                PAGE_SIZE, jsonPage.length, protobufPage.length);
+        System.out.printf(
+                "event request:     JSON %d bytes, protobuf %d bytes%n",
+                jsonRequest.length, protobufRequest.length);
+
+        int pageIterations = MEASURED_ITERATIONS / 10;
+        int pageWarmup = WARMUP_ITERATIONS / 10;
+        report(
+                "JSON page write",
+                pageWarmup,
+                pageIterations,
+                () -> objectMapper.writeValueAsBytes(page));
+        report("protobuf page write", pageWarmup, pageIterations, () -> writeProtobuf(page));
+        report(
+                "JSON request read",
+                WARMUP_ITERATIONS,
+                MEASURED_ITERATIONS,
+                () -> objectMapper.readValue(jsonRequest, AuditEventRequest.class));
+        report(
+                "protobuf request read",
+                WARMUP_ITERATIONS,
+                MEASURED_ITERATIONS,
+                () -> readProtobuf(protobufRequest));
+    }
+
+    private byte[] writeProtobuf(AuditEventsPage page) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(page, ProtobufBodyConverter.PROTOBUF, output);
+        return output.getBodyAsBytes();
+    }
+
+    private static byte[] writeProtobufRequest(AuditEventRequest request) {
+        // requests are only read by the service, so the message is built from the same values
+        StateChangeEventData eventData = (StateChangeEventData) request.getEventData();
+        return AuditIngestProto.AuditEventRequest.newBuilder()
+                .setSummary(request.getSummary())
+                .setTimestamp(
+                        Timestamp.newBuilder().setSeconds(request.getTimestamp().toEpochSecond()))
+                .setEventData(
+                        AuditIngestProto.AuditEventData.newBuilder()
+                                .setActivityType(eventData.getActivityType())
+                                .setStateChange(
+                                        AuditIngestProto.StateChangeEventData.newBuilder()
+                                                .setOldState(eventData.getOldState())
+                                                .setNewState(eventData.getNewState())))
+                .setRequestContext(
+                        AuditIngestProto.RequestContext.newBuilder()
+                                .setOriginatorId(
+                                        request.getRequestContext().getOriginatorId().toString())
+                                .setUserId(request.getRequestContext().getUserId().toString())
+                                .setTenantId(
+                                        request.getRequestContext().getTenantId().toString()))
+                .build()
+                .toByteArray();
+    }
+
+    private AuditEventRequest readProtobuf(byte[] body) throws Exception {
+        return (AuditEventRequest)
+                converter.read(AuditEventRequest.class, new MockHttpInputMessage(body));
+    }
+
+    private static AuditEventRequest request() {
+        AuditEventRequest request = new AuditEventRequest();
+        request.setSummary("Order submitted");
+        request.setTimestamp(OffsetDateTime.parse("2021-12-09T20:00:28Z"));
+        request.setEventData(eventData());
+        RequestContext requestContext = new RequestContext();
+        requestContext.setOriginatorId(UUID.randomUUID());
+        requestContext.setUserId(UUID.randomUUID());
+        requestContext.setTenantId(UUID.randomUUID());
+        request.setRequestContext(requestContext);
+        return request;
+    }
+
+    private static StateChangeEventData eventData() {
+        StateChangeEventData eventData = new StateChangeEventData();
+        eventData.setType("StateChangeEventData");
+        eventData.setActivityType("updated");
+        eventData.setOldState("{\"status\":\"draft\",\"total\":1250}");
+        eventData.setNewState("{\"status\":\"submitted\",\"total\":1250}");
+        return eventData;
+    }
+
+    private static AuditEventsPage page() {
+        UUID businessObjectId = UUID.randomUUID();
+        List<AuditEvent> events = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            AuditEventRequest request = request();
+            AuditEvent event = new AuditEvent();
+            event.setEventId(UUID.randomUUID());
+            BusinessObjectMetadata businessObject = new BusinessObjectMetadata();
+            businessObject.setType("orders");
+            businessObject.setId(businessObjectId);
+            event.setBusinessObject(businessObject);
+            event.setEventData(request.getEventData());
+            event.setTimestamp(request.getTimestamp().plusSeconds(i));
+            event.setSummary(request.getSummary());
+            AuditEventLinks links = new AuditEventLinks();
+            links.setSystemOfRecord("https://orders.example.com/orders/" + businessObjectId);
+            links.setRelatedBusinessObjects(new ArrayList<>(List.of("customers:" + i)));
+            event.setLinks(links);
+            event.setRequestContext(request.getRequestContext());
+            events.add(event);
+        }
+        PagingMetadata pagingMetadata = new PagingMetadata();
+        pagingMetadata.setTotalCount(10_000L);
+        pagingMetadata.setPageSize(PAGE_SIZE);
+        pagingMetadata.setPageNumber(0);
+        AuditEventsPage page = new AuditEventsPage();
+        page.setEvents(events);
+        page.setPagingMetadata(pagingMetadata);
+        return page;
+    }
+
+    private static void report(String operation, int warmup, int iterations, Run run)
+            throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            run.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            run.run();
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / iterations;
+        System.out.printf("%-22s %10.1f us/op%n", operation, micros);
+    }
+
+    @FunctionalInterface
+    private interface Run {
+        void run() throws Exception;
+    }
+}
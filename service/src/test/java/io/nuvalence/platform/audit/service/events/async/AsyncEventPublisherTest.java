@@ -0,0 +1,97 @@
+package io.nuvalence.platform.audit.service.events.async;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.events.event.service.EventGateway;
+import io.nuvalence.platform.audit.service.config.AsyncPublishProperties;
+import io.nuvalence.platform.audit.service.utils.TestUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncEventPublisherTest {
+
+    private static final String TOPIC = "audit-events";
+
+    @Mock private EventGateway eventGateway;
+
+    private AsyncEventPublisher publisher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        publisher.destroy();
+    }
+
+    private AsyncEventPublisher publisher(Path journalDirectory) {
+        AsyncPublishProperties properties = new AsyncPublishProperties();
+        properties.setEnabled(true);
+        properties.setPublishers(2);
+        properties.setMaxAttempts(2);
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setJournalDirectory(journalDirectory);
+        return new AsyncEventPublisher(
+                properties,
+                eventGateway,
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                new SimpleMeterRegistry());
+    }
+
+    private static AuditEvent event() throws Exception {
+        AuditEvent event = TestUtil.Data.STATE_CHANGE_EVENT.readJson();
+        event.getMetadata().setId(UUID.randomUUID());
+        return event;
+    }
+
+    @Test
+    void submit_ShouldPublishEventInBackground(@TempDir Path directory) throws Exception {
+        publisher = publisher(directory);
+        AuditEvent event = event();
+
+        publisher.submit(event, TOPIC);
+
+        verify(eventGateway, timeout(5000)).publishEvent(event, TOPIC);
+    }
+
+    @Test
+    void submit_GivenBrokerFailing_ShouldJournalEventAndPublishItLater(@TempDir Path directory)
+            throws Exception {
+        publisher = publisher(directory);
+        AuditEvent event = event();
+        doThrow(new IllegalStateException("Broker unavailable"))
+                .doThrow(new IllegalStateException("Broker unavailable"))
+                .doNothing()
+                .when(eventGateway)
+                .publishEvent(any(AuditEvent.class), eq(TOPIC));
+
+        publisher.submit(event, TOPIC);
+
+        // the journal is replayed until the event, journaled after its second attempt, is published
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (mockingDetails(eventGateway).getInvocations().size() < 3
+                && System.nanoTime() < deadline) {
+            publisher.replayJournal();
+            Thread.sleep(10);
+        }
+
+        verify(eventGateway, times(3)).publishEvent(any(AuditEvent.class), eq(TOPIC));
+    }
+}
@@ -0,0 +1,116 @@
+package io.nuvalence.platform.audit.service.events.direct;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+class RingBufferTest {
+
+    @Test
+    void tryClaim_GivenFullRing_ShouldFailUntilSlotsAreReleased() {
+        RingBuffer<String> ring = new RingBuffer<>(4, 1);
+        for (int i = 0; i < 4; i++) {
+            ring.publish(ring.tryClaim(), "event-" + i);
+        }
+
+        Assertions.assertEquals(-1, ring.tryClaim());
+
+        List<String> batch = new ArrayList<>();
+        int drained = ring.drain(0, batch, 2);
+        Assertions.assertEquals(-1, ring.tryClaim());
+        ring.release(0, drained);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("event-0", "event-1"), batch),
+                () -> Assertions.assertEquals(4, ring.tryClaim()),
+                () -> Assertions.assertEquals(5, ring.tryClaim()),
+                () -> Assertions.assertEquals(-1, ring.tryClaim()));
+    }
+
+    @Test
+    void drain_GivenSeveralConsumers_ShouldDealEntriesRoundRobin() {
+        RingBuffer<String> ring = new RingBuffer<>(8, 2);
+        for (int i = 0; i < 5; i++) {
+            ring.publish(ring.tryClaim(), "event-" + i);
+        }
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+
+        ring.drain(0, first, 10);
+        ring.drain(1, second, 10);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("event-0", "event-2", "event-4"), first),
+                () -> Assertions.assertEquals(List.of("event-1", "event-3"), second));
+    }
+
+    @Test
+    void drain_GivenClaimedButUnpublishedSlot_ShouldStopBeforeIt() {
+        RingBuffer<String> ring = new RingBuffer<>(8, 1);
+        ring.publish(ring.tryClaim(), "event-0");
+        long unpublished = ring.tryClaim();
+        ring.publish(ring.tryClaim(), "event-2");
+        List<String> batch = new ArrayList<>();
+
+        ring.drain(0, batch, 10);
+        Assertions.assertEquals(List.of("event-0"), batch);
+        ring.release(0, 1);
+
+        ring.publish(unpublished, "event-1");
+        batch.clear();
+        ring.drain(0, batch, 10);
+        Assertions.assertEquals(List.of("event-1", "event-2"), batch);
+    }
+
+    @Test
+    void awaitPublished_GivenIdleConsumer_ShouldWakeOnPublish() throws Exception {
+        RingBuffer<String> ring = new RingBuffer<>(4, 1);
+        CompletableFuture<Long> waited =
+                CompletableFuture.supplyAsync(
+                        () -> {
+                            long start = System.nanoTime();
+                            try {
+                                ring.awaitPublished(0, TimeUnit.SECONDS.toNanos(30));
+                            } catch (InterruptedException e) {
+                                throw new IllegalStateException(e);
+                            }
+                            return System.nanoTime() - start;
+                        });
+
+        Thread.sleep(50);
+        ring.publish(ring.tryClaim(), "event-0");
+
+        Assertions.assertTrue(waited.get(10, TimeUnit.SECONDS) < TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    void awaitRoom_GivenFullRing_ShouldWakeOnRelease() throws Exception {
+        RingBuffer<String> ring = new RingBuffer<>(1, 1);
+        ring.publish(ring.tryClaim(), "event-0");
+        CompletableFuture<Long> waited =
+                CompletableFuture.supplyAsync(
+                        () -> {
+                            long start = System.nanoTime();
+                            try {
+                                ring.awaitRoom(TimeUnit.SECONDS.toNanos(30));
+                            } catch (InterruptedException e) {
+                                throw new IllegalStateException(e);
+                            }
+                            return System.nanoTime() - start;
+                        });
+
+        Thread.sleep(50);
+        ring.release(0, ring.drain(0, new ArrayList<>(), 1));
+
+        Assertions.assertAll(
+                () ->
+                        Assertions.assertTrue(
+                                waited.get(10, TimeUnit.SECONDS)
+                                        < TimeUnit.SECONDS.toNanos(10)),
+                () -> Assertions.assertEquals(1, ring.tryClaim()));
+    }
+}
@@ -0,0 +1,97 @@
+package io.nuvalence.platform.audit.service.events.inmemory;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.events.exception.EventProcessingException;
+import io.nuvalence.platform.audit.service.config.InMemoryBrokerProperties;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import io.nuvalence.platform.audit.service.events.listener.processors.AuditEventProcessor;
+import io.nuvalence.platform.audit.service.utils.TestUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryBrokerTest {
+
+    @Mock private AuditEventProcessor processor;
+    @Mock private ObjectProvider<AuditEventProcessor> processorProvider;
+
+    private final InMemoryBrokerProperties properties = new InMemoryBrokerProperties();
+    private InMemoryBroker broker;
+
+    @BeforeEach
+    void setUp() {
+        properties.setConsumers(2);
+        broker =
+                new InMemoryBroker(
+                        properties,
+                        new ObjectMapper().registerModule(new JavaTimeModule()),
+                        processorProvider,
+                        new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.destroy();
+    }
+
+    private static AuditEvent event(UUID eventId) throws Exception {
+        AuditEvent event = TestUtil.Data.STATE_CHANGE_EVENT.readJson();
+        event.getMetadata().setId(eventId);
+        return event;
+    }
+
+    @Test
+    void publish_ShouldDeliverEventToProcessor() throws Exception {
+        when(processorProvider.getObject()).thenReturn(processor);
+        UUID eventId = UUID.randomUUID();
+        broker.start();
+
+        broker.publish(event(eventId));
+
+        verify(processor, timeout(5000))
+                .execute(argThat(event -> eventId.equals(event.getMetadata().getId())));
+    }
+
+    @Test
+    void publish_GivenFailingProcessor_ShouldRedeliverEvent() throws Exception {
+        when(processorProvider.getObject()).thenReturn(processor);
+        properties.setMaxDeliveries(3);
+        doThrow(new EventProcessingException(new IllegalStateException("boom")))
+                .when(processor)
+                .execute(any());
+        broker.start();
+
+        broker.publish(event(UUID.randomUUID()));
+
+        verify(processor, timeout(5000).times(3)).execute(any());
+    }
+
+    @Test
+    void publish_GivenFullBroker_ShouldFailAfterTimeout() throws Exception {
+        properties.setCapacity(1);
+        properties.setPublishTimeout(Duration.ofMillis(10));
+        broker.publish(event(UUID.randomUUID()));
+
+        Assertions.assertThrows(
+                ThrottledRequestException.class, () -> broker.publish(event(UUID.randomUUID())));
+    }
+}
@@ -0,0 +1,60 @@
+package io.nuvalence.platform.audit.service.events.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.domain.StateChangeEventEntity;
+import io.nuvalence.platform.audit.service.utils.TestUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+class SpillJournalTest {
+
+    private final ObjectMapper objectMapper =
+            new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void replay_ShouldHandBackSpilledEventsInOrderAndDeleteThem(@TempDir Path directory)
+            throws Exception {
+        SpillJournal<AuditEventEntity> journal =
+                new SpillJournal<>(directory, objectMapper, AuditEventEntity.class);
+        AuditEventEntity first = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        first.setEventId(UUID.randomUUID());
+        AuditEventEntity second = TestUtil.Data.ACTIVITY_ENTITY.readJson();
+        second.setEventId(UUID.randomUUID());
+        journal.append(first);
+        journal.append(second);
+        List<AuditEventEntity> replayed = new ArrayList<>();
+
+        long count = journal.replay(replayed::add);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(2, count),
+                () -> Assertions.assertEquals(first.getEventId(), replayed.get(0).getEventId()),
+                () -> Assertions.assertTrue(replayed.get(0) instanceof StateChangeEventEntity),
+                () -> Assertions.assertEquals(second.getEventId(), replayed.get(1).getEventId()),
+                () -> Assertions.assertFalse(journal.hasSegments()));
+    }
+
+    @Test
+    void replay_GivenFailingConsumer_ShouldKeepSegment(@TempDir Path directory) throws Exception {
+        SpillJournal<AuditEventEntity> journal =
+                new SpillJournal<>(directory, objectMapper, AuditEventEntity.class);
+        journal.append(TestUtil.Data.ACTIVITY_ENTITY.readJson());
+
+        Assertions.assertThrows(
+                IllegalStateException.class,
+                () ->
+                        journal.replay(
+                                entity -> {
+                                    throw new IllegalStateException("ring full");
+                                }));
+        Assertions.assertTrue(journal.hasSegments());
+    }
+}
@@ -0,0 +1,220 @@
+package io.nuvalence.platform.audit.service.events.lanes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.events.event.EventMetadata;
+import io.nuvalence.events.event.dto.ActivityEventData;
+import io.nuvalence.events.event.dto.AuditEventDataBase;
+import io.nuvalence.events.event.dto.BusinessObjectMetadata;
+import io.nuvalence.events.event.dto.StateChangeEventData;
+import io.nuvalence.platform.audit.service.config.PriorityLaneProperties;
+import io.nuvalence.platform.audit.service.config.WorkloadProperties;
+import io.nuvalence.platform.audit.service.domain.enums.TypeEnum;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import io.nuvalence.platform.audit.service.workload.WorkloadExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class PriorityLanesTest {
+
+    private PriorityLaneProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private WorkloadProperties workloadProperties;
+    private WorkloadExecutor workloadExecutor;
+    private PriorityLanes priorityLanes;
+
+    @BeforeEach
+    void setUp() {
+        PriorityLaneProperties.Rule critical = new PriorityLaneProperties.Rule();
+        critical.setLane(PriorityLane.CRITICAL);
+        critical.setTypes(Set.of(TypeEnum.STATE_CHANGE_EVENT_DATA));
+        critical.setBusinessObjectTypes(Set.of("user"));
+
+        PriorityLaneProperties.Rule bulk = new PriorityLaneProperties.Rule();
+        bulk.setLane(PriorityLane.BULK);
+        bulk.setActivityTypes(Set.of("viewed"));
+
+        properties = new PriorityLaneProperties();
+        properties.setEnabled(true);
+        properties.setRules(List.of(critical, bulk));
+        properties.getConcurrency().put(PriorityLane.BULK, 1);
+        properties.getQueueCapacity().put(PriorityLane.BULK, 1);
+        meterRegistry = new SimpleMeterRegistry();
+        workloadProperties = new WorkloadProperties();
+        workloadExecutor = new WorkloadExecutor(workloadProperties, meterRegistry);
+        priorityLanes =
+                new PriorityLanes(properties, workloadExecutor, workloadProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        priorityLanes.destroy();
+        workloadExecutor.destroy();
+    }
+
+    @Test
+    void classify_ShouldReturnLaneOfFirstMatchingRule() {
+        assertEquals(
+                PriorityLane.CRITICAL,
+                priorityLanes.classify(
+                        event(
+                                new StateChangeEventData(),
+                                "StateChangeEventData",
+                                "user",
+                                "viewed")));
+        assertEquals(
+                PriorityLane.BULK,
+                priorityLanes.classify(
+                        event(new ActivityEventData(), "ActivityEventData", "user", "viewed")));
+        assertEquals(
+                PriorityLane.STANDARD,
+                priorityLanes.classify(
+                        event(new ActivityEventData(), "ActivityEventData", "user", "created")));
+    }
+
+    @Test
+    void classify_GivenLanesDisabled_ShouldReturnStandardLane() {
+        properties.setEnabled(false);
+
+        assertEquals(
+                PriorityLane.STANDARD,
+                priorityLanes.classify(
+                        event(new StateChangeEventData(), "StateChangeEventData", "user", "x")));
+    }
+
+    @Test
+    void run_ShouldExecuteTaskAndRecordLag() {
+        AtomicBoolean executed = new AtomicBoolean();
+        AuditEvent event = event(new ActivityEventData(), "ActivityEventData", "user", "viewed");
+
+        priorityLanes.run(PriorityLane.BULK, event, () -> executed.set(true));
+
+        assertTrue(executed.get());
+        assertEquals(
+                1,
+                meterRegistry.get("audit.ingest.lane.lag").tag("lane", "bulk").timer().count());
+    }
+
+    @Test
+    void run_GivenSaturatedBulkLane_ShouldStillRunCriticalEvents() throws Exception {
+        AuditEvent event = event(new ActivityEventData(), "ActivityEventData", "user", "viewed");
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking =
+                () -> {
+                    running.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                };
+        CompletableFuture<Void> occupying =
+                CompletableFuture.runAsync(
+                        () -> priorityLanes.run(PriorityLane.BULK, event, blocking));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> queued =
+                CompletableFuture.runAsync(
+                        () -> priorityLanes.run(PriorityLane.BULK, event, () -> {}));
+        AtomicBoolean executed = new AtomicBoolean();
+
+        try {
+            priorityLanes.run(PriorityLane.CRITICAL, event, () -> executed.set(true));
+
+            assertTrue(executed.get());
+        } finally {
+            release.countDown();
+            occupying.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void constructor_GivenMoreLaneThreadsThanIngestConnections_ShouldFail() {
+        properties.getConcurrency().put(PriorityLane.CRITICAL, 5);
+
+        assertThrows(
+                IllegalStateException.class,
+                () ->
+                        new PriorityLanes(
+                                properties, workloadExecutor, workloadProperties, meterRegistry));
+    }
+
+    @Test
+    void run_GivenFullBulkLane_ShouldRejectEvent() throws Exception {
+        AuditEvent event = event(new ActivityEventData(), "ActivityEventData", "user", "viewed");
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking =
+                () -> {
+                    running.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                };
+        CompletableFuture<Void> occupying =
+                CompletableFuture.runAsync(
+                        () -> priorityLanes.run(PriorityLane.BULK, event, blocking));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> queued =
+                CompletableFuture.runAsync(
+                        () -> priorityLanes.run(PriorityLane.BULK, event, () -> {}));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry
+                        .get("executor.queued")
+                        .tag("name", "audit.ingest.lane")
+                        .tag("lane", "bulk")
+                        .gauge()
+                        .value()
+                < 1) {
+            assertTrue(System.nanoTime() < deadline, "Event was not queued");
+            Thread.sleep(10);
+        }
+
+        try {
+            assertThrows(
+                    ThrottledRequestException.class,
+                    () -> priorityLanes.run(PriorityLane.BULK, event, () -> {}));
+        } finally {
+            release.countDown();
+            occupying.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static AuditEvent event(
+            AuditEventDataBase eventData,
+            String type,
+            String businessObjectType,
+            String activityType) {
+        eventData.setType(type);
+        eventData.setActivityType(activityType);
+
+        BusinessObjectMetadata businessObject = new BusinessObjectMetadata();
+        businessObject.setType(businessObjectType);
+
+        EventMetadata metadata = new EventMetadata();
+        metadata.setTimestamp(OffsetDateTime.now().minusSeconds(1));
+
+        AuditEvent event = new AuditEvent();
+        event.setEventData(eventData);
+        event.setBusinessObject(businessObject);
+        event.setMetadata(metadata);
+        return event;
+    }
+}
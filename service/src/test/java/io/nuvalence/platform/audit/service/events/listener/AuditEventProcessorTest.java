@@ -1,24 +1,39 @@
 package io.nuvalence.platform.audit.service.events.listener;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import io.nuvalence.events.event.AuditEvent;
 import io.nuvalence.events.exception.EventProcessingException;
+import io.nuvalence.platform.audit.service.config.DeadLetterProperties;
 import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.events.lanes.PriorityLane;
+import io.nuvalence.platform.audit.service.events.lanes.PriorityLanes;
 import io.nuvalence.platform.audit.service.events.listener.processors.AuditEventProcessor;
+import io.nuvalence.platform.audit.service.events.ordering.OrderedLanes;
 import io.nuvalence.platform.audit.service.mapper.AuditEventMapper;
 import io.nuvalence.platform.audit.service.service.AuditEventService;
+import io.nuvalence.platform.audit.service.service.ParkedAuditEventService;
+import io.nuvalence.platform.audit.service.service.RecentEventIdFilter;
 import io.nuvalence.platform.audit.service.utils.TestUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.TransientDataAccessResourceException;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.UUID;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,10 +41,15 @@ class AuditEventProcessorTest {
 
     @Mock private AuditEventMapper eventMapper;
     @Mock private AuditEventService auditEventService;
+    @Mock private PriorityLanes priorityLanes;
+    @Mock private RecentEventIdFilter recentEventIdFilter;
+    @Mock private OrderedLanes orderedLanes;
+    @Mock private ParkedAuditEventService parkedAuditEventService;
+    @Spy private DeadLetterProperties deadLetterProperties = deadLetterProperties();
     @InjectMocks private AuditEventProcessor auditEventProcessor;
 
     @Test
-    void testExecute() throws IOException, EventProcessingException {
+    void testExecute() throws Exception {
         String eventId = "6950bc28-4c09-43fe-8361-2a26555e92b6";
 
         AuditEventEntity auditEventEntity = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
@@ -40,6 +60,22 @@ class AuditEventProcessorTest {
 
         when(eventMapper.toEntity(auditEvent)).thenReturn(auditEventEntity);
         doNothing().when(auditEventService).saveAuditEvent(any());
+        when(priorityLanes.classify(auditEvent)).thenReturn(PriorityLane.STANDARD);
+        doAnswer(
+                        invocation -> {
+                            invocation.<Runnable>getArgument(2).run();
+                            return null;
+                        })
+                .when(priorityLanes)
+                .run(eq(PriorityLane.STANDARD), eq(auditEvent), any());
+
+        doAnswer(
+                        invocation -> {
+                            invocation.<Runnable>getArgument(1).run();
+                            return null;
+                        })
+                .when(orderedLanes)
+                .run(eq(auditEvent), any());
 
         // Call the execute method
         auditEventProcessor.execute(auditEvent);
@@ -48,4 +84,52 @@ class AuditEventProcessorTest {
         verify(eventMapper).toEntity(auditEvent);
         verify(auditEventService).saveAuditEvent(any());
     }
+
+    @Test
+    void execute_GivenRecentlyPersistedEvent_ShouldSkipPersistence()
+            throws IOException, EventProcessingException {
+        AuditEventEntity auditEventEntity = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        auditEventEntity.setEventId(UUID.randomUUID());
+        AuditEvent auditEvent = TestUtil.Data.STATE_CHANGE_EVENT.readJson();
+
+        when(eventMapper.toEntity(auditEvent)).thenReturn(auditEventEntity);
+        when(recentEventIdFilter.contains(auditEventEntity.getEventId())).thenReturn(true);
+
+        auditEventProcessor.execute(auditEvent);
+
+        verifyNoInteractions(auditEventService, priorityLanes, orderedLanes);
+    }
+
+    @Test
+    void execute_GivenPermanentFailure_ShouldParkEvent() throws Exception {
+        AuditEvent auditEvent = TestUtil.Data.STATE_CHANGE_EVENT.readJson();
+        IllegalArgumentException failure = new IllegalArgumentException("Unknown type");
+        when(eventMapper.toEntity(auditEvent)).thenThrow(failure);
+
+        auditEventProcessor.execute(auditEvent);
+
+        verify(parkedAuditEventService).park(auditEvent, failure);
+        verifyNoInteractions(auditEventService, orderedLanes);
+    }
+
+    @Test
+    void execute_GivenTransientFailure_ShouldRetryThenNack() throws Exception {
+        AuditEventEntity auditEventEntity = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        AuditEvent auditEvent = TestUtil.Data.STATE_CHANGE_EVENT.readJson();
+        when(eventMapper.toEntity(auditEvent)).thenReturn(auditEventEntity);
+        doThrow(new TransientDataAccessResourceException("Connection reset"))
+                .when(orderedLanes)
+                .run(eq(auditEvent), any());
+
+        assertThrows(EventProcessingException.class, () -> auditEventProcessor.execute(auditEvent));
+
+        verify(orderedLanes, times(3)).run(eq(auditEvent), any());
+        verifyNoInteractions(parkedAuditEventService);
+    }
+
+    private static DeadLetterProperties deadLetterProperties() {
+        DeadLetterProperties properties = new DeadLetterProperties();
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        return properties;
+    }
 }
@@ -0,0 +1,157 @@
+package io.nuvalence.platform.audit.service.events.ordering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.events.event.dto.BusinessObjectMetadata;
+import io.nuvalence.platform.audit.service.config.OrderedConsumptionProperties;
+import io.nuvalence.platform.audit.service.config.PriorityLaneProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class OrderedLanesTest {
+
+    private OrderedLanes orderedLanes;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        OrderedConsumptionProperties properties = new OrderedConsumptionProperties();
+        properties.setEnabled(true);
+        properties.setLanes(4);
+        orderedLanes =
+                new OrderedLanes(
+                        properties, new PriorityLaneProperties(), new SimpleMeterRegistry());
+        callers = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        orderedLanes.destroy();
+    }
+
+    @Test
+    void run_GivenEventsOfSameObject_ShouldPersistThemOneAtATimeInOrder() throws Exception {
+        AuditEvent event = event("user", UUID.randomUUID());
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        List<String> persisted = new CopyOnWriteArrayList<>();
+
+        Future<?> first =
+                callers.submit(
+                        () -> {
+                            orderedLanes.run(
+                                    event,
+                                    () -> {
+                                        firstStarted.countDown();
+                                        await(releaseFirst);
+                                        persisted.add("first");
+                                    });
+                            return null;
+                        });
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        Future<?> second =
+                callers.submit(
+                        () -> {
+                            orderedLanes.run(event, () -> persisted.add("second"));
+                            return null;
+                        });
+
+        Thread.sleep(100);
+        assertTrue(persisted.isEmpty());
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("first", "second"), persisted);
+    }
+
+    @Test
+    void run_GivenEventsOfObjectsOnDifferentLanes_ShouldPersistThemInParallel() throws Exception {
+        AuditEvent blocked = event("user", UUID.randomUUID());
+        AuditEvent other = event("user", UUID.randomUUID());
+        while (orderedLanes.laneOf(OrderedLanes.orderingKey(other))
+                == orderedLanes.laneOf(OrderedLanes.orderingKey(blocked))) {
+            other = event("user", UUID.randomUUID());
+        }
+        CountDownLatch blockedStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> first =
+                callers.submit(
+                        () -> {
+                            orderedLanes.run(
+                                    blocked,
+                                    () -> {
+                                        blockedStarted.countDown();
+                                        await(release);
+                                    });
+                            return null;
+                        });
+        assertTrue(blockedStarted.await(5, TimeUnit.SECONDS));
+        CountDownLatch otherPersisted = new CountDownLatch(1);
+        orderedLanes.run(other, otherPersisted::countDown);
+
+        assertEquals(0, otherPersisted.getCount());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void laneOf_ShouldBeStableForAnObject() {
+        UUID id = UUID.randomUUID();
+
+        assertEquals(
+                orderedLanes.laneOf(OrderedLanes.orderingKey(event("user", id))),
+                orderedLanes.laneOf(OrderedLanes.orderingKey(event("user", id))));
+        assertNotEquals(
+                OrderedLanes.orderingKey(event("user", id)),
+                OrderedLanes.orderingKey(event("role", id)));
+    }
+
+    @Test
+    void constructor_GivenPriorityLanesEnabled_ShouldRefuseToStart() {
+        OrderedConsumptionProperties properties = new OrderedConsumptionProperties();
+        properties.setEnabled(true);
+        PriorityLaneProperties priorityProperties = new PriorityLaneProperties();
+        priorityProperties.setEnabled(true);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> new OrderedLanes(properties, priorityProperties, meterRegistry));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static AuditEvent event(String businessObjectType, UUID businessObjectId) {
+        BusinessObjectMetadata businessObject = new BusinessObjectMetadata();
+        businessObject.setType(businessObjectType);
+        businessObject.setId(businessObjectId);
+
+        AuditEvent event = new AuditEvent();
+        event.setBusinessObject(businessObject);
+        return event;
+    }
+}
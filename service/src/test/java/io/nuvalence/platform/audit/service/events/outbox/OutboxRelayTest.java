@@ -0,0 +1,126 @@
+package io.nuvalence.platform.audit.service.events.outbox;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.events.event.service.EventGateway;
+import io.nuvalence.platform.audit.service.utils.TestUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest(properties = "audit.outbox.enabled=true")
+@ActiveProfiles("test")
+class OutboxRelayTest {
+    private static final String TOPIC = "projects/test/topics/AUDIT_EVENTS_RECORDING";
+
+    @Autowired private AuditEventOutbox auditEventOutbox;
+    @Autowired private OutboxRelay outboxRelay;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @MockBean private EventGateway eventGateway;
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    private int outboxSize() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_event_outbox", Integer.class);
+    }
+
+    @Test
+    void relay_GivenAppendedEvent_ShouldPublishAndDeleteIt() throws Exception {
+        AuditEvent event = TestUtil.Data.STATE_CHANGE_EVENT.readJson();
+        UUID eventId = UUID.randomUUID();
+        event.getMetadata().setId(eventId);
+
+        auditEventOutbox.append(event, TOPIC);
+        outboxRelay.relay();
+
+        verify(eventGateway, timeout(5000))
+                .publishEvent(
+                        argThat(
+                                (AuditEvent published) ->
+                                        eventId.equals(published.getMetadata().getId())),
+                        eq(TOPIC));
+        // the scheduled relay may be the one which claimed the row, and not have committed yet
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxSize() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(0, outboxSize());
+    }
+
+    @Test
+    void relay_GivenEventsOfSeveralObjects_ShouldPublishAllOfThem() throws Exception {
+        List<UUID> eventIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            AuditEvent event = TestUtil.Data.STATE_CHANGE_EVENT.readJson();
+            event.getMetadata().setId(UUID.randomUUID());
+            event.getBusinessObject().setId(UUID.randomUUID());
+            eventIds.add(event.getMetadata().getId());
+            auditEventOutbox.append(event, TOPIC);
+        }
+
+        outboxRelay.relay();
+
+        for (UUID eventId : eventIds) {
+            verify(eventGateway, timeout(5000))
+                    .publishEvent(
+                            argThat(
+                                    (AuditEvent published) ->
+                                            eventId.equals(published.getMetadata().getId())),
+                            eq(TOPIC));
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxSize() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(0, outboxSize());
+    }
+
+    @Test
+    void relay_GivenRowWhichIsNotAnEvent_ShouldParkItAndRelayTheOthers() throws Exception {
+        int parked = parkedCount();
+        jdbcTemplate.update(
+                "INSERT INTO audit_event_outbox (topic, payload, created_at) VALUES (?, ?, ?)",
+                TOPIC,
+                "not an audit event",
+                Timestamp.from(Instant.now()));
+        AuditEvent event = TestUtil.Data.STATE_CHANGE_EVENT.readJson();
+        UUID eventId = UUID.randomUUID();
+        event.getMetadata().setId(eventId);
+
+        auditEventOutbox.append(event, TOPIC);
+        outboxRelay.relay();
+
+        verify(eventGateway, timeout(5000))
+                .publishEvent(
+                        argThat(
+                                (AuditEvent published) ->
+                                        eventId.equals(published.getMetadata().getId())),
+                        eq(TOPIC));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxSize() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(0, outboxSize());
+        Assertions.assertEquals(parked + 1, parkedCount());
+    }
+
+    private int parkedCount() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM parked_audit_events", Integer.class);
+    }
+}
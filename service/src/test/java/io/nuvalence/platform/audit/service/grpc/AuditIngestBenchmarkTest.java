@@ -0,0 +1,213 @@
+package io.nuvalence.platform.audit.service.grpc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.google.protobuf.Timestamp;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.stub.StreamObserver;
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestGrpc;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto.CreateEventRequest;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto.StreamEventsSummary;
+import io.nuvalence.platform.audit.service.service.AuditEventService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.CsrfConfigurer;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of the gRPC ingest API with the JSON POST, both over loopback sockets.
+ * Publication is mocked out, so that only the cost of the APIs themselves is measured. Run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+            "audit.grpc.enabled=true",
+            "audit.grpc.port=0",
+            "audit.tenant-quotas.enabled=false"
+        })
+@ActiveProfiles("test")
+class AuditIngestBenchmarkTest {
+
+    private static final int WARMUP_EVENTS = 2_000;
+    private static final int MEASURED_EVENTS = 20_000;
+    private static final String BUSINESS_OBJECT_ID = "1190241c-5eae-11ec-bf63-0242ac130002";
+    private static final String JSON_EVENT =
+            """
+            {
+              "timestamp": "2021-12-09T20:00:28.570Z",
+              "summary": "Order submitted",
+              "eventData": {
+                "type": "StateChangeEventData",
+                "activityType": "updated",
+                "oldState": "draft",
+                "newState": "submitted"
+              },
+              "requestContext": {"originatorId": "%s"}
+            }
+            """;
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+    @MockBean private AuditEventService auditEventService;
+
+    @Autowired private GrpcServer grpcServer;
+    @LocalServerPort private int httpPort;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private ManagedChannel channel;
+
+    @TestConfiguration
+    static class OpenSecurityConfig {
+        @Bean
+        SecurityFilterChain openSecurityFilterChain(HttpSecurity http) throws Exception {
+            return http.csrf(CsrfConfigurer::disable)
+                    .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                    .build();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(authorizationHandler.isAllowed(any(), (Class<?>) any())).thenReturn(true);
+        when(auditEventService.publishAuditEvent(any())).thenReturn(true);
+        channel =
+                Grpc.newChannelBuilderForAddress(
+                                "localhost",
+                                grpcServer.getPort(),
+                                InsecureChannelCredentials.create())
+                        .build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void compareIngestApis() throws Exception {
+        postJson(WARMUP_EVENTS);
+        createEvents(WARMUP_EVENTS);
+        streamEvents(WARMUP_EVENTS);
+
+        report("JSON POST", () -> postJson(MEASURED_EVENTS));
+        report("gRPC CreateEvent", () -> createEvents(MEASURED_EVENTS));
+        report("gRPC StreamEvents", () -> streamEvents(MEASURED_EVENTS));
+    }
+
+    private void postJson(int events) throws Exception {
+        URI uri =
+                URI.create(
+                        "http://localhost:"
+                                + httpPort
+                                + "/as/api/v1/audit-events/orders/"
+                                + BUSINESS_OBJECT_ID);
+        for (int i = 0; i < events; i++) {
+            HttpRequest request =
+                    HttpRequest.newBuilder(uri)
+                            .header("Content-Type", "application/json")
+                            .POST(
+                                    HttpRequest.BodyPublishers.ofString(
+                                            JSON_EVENT.formatted(UUID.randomUUID())))
+                            .build();
+            HttpResponse<String> response =
+                    httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            Assertions.assertEquals(201, response.statusCode(), response.body());
+        }
+    }
+
+    private void createEvents(int events) {
+        var stub = AuditIngestGrpc.newBlockingStub(channel);
+        for (int i = 0; i < events; i++) {
+            stub.createEvent(request());
+        }
+    }
+
+    private void streamEvents(int events) throws Exception {
+        CompletableFuture<StreamEventsSummary> result = new CompletableFuture<>();
+        StreamObserver<CreateEventRequest> stream =
+                AuditIngestGrpc.newStub(channel)
+                        .streamEvents(
+                                new StreamObserver<>() {
+                                    @Override
+                                    public void onNext(StreamEventsSummary summary) {
+                                        result.complete(summary);
+                                    }
+
+                                    @Override
+                                    public void onError(Throwable t) {
+                                        result.completeExceptionally(t);
+                                    }
+
+                                    @Override
+                                    public void onCompleted() {
+                                        // result completed by the summary
+                                    }
+                                });
+        for (int i = 0; i < events; i++) {
+            stream.onNext(request());
+        }
+        stream.onCompleted();
+        Assertions.assertEquals(events, result.get(5, TimeUnit.MINUTES).getCreated());
+    }
+
+    private static CreateEventRequest request() {
+        return CreateEventRequest.newBuilder()
+                .setBusinessObjectType("orders")
+                .setBusinessObjectId(BUSINESS_OBJECT_ID)
+                .setEvent(
+                        AuditIngestProto.AuditEventRequest.newBuilder()
+                                .setTimestamp(Timestamp.newBuilder().setSeconds(1_639_080_028L))
+                                .setSummary("Order submitted")
+                                .setEventData(
+                                        AuditIngestProto.AuditEventData.newBuilder()
+                                                .setActivityType("updated")
+                                                .setStateChange(
+                                                        AuditIngestProto.StateChangeEventData
+                                                                .newBuilder()
+                                                                .setOldState("draft")
+                                                                .setNewState("submitted")))
+                                .setRequestContext(
+                                        AuditIngestProto.RequestContext.newBuilder()
+                                                .setOriginatorId(UUID.randomUUID().toString())))
+                .build();
+    }
+
+    private static void report(String api, Run run) throws Exception {
+        long start = System.nanoTime();
+        run.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(
+                "%-18s %8d events in %6.2f s, %8.0f events/s%n",
+                api, MEASURED_EVENTS, seconds, MEASURED_EVENTS / seconds);
+    }
+
+    @FunctionalInterface
+    private interface Run {
+        void run() throws Exception;
+    }
+}
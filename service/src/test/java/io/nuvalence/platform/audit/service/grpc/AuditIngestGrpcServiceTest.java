@@ -0,0 +1,310 @@
+package io.nuvalence.platform.audit.service.grpc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.protobuf.Timestamp;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.events.event.dto.StateChangeEventData;
+import io.nuvalence.platform.audit.service.config.GrpcProperties;
+import io.nuvalence.platform.audit.service.config.IngestProperties;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestGrpc;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto.CreateEventRequest;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto.CreateEventResponse;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto.StreamEventsSummary;
+import io.nuvalence.platform.audit.service.mapper.AuditEventMapper;
+import io.nuvalence.platform.audit.service.service.AuditEventService;
+import io.nuvalence.platform.audit.service.throttling.IngestBackpressure;
+import io.nuvalence.platform.audit.service.throttling.TenantQuotaLimiter;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+class AuditIngestGrpcServiceTest {
+
+    private static final String BUSINESS_OBJECT_TYPE = "orders";
+    private static final UUID BUSINESS_OBJECT_ID =
+            UUID.fromString("1190241c-5eae-11ec-bf63-0242ac130002");
+
+    @Mock private AuthorizationHandler authorizationHandler;
+    @Mock private AuditEventService auditEventService;
+    @Mock private TenantQuotaLimiter tenantQuotaLimiter;
+
+    private AuditIngestGrpcService service;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        GrpcProperties properties = new GrpcProperties();
+        properties.setStreamPrefetch(2);
+        properties.setStreamSummaryEventIds(3);
+        service =
+                new AuditIngestGrpcService(
+                        authorizationHandler,
+                        new AuditEventProtoMapper(),
+                        Mappers.getMapper(AuditEventMapper.class),
+                        Validation.buildDefaultValidatorFactory().getValidator(),
+                        auditEventService,
+                        new IngestBackpressure(new IngestProperties(), new SimpleMeterRegistry()),
+                        tenantQuotaLimiter,
+                        properties);
+        String name = InProcessServerBuilder.generateName();
+        server =
+                InProcessServerBuilder.forName(name)
+                        .directExecutor()
+                        .addService(service)
+                        .build()
+                        .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    private static CreateEventRequest request(String summary) {
+        return CreateEventRequest.newBuilder()
+                .setBusinessObjectType(BUSINESS_OBJECT_TYPE)
+                .setBusinessObjectId(BUSINESS_OBJECT_ID.toString())
+                .setEvent(
+                        AuditIngestProto.AuditEventRequest.newBuilder()
+                                .setSummary(summary)
+                                .setTimestamp(Timestamp.newBuilder().setSeconds(1_639_080_000L))
+                                .setEventData(
+                                        AuditIngestProto.AuditEventData.newBuilder()
+                                                .setActivityType("updated")
+                                                .setStateChange(
+                                                        AuditIngestProto.StateChangeEventData
+                                                                .newBuilder()
+                                                                .setOldState("draft")
+                                                                .setNewState("submitted")))
+                                .setRequestContext(
+                                        AuditIngestProto.RequestContext.newBuilder()
+                                                .setOriginatorId(UUID.randomUUID().toString())))
+                .build();
+    }
+
+    @Test
+    void createEvent_ShouldPublishMappedEventAndReturnItsId() {
+        when(authorizationHandler.isAllowed("create", AuditEventEntity.class)).thenReturn(true);
+        when(auditEventService.publishAuditEvent(any())).thenReturn(true);
+
+        CreateEventResponse response =
+                AuditIngestGrpc.newBlockingStub(channel).createEvent(request("Order submitted"));
+
+        ArgumentCaptor<AuditEvent> event = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditEventService).publishAuditEvent(event.capture());
+        verify(tenantQuotaLimiter).acquire(any(), eq(1));
+        StateChangeEventData eventData = (StateChangeEventData) event.getValue().getEventData();
+        Assertions.assertAll(
+                () ->
+                        Assertions.assertEquals(
+                                event.getValue().getMetadata().getId().toString(),
+                                response.getEventId()),
+                () -> Assertions.assertFalse(response.getAccepted()),
+                () ->
+                        Assertions.assertEquals(
+                                BUSINESS_OBJECT_TYPE,
+                                event.getValue().getBusinessObject().getType()),
+                () ->
+                        Assertions.assertEquals(
+                                BUSINESS_OBJECT_ID, event.getValue().getBusinessObject().getId()),
+                () -> Assertions.assertEquals("Order submitted", event.getValue().getSummary()),
+                () -> Assertions.assertEquals("StateChangeEventData", eventData.getType()),
+                () -> Assertions.assertEquals("submitted", eventData.getNewState()),
+                () -> Assertions.assertEquals("draft", eventData.getOldState()));
+    }
+
+    @Test
+    void createEvent_GivenCallerNotAllowed_ShouldFailWithPermissionDenied() {
+        var stub = AuditIngestGrpc.newBlockingStub(channel);
+        CreateEventRequest request = request("Order submitted");
+
+        StatusRuntimeException exception =
+                Assertions.assertThrows(
+                        StatusRuntimeException.class, () -> stub.createEvent(request));
+
+        Assertions.assertEquals(Status.Code.PERMISSION_DENIED, exception.getStatus().getCode());
+        verifyNoInteractions(auditEventService);
+    }
+
+    @Test
+    void createEvent_GivenInvalidEvent_ShouldFailWithInvalidArgument() {
+        when(authorizationHandler.isAllowed("create", AuditEventEntity.class)).thenReturn(true);
+        var stub = AuditIngestGrpc.newBlockingStub(channel);
+        CreateEventRequest request =
+                request("Order submitted").toBuilder().setBusinessObjectId("not-a-uuid").build();
+
+        StatusRuntimeException exception =
+                Assertions.assertThrows(
+                        StatusRuntimeException.class, () -> stub.createEvent(request));
+
+        Assertions.assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+        verifyNoInteractions(auditEventService);
+    }
+
+    @Test
+    void createEvent_GivenQuotaExceeded_ShouldFailWithResourceExhaustedAndRetryAfter() {
+        when(authorizationHandler.isAllowed("create", AuditEventEntity.class)).thenReturn(true);
+        doThrow(
+                        new ThrottledRequestException(
+                                HttpStatus.TOO_MANY_REQUESTS,
+                                "Tenant quota exceeded",
+                                Duration.ofSeconds(2)))
+                .when(tenantQuotaLimiter)
+                .acquire(any(), eq(1));
+        var stub = AuditIngestGrpc.newBlockingStub(channel);
+        CreateEventRequest request = request("Order submitted");
+
+        StatusRuntimeException exception =
+                Assertions.assertThrows(
+                        StatusRuntimeException.class, () -> stub.createEvent(request));
+
+        Assertions.assertEquals(Status.Code.RESOURCE_EXHAUSTED, exception.getStatus().getCode());
+        Assertions.assertEquals("2", exception.getTrailers().get(GrpcStatuses.RETRY_AFTER));
+    }
+
+    @Test
+    void streamEvents_ShouldPublishEventsInStreamOrderAndSummarizeThem() throws Exception {
+        when(authorizationHandler.isAllowed("create", AuditEventEntity.class)).thenReturn(true);
+        when(auditEventService.publishAuditEvent(any())).thenReturn(true, true, false, true, true);
+
+        StreamEventsSummary summary =
+                stream(
+                        List.of(
+                                request("event 0"),
+                                request("event 1"),
+                                request("event 2"),
+                                request("event 3"),
+                                request("event 4")));
+
+        ArgumentCaptor<AuditEvent> events = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditEventService, times(5)).publishAuditEvent(events.capture());
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(4, summary.getCreated()),
+                () -> Assertions.assertEquals(1, summary.getAccepted()),
+                () ->
+                        Assertions.assertEquals(
+                                List.of("event 0", "event 1", "event 2", "event 3", "event 4"),
+                                events.getAllValues().stream()
+                                        .map(AuditEvent::getSummary)
+                                        .toList()),
+                () ->
+                        Assertions.assertEquals(
+                                events.getAllValues().stream()
+                                        .limit(3)
+                                        .map(event -> event.getMetadata().getId().toString())
+                                        .toList(),
+                                summary.getEventIdsList()),
+                () ->
+                        Assertions.assertEquals(
+                                events.getAllValues().get(4).getMetadata().getId().toString(),
+                                summary.getLastEventId()));
+    }
+
+    @Test
+    void streamEvents_GivenInvalidEvent_ShouldStopAtItAndNameItsPosition() {
+        when(authorizationHandler.isAllowed("create", AuditEventEntity.class)).thenReturn(true);
+        when(auditEventService.publishAuditEvent(any())).thenReturn(true);
+        List<CreateEventRequest> requests =
+                List.of(
+                        request("event 0"),
+                        request("event 1").toBuilder().setBusinessObjectType("").build(),
+                        request("event 2"));
+
+        ExecutionException exception =
+                Assertions.assertThrows(ExecutionException.class, () -> stream(requests));
+
+        Status status = Status.fromThrowable(exception.getCause());
+        Assertions.assertEquals(Status.Code.INVALID_ARGUMENT, status.getCode());
+        Assertions.assertTrue(status.getDescription().startsWith("event 2: "));
+        verify(auditEventService, times(1)).publishAuditEvent(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamEvents_ShouldReadOneEventAheadOfEachPublishedOne() {
+        when(authorizationHandler.isAllowed("create", AuditEventEntity.class)).thenReturn(true);
+        when(auditEventService.publishAuditEvent(any())).thenReturn(true);
+        ServerCallStreamObserver<StreamEventsSummary> call = mock(ServerCallStreamObserver.class);
+
+        StreamObserver<CreateEventRequest> stream = service.streamEvents(call);
+        stream.onNext(request("event 0"));
+        stream.onNext(request("event 1"));
+
+        InOrder inOrder = inOrder(call, auditEventService);
+        inOrder.verify(call).disableAutoRequest();
+        inOrder.verify(call).request(2);
+        inOrder.verify(auditEventService).publishAuditEvent(any());
+        inOrder.verify(call).request(1);
+        inOrder.verify(auditEventService).publishAuditEvent(any());
+        inOrder.verify(call).request(1);
+    }
+
+    private StreamEventsSummary stream(List<CreateEventRequest> requests) throws Exception {
+        CompletableFuture<StreamEventsSummary> result = new CompletableFuture<>();
+        StreamObserver<CreateEventRequest> requestObserver =
+                AuditIngestGrpc.newStub(channel)
+                        .streamEvents(
+                                new StreamObserver<>() {
+                                    @Override
+                                    public void onNext(StreamEventsSummary summary) {
+                                        result.complete(summary);
+                                    }
+
+                                    @Override
+                                    public void onError(Throwable t) {
+                                        result.completeExceptionally(t);
+                                    }
+
+                                    @Override
+                                    public void onCompleted() {
+                                        // result completed by the summary
+                                    }
+                                });
+        requests.forEach(requestObserver::onNext);
+        requestObserver.onCompleted();
+        return result.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,256 @@
+package io.nuvalence.platform.audit.service.grpc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.protobuf.Timestamp;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.platform.audit.service.config.GrpcProperties;
+import io.nuvalence.platform.audit.service.domain.ActivityEventEntity;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.domain.enums.TypeEnum;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditQueryGrpc;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditQueryProto.AuditEvent;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditQueryProto.ListEventsRequest;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditQueryProto.SortOrder;
+import io.nuvalence.platform.audit.service.repository.AuditEventCursorReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+class AuditQueryGrpcServiceTest {
+
+    private static final String BUSINESS_OBJECT_TYPE = "orders";
+    private static final UUID BUSINESS_OBJECT_ID =
+            UUID.fromString("1190241c-5eae-11ec-bf63-0242ac130002");
+    private static final OffsetDateTime START = OffsetDateTime.parse("2023-01-01T00:00:00Z");
+
+    @Mock private AuthorizationHandler authorizationHandler;
+    @Mock private AuditEventCursorReader auditEventCursorReader;
+
+    private AuditQueryGrpcService service;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        GrpcProperties properties = new GrpcProperties();
+        properties.getListEvents().setConcurrency(1);
+        properties.getListEvents().setStallTimeout(Duration.ofMillis(200));
+        properties.getListEvents().setRetryAfter(Duration.ofSeconds(3));
+        service =
+                new AuditQueryGrpcService(
+                        authorizationHandler,
+                        new AuditEventProtoMapper(),
+                        auditEventCursorReader,
+                        properties,
+                        new SimpleMeterRegistry());
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).addService(service).build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+        service.destroy();
+    }
+
+    private static ListEventsRequest request() {
+        return ListEventsRequest.newBuilder()
+                .setBusinessObjectType(BUSINESS_OBJECT_TYPE)
+                .setBusinessObjectId(BUSINESS_OBJECT_ID.toString())
+                .build();
+    }
+
+    private static ActivityEventEntity event(int index) {
+        ActivityEventEntity entity = new ActivityEventEntity();
+        entity.setEventId(UUID.randomUUID());
+        entity.setBusinessObjectType(BUSINESS_OBJECT_TYPE);
+        entity.setBusinessObjectId(BUSINESS_OBJECT_ID);
+        entity.setTimestamp(START.plusMinutes(index));
+        entity.setType(TypeEnum.ACTIVITY_EVENT_DATA);
+        entity.setActivityType("updated");
+        entity.setSummary("event " + index);
+        return entity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readEvents(boolean ascending, List<AuditEventEntity> events) {
+        when(auditEventCursorReader.read(
+                        eq(BUSINESS_OBJECT_TYPE),
+                        eq(BUSINESS_OBJECT_ID),
+                        any(),
+                        any(),
+                        eq(ascending),
+                        eq(500),
+                        any()))
+                .thenAnswer(
+                        invocation -> {
+                            Consumer<AuditEventEntity> consumer = invocation.getArgument(6);
+                            events.forEach(consumer);
+                            return (long) events.size();
+                        });
+    }
+
+    @Test
+    void listEvents_ShouldStreamEventsReadFromCursor() {
+        when(authorizationHandler.isAllowed("view", AuditEventEntity.class)).thenReturn(true);
+        readEvents(false, List.of(event(2), event(1), event(0)));
+
+        ListEventsRequest request =
+                request().toBuilder()
+                        .setSortOrder(SortOrder.DESC)
+                        .setStartTime(Timestamp.newBuilder().setSeconds(START.toEpochSecond()))
+                        .build();
+
+        List<AuditEvent> events = new ArrayList<>();
+        AuditQueryGrpc.newBlockingStub(channel).listEvents(request).forEachRemaining(events::add);
+
+        Assertions.assertEquals(
+                List.of("event 2", "event 1", "event 0"),
+                events.stream().map(AuditEvent::getSummary).toList());
+        Assertions.assertEquals(
+                BUSINESS_OBJECT_ID.toString(), events.get(0).getBusinessObjectId());
+        verify(auditEventCursorReader)
+                .read(
+                        eq(BUSINESS_OBJECT_TYPE),
+                        eq(BUSINESS_OBJECT_ID),
+                        eq(START),
+                        isNull(),
+                        eq(false),
+                        eq(500),
+                        any());
+    }
+
+    @Test
+    void listEvents_GivenCallerNotAllowed_ShouldFailWithPermissionDenied() {
+        var iterator = AuditQueryGrpc.newBlockingStub(channel).listEvents(request());
+
+        StatusRuntimeException exception =
+                Assertions.assertThrows(StatusRuntimeException.class, iterator::hasNext);
+
+        Assertions.assertEquals(Status.Code.PERMISSION_DENIED, exception.getStatus().getCode());
+        verifyNoInteractions(auditEventCursorReader);
+    }
+
+    @Test
+    void listEvents_GivenStartAfterEnd_ShouldFailWithInvalidArgument() {
+        when(authorizationHandler.isAllowed("view", AuditEventEntity.class)).thenReturn(true);
+        ListEventsRequest request =
+                request().toBuilder()
+                        .setStartTime(Timestamp.newBuilder().setSeconds(2))
+                        .setEndTime(Timestamp.newBuilder().setSeconds(1))
+                        .build();
+        var iterator = AuditQueryGrpc.newBlockingStub(channel).listEvents(request);
+
+        StatusRuntimeException exception =
+                Assertions.assertThrows(StatusRuntimeException.class, iterator::hasNext);
+
+        Assertions.assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+        verifyNoInteractions(auditEventCursorReader);
+    }
+
+    @Test
+    void listEvents_GivenAllStreamsBusy_ShouldFailWithUnavailableAndRetryAfter() throws Exception {
+        when(authorizationHandler.isAllowed("view", AuditEventEntity.class)).thenReturn(true);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(auditEventCursorReader.read(any(), any(), any(), any(), anyBoolean(), anyInt(), any()))
+                .thenAnswer(
+                        invocation -> {
+                            reading.countDown();
+                            release.await(5, TimeUnit.SECONDS);
+                            return 0L;
+                        });
+        var first = AuditQueryGrpc.newBlockingStub(channel).listEvents(request());
+        Assertions.assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        var second = AuditQueryGrpc.newBlockingStub(channel).listEvents(request());
+        StatusRuntimeException exception =
+                Assertions.assertThrows(StatusRuntimeException.class, second::hasNext);
+        release.countDown();
+
+        Assertions.assertEquals(Status.Code.UNAVAILABLE, exception.getStatus().getCode());
+        Assertions.assertEquals("3", exception.getTrailers().get(GrpcStatuses.RETRY_AFTER));
+        Assertions.assertFalse(first.hasNext());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listEvents_GivenClientNotReading_ShouldStopReadingAndFailWithDeadlineExceeded() {
+        when(authorizationHandler.isAllowed("view", AuditEventEntity.class)).thenReturn(true);
+        readEvents(true, List.of(event(0), event(1)));
+        ServerCallStreamObserver<AuditEvent> call = mock(ServerCallStreamObserver.class);
+        when(call.isReady()).thenReturn(false);
+
+        service.listEvents(request(), call);
+
+        ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+        verify(call, timeout(5000)).onError(error.capture());
+        Assertions.assertEquals(
+                Status.Code.DEADLINE_EXCEEDED, Status.fromThrowable(error.getValue()).getCode());
+        verify(call, never()).onNext(any());
+        verify(call, never()).onCompleted();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listEvents_GivenTransportReadyAgain_ShouldResumeStreaming() throws Exception {
+        when(authorizationHandler.isAllowed("view", AuditEventEntity.class)).thenReturn(true);
+        readEvents(true, List.of(event(0), event(1)));
+        ServerCallStreamObserver<AuditEvent> call = mock(ServerCallStreamObserver.class);
+        CountDownLatch waiting = new CountDownLatch(1);
+        when(call.isReady())
+                .thenAnswer(
+                        invocation -> {
+                            waiting.countDown();
+                            return false;
+                        })
+                .thenReturn(true);
+        ArgumentCaptor<Runnable> onReady = ArgumentCaptor.forClass(Runnable.class);
+
+        service.listEvents(request(), call);
+        verify(call).setOnReadyHandler(onReady.capture());
+        Assertions.assertTrue(waiting.await(5, TimeUnit.SECONDS));
+        onReady.getValue().run();
+
+        verify(call, timeout(5000)).onCompleted();
+        verify(call, timeout(5000).times(2)).onNext(any());
+        verify(call, never()).onError(any());
+    }
+}
@@ -0,0 +1,127 @@
+package io.nuvalence.platform.audit.service.grpc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestGrpc;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto.CreateEventRequest;
+import io.nuvalence.platform.audit.service.generated.grpc.AuditIngestProto.CreateEventResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+
+@ExtendWith(MockitoExtension.class)
+class GrpcAuthenticationInterceptorTest {
+
+    @Mock private AuthenticationManager authenticationManager;
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // answers with the name of the caller authenticated when handling the call
+        var service =
+                new AuditIngestGrpc.AuditIngestImplBase() {
+                    @Override
+                    public void createEvent(
+                            CreateEventRequest request,
+                            StreamObserver<CreateEventResponse> responseObserver) {
+                        Authentication authentication =
+                                SecurityContextHolder.getContext().getAuthentication();
+                        responseObserver.onNext(
+                                CreateEventResponse.newBuilder()
+                                        .setEventId(authentication.getName())
+                                        .build());
+                        responseObserver.onCompleted();
+                    }
+                };
+        String name = InProcessServerBuilder.generateName();
+        server =
+                InProcessServerBuilder.forName(name)
+                        .directExecutor()
+                        .addService(
+                                ServerInterceptors.intercept(
+                                        service,
+                                        new GrpcAuthenticationInterceptor(authenticationManager)))
+                        .build()
+                        .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    private AuditIngestGrpc.AuditIngestBlockingStub stub(String authorization) {
+        Metadata headers = new Metadata();
+        if (authorization != null) {
+            headers.put(GrpcAuthenticationInterceptor.AUTHORIZATION, authorization);
+        }
+        return AuditIngestGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+    }
+
+    @Test
+    void interceptCall_GivenValidToken_ShouldHandleCallAsTheAuthenticatedCaller() {
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(new TestingAuthenticationToken("producer", null));
+
+        CreateEventResponse response =
+                stub("Bearer token").createEvent(CreateEventRequest.getDefaultInstance());
+
+        Assertions.assertEquals("producer", response.getEventId());
+        Assertions.assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void interceptCall_GivenMissingToken_ShouldFailWithUnauthenticated() {
+        var stub = stub(null);
+        var request = CreateEventRequest.getDefaultInstance();
+
+        StatusRuntimeException exception =
+                Assertions.assertThrows(
+                        StatusRuntimeException.class, () -> stub.createEvent(request));
+
+        Assertions.assertEquals(Status.Code.UNAUTHENTICATED, exception.getStatus().getCode());
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    void interceptCall_GivenInvalidToken_ShouldFailWithUnauthenticated() {
+        when(authenticationManager.authenticate(any()))
+                .thenThrow(new BadCredentialsException("Invalid token"));
+        var stub = stub("Bearer token");
+        var request = CreateEventRequest.getDefaultInstance();
+
+        StatusRuntimeException exception =
+                Assertions.assertThrows(
+                        StatusRuntimeException.class, () -> stub.createEvent(request));
+
+        Assertions.assertEquals(Status.Code.UNAUTHENTICATED, exception.getStatus().getCode());
+    }
+}
@@ -0,0 +1,45 @@
+package io.nuvalence.platform.audit.service.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.platform.audit.service.config.RenderedEventProperties;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.utils.TestUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.UUID;
+
+@SuppressWarnings("PMD.BeanMembersShouldSerialize")
+class RenderedEventMapperTest {
+
+    private final AuditEventMapper auditEventMapper = Mappers.getMapper(AuditEventMapper.class);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final RenderedEventMapper mapper =
+            new RenderedEventMapper(new RenderedEventProperties(), auditEventMapper, objectMapper);
+
+    @Test
+    void render_ShouldStoreJsonOfApiModel() throws Exception {
+        AuditEventEntity entity = TestUtil.Data.STATE_CHANGE_ENTITY.readJson();
+        entity.setEventId(UUID.randomUUID());
+
+        byte[] rendered = mapper.render(entity);
+
+        byte[] expected =
+                objectMapper.writeValueAsBytes(
+                        auditEventMapper.toAuditEventModel(auditEventMapper.fromEntity(entity)));
+        Assertions.assertArrayEquals(expected, mapper.toJson(rendered));
+    }
+
+    @Test
+    void toJson_GivenEventRenderedWithAnotherVersion_ShouldReturnNull() throws Exception {
+        AuditEventEntity entity = TestUtil.Data.ACTIVITY_ENTITY.readJson();
+        entity.setEventId(UUID.randomUUID());
+        byte[] rendered = mapper.render(entity);
+        rendered[0] = 0;
+
+        Assertions.assertNull(mapper.toJson(rendered));
+        Assertions.assertNull(mapper.toJson(null));
+    }
+}
@@ -0,0 +1,151 @@
+package io.nuvalence.platform.audit.service.repository;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.platform.audit.service.domain.ActivityEventEntity;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.domain.StateChangeEventEntity;
+import io.nuvalence.platform.audit.service.domain.enums.TypeEnum;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@SuppressWarnings({"PMD.DataflowAnomalyAnalysis", "PMD.BeanMembersShouldSerialize"})
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class AuditEventBatchWriterTest {
+    private final UUID businessObjectId = UUID.randomUUID();
+    @Autowired private AuditEventBatchWriter auditEventBatchWriter;
+    @Autowired private AuditEventRepository auditEventRepository;
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    private ActivityEventEntity activity() {
+        ActivityEventEntity entity = new ActivityEventEntity();
+        entity.setEventId(UUID.randomUUID());
+        entity.setTimestamp(OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        entity.setBusinessObjectId(businessObjectId);
+        entity.setBusinessObjectType("batch-writer-test");
+        entity.setType(TypeEnum.ACTIVITY_EVENT_DATA);
+        entity.setActivityType("created");
+        entity.setData("{\"foo\":\"bar\"}");
+        entity.setRelatedBusinessObjects(Set.of("orders:1", "orders:2"));
+        return entity;
+    }
+
+    private StateChangeEventEntity stateChange() {
+        StateChangeEventEntity entity = new StateChangeEventEntity();
+        entity.setEventId(UUID.randomUUID());
+        entity.setTimestamp(OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        entity.setBusinessObjectId(businessObjectId);
+        entity.setBusinessObjectType("batch-writer-test");
+        entity.setType(TypeEnum.STATE_CHANGE_EVENT_DATA);
+        entity.setOldState("{\"status\":\"draft\"}");
+        entity.setNewState("{\"status\":\"submitted\"}");
+        return entity;
+    }
+
+    @Test
+    void insertAll_GivenNewEvents_ShouldInsertThemAll() {
+        ActivityEventEntity activity = activity();
+        StateChangeEventEntity stateChange = stateChange();
+
+        List<AuditEventEntity> inserted =
+                auditEventBatchWriter.insertAll(List.of(activity, stateChange));
+
+        Assertions.assertEquals(2, inserted.size());
+        AuditEventEntity storedActivity =
+                auditEventRepository.findById(activity.getEventId()).orElseThrow();
+        StateChangeEventEntity storedStateChange =
+                (StateChangeEventEntity)
+                        auditEventRepository.findById(stateChange.getEventId()).orElseThrow();
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(storedActivity instanceof ActivityEventEntity),
+                () -> Assertions.assertEquals("created", storedActivity.getActivityType()),
+                () ->
+                        Assertions.assertEquals(
+                                Set.of("orders:1", "orders:2"),
+                                storedActivity.getRelatedBusinessObjects()),
+                () ->
+                        Assertions.assertEquals(
+                                "{\"status\":\"submitted\"}", storedStateChange.getNewState()));
+    }
+
+    @Test
+    void insertAll_GivenRedeliveredEvent_ShouldSkipIt() {
+        ActivityEventEntity activity = activity();
+        auditEventBatchWriter.insertAll(List.of(activity));
+        StateChangeEventEntity stateChange = stateChange();
+
+        List<AuditEventEntity> inserted =
+                auditEventBatchWriter.insertAll(List.of(activity, stateChange));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(stateChange), inserted),
+                () ->
+                        Assertions.assertEquals(
+                                2,
+                                auditEventRepository
+                                        .findById(activity.getEventId())
+                                        .orElseThrow()
+                                        .getRelatedBusinessObjects()
+                                        .size()));
+    }
+
+    @Test
+    void insertAll_GivenPostgreSql_ShouldOnlyReportIdsReturnedAsInserted() throws Exception {
+        ActivityEventEntity activity = activity();
+        StateChangeEventEntity stateChange = stateChange();
+        JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        DataSourceProperties dataSourceProperties = Mockito.mock(DataSourceProperties.class);
+        Mockito.when(dataSourceProperties.determineUrl())
+                .thenReturn("jdbc:postgresql://localhost/audit?reWriteBatchedInserts=true");
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString()))
+                .thenReturn(Mockito.mock(PreparedStatement.class));
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getString(1)).thenReturn(stateChange.getEventId().toString());
+        ArgumentCaptor<PreparedStatementCreator> statement =
+                ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        Mockito.doAnswer(
+                        invocation -> {
+                            invocation.<RowCallbackHandler>getArgument(1).processRow(resultSet);
+                            return null;
+                        })
+                .when(jdbcTemplate)
+                .query(statement.capture(), Mockito.any(RowCallbackHandler.class));
+
+        List<AuditEventEntity> inserted =
+                new AuditEventBatchWriter(jdbcTemplate, dataSourceProperties)
+                        .insertAll(List.of(activity, stateChange));
+        statement.getValue().createPreparedStatement(connection);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(connection).prepareStatement(sql.capture());
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(stateChange), inserted),
+                () -> Assertions.assertTrue(sql.getValue().endsWith("RETURNING id")),
+                () ->
+                        Mockito.verify(jdbcTemplate, Mockito.never())
+                                .batchUpdate(Mockito.anyString(), Mockito.<List<Object[]>>any()));
+    }
+}
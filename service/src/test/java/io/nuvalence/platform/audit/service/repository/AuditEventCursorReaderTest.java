@@ -0,0 +1,279 @@
+package io.nuvalence.platform.audit.service.repository;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.platform.audit.service.domain.ActivityEventEntity;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.domain.RequestContext;
+import io.nuvalence.platform.audit.service.domain.StateChangeEventEntity;
+import io.nuvalence.platform.audit.service.domain.enums.TypeEnum;
+import io.nuvalence.platform.audit.service.repository.AuditEventCursorReader.Part;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@SuppressWarnings({"PMD.DataflowAnomalyAnalysis", "PMD.BeanMembersShouldSerialize"})
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class AuditEventCursorReaderTest {
+    private static final String BUSINESS_OBJECT_TYPE = "cursor-reader-test";
+    private static final OffsetDateTime START = OffsetDateTime.parse("2023-01-01T00:00:00Z");
+
+    private final UUID businessObjectId = UUID.randomUUID();
+    private final UUID tenantId = UUID.randomUUID();
+    @Autowired private AuditEventBatchWriter auditEventBatchWriter;
+    @Autowired private AuditEventCursorReader auditEventCursorReader;
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    private ActivityEventEntity first;
+    private StateChangeEventEntity second;
+    private ActivityEventEntity third;
+
+    @BeforeEach
+    void setUp() {
+        first = activity(START, Set.of("orders:1", "orders:2"));
+        second = new StateChangeEventEntity();
+        fill(second, START.plusHours(1));
+        second.setType(TypeEnum.STATE_CHANGE_EVENT_DATA);
+        second.setOldState("{\"status\":\"draft\"}");
+        second.setNewState("{\"status\":\"submitted\"}");
+        third = activity(START.plusHours(2), Set.of());
+        ActivityEventEntity otherObject = activity(START.plusMinutes(30), Set.of());
+        otherObject.setBusinessObjectId(UUID.randomUUID());
+        auditEventBatchWriter.insertAll(List.of(third, first, otherObject, second));
+    }
+
+    private ActivityEventEntity activity(OffsetDateTime timestamp, Set<String> related) {
+        ActivityEventEntity entity = new ActivityEventEntity();
+        fill(entity, timestamp);
+        entity.setType(TypeEnum.ACTIVITY_EVENT_DATA);
+        entity.setActivityType("updated");
+        entity.setData("{\"foo\":\"bar\"}");
+        entity.setRelatedBusinessObjects(related);
+        return entity;
+    }
+
+    private void fill(AuditEventEntity entity, OffsetDateTime timestamp) {
+        entity.setEventId(UUID.randomUUID());
+        entity.setTimestamp(timestamp);
+        entity.setBusinessObjectId(businessObjectId);
+        entity.setBusinessObjectType(BUSINESS_OBJECT_TYPE);
+        entity.setSummary("summary");
+        RequestContext requestContext = new RequestContext();
+        requestContext.setTenantId(tenantId);
+        entity.setRequestContext(requestContext);
+    }
+
+    private List<AuditEventEntity> read(
+            OffsetDateTime startTime, OffsetDateTime endTime, boolean ascending) {
+        List<AuditEventEntity> events = new ArrayList<>();
+        long count =
+                auditEventCursorReader.read(
+                        BUSINESS_OBJECT_TYPE,
+                        businessObjectId,
+                        startTime,
+                        endTime,
+                        ascending,
+                        1,
+                        events::add);
+        Assertions.assertEquals(events.size(), count);
+        return events;
+    }
+
+    private static List<UUID> ids(List<AuditEventEntity> events) {
+        return events.stream().map(AuditEventEntity::getEventId).toList();
+    }
+
+    @Test
+    void read_GivenNoTimeRange_ShouldReadWholeHistoryInOrder() {
+        List<AuditEventEntity> events = read(null, null, true);
+
+        Assertions.assertEquals(
+                List.of(first.getEventId(), second.getEventId(), third.getEventId()), ids(events));
+        AuditEventEntity readFirst = events.get(0);
+        StateChangeEventEntity readSecond = (StateChangeEventEntity) events.get(1);
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(readFirst instanceof ActivityEventEntity),
+                () -> Assertions.assertEquals("updated", readFirst.getActivityType()),
+                () ->
+                        Assertions.assertEquals(
+                                Set.of("orders:1", "orders:2"),
+                                readFirst.getRelatedBusinessObjects()),
+                () ->
+                        Assertions.assertEquals(
+                                START.toInstant(), readFirst.getTimestamp().toInstant()),
+                () ->
+                        Assertions.assertEquals(
+                                tenantId, readFirst.getRequestContext().getTenantId()),
+                () -> Assertions.assertEquals("{\"status\":\"draft\"}", readSecond.getOldState()),
+                () -> Assertions.assertTrue(events.get(2).getRelatedBusinessObjects().isEmpty()));
+    }
+
+    @Test
+    void read_GivenDescendingOrder_ShouldReadNewestFirst() {
+        List<AuditEventEntity> events = read(null, null, false);
+
+        Assertions.assertEquals(
+                List.of(third.getEventId(), second.getEventId(), first.getEventId()), ids(events));
+    }
+
+    @Test
+    void read_GivenTimeRange_ShouldIncludeStartAndExcludeEnd() {
+        List<AuditEventEntity> events = read(START.plusHours(1), START.plusHours(2), true);
+
+        Assertions.assertEquals(List.of(second.getEventId()), ids(events));
+    }
+
+    @Test
+    void read_GivenThrowingConsumer_ShouldStopReading() {
+        List<AuditEventEntity> events = new ArrayList<>();
+
+        Assertions.assertThrows(
+                IllegalStateException.class,
+                () ->
+                        auditEventCursorReader.read(
+                                BUSINESS_OBJECT_TYPE,
+                                businessObjectId,
+                                null,
+                                null,
+                                true,
+                                1,
+                                event -> {
+                                    events.add(event);
+                                    throw new IllegalStateException("stop");
+                                }));
+        Assertions.assertEquals(List.of(first.getEventId()), ids(events));
+    }
+
+    private List<AuditEventEntity> readPage(
+            String sortBy, boolean ascending, long offset, int limit) {
+        return readPage(sortBy, ascending, offset, limit, EnumSet.allOf(Part.class));
+    }
+
+    private List<AuditEventEntity> readPage(
+            String sortBy, boolean ascending, long offset, int limit, Set<Part> parts) {
+        List<AuditEventEntity> events = new ArrayList<>();
+        long count =
+                auditEventCursorReader.readPage(
+                        BUSINESS_OBJECT_TYPE,
+                        businessObjectId,
+                        null,
+                        null,
+                        sortBy,
+                        ascending,
+                        offset,
+                        limit,
+                        parts,
+                        1,
+                        events::add);
+        Assertions.assertEquals(events.size(), count);
+        return events;
+    }
+
+    @Test
+    void readPage_GivenLimit_ShouldCountEventsNotRelatedObjectRows() {
+        List<AuditEventEntity> events = readPage("timestamp", true, 0, 1);
+
+        Assertions.assertEquals(List.of(first.getEventId()), ids(events));
+        Assertions.assertEquals(
+                Set.of("orders:1", "orders:2"), events.get(0).getRelatedBusinessObjects());
+    }
+
+    @Test
+    void readPage_GivenOffset_ShouldSkipPreviousPages() {
+        List<AuditEventEntity> events = readPage("timestamp", false, 1, 2);
+
+        Assertions.assertEquals(List.of(second.getEventId(), first.getEventId()), ids(events));
+    }
+
+    @Test
+    void readPage_GivenUnknownSortProperty_ShouldThrow() {
+        Assertions.assertThrows(
+                IllegalArgumentException.class, () -> readPage("summary", true, 0, 1));
+    }
+
+    @Test
+    void readPage_GivenPartsLeftOut_ShouldReadEventsWithoutThem() {
+        List<AuditEventEntity> events = readPage("timestamp", true, 0, 2, Set.of(Part.DATA));
+
+        Assertions.assertEquals(List.of(first.getEventId(), second.getEventId()), ids(events));
+        StateChangeEventEntity readSecond = (StateChangeEventEntity) events.get(1);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("{\"foo\":\"bar\"}", events.get(0).getData()),
+                () -> Assertions.assertTrue(events.get(0).getRelatedBusinessObjects().isEmpty()),
+                () -> Assertions.assertEquals("summary", readSecond.getSummary()),
+                () -> Assertions.assertNull(readSecond.getOldState()),
+                () -> Assertions.assertNull(readSecond.getNewState()));
+    }
+
+    @Test
+    void readPage_GivenRenderedEvent_ShouldReadRenderingInsteadOfItsParts() {
+        ActivityEventEntity rendered = activity(START.plusHours(3), Set.of("orders:3"));
+        rendered.setRenderedEvent(new byte[] {1, 2, 3});
+        auditEventBatchWriter.insertAll(List.of(rendered));
+
+        List<AuditEventEntity> events = readPage("timestamp", true, 2, 2);
+
+        Assertions.assertEquals(List.of(third.getEventId(), rendered.getEventId()), ids(events));
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("{\"foo\":\"bar\"}", events.get(0).getData()),
+                () -> Assertions.assertNull(events.get(0).getRenderedEvent()),
+                () -> Assertions.assertEquals("summary", events.get(1).getSummary()),
+                () -> Assertions.assertNull(events.get(1).getData()),
+                () -> Assertions.assertTrue(events.get(1).getRelatedBusinessObjects().isEmpty()),
+                () ->
+                        Assertions.assertArrayEquals(
+                                new byte[] {1, 2, 3}, events.get(1).getRenderedEvent()));
+    }
+
+    private List<AuditEventEntity> readAfter(boolean ascending, AuditEventEntity after, int limit) {
+        List<AuditEventEntity> events = new ArrayList<>();
+        long count =
+                auditEventCursorReader.readAfter(
+                        BUSINESS_OBJECT_TYPE,
+                        businessObjectId,
+                        null,
+                        null,
+                        ascending,
+                        after == null ? null : after.getTimestamp(),
+                        after == null ? null : after.getEventId(),
+                        limit,
+                        events::add);
+        Assertions.assertEquals(events.size(), count);
+        return events;
+    }
+
+    @Test
+    void readAfter_GivenNoPosition_ShouldReadFirstEvents() {
+        List<AuditEventEntity> events = readAfter(true, null, 1);
+
+        Assertions.assertEquals(List.of(first.getEventId()), ids(events));
+        Assertions.assertEquals(
+                Set.of("orders:1", "orders:2"), events.get(0).getRelatedBusinessObjects());
+    }
+
+    @Test
+    void readAfter_GivenPosition_ShouldReadFollowingEvents() {
+        Assertions.assertAll(
+                () ->
+                        Assertions.assertEquals(
+                                List.of(second.getEventId(), third.getEventId()),
+                                ids(readAfter(true, first, 5))),
+                () ->
+                        Assertions.assertEquals(
+                                List.of(second.getEventId()), ids(readAfter(false, third, 1))));
+    }
+}
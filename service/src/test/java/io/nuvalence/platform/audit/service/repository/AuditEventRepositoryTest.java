@@ -20,7 +20,9 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -62,6 +64,7 @@ class AuditEventRepositoryTest {
                 e -> {
                     e.setBusinessObjectId(firstObjectId);
                     auditEventRepository.save(e);
+                    e.setEventId(UUID.randomUUID());
                     e.setBusinessObjectId(secondObjectId);
                     auditEventRepository.save(e);
                 });
@@ -141,6 +144,46 @@ class AuditEventRepositoryTest {
         MatcherAssert.assertThat(items, hasNItemsMatching(3, matcher));
     }
 
+    @Test
+    void findRelatedBusinessObjects_ShouldReturnObjectsRelatedToEventsInRange() {
+        UUID objectId = UUID.randomUUID();
+        auditEventRepository.save(relatedEvent(objectId, rangeStart, "orders:1", "customers:2"));
+        auditEventRepository.save(relatedEvent(objectId, rangeStart.plusMinutes(1), "orders:1"));
+        auditEventRepository.save(relatedEvent(objectId, rangeStart.plusHours(2), "orders:3"));
+        auditEventRepository.save(relatedEvent(UUID.randomUUID(), rangeStart, "orders:4"));
+
+        var rows =
+                auditEventRepository.findRelatedBusinessObjects(
+                        List.of(businessObjectType),
+                        List.of(objectId),
+                        rangeStart,
+                        rangeStart.plusHours(1));
+
+        MatcherAssert.assertThat(
+                rows.stream()
+                        .map(AuditEventRepository.RelatedBusinessObject::getRelatedBusinessObject)
+                        .toList(),
+                Matchers.containsInAnyOrder("orders:1", "customers:2"));
+        MatcherAssert.assertThat(
+                rows.stream()
+                        .map(AuditEventRepository.RelatedBusinessObject::getBusinessObjectId)
+                        .toList(),
+                Matchers.everyItem(Matchers.equalTo(objectId)));
+    }
+
+    private static ActivityEventEntity relatedEvent(
+            UUID businessObjectId, OffsetDateTime timestamp, String... related) {
+        ActivityEventEntity record = new ActivityEventEntity();
+        record.setTimestamp(timestamp);
+        record.setEventId(UUID.randomUUID());
+        record.setBusinessObjectType(businessObjectType);
+        record.setBusinessObjectId(businessObjectId);
+        record.setType(TypeEnum.ACTIVITY_EVENT_DATA);
+        record.setActivityType("related");
+        record.setRelatedBusinessObjects(new HashSet<>(Set.of(related)));
+        return record;
+    }
+
     private Matcher<List<AuditEventEntity>> hasNItemsMatching(
             int expectedSize, Matcher<AuditEventEntity> matcher) {
         return Matchers.<List<AuditEventEntity>>both(Matchers.everyItem(matcher))
@@ -0,0 +1,87 @@
+package io.nuvalence.platform.audit.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.platform.audit.service.config.EventCacheProperties;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.UUID;
+
+class AuditEventCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AuditEventCache cache(boolean enabled, DataSize maxMemory) {
+        EventCacheProperties properties = new EventCacheProperties();
+        properties.setEnabled(enabled);
+        properties.setShards(1);
+        properties.setMaxMemory(maxMemory);
+        return new AuditEventCache(properties, meterRegistry);
+    }
+
+    private static AuditEventEntity event() {
+        AuditEventEntity entity = new AuditEventEntity();
+        entity.setEventId(UUID.randomUUID());
+        return entity;
+    }
+
+    @Test
+    void get_GivenCachedEvent_ShouldReturnIt() {
+        AuditEventCache cache = cache(true, DataSize.ofMegabytes(1));
+        AuditEventEntity event = event();
+
+        cache.put(event);
+
+        Assertions.assertAll(
+                () -> Assertions.assertSame(event, cache.get(event.getEventId())),
+                () -> Assertions.assertNull(cache.get(UUID.randomUUID())),
+                () ->
+                        Assertions.assertEquals(
+                                1.0, meterRegistry.counter("audit.events.cache.hits").count()),
+                () ->
+                        Assertions.assertEquals(
+                                1.0, meterRegistry.counter("audit.events.cache.misses").count()));
+    }
+
+    @Test
+    void put_GivenMemoryExceeded_ShouldEvictLeastRecentlyUsedEvent() {
+        AuditEventEntity first = event();
+        AuditEventCache cache =
+                cache(true, DataSize.ofBytes(2 * BusinessObjectTailCache.estimateSize(first)));
+        AuditEventEntity second = event();
+        AuditEventEntity third = event();
+        cache.put(first);
+        cache.put(second);
+
+        cache.get(first.getEventId());
+        cache.put(third);
+
+        Assertions.assertAll(
+                () -> Assertions.assertSame(first, cache.get(first.getEventId())),
+                () -> Assertions.assertNull(cache.get(second.getEventId())),
+                () -> Assertions.assertSame(third, cache.get(third.getEventId())));
+    }
+
+    @Test
+    void get_GivenDisabledCache_ShouldNotCacheEvents() {
+        AuditEventCache cache = cache(false, DataSize.ofMegabytes(1));
+        AuditEventEntity event = event();
+
+        cache.put(event);
+
+        Assertions.assertNull(cache.get(event.getEventId()));
+    }
+
+    @Test
+    void put_GivenEventLargerThanMemory_ShouldNotKeepIt() {
+        AuditEventCache cache = cache(true, DataSize.ofKilobytes(16));
+        AuditEventEntity event = event();
+        event.setData("d".repeat(10_000));
+
+        cache.put(event);
+
+        Assertions.assertNull(cache.get(event.getEventId()));
+    }
+}
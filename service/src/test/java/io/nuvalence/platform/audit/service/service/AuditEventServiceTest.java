@@ -7,8 +7,17 @@ import io.nuvalence.events.brokerclient.config.PublisherProperties;
 import io.nuvalence.events.event.AuditEvent;
 import io.nuvalence.events.event.service.EventGateway;
 import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.domain.BusinessObjectRef;
 import io.nuvalence.platform.audit.service.error.ApiException;
 import io.nuvalence.platform.audit.service.events.PublisherTopic;
+import io.nuvalence.platform.audit.service.events.async.AsyncEventPublisher;
+import io.nuvalence.platform.audit.service.events.direct.DirectEventWriter;
+import io.nuvalence.platform.audit.service.events.lanes.PriorityLane;
+import io.nuvalence.platform.audit.service.events.lanes.PriorityLanes;
+import io.nuvalence.platform.audit.service.events.outbox.AuditEventOutbox;
+import io.nuvalence.platform.audit.service.mapper.RenderedEventMapper;
+import io.nuvalence.platform.audit.service.repository.AuditEventBatchWriter;
+import io.nuvalence.platform.audit.service.repository.AuditEventCursorReader;
 import io.nuvalence.platform.audit.service.repository.AuditEventRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,14 +28,19 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @SuppressWarnings({"PMD.DataflowAnomalyAnalysis", "PMD.BeanMembersShouldSerialize"})
 @ExtendWith(MockitoExtension.class)
@@ -38,17 +52,46 @@ class AuditEventServiceTest {
     @Mock private AuditEventRepository mockRepository;
     @Mock private PublisherProperties publisherProperties;
     @Mock private EventGateway eventGateway;
+    @Mock private PriorityLanes priorityLanes;
+    @Mock private AuditEventBatchWriter batchWriter;
+    @Mock private RecentEventIdFilter recentEventIdFilter;
+    @Mock private AuditEventOutbox auditEventOutbox;
+    @Mock private DirectEventWriter directEventWriter;
+    @Mock private PersistedEventRegistry persistedEventRegistry;
+    @Mock private AsyncEventPublisher asyncEventPublisher;
+    @Mock private AuditEventCursorReader cursorReader;
+    @Mock private RenderedEventMapper renderedEventMapper;
+    @Mock private AuditEventCache auditEventCache;
+    @Mock private BusinessObjectTailCache businessObjectTailCache;
+    @Mock private HistoricalPageCache historicalPageCache;
 
     private AuditEventService service;
 
     @BeforeEach
     public void beforeEach() {
-        service = new AuditEventService(mockRepository, publisherProperties, eventGateway);
+        service =
+                new AuditEventService(
+                        mockRepository,
+                        publisherProperties,
+                        eventGateway,
+                        priorityLanes,
+                        batchWriter,
+                        recentEventIdFilter,
+                        auditEventOutbox,
+                        directEventWriter,
+                        persistedEventRegistry,
+                        asyncEventPublisher,
+                        cursorReader,
+                        renderedEventMapper,
+                        auditEventCache,
+                        businessObjectTailCache,
+                        historicalPageCache);
     }
 
     @Test
     void publishAuditEvent_success() {
         AuditEvent event = Mockito.mock(AuditEvent.class);
+        Mockito.when(priorityLanes.classify(event)).thenReturn(PriorityLane.STANDARD);
         Mockito.when(
                         publisherProperties.getFullyQualifiedTopicName(
                                 PublisherTopic.AUDIT_EVENTS_RECORDING.name()))
@@ -60,6 +103,87 @@ class AuditEventServiceTest {
                 .publishEvent(event, PublisherTopic.AUDIT_EVENTS_RECORDING.name());
     }
 
+    @Test
+    void publishAuditEvent_GivenCriticalLane_ShouldPublishToLaneTopic() {
+        AuditEvent event = Mockito.mock(AuditEvent.class);
+        Mockito.when(priorityLanes.classify(event)).thenReturn(PriorityLane.CRITICAL);
+        Mockito.when(
+                        publisherProperties.getFullyQualifiedTopicName(
+                                PublisherTopic.AUDIT_EVENTS_RECORDING_CRITICAL.name()))
+                .thenReturn(Optional.of(PublisherTopic.AUDIT_EVENTS_RECORDING_CRITICAL.name()));
+
+        service.publishAuditEvent(event);
+
+        Mockito.verify(eventGateway)
+                .publishEvent(event, PublisherTopic.AUDIT_EVENTS_RECORDING_CRITICAL.name());
+    }
+
+    @Test
+    void publishAuditEvent_GivenLaneTopicNotConfigured_ShouldFallBackToStandardTopic() {
+        AuditEvent event = Mockito.mock(AuditEvent.class);
+        Mockito.when(priorityLanes.classify(event)).thenReturn(PriorityLane.BULK);
+        Mockito.when(
+                        publisherProperties.getFullyQualifiedTopicName(
+                                PublisherTopic.AUDIT_EVENTS_RECORDING_BULK.name()))
+                .thenReturn(Optional.empty());
+        Mockito.when(
+                        publisherProperties.getFullyQualifiedTopicName(
+                                PublisherTopic.AUDIT_EVENTS_RECORDING.name()))
+                .thenReturn(Optional.of(PublisherTopic.AUDIT_EVENTS_RECORDING.name()));
+
+        service.publishAuditEvent(event);
+
+        Mockito.verify(eventGateway)
+                .publishEvent(event, PublisherTopic.AUDIT_EVENTS_RECORDING.name());
+    }
+
+    @Test
+    void publishAuditEvent_GivenOutboxEnabled_ShouldAppendToOutbox() {
+        AuditEvent event = Mockito.mock(AuditEvent.class);
+        Mockito.when(priorityLanes.classify(event)).thenReturn(PriorityLane.STANDARD);
+        Mockito.when(
+                        publisherProperties.getFullyQualifiedTopicName(
+                                PublisherTopic.AUDIT_EVENTS_RECORDING.name()))
+                .thenReturn(Optional.of(PublisherTopic.AUDIT_EVENTS_RECORDING.name()));
+        Mockito.when(auditEventOutbox.isEnabled()).thenReturn(true);
+
+        service.publishAuditEvent(event);
+
+        Mockito.verify(auditEventOutbox)
+                .append(event, PublisherTopic.AUDIT_EVENTS_RECORDING.name());
+        Mockito.verifyNoInteractions(eventGateway);
+    }
+
+    @Test
+    void publishAuditEvent_GivenDirectWriteEnabled_ShouldSubmitToWriterAndOnlyAcceptEvent() {
+        AuditEvent event = Mockito.mock(AuditEvent.class);
+        Mockito.when(directEventWriter.isEnabled()).thenReturn(true);
+
+        boolean published = service.publishAuditEvent(event);
+
+        Assertions.assertFalse(published);
+        Mockito.verify(directEventWriter).submit(event);
+        Mockito.verifyNoInteractions(eventGateway, auditEventOutbox, priorityLanes);
+    }
+
+    @Test
+    void publishAuditEvent_GivenAsyncPublishEnabled_ShouldOnlyAcceptEvent() {
+        AuditEvent event = Mockito.mock(AuditEvent.class);
+        Mockito.when(priorityLanes.classify(event)).thenReturn(PriorityLane.STANDARD);
+        Mockito.when(
+                        publisherProperties.getFullyQualifiedTopicName(
+                                PublisherTopic.AUDIT_EVENTS_RECORDING.name()))
+                .thenReturn(Optional.of(PublisherTopic.AUDIT_EVENTS_RECORDING.name()));
+        Mockito.when(asyncEventPublisher.isEnabled()).thenReturn(true);
+
+        boolean published = service.publishAuditEvent(event);
+
+        Assertions.assertFalse(published);
+        Mockito.verify(asyncEventPublisher)
+                .submit(event, PublisherTopic.AUDIT_EVENTS_RECORDING.name());
+        Mockito.verifyNoInteractions(eventGateway);
+    }
+
     @Test
     void findAuditEvents_GivenQueryParameters_ShouldReturnPagedResult() throws IOException {
         OffsetDateTime startTime = OffsetDateTime.now();
@@ -106,6 +230,136 @@ class AuditEventServiceTest {
                 () -> Assertions.assertEquals(page, actual));
     }
 
+    @Test
+    void findAuditEvents_GivenRenderingEnabled_ShouldReadRenderedPageFromCursor()
+            throws IOException {
+        AuditEventEntity rendered = ACTIVITY_ENTITY.readJson();
+        Mockito.when(renderedEventMapper.isEnabled()).thenReturn(true);
+        Mockito.when(
+                        cursorReader.readPage(
+                                Mockito.eq(businessObjectType),
+                                Mockito.eq(businessObjectId),
+                                Mockito.isNull(),
+                                Mockito.isNull(),
+                                Mockito.eq("timestamp"),
+                                Mockito.eq(false),
+                                Mockito.eq(0L),
+                                Mockito.eq(10),
+                                Mockito.eq(EnumSet.allOf(AuditEventCursorReader.Part.class)),
+                                Mockito.anyInt(),
+                                Mockito.any()))
+                .thenAnswer(
+                        invocation -> {
+                            invocation.<Consumer<AuditEventEntity>>getArgument(10).accept(rendered);
+                            return 1L;
+                        });
+
+        var actual =
+                service.findAuditEvents(
+                        businessObjectType,
+                        businessObjectId,
+                        null,
+                        null,
+                        0,
+                        10,
+                        DESC,
+                        "timestamp");
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(rendered), actual.getContent()),
+                () -> Assertions.assertEquals(1, actual.getTotalElements()),
+                () -> Mockito.verifyNoInteractions(mockRepository));
+    }
+
+    @Test
+    void findAuditEvents_GivenNewestPageCached_ShouldNotQueryRepository() throws IOException {
+        AuditEventEntity newest = ACTIVITY_ENTITY.readJson();
+        BusinessObjectRef businessObject =
+                new BusinessObjectRef(businessObjectType, businessObjectId);
+        Mockito.when(businessObjectTailCache.isActive()).thenReturn(true);
+        Mockito.when(businessObjectTailCache.getTailSize()).thenReturn(50);
+        Mockito.when(businessObjectTailCache.get(businessObject, 10))
+                .thenReturn(new BusinessObjectTailCache.Tail(List.of(newest), 7));
+
+        var actual =
+                service.findAuditEvents(
+                        businessObjectType,
+                        businessObjectId,
+                        null,
+                        null,
+                        0,
+                        10,
+                        "desc",
+                        "timestamp");
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(newest), actual.getContent()),
+                () -> Assertions.assertEquals(7, actual.getTotalElements()),
+                () -> Mockito.verifyNoInteractions(mockRepository));
+    }
+
+    @Test
+    void findAuditEvents_GivenNewestPageNotCached_ShouldReadWholeTail() throws IOException {
+        AuditEventEntity newest = ACTIVITY_ENTITY.readJson();
+        AuditEventEntity older = STATE_CHANGE_ENTITY.readJson();
+        BusinessObjectRef businessObject =
+                new BusinessObjectRef(businessObjectType, businessObjectId);
+        PageRequest tailRequest = PageRequest.of(0, 2, Sort.Direction.DESC, "timestamp");
+        Mockito.when(businessObjectTailCache.isActive()).thenReturn(true);
+        Mockito.when(businessObjectTailCache.getTailSize()).thenReturn(2);
+        Mockito.when(businessObjectTailCache.stamp(businessObject)).thenReturn(3L);
+        Mockito.when(
+                        mockRepository.findAll(
+                                businessObjectType, businessObjectId, null, null, tailRequest))
+                .thenReturn(new PageImpl<>(List.of(newest, older), tailRequest, 5));
+
+        var actual =
+                service.findAuditEvents(
+                        businessObjectType, businessObjectId, null, null, 0, 1, DESC, "timestamp");
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(newest), actual.getContent()),
+                () -> Assertions.assertEquals(5, actual.getTotalElements()),
+                () ->
+                        Mockito.verify(businessObjectTailCache)
+                                .fill(businessObject, 3L, List.of(newest, older), 5L));
+    }
+
+    @Test
+    void findAuditEventsById_ShouldOnlyReadEventsWhichAreNotCached() throws IOException {
+        AuditEventEntity cached = STATE_CHANGE_ENTITY.readJson();
+        cached.setEventId(UUID.randomUUID());
+        AuditEventEntity stored = ACTIVITY_ENTITY.readJson();
+        stored.setEventId(UUID.randomUUID());
+        UUID unknownId = UUID.randomUUID();
+        Mockito.when(auditEventCache.get(cached.getEventId())).thenReturn(cached);
+        Mockito.when(mockRepository.findByEventIdIn(List.of(stored.getEventId(), unknownId)))
+                .thenReturn(List.of(stored));
+
+        List<AuditEventEntity> result =
+                service.findAuditEventsById(
+                        List.of(
+                                stored.getEventId(),
+                                unknownId,
+                                cached.getEventId(),
+                                stored.getEventId()));
+
+        Assertions.assertEquals(List.of(stored, cached), result);
+        Mockito.verify(auditEventCache).put(stored);
+        Mockito.verify(auditEventCache, Mockito.never()).put(cached);
+    }
+
+    @Test
+    void findAuditEventsById_GivenAllEventsCached_ShouldNotQueryDatabase() throws IOException {
+        AuditEventEntity cached = STATE_CHANGE_ENTITY.readJson();
+        cached.setEventId(UUID.randomUUID());
+        Mockito.when(auditEventCache.get(cached.getEventId())).thenReturn(cached);
+
+        Assertions.assertEquals(
+                List.of(cached), service.findAuditEventsById(List.of(cached.getEventId())));
+        Mockito.verifyNoInteractions(mockRepository);
+    }
+
     @Test
     void findAuditEvents_GivenInvalidTimeRangeParameters_ShouldThrowError() {
         OffsetDateTime startTime = OffsetDateTime.now();
@@ -147,4 +401,236 @@ class AuditEventServiceTest {
                                 "FOO",
                                 sortBy));
     }
+
+    @Test
+    void streamAuditEvents_GivenPage_ShouldReadPageFromCursor() {
+        OffsetDateTime startTime = OffsetDateTime.now();
+        Consumer<AuditEventEntity> consumer = entity -> {};
+        Set<AuditEventCursorReader.Part> parts = Set.of(AuditEventCursorReader.Part.DATA);
+
+        service.streamAuditEvents(
+                businessObjectType,
+                businessObjectId,
+                startTime,
+                null,
+                3,
+                150,
+                DESC,
+                "timestamp",
+                parts,
+                consumer);
+
+        Mockito.verify(cursorReader)
+                .readPage(
+                        businessObjectType,
+                        businessObjectId,
+                        startTime,
+                        null,
+                        "timestamp",
+                        false,
+                        450L,
+                        150,
+                        parts,
+                        20,
+                        consumer);
+    }
+
+    private static AuditEventEntity event(OffsetDateTime timestamp, String eventId) {
+        AuditEventEntity entity = new AuditEventEntity();
+        entity.setTimestamp(timestamp);
+        entity.setEventId(UUID.fromString(eventId));
+        return entity;
+    }
+
+    @Test
+    void findTimeline_ShouldMergeTimelinesOfBusinessObjects() {
+        OffsetDateTime start = OffsetDateTime.parse("2023-01-01T00:00:00Z");
+        AuditEventEntity a1 = event(start, "00000000-0000-0000-0000-00000000000a");
+        AuditEventEntity a2 = event(start.plusHours(2), "00000000-0000-0000-0000-00000000000a");
+        AuditEventEntity b1 = event(start, "00000000-0000-0000-0000-00000000000b");
+        AuditEventEntity b2 = event(start.plusHours(1), "00000000-0000-0000-0000-00000000000b");
+        BusinessObjectRef objectA = new BusinessObjectRef("orders", UUID.randomUUID());
+        BusinessObjectRef objectB = new BusinessObjectRef("customers", UUID.randomUUID());
+        Map<UUID, List<AuditEventEntity>> timelines =
+                Map.of(objectA.id(), List.of(a1, a2), objectB.id(), List.of(b1, b2));
+        Mockito.doAnswer(
+                        invocation -> {
+                            Consumer<AuditEventEntity> consumer = invocation.getArgument(8);
+                            timelines.get(invocation.<UUID>getArgument(1)).forEach(consumer);
+                            return 2L;
+                        })
+                .when(cursorReader)
+                .readAfter(
+                        Mockito.any(),
+                        Mockito.any(),
+                        Mockito.any(),
+                        Mockito.any(),
+                        Mockito.eq(true),
+                        Mockito.any(),
+                        Mockito.any(),
+                        Mockito.eq(3),
+                        Mockito.any());
+
+        List<AuditEventEntity> result =
+                service.findTimeline(
+                        List.of(objectA, objectB, objectA), null, null, true, null, null, 3);
+
+        Assertions.assertEquals(List.of(a1, b1, b2), result);
+        Mockito.verify(cursorReader, Mockito.times(2))
+                .readAfter(
+                        Mockito.any(),
+                        Mockito.any(),
+                        Mockito.any(),
+                        Mockito.any(),
+                        Mockito.eq(true),
+                        Mockito.any(),
+                        Mockito.any(),
+                        Mockito.eq(3),
+                        Mockito.any());
+    }
+
+    private record RelatedRow(
+            String getBusinessObjectType, UUID getBusinessObjectId, String getRelatedBusinessObject)
+            implements AuditEventRepository.RelatedBusinessObject {}
+
+    private static BusinessObjectRef ref(String value) {
+        return BusinessObjectRef.parse(value);
+    }
+
+    @Test
+    void findRelatedBusinessObjects_ShouldWalkRelatedObjectsBreadthFirst() {
+        BusinessObjectRef a = ref("orders:00000000-0000-0000-0000-000000000001");
+        BusinessObjectRef b = ref("customers:00000000-0000-0000-0000-000000000002");
+        BusinessObjectRef c = ref("orders:00000000-0000-0000-0000-000000000003");
+        BusinessObjectRef hidden = ref("orders:00000000-0000-0000-0000-000000000004");
+        BusinessObjectRef e = ref("orders:00000000-0000-0000-0000-000000000005");
+        BusinessObjectRef unreached = ref("orders:00000000-0000-0000-0000-000000000006");
+        Mockito.when(
+                        mockRepository.findRelatedBusinessObjects(
+                                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(
+                        List.of(
+                                new RelatedRow(a.type(), a.id(), c.toString()),
+                                new RelatedRow(a.type(), a.id(), b.toString()),
+                                new RelatedRow(a.type(), a.id(), hidden.toString()),
+                                new RelatedRow(a.type(), a.id(), "free text")))
+                .thenReturn(
+                        List.of(
+                                new RelatedRow(b.type(), b.id(), a.toString()),
+                                new RelatedRow(c.type(), c.id(), e.toString()),
+                                // same id as b with another type, not reached
+                                new RelatedRow("orders", b.id(), unreached.toString())));
+
+        BusinessObjectGraph graph =
+                service.findRelatedBusinessObjects(
+                        a, 2, 10, null, null, businessObject -> !businessObject.equals(hidden));
+
+        Assertions.assertEquals(
+                List.of(
+                        Map.entry(a, 0), Map.entry(b, 1), Map.entry(c, 1), Map.entry(e, 2)),
+                List.copyOf(graph.depths().entrySet()));
+        Assertions.assertFalse(graph.truncated());
+        Mockito.verify(mockRepository, Mockito.times(2))
+                .findRelatedBusinessObjects(
+                        Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void findRelatedBusinessObjects_GivenMaxObjectsReached_ShouldStopTraversal() {
+        BusinessObjectRef a = ref("orders:00000000-0000-0000-0000-000000000001");
+        BusinessObjectRef b = ref("customers:00000000-0000-0000-0000-000000000002");
+        BusinessObjectRef c = ref("orders:00000000-0000-0000-0000-000000000003");
+        Mockito.when(
+                        mockRepository.findRelatedBusinessObjects(
+                                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(
+                        List.of(
+                                new RelatedRow(a.type(), a.id(), c.toString()),
+                                new RelatedRow(a.type(), a.id(), b.toString())));
+
+        BusinessObjectGraph graph =
+                service.findRelatedBusinessObjects(a, 3, 2, null, null, businessObject -> true);
+
+        Assertions.assertEquals(Map.of(a, 0, b, 1), graph.depths());
+        Assertions.assertTrue(graph.truncated());
+        Mockito.verify(mockRepository)
+                .findRelatedBusinessObjects(
+                        Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void mergeTimelines_GivenDescendingOrder_ShouldMergeNewestFirst() {
+        OffsetDateTime start = OffsetDateTime.parse("2023-01-01T00:00:00Z");
+        AuditEventEntity a1 = event(start, "00000000-0000-0000-0000-00000000000a");
+        AuditEventEntity a2 = event(start.plusHours(2), "00000000-0000-0000-0000-00000000000a");
+        AuditEventEntity b1 = event(start.plusHours(1), "00000000-0000-0000-0000-00000000000b");
+        AuditEventEntity c1 = event(start.plusHours(3), "00000000-0000-0000-0000-00000000000c");
+
+        List<AuditEventEntity> result =
+                AuditEventService.mergeTimelines(
+                        List.of(List.of(a2, a1), List.of(b1), List.of(c1)), false, 10);
+
+        Assertions.assertEquals(List.of(c1, a2, b1, a1), result);
+    }
+
+    @Test
+    void streamAuditEvents_GivenInvalidSortOrderParameter_ShouldThrowError() {
+        Assertions.assertThrows(
+                ApiException.class,
+                () ->
+                        service.streamAuditEvents(
+                                businessObjectType,
+                                businessObjectId,
+                                null,
+                                null,
+                                0,
+                                150,
+                                "FOO",
+                                "timestamp",
+                                Set.of(),
+                                entity -> {}));
+        Mockito.verifyNoInteractions(cursorReader);
+    }
+
+    @Test
+    void saveAuditEvents_GivenEventsWithoutId_ShouldAssignIdsAndRememberThem() throws IOException {
+        AuditEventEntity activity = ACTIVITY_ENTITY.readJson();
+        AuditEventEntity stateChange = STATE_CHANGE_ENTITY.readJson();
+        UUID stateChangeId = UUID.randomUUID();
+        stateChange.setEventId(stateChangeId);
+        List<AuditEventEntity> entities = List.of(activity, stateChange);
+        Mockito.when(batchWriter.insertAll(entities)).thenReturn(List.of(activity));
+
+        int inserted = service.saveAuditEvents(entities);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, inserted),
+                () -> Assertions.assertNotNull(activity.getEventId()),
+                () -> Assertions.assertEquals(stateChangeId, stateChange.getEventId()),
+                () -> Mockito.verify(recentEventIdFilter).add(activity.getEventId()),
+                () -> Mockito.verify(recentEventIdFilter).add(stateChangeId),
+                () ->
+                        Mockito.verify(persistedEventRegistry)
+                                .afterCommit(List.of(activity.getEventId(), stateChangeId)),
+                () -> Mockito.verify(historicalPageCache).invalidate(List.of(activity)));
+    }
+
+    @Test
+    void saveAuditEvents_GivenRenderingEnabled_ShouldStoreRenderedEvents() throws IOException {
+        AuditEventEntity activity = ACTIVITY_ENTITY.readJson();
+        AuditEventEntity stateChange = STATE_CHANGE_ENTITY.readJson();
+        byte[] rendered = {1, 2, 3};
+        Mockito.when(renderedEventMapper.isEnabled()).thenReturn(true);
+        Mockito.when(renderedEventMapper.render(activity)).thenReturn(rendered);
+        Mockito.when(renderedEventMapper.render(stateChange))
+                .thenThrow(new IllegalStateException("unmappable"));
+        List<AuditEventEntity> entities = List.of(activity, stateChange);
+        Mockito.when(batchWriter.insertAll(entities)).thenReturn(entities);
+
+        int inserted = service.saveAuditEvents(entities);
+
+        Assertions.assertEquals(2, inserted);
+        Assertions.assertArrayEquals(rendered, activity.getRenderedEvent());
+        Assertions.assertNull(stateChange.getRenderedEvent());
+    }
 }
@@ -0,0 +1,187 @@
+package io.nuvalence.platform.audit.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.platform.audit.service.config.TailCacheProperties;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.domain.BusinessObjectRef;
+import io.nuvalence.platform.audit.service.domain.StateChangeEventEntity;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+class BusinessObjectTailCacheTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2023-06-01T12:00:00Z");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BusinessObjectRef order = new BusinessObjectRef("orders", UUID.randomUUID());
+
+    private BusinessObjectTailCache cache(int tailSize, DataSize maxMemory) {
+        TailCacheProperties properties = new TailCacheProperties();
+        properties.setEnabled(true);
+        properties.setTailSize(tailSize);
+        properties.setShards(1);
+        properties.setMaxMemory(maxMemory);
+        BusinessObjectTailCache cache =
+                new BusinessObjectTailCache(
+                        properties,
+                        Mockito.mock(JdbcTemplate.class),
+                        Mockito.mock(DataSourceProperties.class),
+                        meterRegistry);
+        cache.setListening(true);
+        return cache;
+    }
+
+    private static AuditEventEntity event(BusinessObjectRef businessObject, int minutesAgo) {
+        AuditEventEntity entity = new AuditEventEntity();
+        entity.setEventId(UUID.randomUUID());
+        entity.setBusinessObjectType(businessObject.type());
+        entity.setBusinessObjectId(businessObject.id());
+        entity.setTimestamp(NOW.minusMinutes(minutesAgo));
+        return entity;
+    }
+
+    @Test
+    void get_GivenFilledTail_ShouldReturnNewestEventsAndCountHitsByType() {
+        BusinessObjectTailCache cache = cache(3, DataSize.ofMegabytes(1));
+        AuditEventEntity newest = event(order, 1);
+        AuditEventEntity older = event(order, 2);
+
+        cache.fill(order, cache.stamp(order), List.of(newest, older), 2);
+
+        BusinessObjectTailCache.Tail tail = cache.get(order, 1);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(newest), tail.events()),
+                () -> Assertions.assertEquals(2, tail.totalCount()),
+                () ->
+                        Assertions.assertNull(
+                                cache.get(new BusinessObjectRef("orders", UUID.randomUUID()), 1)),
+                () ->
+                        Assertions.assertEquals(
+                                1.0,
+                                meterRegistry
+                                        .counter(
+                                                "audit.events.tail-cache.hits",
+                                                "businessObjectType",
+                                                "orders")
+                                        .count()),
+                () ->
+                        Assertions.assertEquals(
+                                1.0,
+                                meterRegistry
+                                        .counter(
+                                                "audit.events.tail-cache.misses",
+                                                "businessObjectType",
+                                                "orders")
+                                        .count()));
+    }
+
+    @Test
+    void get_GivenNotListening_ShouldNotServeTails() {
+        BusinessObjectTailCache cache = cache(3, DataSize.ofMegabytes(1));
+        cache.fill(order, cache.stamp(order), List.of(event(order, 1)), 1);
+
+        cache.setListening(false);
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(cache.isActive()),
+                () -> Assertions.assertNull(cache.get(order, 3)));
+    }
+
+    @Test
+    void afterCompletion_GivenCommittedEvents_ShouldAppendThemInTimestampOrder() {
+        BusinessObjectTailCache cache = cache(3, DataSize.ofMegabytes(1));
+        AuditEventEntity newest = event(order, 10);
+        AuditEventEntity oldest = event(order, 30);
+        cache.fill(order, cache.stamp(order), List.of(newest, oldest), 2);
+        AuditEventEntity created = event(order, 0);
+        AuditEventEntity backdated = event(order, 20);
+        AuditEventEntity tooOld = event(order, 40);
+        AuditEventEntity rolledBack = event(order, 0);
+
+        List<AuditEventEntity> written = List.of(created, backdated, tooOld);
+        cache.written(written);
+        cache.afterCompletion(written, true);
+        cache.written(List.of(rolledBack));
+        cache.afterCompletion(List.of(rolledBack), false);
+
+        BusinessObjectTailCache.Tail tail = cache.get(order, 3);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(created, newest, backdated), tail.events()),
+                () -> Assertions.assertEquals(5, tail.totalCount()));
+    }
+
+    @Test
+    void fill_GivenEventWrittenSinceStamp_ShouldNotCacheTail() {
+        BusinessObjectTailCache cache = cache(3, DataSize.ofMegabytes(1));
+        AuditEventEntity created = event(order, 0);
+
+        long stamp = cache.stamp(order);
+        cache.written(List.of(created));
+        cache.fill(order, stamp, List.of(), 0);
+        // still uncommitted, any read may miss it
+        cache.fill(order, cache.stamp(order), List.of(), 0);
+
+        Assertions.assertNull(cache.get(order, 3));
+    }
+
+    @Test
+    void handle_GivenWriteOfOtherReplica_ShouldDropTail() {
+        BusinessObjectTailCache cache = cache(3, DataSize.ofMegabytes(1));
+        BusinessObjectRef customer = new BusinessObjectRef("customers", UUID.randomUUID());
+        cache.fill(order, cache.stamp(order), List.of(event(order, 1)), 1);
+        cache.fill(customer, cache.stamp(customer), List.of(event(customer, 1)), 1);
+
+        cache.handle(UUID.randomUUID() + "|" + order + ",malformed");
+
+        Assertions.assertAll(
+                () -> Assertions.assertNull(cache.get(order, 3)),
+                () -> Assertions.assertNotNull(cache.get(customer, 3)));
+    }
+
+    @Test
+    void fill_GivenMemoryExceeded_ShouldEvictLeastRecentlyReadTail() {
+        AuditEventEntity event = event(order, 1);
+        long eventSize = BusinessObjectTailCache.estimateSize(event);
+        BusinessObjectTailCache cache = cache(3, DataSize.ofBytes(eventSize * 2));
+        BusinessObjectRef second = new BusinessObjectRef("orders", UUID.randomUUID());
+        BusinessObjectRef third = new BusinessObjectRef("orders", UUID.randomUUID());
+        cache.fill(order, cache.stamp(order), List.of(event), 1);
+        cache.fill(second, cache.stamp(second), List.of(event(second, 1)), 1);
+
+        cache.get(order, 1);
+        cache.fill(third, cache.stamp(third), List.of(event(third, 1)), 1);
+
+        Assertions.assertAll(
+                () -> Assertions.assertNotNull(cache.get(order, 1)),
+                () -> Assertions.assertNull(cache.get(second, 1)),
+                () -> Assertions.assertNotNull(cache.get(third, 1)));
+    }
+
+    @Test
+    void fill_GivenStateChangesLargerThanMemory_ShouldEvictTheirTail() {
+        BusinessObjectTailCache cache = cache(3, DataSize.ofKilobytes(64));
+        StateChangeEventEntity stateChange = new StateChangeEventEntity();
+        stateChange.setEventId(UUID.randomUUID());
+        stateChange.setBusinessObjectType(order.type());
+        stateChange.setBusinessObjectId(order.id());
+        stateChange.setTimestamp(NOW);
+        stateChange.setOldState("o".repeat(20_000));
+        stateChange.setNewState("n".repeat(20_000));
+
+        cache.fill(order, cache.stamp(order), List.of(stateChange), 1);
+
+        Assertions.assertAll(
+                () ->
+                        Assertions.assertTrue(
+                                BusinessObjectTailCache.estimateSize(stateChange) > 80_000),
+                () -> Assertions.assertNull(cache.get(order, 1)));
+    }
+}
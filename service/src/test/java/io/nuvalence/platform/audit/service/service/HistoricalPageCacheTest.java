@@ -0,0 +1,221 @@
+package io.nuvalence.platform.audit.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.platform.audit.service.config.HistoryCacheProperties;
+import io.nuvalence.platform.audit.service.domain.AuditEventEntity;
+import io.nuvalence.platform.audit.service.generated.models.AuditEventsPage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+class HistoricalPageCacheTest {
+
+    private static final Instant NOW = Instant.parse("2023-06-01T12:00:00Z");
+    private static final UUID BUSINESS_OBJECT_ID = UUID.randomUUID();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+
+    private HistoricalPageCache cache(int maxPages, int maxEvents) {
+        HistoryCacheProperties properties = new HistoryCacheProperties();
+        properties.setEnabled(true);
+        properties.setSettleWindow(Duration.ofMinutes(15));
+        properties.setTimeToLive(Duration.ofMinutes(10));
+        properties.setShards(1);
+        properties.setMaxPagesPerShard(maxPages);
+        properties.setMaxEventsPerShard(maxEvents);
+        return new HistoricalPageCache(properties, meterRegistry, clock);
+    }
+
+    private static void put(
+            HistoricalPageCache cache,
+            HistoricalPageCache.PageQuery query,
+            AuditEventsPage page,
+            int eventCount) {
+        cache.put(query, cache.stamp(query), page, eventCount);
+    }
+
+    private static HistoricalPageCache.PageQuery query(OffsetDateTime endTime, int pageNumber) {
+        return HistoricalPageCache.PageQuery.of(
+                "orders", BUSINESS_OBJECT_ID, null, endTime, "asc", "timestamp", pageNumber, 10);
+    }
+
+    private static OffsetDateTime closedEndTime() {
+        return OffsetDateTime.ofInstant(NOW.minus(Duration.ofDays(1)), ZoneOffset.UTC);
+    }
+
+    private static AuditEventEntity event(OffsetDateTime timestamp) {
+        AuditEventEntity entity = new AuditEventEntity();
+        entity.setEventId(UUID.randomUUID());
+        entity.setBusinessObjectType("orders");
+        entity.setBusinessObjectId(BUSINESS_OBJECT_ID);
+        entity.setTimestamp(timestamp);
+        return entity;
+    }
+
+    @Test
+    void get_GivenPageOverClosedRange_ShouldReturnItForEquivalentQueries() {
+        HistoricalPageCache cache = cache(16, 1024);
+        AuditEventsPage page = new AuditEventsPage();
+        OffsetDateTime endTime = closedEndTime();
+
+        put(cache, query(endTime, 0), page, 10);
+
+        HistoricalPageCache.PageQuery sameInstant =
+                HistoricalPageCache.PageQuery.of(
+                        "orders",
+                        BUSINESS_OBJECT_ID,
+                        null,
+                        endTime.withOffsetSameInstant(ZoneOffset.ofHours(2)),
+                        "ASC",
+                        "timestamp",
+                        0,
+                        10);
+        Assertions.assertAll(
+                () -> Assertions.assertSame(page, cache.get(sameInstant)),
+                () -> Assertions.assertNull(cache.get(query(endTime, 1))),
+                () ->
+                        Assertions.assertEquals(
+                                1.0,
+                                meterRegistry.counter("audit.events.history-cache.hits").count()),
+                () ->
+                        Assertions.assertEquals(
+                                1.0,
+                                meterRegistry
+                                        .counter("audit.events.history-cache.misses")
+                                        .count()));
+    }
+
+    @Test
+    void put_GivenRangeWithinSettleWindowOrOpen_ShouldNotCachePage() {
+        HistoricalPageCache cache = cache(16, 1024);
+        OffsetDateTime settling =
+                OffsetDateTime.ofInstant(NOW.minus(Duration.ofMinutes(5)), ZoneOffset.UTC);
+
+        put(cache, query(settling, 0), new AuditEventsPage(), 10);
+        put(cache, query(null, 0), new AuditEventsPage(), 10);
+
+        Assertions.assertAll(
+                () -> Assertions.assertNull(cache.get(query(settling, 0))),
+                () -> Assertions.assertNull(cache.get(query(null, 0))),
+                () ->
+                        Assertions.assertEquals(
+                                0.0,
+                                meterRegistry
+                                        .counter("audit.events.history-cache.misses")
+                                        .count()));
+    }
+
+    @Test
+    void put_GivenTooManyEvents_ShouldEvictLeastRecentlyUsedPages() {
+        HistoricalPageCache cache = cache(16, 25);
+        OffsetDateTime endTime = closedEndTime();
+        AuditEventsPage first = new AuditEventsPage();
+        AuditEventsPage second = new AuditEventsPage();
+        put(cache, query(endTime, 0), first, 10);
+        put(cache, query(endTime, 1), second, 10);
+
+        cache.get(query(endTime, 0));
+        put(cache, query(endTime, 2), new AuditEventsPage(), 10);
+        put(cache, query(endTime, 3), new AuditEventsPage(), 30);
+
+        Assertions.assertAll(
+                () -> Assertions.assertSame(first, cache.get(query(endTime, 0))),
+                () -> Assertions.assertNull(cache.get(query(endTime, 1))),
+                () -> Assertions.assertNotNull(cache.get(query(endTime, 2))),
+                () -> Assertions.assertNull(cache.get(query(endTime, 3))));
+    }
+
+    @Test
+    void put_GivenTooManyPages_ShouldEvictLeastRecentlyUsedPage() {
+        HistoricalPageCache cache = cache(2, 1024);
+        OffsetDateTime endTime = closedEndTime();
+        put(cache, query(endTime, 0), new AuditEventsPage(), 1);
+        put(cache, query(endTime, 1), new AuditEventsPage(), 1);
+        put(cache, query(endTime, 2), new AuditEventsPage(), 1);
+
+        Assertions.assertAll(
+                () -> Assertions.assertNull(cache.get(query(endTime, 0))),
+                () -> Assertions.assertNotNull(cache.get(query(endTime, 1))),
+                () -> Assertions.assertNotNull(cache.get(query(endTime, 2))));
+    }
+
+    @Test
+    void get_GivenTimeToLiveElapsed_ShouldExpirePage() {
+        HistoricalPageCache cache = cache(16, 1024);
+        OffsetDateTime endTime = closedEndTime();
+        put(cache, query(endTime, 0), new AuditEventsPage(), 10);
+
+        clock.instant = NOW.plus(Duration.ofMinutes(10));
+
+        Assertions.assertNull(cache.get(query(endTime, 0)));
+    }
+
+    @Test
+    void invalidate_GivenLateEventWithinRange_ShouldDropPagesOfItsTimeRange() {
+        HistoricalPageCache cache = cache(16, 1024);
+        OffsetDateTime endTime = closedEndTime();
+        HistoricalPageCache.PageQuery earlier =
+                HistoricalPageCache.PageQuery.of(
+                        "orders",
+                        BUSINESS_OBJECT_ID,
+                        null,
+                        endTime.minusDays(1),
+                        "ASC",
+                        "timestamp",
+                        0,
+                        10);
+        HistoricalPageCache.PageQuery otherObject =
+                HistoricalPageCache.PageQuery.of(
+                        "orders", UUID.randomUUID(), null, endTime, "ASC", "timestamp", 0, 10);
+        put(cache, query(endTime, 0), new AuditEventsPage(), 10);
+        put(cache, earlier, new AuditEventsPage(), 10);
+        put(cache, otherObject, new AuditEventsPage(), 10);
+
+        cache.invalidate(List.of(event(endTime.minusHours(1))));
+
+        Assertions.assertAll(
+                () -> Assertions.assertNull(cache.get(query(endTime, 0))),
+                () -> Assertions.assertNotNull(cache.get(earlier)),
+                () -> Assertions.assertNotNull(cache.get(otherObject)));
+    }
+
+    @Test
+    void put_GivenLateEventCommittedDuringRead_ShouldNotCachePage() {
+        HistoricalPageCache cache = cache(16, 1024);
+        OffsetDateTime endTime = closedEndTime();
+        long stamp = cache.stamp(query(endTime, 0));
+
+        cache.invalidate(List.of(event(endTime.minusHours(1))));
+        cache.put(query(endTime, 0), stamp, new AuditEventsPage(), 10);
+
+        Assertions.assertNull(cache.get(query(endTime, 0)));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant = NOW;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package io.nuvalence.platform.audit.service.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.platform.audit.service.config.IdempotencyProperties;
+import io.nuvalence.platform.audit.service.workload.Workload;
+import io.nuvalence.platform.audit.service.workload.WorkloadContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class IdempotencyKeyStoreTest {
+
+    // recent, so that the keys of a test are not purged by the store of the application
+    private static final long NOW = System.currentTimeMillis();
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    private final Clock clock = Mockito.mock(Clock.class);
+
+    private IdempotencyKeyStore store(JdbcTemplate template) {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setWindow(Duration.ofMinutes(10));
+        return new IdempotencyKeyStore(properties, template, new SimpleMeterRegistry(), clock);
+    }
+
+    private static IdempotencyKeyStore.Original original(UUID eventId, boolean completed) {
+        return new IdempotencyKeyStore.Original(eventId, completed);
+    }
+
+    @Test
+    void putIfAbsent_GivenRepeatedKey_ShouldReturnOriginalEventId() {
+        when(clock.millis()).thenReturn(NOW);
+        IdempotencyKeyStore store = store(jdbcTemplate);
+        UUID originalEventId = UUID.randomUUID();
+
+        Optional<IdempotencyKeyStore.Original> first =
+                store.putIfAbsent("tenant:key", originalEventId);
+        Optional<IdempotencyKeyStore.Original> inFlight =
+                store.putIfAbsent("tenant:key", UUID.randomUUID());
+        store.complete("tenant:key", originalEventId);
+        Optional<IdempotencyKeyStore.Original> repeated =
+                store.putIfAbsent("tenant:key", UUID.randomUUID());
+        Optional<IdempotencyKeyStore.Original> otherCaller =
+                store.putIfAbsent("other:key", UUID.randomUUID());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Optional.empty(), first),
+                () ->
+                        Assertions.assertEquals(
+                                Optional.of(original(originalEventId, false)),
+                                inFlight),
+                () ->
+                        Assertions.assertEquals(
+                                Optional.of(original(originalEventId, true)),
+                                repeated),
+                () -> Assertions.assertEquals(Optional.empty(), otherCaller));
+    }
+
+    @Test
+    void putIfAbsent_GivenKeyClaimedByOtherReplica_ShouldReturnOriginalOnceCompleted() {
+        when(clock.millis()).thenReturn(NOW);
+        UUID originalEventId = UUID.randomUUID();
+        IdempotencyKeyStore claimer = store(jdbcTemplate);
+        IdempotencyKeyStore other = store(jdbcTemplate);
+        claimer.putIfAbsent("tenant:key", originalEventId);
+
+        Optional<IdempotencyKeyStore.Original> inFlight =
+                other.putIfAbsent("tenant:key", UUID.randomUUID());
+        claimer.complete("tenant:key", originalEventId);
+        Optional<IdempotencyKeyStore.Original> completed =
+                other.putIfAbsent("tenant:key", UUID.randomUUID());
+
+        Assertions.assertAll(
+                () ->
+                        Assertions.assertEquals(
+                                Optional.of(original(originalEventId, false)),
+                                inFlight),
+                () ->
+                        Assertions.assertEquals(
+                                Optional.of(original(originalEventId, true)),
+                                completed));
+    }
+
+    @Test
+    void putIfAbsent_ShouldClaimKeysOnIngestWorkload() {
+        when(clock.millis()).thenReturn(NOW);
+        JdbcTemplate recording = Mockito.mock(JdbcTemplate.class);
+        List<Optional<Workload>> workloads = new ArrayList<>();
+        when(recording.update(anyString(), any(Object[].class)))
+                .thenAnswer(
+                        invocation -> {
+                            workloads.add(WorkloadContext.current());
+                            return 1;
+                        });
+
+        store(recording).putIfAbsent("tenant:key", UUID.randomUUID());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(Optional.of(Workload.INGEST)), workloads),
+                () -> Assertions.assertEquals(Optional.empty(), WorkloadContext.current()));
+    }
+
+    @Test
+    void putIfAbsent_GivenExpiredKey_ShouldAcceptNewEvent() {
+        when(clock.millis()).thenReturn(NOW, NOW + Duration.ofMinutes(10).toMillis());
+        store(jdbcTemplate).putIfAbsent("tenant:key", UUID.randomUUID());
+        UUID newEventId = UUID.randomUUID();
+
+        Optional<IdempotencyKeyStore.Original> afterWindow =
+                store(jdbcTemplate).putIfAbsent("tenant:key", newEventId);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Optional.empty(), afterWindow),
+                () ->
+                        Assertions.assertEquals(
+                                newEventId.toString(),
+                                jdbcTemplate.queryForObject(
+                                        "SELECT event_id FROM idempotency_keys"
+                                                + " WHERE idempotency_key = ?",
+                                        String.class,
+                                        "tenant:key")));
+    }
+
+    @Test
+    void putIfAbsent_GivenKeyRemovedByOtherReplica_ShouldAcceptNewEvent() {
+        when(clock.millis()).thenReturn(NOW);
+        UUID failedEventId = UUID.randomUUID();
+        store(jdbcTemplate).putIfAbsent("tenant:key", failedEventId);
+
+        store(jdbcTemplate).remove("tenant:key", failedEventId);
+
+        Assertions.assertEquals(
+                Optional.empty(),
+                store(jdbcTemplate).putIfAbsent("tenant:key", UUID.randomUUID()));
+    }
+
+    @Test
+    void putIfAbsent_GivenUnavailableDatabase_ShouldDeduplicateLocally() {
+        when(clock.millis()).thenReturn(NOW);
+        JdbcTemplate failing = Mockito.mock(JdbcTemplate.class);
+        when(failing.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("Database unavailable"));
+        IdempotencyKeyStore store = store(failing);
+        UUID originalEventId = UUID.randomUUID();
+
+        Optional<IdempotencyKeyStore.Original> first =
+                store.putIfAbsent("tenant:key", originalEventId);
+        Optional<IdempotencyKeyStore.Original> repeated =
+                store.putIfAbsent("tenant:key", UUID.randomUUID());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Optional.empty(), first),
+                () ->
+                        Assertions.assertEquals(
+                                originalEventId, repeated.orElseThrow().eventId()));
+    }
+
+    @Test
+    void purgeExpired_ShouldDeleteOnlyKeysOutsideWindow() {
+        when(clock.millis()).thenReturn(NOW - Duration.ofMinutes(20).toMillis(), NOW);
+        when(clock.instant()).thenReturn(Instant.ofEpochMilli(NOW));
+        IdempotencyKeyStore store = store(jdbcTemplate);
+        store.putIfAbsent("tenant:expired", UUID.randomUUID());
+        store.putIfAbsent("tenant:recent", UUID.randomUUID());
+
+        store.purgeExpired();
+
+        Assertions.assertEquals(
+                List.of("tenant:recent"),
+                jdbcTemplate.queryForList(
+                        "SELECT idempotency_key FROM idempotency_keys"
+                                + " WHERE idempotency_key IN (?, ?)",
+                        String.class,
+                        "tenant:expired",
+                        "tenant:recent"));
+    }
+}
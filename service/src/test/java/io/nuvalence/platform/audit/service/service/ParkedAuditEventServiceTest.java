@@ -0,0 +1,80 @@
+package io.nuvalence.platform.audit.service.service;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.events.event.AuditEvent;
+import io.nuvalence.platform.audit.service.repository.AuditEventRepository;
+import io.nuvalence.platform.audit.service.repository.ParkedAuditEventRepository;
+import io.nuvalence.platform.audit.service.utils.TestUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ParkedAuditEventServiceTest {
+
+    @Autowired private ParkedAuditEventService parkedAuditEventService;
+    @Autowired private ParkedAuditEventRepository parkedAuditEventRepository;
+    @Autowired private AuditEventRepository auditEventRepository;
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Test
+    void replayAfter_GivenParkedEvent_ShouldPersistAndUnparkIt() throws Exception {
+        AuditEvent event = TestUtil.Data.STATE_CHANGE_EVENT.readJson();
+        UUID eventId = UUID.randomUUID();
+        event.getMetadata().setId(eventId);
+        parkedAuditEventService.park(event, new IllegalArgumentException("Unknown type"));
+        Assertions.assertEquals(1, parkedAuditEventService.countParked());
+
+        ParkedAuditEventService.ReplayBatch batch = parkedAuditEventService.replayAfter(0, 10);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, batch.read()),
+                () -> Assertions.assertEquals(1, batch.replayed()),
+                () -> Assertions.assertEquals(0, batch.failed()),
+                () -> Assertions.assertEquals(0, parkedAuditEventService.countParked()),
+                () -> Assertions.assertTrue(auditEventRepository.findById(eventId).isPresent()));
+    }
+
+    @Test
+    void replayAfter_GivenUnreadableParkedEvent_ShouldKeepItParked() {
+        parkedAuditEventRepository.park(
+                null, null, null, "not an audit event", new IllegalStateException("Broken"));
+
+        ParkedAuditEventService.ReplayBatch batch = parkedAuditEventService.replayAfter(0, 10);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(0, batch.replayed()),
+                () -> Assertions.assertEquals(1, batch.failed()),
+                () -> Assertions.assertEquals(1, parkedAuditEventService.countParked()));
+    }
+
+    @Test
+    void replayAfter_GivenLimit_ShouldReplayFollowingBatchFromLastId() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            AuditEvent event = TestUtil.Data.STATE_CHANGE_EVENT.readJson();
+            event.getMetadata().setId(UUID.randomUUID());
+            parkedAuditEventService.park(event, new IllegalArgumentException("Unknown type"));
+        }
+
+        ParkedAuditEventService.ReplayBatch first = parkedAuditEventService.replayAfter(0, 2);
+        ParkedAuditEventService.ReplayBatch second =
+                parkedAuditEventService.replayAfter(first.lastId(), 2);
+        ParkedAuditEventService.ReplayBatch last =
+                parkedAuditEventService.replayAfter(second.lastId(), 2);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(2, first.replayed()),
+                () -> Assertions.assertEquals(1, second.replayed()),
+                () -> Assertions.assertEquals(0, last.read()),
+                () -> Assertions.assertEquals(0, parkedAuditEventService.countParked()));
+    }
+}
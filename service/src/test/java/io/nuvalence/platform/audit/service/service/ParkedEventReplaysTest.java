@@ -0,0 +1,103 @@
+package io.nuvalence.platform.audit.service.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import io.nuvalence.platform.audit.service.config.DeadLetterProperties;
+import io.nuvalence.platform.audit.service.workload.Workload;
+import io.nuvalence.platform.audit.service.workload.WorkloadExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+class ParkedEventReplaysTest {
+
+    private final ParkedAuditEventService parkedAuditEventService =
+            Mockito.mock(ParkedAuditEventService.class);
+    private final WorkloadExecutor workloadExecutor = Mockito.mock(WorkloadExecutor.class);
+    private final ParkedEventReplays replays = replays();
+
+    private ParkedEventReplays replays() {
+        DeadLetterProperties properties = new DeadLetterProperties();
+        properties.setReplayBatchSize(2);
+        when(workloadExecutor.execute(eq(Workload.INGEST), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        return new ParkedEventReplays(parkedAuditEventService, workloadExecutor, properties);
+    }
+
+    @AfterEach
+    void destroy() {
+        replays.destroy();
+    }
+
+    private static void awaitDone(ParkedEventReplays.Replay replay) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (replay.getStatus() == ParkedEventReplays.Status.RUNNING) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "Replay did not complete");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void start_GivenParkedEvents_ShouldReplayThemInBatchesOnIngestExecutor() throws Exception {
+        when(parkedAuditEventService.replayAfter(0, 2))
+                .thenReturn(new ParkedAuditEventService.ReplayBatch(7, 2, 2));
+        when(parkedAuditEventService.replayAfter(7, 1))
+                .thenReturn(new ParkedAuditEventService.ReplayBatch(9, 1, 0));
+        when(parkedAuditEventService.countParked()).thenReturn(4L);
+
+        ParkedEventReplays.Replay replay = replays.start(3);
+        awaitDone(replay);
+
+        Assertions.assertAll(
+                () ->
+                        Assertions.assertEquals(
+                                ParkedEventReplays.Status.COMPLETED, replay.getStatus()),
+                () -> Assertions.assertEquals(2, replay.getReplayed()),
+                () -> Assertions.assertEquals(1, replay.getFailed()),
+                () -> Assertions.assertEquals(4L, replay.getRemaining()),
+                () -> Assertions.assertNotNull(replay.getCompletedAt()),
+                () -> Assertions.assertSame(replay, replays.get(replay.getId()).orElseThrow()));
+    }
+
+    @Test
+    void start_GivenRunningReplay_ShouldReturnIt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(parkedAuditEventService.replayAfter(0, 2))
+                .thenAnswer(
+                        invocation -> {
+                            release.await();
+                            return new ParkedAuditEventService.ReplayBatch(0, 0, 0);
+                        });
+
+        ParkedEventReplays.Replay running = replays.start(10);
+        ParkedEventReplays.Replay second = replays.start(10);
+        release.countDown();
+        awaitDone(running);
+
+        Assertions.assertAll(
+                () -> Assertions.assertSame(running, second),
+                () ->
+                        Assertions.assertEquals(
+                                ParkedEventReplays.Status.COMPLETED, running.getStatus()));
+    }
+
+    @Test
+    void start_GivenFailingBatch_ShouldFailReplay() throws Exception {
+        when(parkedAuditEventService.replayAfter(0, 2))
+                .thenThrow(new IllegalStateException("Database unavailable"));
+
+        ParkedEventReplays.Replay replay = replays.start(10);
+        awaitDone(replay);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(ParkedEventReplays.Status.FAILED, replay.getStatus()),
+                () -> Assertions.assertEquals("Database unavailable", replay.getError()));
+    }
+}
@@ -0,0 +1,90 @@
+package io.nuvalence.platform.audit.service.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.nuvalence.platform.audit.service.config.ConsistencyProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class PersistedEventRegistryTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private PersistedEventRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        ConsistencyProperties properties = new ConsistencyProperties();
+        properties.setTimeout(Duration.ofMillis(50));
+        registry = new PersistedEventRegistry(properties, jdbcTemplate, new DataSourceProperties());
+    }
+
+    @Test
+    void await_GivenEventCommitted_ShouldReturnTrue() {
+        UUID eventId = UUID.randomUUID();
+
+        try (PersistedEventRegistry.Waiter waiter = registry.register(eventId)) {
+            registry.afterCommit(List.of(UUID.randomUUID(), eventId));
+
+            Assertions.assertTrue(waiter.await());
+        }
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void await_GivenEventNotCommittedInTime_ShouldCheckDatabase() {
+        UUID eventId = UUID.randomUUID();
+        when(jdbcTemplate.queryForObject(
+                        any(String.class), eq(Integer.class), eq(eventId.toString())))
+                .thenReturn(0);
+
+        try (PersistedEventRegistry.Waiter waiter = registry.register(eventId)) {
+            Assertions.assertFalse(waiter.await());
+        }
+    }
+
+    @Test
+    void beforeCommit_GivenEventAwaitedByOtherReplica_ShouldNotifyIt() {
+        UUID awaited = UUID.randomUUID();
+        registry.handle(PersistedEventRegistry.AWAITED_CHANNEL, awaited.toString());
+
+        registry.beforeCommit(List.of(UUID.randomUUID(), awaited));
+
+        verify(jdbcTemplate)
+                .query(
+                        any(String.class),
+                        any(ResultSetExtractor.class),
+                        eq(PersistedEventRegistry.PERSISTED_CHANNEL),
+                        eq(awaited.toString()));
+    }
+
+    @Test
+    void handle_GivenPersistedNotification_ShouldCompleteLocalWaiters() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        try (PersistedEventRegistry.Waiter firstWaiter = registry.register(first);
+                PersistedEventRegistry.Waiter secondWaiter = registry.register(second)) {
+            registry.handle(PersistedEventRegistry.PERSISTED_CHANNEL, first + "," + second);
+
+            Assertions.assertTrue(firstWaiter.await());
+            Assertions.assertTrue(secondWaiter.await());
+        }
+    }
+}
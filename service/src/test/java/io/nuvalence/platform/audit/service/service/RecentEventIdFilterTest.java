@@ -0,0 +1,56 @@
+package io.nuvalence.platform.audit.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.platform.audit.service.config.IngestProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+class RecentEventIdFilterTest {
+
+    private static RecentEventIdFilter filter(int size) {
+        IngestProperties properties = new IngestProperties();
+        properties.setRecentEventIds(size);
+        return new RecentEventIdFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void contains_GivenAddedId_ShouldReturnTrue() {
+        RecentEventIdFilter filter = filter(16);
+        UUID eventId = UUID.randomUUID();
+
+        filter.add(eventId);
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(filter.contains(eventId)),
+                () -> Assertions.assertFalse(filter.contains(UUID.randomUUID())),
+                () -> Assertions.assertFalse(filter.contains(null)));
+    }
+
+    @Test
+    void contains_GivenMoreIdsThanCapacity_ShouldForgetOlderIds() {
+        RecentEventIdFilter filter = filter(1);
+        List<UUID> eventIds = Stream.generate(UUID::randomUUID).limit(100).toList();
+
+        eventIds.forEach(filter::add);
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(filter.contains(eventIds.get(99))),
+                () ->
+                        Assertions.assertTrue(
+                                eventIds.stream().filter(filter::contains).count() <= 2));
+    }
+
+    @Test
+    void contains_GivenDisabledFilter_ShouldReturnFalse() {
+        RecentEventIdFilter filter = filter(0);
+        UUID eventId = UUID.randomUUID();
+
+        filter.add(eventId);
+
+        Assertions.assertFalse(filter.contains(eventId));
+    }
+}
@@ -0,0 +1,95 @@
+package io.nuvalence.platform.audit.service.throttling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 0.2, 1.5, 0.9, clock::get);
+    }
+
+    @Test
+    void tryAcquire_GivenLimitReached_ShouldShed() {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(10);
+
+        assertEquals(Optional.empty(), limiter.tryAcquire());
+        assertEquals(10, limiter.getInFlight());
+
+        permits.get(0).onIgnore();
+        assertTrue(limiter.tryAcquire().isPresent());
+    }
+
+    @Test
+    void onSuccess_GivenStableLatency_ShouldGrowLimit() {
+        for (int i = 0; i < 20; i++) {
+            completeBatch(10);
+        }
+
+        assertTrue(limiter.getLimit() > 10, "limit: " + limiter.getLimit());
+    }
+
+    @Test
+    void onSuccess_GivenIncreasingLatency_ShouldShrinkLimit() {
+        for (int i = 0; i < 20; i++) {
+            completeBatch(10);
+        }
+        int stableLimit = limiter.getLimit();
+
+        for (int i = 0; i < 20; i++) {
+            completeBatch(100);
+        }
+
+        assertTrue(
+                limiter.getLimit() < stableLimit,
+                "limit: " + limiter.getLimit() + ", was: " + stableLimit);
+    }
+
+    @Test
+    void onDropped_ShouldBackOffButRespectMinimum() {
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire().orElseThrow().onDropped();
+        }
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void permit_ReleasedTwice_ShouldOnlyReleaseOnce() {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire().orElseThrow();
+        acquire(1);
+
+        permit.onSuccess();
+        permit.onSuccess();
+
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    private void completeBatch(long latencyMillis) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(limiter.getLimit());
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::onSuccess);
+    }
+
+    private List<AdaptiveConcurrencyLimiter.Permit> acquire(int count) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permits.add(limiter.tryAcquire().orElseThrow());
+        }
+        return permits;
+    }
+}
@@ -0,0 +1,53 @@
+package io.nuvalence.platform.audit.service.throttling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.platform.audit.service.config.IngestProperties;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+class IngestBackpressureTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private IngestBackpressure backpressure;
+
+    @BeforeEach
+    void setUp() {
+        IngestProperties properties = new IngestProperties();
+        properties.setPublishBudget(2);
+        properties.setRetryAfter(Duration.ofMillis(1500));
+        meterRegistry = new SimpleMeterRegistry();
+        backpressure = new IngestBackpressure(properties, meterRegistry);
+    }
+
+    @Test
+    void acquire_GivenBudgetExhausted_ShouldRejectWith429() {
+        backpressure.acquire();
+        backpressure.acquire();
+
+        ThrottledRequestException exception =
+                assertThrows(ThrottledRequestException.class, backpressure::acquire);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getHttpStatus());
+        assertEquals(2, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.counter("audit.ingest.publish.rejected").count());
+    }
+
+    @Test
+    void close_ShouldReleaseSlotOnce() {
+        IngestBackpressure.Lease lease = backpressure.acquire();
+        backpressure.acquire();
+
+        lease.close();
+        lease.close();
+
+        assertEquals(1, backpressure.getInFlight());
+        assertEquals(1.0, meterRegistry.get("audit.ingest.publish.inflight").gauge().value());
+    }
+}
@@ -0,0 +1,148 @@
+package io.nuvalence.platform.audit.service.throttling;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.platform.audit.service.config.TenantQuotaProperties;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Set;
+import java.util.UUID;
+
+class TenantQuotaLimiterTest {
+
+    private static final String NOISY_TENANT = "noisy";
+    private static final String BIG_TENANT = "big";
+
+    private SimpleMeterRegistry meterRegistry;
+    private TenantQuotaProperties properties;
+    private TenantQuotaLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TenantQuotaProperties();
+        properties.getDefaults().setRatePerSecond(0.001);
+        properties.getDefaults().setBurst(2);
+        TenantQuotaProperties.Quota bigQuota = new TenantQuotaProperties.Quota();
+        bigQuota.setRatePerSecond(0.001);
+        bigQuota.setBurst(10);
+        properties.getTenants().put(BIG_TENANT, bigQuota);
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new TenantQuotaLimiter(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void acquire_GivenTenantOverQuota_ShouldRejectOnlyThatTenant() {
+        limiter.acquire(NOISY_TENANT, 2);
+
+        ThrottledRequestException exception =
+                assertThrows(
+                        ThrottledRequestException.class, () -> limiter.acquire(NOISY_TENANT, 1));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getHttpStatus());
+        assertDoesNotThrow(() -> limiter.acquire("quiet", 1));
+        assertEquals(2.0, counter("audit.ingest.tenant.admitted", NOISY_TENANT));
+        assertEquals(1.0, counter("audit.ingest.tenant.rejected", NOISY_TENANT));
+    }
+
+    @Test
+    void acquire_GivenTenantOverride_ShouldApplyTenantQuota() {
+        assertDoesNotThrow(() -> limiter.acquire(BIG_TENANT, 10));
+        assertThrows(ThrottledRequestException.class, () -> limiter.acquire(BIG_TENANT, 1));
+    }
+
+    @Test
+    void acquire_GivenMultipleReplicas_ShouldEnforceShareOfQuota() {
+        limiter.setReplicaCount(2);
+
+        assertDoesNotThrow(() -> limiter.acquire(BIG_TENANT, 5));
+        assertThrows(ThrottledRequestException.class, () -> limiter.acquire(BIG_TENANT, 1));
+    }
+
+    @Test
+    void acquire_GivenQuotasDisabled_ShouldAdmitEverything() {
+        properties.setEnabled(false);
+
+        assertDoesNotThrow(() -> limiter.acquire(NOISY_TENANT, 1000));
+    }
+
+    @Test
+    void acquire_GivenReplicaCountChange_ShouldNotGrantNewBurst() {
+        limiter.acquire(BIG_TENANT, 10);
+
+        limiter.setReplicaCount(2);
+
+        assertThrows(ThrottledRequestException.class, () -> limiter.acquire(BIG_TENANT, 1));
+    }
+
+    @Test
+    void evictIdleTenants_GivenTenantWithoutTokens_ShouldKeepItsBucket() {
+        limiter.acquire(NOISY_TENANT, 2);
+
+        limiter.evictIdleTenants();
+
+        assertThrows(ThrottledRequestException.class, () -> limiter.acquire(NOISY_TENANT, 1));
+    }
+
+    @Test
+    void acquire_GivenTooManyTenants_ShouldShareQuotaBetweenFurtherTenants() {
+        properties.setMaxTenants(1);
+        limiter.acquire(NOISY_TENANT, 2);
+
+        limiter.acquire("first", 2);
+
+        assertThrows(ThrottledRequestException.class, () -> limiter.acquire("second", 1));
+        assertEquals(
+                1.0, counter("audit.ingest.tenant.rejected", TenantQuotaLimiter.OTHER_TENANTS));
+    }
+
+    @Test
+    void acquire_GivenTooManyMeteredTenants_ShouldTagFurtherTenantsAsOther() {
+        properties.setMaxMeteredTenants(1);
+
+        limiter.acquire("first", 1);
+        limiter.acquire("second", 1);
+
+        assertEquals(1.0, counter("audit.ingest.tenant.admitted", "first"));
+        assertEquals(
+                1.0, counter("audit.ingest.tenant.admitted", TenantQuotaLimiter.OTHER_TENANTS));
+    }
+
+    @Test
+    void resolveTenant_ShouldTrustOnlyRequestTenantsOfAuthorizedPrincipals() {
+        UUID tenantId = UUID.randomUUID();
+        properties.getTenants().put(tenantId.toString(), new TenantQuotaProperties.Quota());
+        properties.getPrincipalTenants().put("gateway", Set.of(tenantId.toString()));
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken("service-a", null));
+
+        assertEquals("service-a", limiter.resolveTenant(tenantId));
+        assertEquals("service-a", limiter.resolveTenant(UUID.randomUUID()));
+        assertEquals("service-a", limiter.resolveTenant(null));
+
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken("gateway", null));
+        assertEquals(tenantId.toString(), limiter.resolveTenant(tenantId));
+        assertEquals("gateway", limiter.resolveTenant(UUID.randomUUID()));
+
+        SecurityContextHolder.clearContext();
+        assertEquals(TenantQuotaLimiter.UNKNOWN_TENANT, limiter.resolveTenant(tenantId));
+    }
+
+    private double counter(String name, String tenant) {
+        return meterRegistry.get(name).tag("tenant", tenant).counter().count();
+    }
+}
@@ -0,0 +1,60 @@
+package io.nuvalence.platform.audit.service.throttling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class TokenBucketTest {
+
+    private final AtomicLong clock = new AtomicLong(-5_000_000_000L);
+
+    @Test
+    void tryConsume_GivenBurstUsed_ShouldRejectUntilRefilled() {
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+
+        assertEquals(0, bucket.tryConsume(1));
+        assertEquals(0, bucket.tryConsume(2));
+
+        long wait = bucket.tryConsume(1);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+
+        clock.addAndGet(wait);
+        assertEquals(0, bucket.tryConsume(1));
+    }
+
+    @Test
+    void tryConsume_GivenIdleBucket_ShouldNotAccumulateMoreThanBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2, clock::get);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        assertEquals(0, bucket.tryConsume(2));
+        assertTrue(bucket.tryConsume(1) > 0);
+    }
+
+    @Test
+    void tryConsume_GivenConcurrentCallers_ShouldAdmitExactlyBurst() throws Exception {
+        TokenBucket bucket = new TokenBucket(1, 1000, clock::get);
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 4000; i++) {
+            executor.submit(
+                    () -> {
+                        if (bucket.tryConsume(1) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, admitted.get());
+    }
+}
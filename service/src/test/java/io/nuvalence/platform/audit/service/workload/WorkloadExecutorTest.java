@@ -0,0 +1,152 @@
+package io.nuvalence.platform.audit.service.workload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.platform.audit.service.config.WorkloadProperties;
+import io.nuvalence.platform.audit.service.error.ThrottledRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+class WorkloadExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WorkloadExecutor workloadExecutor;
+
+    @BeforeEach
+    void setUp() {
+        WorkloadProperties properties = new WorkloadProperties();
+        properties.getQuery().setConcurrency(1);
+        properties.getQuery().setQueueCapacity(0);
+        properties.getQuery().setTimeout(Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+        workloadExecutor = new WorkloadExecutor(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workloadExecutor.destroy();
+    }
+
+    @Test
+    void execute_BindsWorkloadToWorkerThread() {
+        Optional<Workload> workload =
+                workloadExecutor.execute(Workload.SCAN, WorkloadContext::current);
+
+        assertEquals(Optional.of(Workload.SCAN), workload);
+        assertEquals(Optional.empty(), WorkloadContext.current());
+    }
+
+    @Test
+    void execute_PropagatesRuntimeExceptions() {
+        IllegalArgumentException expected = new IllegalArgumentException("boom");
+
+        IllegalArgumentException actual =
+                assertThrows(
+                        IllegalArgumentException.class,
+                        () ->
+                                workloadExecutor.execute(
+                                        Workload.INGEST,
+                                        () -> {
+                                            throw expected;
+                                        }));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void execute_GivenSaturatedWorkload_ShouldShedRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            caller.submit(
+                    () ->
+                            workloadExecutor.run(
+                                    Workload.QUERY,
+                                    () -> {
+                                        started.countDown();
+                                        awaitQuietly(release);
+                                    }));
+            started.await(1, TimeUnit.SECONDS);
+
+            ThrottledRequestException exception =
+                    assertThrows(
+                            ThrottledRequestException.class,
+                            () -> workloadExecutor.run(Workload.QUERY, () -> {}));
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getHttpStatus());
+            // other workloads are unaffected
+            assertEquals(1, workloadExecutor.execute(Workload.SCAN, () -> 1));
+        } finally {
+            release.countDown();
+            caller.shutdown();
+        }
+    }
+
+    @Test
+    void stream_GivenTaskOutlastingTimeout_ShouldHoldWorkloadUntilItCompletes() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Optional<Workload>> workload = new AtomicReference<>();
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> stream =
+                    caller.submit(
+                            () ->
+                                    workloadExecutor.stream(
+                                            Workload.QUERY,
+                                            () -> {
+                                                workload.set(WorkloadContext.current());
+                                                started.countDown();
+                                                awaitQuietly(release);
+                                            }));
+            started.await(1, TimeUnit.SECONDS);
+            Thread.sleep(300);
+
+            assertThrows(
+                    ThrottledRequestException.class,
+                    () -> workloadExecutor.run(Workload.QUERY, () -> {}));
+            release.countDown();
+            stream.get(1, TimeUnit.SECONDS);
+            assertEquals(Optional.of(Workload.QUERY), workload.get());
+        } finally {
+            release.countDown();
+            caller.shutdown();
+        }
+    }
+
+    @Test
+    void constructor_RegistersQueueMetricsPerWorkload() {
+        for (String workload : new String[] {"ingest", "query", "scan"}) {
+            assertEquals(
+                    0.0,
+                    meterRegistry
+                            .get("executor.queued")
+                            .tag("name", "audit.workload")
+                            .tag("workload", workload)
+                            .gauge()
+                            .value());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}